@@ -79,6 +79,55 @@ def fetch_stock_data(ticker):
         return None
 
 
+@app.route('/api/quote/<ticker>', methods=['GET'])
+def get_quote(ticker):
+    """Latest quote using the Java Stock field names, so QuoteDecoder reads it without mapping."""
+    try:
+        info = yf.Ticker(ticker).info
+        if not info or info.get("regularMarketPrice") is None:
+            return jsonify({"error": f"No quote for {ticker}"}), 404
+        quote = {
+            "stockTicker": ticker.upper(),
+            "stockName": info.get("shortName"),
+            "sector": info.get("sector"),
+            "marketCapAmount": info.get("marketCap"),
+            "volume": info.get("regularMarketVolume"),
+            "ask": info.get("ask"),
+            "bid": info.get("bid"),
+            "open": info.get("regularMarketOpen"),
+            "close": info.get("regularMarketPreviousClose"),
+            "last": info.get("regularMarketPrice"),
+            "markChange": info.get("regularMarketChange"),
+        }
+        return jsonify(quote), 200
+    except Exception as e:
+        return jsonify({"error": str(e)}), 502
+
+
+@app.route('/api/history/<ticker>', methods=['GET'])
+def get_price_history(ticker):
+    """OHLCV bars for [start, end) as a JSON array, oldest first. Used by the Java backfill job."""
+    start = request.args.get("start")
+    end = request.args.get("end")
+    interval = request.args.get("interval", "1d")
+    try:
+        history = yf.Ticker(ticker).history(start=start, end=end, interval=interval, auto_adjust=False)
+        bars = [
+            {
+                "timestamp": int(index.timestamp()),
+                "open": float(row["Open"]),
+                "high": float(row["High"]),
+                "low": float(row["Low"]),
+                "close": float(row["Close"]),
+                "volume": int(row["Volume"]),
+            }
+            for index, row in history.iterrows()
+        ]
+        return jsonify(bars), 200
+    except Exception as e:
+        return jsonify({"error": str(e)}), 502
+
+
 if __name__ == "__main__":
     ticker_stockTicker = input("Enter stock ticker stockTicker: ").upper()
     stock_data = fetch_stock_data(ticker_stockTicker)
@@ -0,0 +1,49 @@
+package com.moneyteam.analysis.model;
+
+import com.moneyteam.trading.service.PurchaseTrade;
+
+// Strategy label plus the account and cost assumptions for a backtest run
+public final class BacktestConfig {
+    private final String strategyName;
+    private final double startingCash;
+    private final double feePerTrade;
+    private final double slippageBps;
+    private final int periodsPerYear;
+
+    public BacktestConfig(String strategyName, double startingCash, double feePerTrade, double slippageBps,
+                          int periodsPerYear) {
+        if (startingCash <= 0) {
+            throw new IllegalArgumentException("Starting cash must be positive");
+        }
+        this.strategyName = strategyName;
+        this.startingCash = startingCash;
+        this.feePerTrade = feePerTrade;
+        this.slippageBps = slippageBps;
+        this.periodsPerYear = periodsPerYear;
+    }
+
+    // Daily bars, fees taken from the trade template, no slippage
+    public static BacktestConfig daily(String strategyName, double startingCash, PurchaseTrade costs) {
+        return new BacktestConfig(strategyName, startingCash, costs.getFees(), 0, 252);
+    }
+
+    public String getStrategyName() {
+        return strategyName;
+    }
+
+    public double getStartingCash() {
+        return startingCash;
+    }
+
+    public double getFeePerTrade() {
+        return feePerTrade;
+    }
+
+    public double getSlippageBps() {
+        return slippageBps;
+    }
+
+    public int getPeriodsPerYear() {
+        return periodsPerYear;
+    }
+}
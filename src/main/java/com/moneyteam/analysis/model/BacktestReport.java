@@ -0,0 +1,82 @@
+package com.moneyteam.analysis.model;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// All results of one backtest run plus cross-ticker summary statistics
+public final class BacktestReport {
+    private final String strategyName;
+    private final List<BacktestResult> results;
+    private final long elapsedMillis;
+
+    public BacktestReport(String strategyName, List<BacktestResult> results, long elapsedMillis) {
+        this.strategyName = strategyName;
+        this.results = List.copyOf(results);
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public String getStrategyName() {
+        return strategyName;
+    }
+
+    public List<BacktestResult> getResults() {
+        return results;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    // Aggregates keyed for JSON output
+    public Map<String, Object> summary() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("strategy", strategyName);
+        m.put("runs", results.size());
+        m.put("elapsedMs", elapsedMillis);
+        if (results.isEmpty()) {
+            return m;
+        }
+        double[] returns = new double[results.size()];
+        long bars = 0;
+        long trades = 0;
+        long wins = 0;
+        double fees = 0;
+        double sharpe = 0;
+        double drawdown = 0;
+        for (int i = 0; i < returns.length; i++) {
+            BacktestResult r = results.get(i);
+            returns[i] = r.getTotalReturn();
+            bars += r.getBars();
+            trades += r.getTrades();
+            wins += r.getWinningTrades();
+            fees += r.getFeesPaid();
+            sharpe += r.getSharpeRatio();
+            drawdown = Math.max(drawdown, r.getMaxDrawdown());
+        }
+        Arrays.sort(returns);
+        m.put("bars", bars);
+        m.put("trades", trades);
+        m.put("winRate", trades == 0 ? 0.0 : (double) wins / trades);
+        m.put("feesPaid", fees);
+        m.put("meanReturn", Arrays.stream(returns).average().orElse(0));
+        m.put("medianReturn", returns[returns.length / 2]);
+        m.put("worstReturn", returns[0]);
+        m.put("bestReturn", returns[returns.length - 1]);
+        m.put("meanSharpe", sharpe / returns.length);
+        m.put("worstDrawdown", drawdown);
+        return m;
+    }
+
+    // Plain-text report: summary line then one line per run
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Backtest ").append(summary()).append('\n');
+        for (BacktestResult result : results) {
+            sb.append(result).append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,79 @@
+package com.moneyteam.analysis.model;
+
+// Outcome of one strategy over one ticker and date range
+public final class BacktestResult {
+    private final String stockTicker;
+    private final DateRange range;
+    private final int bars;
+    private final int trades;
+    private final int winningTrades;
+    private final double feesPaid;
+    private final double finalEquity;
+    private final double totalReturn;
+    private final double maxDrawdown;
+    private final double sharpeRatio;
+
+    public BacktestResult(String stockTicker, DateRange range, int bars, int trades, int winningTrades,
+                          double feesPaid, double finalEquity, double totalReturn, double maxDrawdown,
+                          double sharpeRatio) {
+        this.stockTicker = stockTicker;
+        this.range = range;
+        this.bars = bars;
+        this.trades = trades;
+        this.winningTrades = winningTrades;
+        this.feesPaid = feesPaid;
+        this.finalEquity = finalEquity;
+        this.totalReturn = totalReturn;
+        this.maxDrawdown = maxDrawdown;
+        this.sharpeRatio = sharpeRatio;
+    }
+
+    public String getStockTicker() {
+        return stockTicker;
+    }
+
+    // null when the whole series was replayed
+    public DateRange getRange() {
+        return range;
+    }
+
+    public int getBars() {
+        return bars;
+    }
+
+    // Round trips closed; a position still open at the end is marked to market but not counted
+    public int getTrades() {
+        return trades;
+    }
+
+    public int getWinningTrades() {
+        return winningTrades;
+    }
+
+    public double getFeesPaid() {
+        return feesPaid;
+    }
+
+    public double getFinalEquity() {
+        return finalEquity;
+    }
+
+    public double getTotalReturn() {
+        return totalReturn;
+    }
+
+    public double getMaxDrawdown() {
+        return maxDrawdown;
+    }
+
+    public double getSharpeRatio() {
+        return sharpeRatio;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-8s %-23s bars=%5d trades=%4d win=%4d return=%8.2f%% maxDD=%6.2f%% sharpe=%6.2f fees=%.2f",
+                stockTicker, range == null ? "all" : range.toString(), bars, trades, winningTrades,
+                totalReturn * 100, maxDrawdown * 100, sharpeRatio, feesPaid);
+    }
+}
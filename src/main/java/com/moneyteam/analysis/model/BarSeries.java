@@ -0,0 +1,92 @@
+package com.moneyteam.analysis.model;
+
+import com.moneyteam.marketdata.model.PriceBar;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Column-oriented OHLCV history for one ticker, oldest bar first
+public final class BarSeries {
+    private final String stockTicker;
+    private final long[] epochSeconds;
+    private final double[] open;
+    private final double[] high;
+    private final double[] low;
+    private final double[] close;
+    private final long[] volume;
+
+    public BarSeries(String stockTicker, long[] epochSeconds, double[] open, double[] high, double[] low,
+                     double[] close, long[] volume) {
+        int n = epochSeconds.length;
+        if (open.length != n || high.length != n || low.length != n || close.length != n || volume.length != n) {
+            throw new IllegalArgumentException("Bar columns must all have the same length");
+        }
+        this.stockTicker = stockTicker;
+        this.epochSeconds = epochSeconds;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+    }
+
+    // Bars must already be sorted by time, as PriceHistoryRepository returns them
+    public static BarSeries of(String stockTicker, List<PriceBar> bars) {
+        int n = bars.size();
+        long[] time = new long[n];
+        double[] o = new double[n];
+        double[] h = new double[n];
+        double[] l = new double[n];
+        double[] c = new double[n];
+        long[] v = new long[n];
+        for (int i = 0; i < n; i++) {
+            PriceBar bar = bars.get(i);
+            time[i] = bar.getEpochSecond();
+            o[i] = bar.getOpen();
+            h[i] = bar.getHigh();
+            l[i] = bar.getLow();
+            c[i] = bar.getClose();
+            v[i] = bar.getVolume();
+        }
+        return new BarSeries(stockTicker, time, o, h, l, c, v);
+    }
+
+    public String getStockTicker() {
+        return stockTicker;
+    }
+
+    public int size() {
+        return epochSeconds.length;
+    }
+
+    // First index whose bar starts at or after epochSecond (size() if none)
+    public int indexAtOrAfter(long epochSecond) {
+        int i = Arrays.binarySearch(epochSeconds, epochSecond);
+        return i >= 0 ? i : -i - 1;
+    }
+
+    // Columns are exposed directly for indicator kernels; treat them as read-only
+    public long[] getEpochSeconds() {
+        return epochSeconds;
+    }
+
+    public double[] getOpen() {
+        return open;
+    }
+
+    public double[] getHigh() {
+        return high;
+    }
+
+    public double[] getLow() {
+        return low;
+    }
+
+    public double[] getClose() {
+        return close;
+    }
+
+    public long[] getVolume() {
+        return volume;
+    }
+}
@@ -0,0 +1,135 @@
+package com.moneyteam.analysis.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable covariance and correlation across a ticker set, as of one bar.
+ *
+ * Both matrices are symmetric and stored packed: only the lower triangle, row by row, so entry
+ * (i, j) with i >= j lives at {@code i * (i + 1) / 2 + j}.
+ */
+public final class CorrelationMatrix {
+    private final List<String> tickers;
+    private final Map<String, Integer> index;
+    private final double[] covariance;
+    private final double[] correlation;
+    private final int observations;
+    private final long asOfMillis;
+
+    public CorrelationMatrix(List<String> tickers, double[] covariance, int observations, long asOfMillis) {
+        int n = tickers.size();
+        if (covariance.length != packedSize(n)) {
+            throw new IllegalArgumentException("Expected " + packedSize(n) + " packed entries for " + n + " tickers");
+        }
+        this.tickers = List.copyOf(tickers);
+        Map<String, Integer> positions = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            positions.put(this.tickers.get(i), i);
+        }
+        this.index = Collections.unmodifiableMap(positions);
+        this.covariance = covariance;
+        this.correlation = correlations(covariance, n);
+        this.observations = observations;
+        this.asOfMillis = asOfMillis;
+    }
+
+    public static int packedSize(int n) {
+        return n * (n + 1) / 2;
+    }
+
+    public static int packedIndex(int i, int j) {
+        return i >= j ? i * (i + 1) / 2 + j : j * (j + 1) / 2 + i;
+    }
+
+    private static double[] correlations(double[] covariance, int n) {
+        double[] sd = new double[n];
+        for (int i = 0; i < n; i++) {
+            sd[i] = Math.sqrt(covariance[packedIndex(i, i)]);
+        }
+        double[] correlation = new double[covariance.length];
+        for (int i = 0; i < n; i++) {
+            int row = i * (i + 1) / 2;
+            for (int j = 0; j <= i; j++) {
+                double denominator = sd[i] * sd[j];
+                // A flat series has no defined correlation
+                correlation[row + j] = denominator > 0 ? covariance[row + j] / denominator : Double.NaN;
+            }
+        }
+        return correlation;
+    }
+
+    public List<String> getTickers() {
+        return tickers;
+    }
+
+    public int size() {
+        return tickers.size();
+    }
+
+    // Bars in the rolling window when the snapshot was taken
+    public int getObservations() {
+        return observations;
+    }
+
+    public long getAsOfMillis() {
+        return asOfMillis;
+    }
+
+    // -1 if the ticker is not in the matrix
+    public int indexOf(String stockTicker) {
+        Integer i = index.get(stockTicker);
+        return i == null ? -1 : i;
+    }
+
+    public double covariance(int i, int j) {
+        return covariance[packedIndex(i, j)];
+    }
+
+    public double correlation(int i, int j) {
+        return correlation[packedIndex(i, j)];
+    }
+
+    // NaN if either ticker is not in the matrix
+    public double covariance(String a, String b) {
+        int i = indexOf(a);
+        int j = indexOf(b);
+        return i < 0 || j < 0 ? Double.NaN : covariance(i, j);
+    }
+
+    public double correlation(String a, String b) {
+        int i = indexOf(a);
+        int j = indexOf(b);
+        return i < 0 || j < 0 ? Double.NaN : correlation(i, j);
+    }
+
+    // Per-bar return standard deviation
+    public double volatility(String stockTicker) {
+        int i = indexOf(stockTicker);
+        return i < 0 ? Double.NaN : Math.sqrt(covariance(i, i));
+    }
+
+    // Correlation of one ticker against every ticker, in getTickers() order
+    public double[] correlationRow(String stockTicker) {
+        int i = indexOf(stockTicker);
+        if (i < 0) {
+            throw new IllegalArgumentException("Not in correlation matrix: " + stockTicker);
+        }
+        double[] row = new double[tickers.size()];
+        for (int j = 0; j < row.length; j++) {
+            row[j] = correlation(i, j);
+        }
+        return row;
+    }
+
+    public double[] packedCovariance() {
+        return Arrays.copyOf(covariance, covariance.length);
+    }
+
+    public double[] packedCorrelation() {
+        return Arrays.copyOf(correlation, correlation.length);
+    }
+}
@@ -0,0 +1,40 @@
+package com.moneyteam.analysis.model;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+// Inclusive calendar range, evaluated in UTC against bar start times
+public final class DateRange {
+    private final LocalDate from;
+    private final LocalDate to;
+
+    public DateRange(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Range end " + to + " is before its start " + from);
+        }
+        this.from = from;
+        this.to = to;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public long fromEpochSecond() {
+        return from.atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+    }
+
+    // Exclusive upper bound
+    public long toEpochSecondExclusive() {
+        return to.plusDays(1).atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+    }
+
+    @Override
+    public String toString() {
+        return from + ".." + to;
+    }
+}
@@ -1,6 +1,8 @@
 package com.moneyteam.analysis.model;
 
 public class FinancialStatements {
+    private String stockTicker;
+    private FiscalPeriod fiscalPeriod;
     private double earningsPerShare;
     private double revenue;
     private double grossProfit;
@@ -10,6 +12,7 @@ public class FinancialStatements {
     private double shareholderEquity;
     private double operatingCashFlow;
     private double freeCashFlow;
+    private double debtToEquity;
 
 
     public FinancialStatements(double earningsPerShare, double revenue) {
@@ -17,6 +20,34 @@ public class FinancialStatements {
         this.revenue = revenue;
     }
 
+    // One financial_statements row; fields the table does not carry stay 0
+    public FinancialStatements(String stockTicker, FiscalPeriod fiscalPeriod, double earningsPerShare, double revenue,
+                               double netIncome, double debtToEquity, double operatingCashFlow) {
+        this.stockTicker = stockTicker;
+        this.fiscalPeriod = fiscalPeriod;
+        this.earningsPerShare = earningsPerShare;
+        this.revenue = revenue;
+        this.netIncome = netIncome;
+        this.debtToEquity = debtToEquity;
+        this.operatingCashFlow = operatingCashFlow;
+    }
+
+    public String getStockTicker() {
+        return stockTicker;
+    }
+
+    public void setStockTicker(String stockTicker) {
+        this.stockTicker = stockTicker;
+    }
+
+    public FiscalPeriod getFiscalPeriod() {
+        return fiscalPeriod;
+    }
+
+    public void setFiscalPeriod(FiscalPeriod fiscalPeriod) {
+        this.fiscalPeriod = fiscalPeriod;
+    }
+
     public double getEarningsPerShare() {
         return earningsPerShare;
     }
@@ -88,4 +119,12 @@ public class FinancialStatements {
     public void setFreeCashFlow(double freeCashFlow) {
         this.freeCashFlow = freeCashFlow;
     }
+
+    public double getDebtToEquity() {
+        return debtToEquity;
+    }
+
+    public void setDebtToEquity(double debtToEquity) {
+        this.debtToEquity = debtToEquity;
+    }
 }
@@ -0,0 +1,71 @@
+package com.moneyteam.analysis.model;
+
+// A fiscal year, or one quarter of it; quarter 0 means the full year
+public final class FiscalPeriod implements Comparable<FiscalPeriod> {
+    private final int year;
+    private final int quarter;
+
+    private FiscalPeriod(int year, int quarter) {
+        if (quarter < 0 || quarter > 4) {
+            throw new IllegalArgumentException("Fiscal quarter must be 1-4, or 0 for the full year: " + quarter);
+        }
+        this.year = year;
+        this.quarter = quarter;
+    }
+
+    public static FiscalPeriod of(int year, int quarter) {
+        return new FiscalPeriod(year, quarter);
+    }
+
+    public static FiscalPeriod fullYear(int year) {
+        return new FiscalPeriod(year, 0);
+    }
+
+    // Sortable int form: year * 10 + quarter; a full year sorts before its quarters
+    public static FiscalPeriod fromKey(int key) {
+        return new FiscalPeriod(key / 10, key % 10);
+    }
+
+    public int key() {
+        return year * 10 + quarter;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public int getQuarter() {
+        return quarter;
+    }
+
+    public boolean isFullYear() {
+        return quarter == 0;
+    }
+
+    @Override
+    public int compareTo(FiscalPeriod other) {
+        return Integer.compare(key(), other.key());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FiscalPeriod)) {
+            return false;
+        }
+        FiscalPeriod that = (FiscalPeriod) o;
+        return year == that.year && quarter == that.quarter;
+    }
+
+    @Override
+    public int hashCode() {
+        return key();
+    }
+
+    @Override
+    public String toString() {
+        return quarter == 0 ? "FY" + year : year + "Q" + quarter;
+    }
+}
@@ -0,0 +1,275 @@
+package com.moneyteam.analysis.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable in-memory copy of {@code financial_statements} plus the company fields of
+ * {@code stocks}, keyed by (ticker, fiscal period).
+ *
+ * Statement rows are stored column-wise and grouped by ticker, oldest period first, so a lookup is
+ * a hash probe for the ticker and a binary search over that ticker's period keys. Built once per
+ * refresh by {@link Builder} and then shared by every reader; missing values are NaN.
+ */
+public final class FundamentalsIndex {
+
+    private static final FundamentalsIndex EMPTY = new Builder().build(0);
+
+    private final Map<String, Integer> tickerIndex;
+    private final String[] tickers;
+    private final int[] offsets;          // rows of ticker t are [offsets[t], offsets[t + 1])
+    private final int[] periodKeys;
+    private final double[] revenue;
+    private final double[] netIncome;
+    private final double[] eps;
+    private final double[] debtToEquity;
+    private final double[] cashFlow;
+    private final String[] names;
+    private final String[] sectors;
+    private final double[] marketCap;
+    private final double[] lastPrice;
+    private final long loadedAtMillis;
+
+    private FundamentalsIndex(Map<String, Integer> tickerIndex, String[] tickers, int[] offsets, int[] periodKeys,
+                              double[] revenue, double[] netIncome, double[] eps, double[] debtToEquity,
+                              double[] cashFlow, String[] names, String[] sectors, double[] marketCap,
+                              double[] lastPrice, long loadedAtMillis) {
+        this.tickerIndex = tickerIndex;
+        this.tickers = tickers;
+        this.offsets = offsets;
+        this.periodKeys = periodKeys;
+        this.revenue = revenue;
+        this.netIncome = netIncome;
+        this.eps = eps;
+        this.debtToEquity = debtToEquity;
+        this.cashFlow = cashFlow;
+        this.names = names;
+        this.sectors = sectors;
+        this.marketCap = marketCap;
+        this.lastPrice = lastPrice;
+        this.loadedAtMillis = loadedAtMillis;
+    }
+
+    public static FundamentalsIndex empty() {
+        return EMPTY;
+    }
+
+    public List<String> tickers() {
+        return Collections.unmodifiableList(Arrays.asList(tickers));
+    }
+
+    public int size() {
+        return tickers.length;
+    }
+
+    public int statementCount() {
+        return periodKeys.length;
+    }
+
+    public long getLoadedAtMillis() {
+        return loadedAtMillis;
+    }
+
+    public boolean contains(String stockTicker) {
+        return tickerIndex.containsKey(stockTicker);
+    }
+
+    // null if there is no row for that ticker and period
+    public FinancialStatements statements(String stockTicker, FiscalPeriod period) {
+        Integer t = tickerIndex.get(stockTicker);
+        if (t == null) {
+            return null;
+        }
+        int row = Arrays.binarySearch(periodKeys, offsets[t], offsets[t + 1], period.key());
+        return row < 0 ? null : statementsAt(t, row);
+    }
+
+    // Most recent period on file, quarter or full year; null if none
+    public FinancialStatements latest(String stockTicker) {
+        Integer t = tickerIndex.get(stockTicker);
+        if (t == null || offsets[t] == offsets[t + 1]) {
+            return null;
+        }
+        return statementsAt(t, offsets[t + 1] - 1);
+    }
+
+    // Every period on file for the ticker, oldest first
+    public List<FinancialStatements> history(String stockTicker) {
+        Integer t = tickerIndex.get(stockTicker);
+        if (t == null) {
+            return new ArrayList<>();
+        }
+        List<FinancialStatements> rows = new ArrayList<>(offsets[t + 1] - offsets[t]);
+        for (int row = offsets[t]; row < offsets[t + 1]; row++) {
+            rows.add(statementsAt(t, row));
+        }
+        return rows;
+    }
+
+    /**
+     * Trailing twelve-month EPS: the last four quarters when they are consecutive, otherwise the
+     * latest full year, otherwise NaN.
+     */
+    public double trailingEps(String stockTicker) {
+        Integer t = tickerIndex.get(stockTicker);
+        if (t == null) {
+            return Double.NaN;
+        }
+        double sum = 0;
+        int quarters = 0;
+        int expected = -1;
+        double fullYear = Double.NaN;
+        for (int row = offsets[t + 1] - 1; row >= offsets[t]; row--) {
+            int key = periodKeys[row];
+            if (key % 10 == 0) {
+                if (Double.isNaN(fullYear)) {
+                    fullYear = eps[row];
+                }
+                continue;
+            }
+            if (quarters < 4 && (expected < 0 || key == expected) && !Double.isNaN(eps[row])) {
+                sum += eps[row];
+                quarters++;
+                expected = key % 10 == 1 ? (key / 10 - 1) * 10 + 4 : key - 1;
+            } else if (quarters < 4) {
+                quarters = 5;   // gap: fall back to the full year
+            }
+        }
+        return quarters == 4 ? sum : fullYear;
+    }
+
+    /**
+     * Key metrics at the given price; pass NaN to use the last price from the stocks table.
+     * null if the ticker is unknown.
+     */
+    public KeyMetrics keyMetrics(String stockTicker, double price) {
+        Integer t = tickerIndex.get(stockTicker);
+        if (t == null) {
+            return null;
+        }
+        double p = Double.isNaN(price) ? lastPrice[t] : price;
+        double ttm = trailingEps(stockTicker);
+        double pe = ttm > 0 ? p / ttm : Double.NaN;
+        int last = offsets[t + 1] - 1;
+        double leverage = last >= offsets[t] ? debtToEquity[last] : Double.NaN;
+        return new KeyMetrics(stockTicker, names[t], pe, ttm, marketCap[t], leverage);
+    }
+
+    public String sector(String stockTicker) {
+        Integer t = tickerIndex.get(stockTicker);
+        return t == null ? null : sectors[t];
+    }
+
+    private FinancialStatements statementsAt(int t, int row) {
+        return new FinancialStatements(tickers[t], FiscalPeriod.fromKey(periodKeys[row]), eps[row], revenue[row],
+                netIncome[row], debtToEquity[row], cashFlow[row]);
+    }
+
+    // Collects rows from the loader in any order; not thread-safe
+    public static final class Builder {
+        private final List<StatementRow> statementRows = new ArrayList<>();
+        private final Map<String, Company> companies = new HashMap<>();
+
+        public Builder addStatement(String stockTicker, int fiscalYear, int fiscalQuarter, double revenue,
+                                    double netIncome, double eps, double debtToEquity, double cashFlow) {
+            statementRows.add(new StatementRow(stockTicker, FiscalPeriod.of(fiscalYear, fiscalQuarter).key(),
+                    revenue, netIncome, eps, debtToEquity, cashFlow));
+            return this;
+        }
+
+        public Builder addCompany(String stockTicker, String stockName, String sector, double marketCap,
+                                  double lastPrice) {
+            companies.put(stockTicker, new Company(stockName, sector, marketCap, lastPrice));
+            return this;
+        }
+
+        public FundamentalsIndex build(long loadedAtMillis) {
+            statementRows.sort(Comparator.<StatementRow, String>comparing(r -> r.ticker).thenComparingInt(r -> r.key));
+            for (StatementRow row : statementRows) {
+                companies.putIfAbsent(row.ticker, new Company(null, null, Double.NaN, Double.NaN));
+            }
+            String[] tickers = companies.keySet().toArray(new String[0]);
+            Arrays.sort(tickers);
+
+            int n = tickers.length;
+            Map<String, Integer> index = new HashMap<>(n * 2);
+            String[] stockNames = new String[n];
+            String[] sectors = new String[n];
+            double[] marketCap = new double[n];
+            double[] lastPrice = new double[n];
+            for (int t = 0; t < n; t++) {
+                index.put(tickers[t], t);
+                Company company = companies.get(tickers[t]);
+                stockNames[t] = company.name;
+                sectors[t] = company.sector;
+                marketCap[t] = company.marketCap;
+                lastPrice[t] = company.lastPrice;
+            }
+
+            // Rows are sorted by ticker like `tickers`, so per-ticker counts turn into offsets
+            int rows = statementRows.size();
+            int[] offsets = new int[n + 1];
+            int[] keys = new int[rows];
+            double[] revenue = new double[rows];
+            double[] netIncome = new double[rows];
+            double[] eps = new double[rows];
+            double[] debtToEquity = new double[rows];
+            double[] cashFlow = new double[rows];
+            for (int r = 0; r < rows; r++) {
+                StatementRow row = statementRows.get(r);
+                offsets[index.get(row.ticker) + 1]++;
+                keys[r] = row.key;
+                revenue[r] = row.revenue;
+                netIncome[r] = row.netIncome;
+                eps[r] = row.eps;
+                debtToEquity[r] = row.debtToEquity;
+                cashFlow[r] = row.cashFlow;
+            }
+            for (int t = 0; t < n; t++) {
+                offsets[t + 1] += offsets[t];
+            }
+            return new FundamentalsIndex(Collections.unmodifiableMap(index), tickers, offsets, keys, revenue,
+                    netIncome, eps, debtToEquity, cashFlow, stockNames, sectors, marketCap, lastPrice, loadedAtMillis);
+        }
+    }
+
+    private static final class StatementRow {
+        final String ticker;
+        final int key;
+        final double revenue;
+        final double netIncome;
+        final double eps;
+        final double debtToEquity;
+        final double cashFlow;
+
+        StatementRow(String ticker, int key, double revenue, double netIncome, double eps, double debtToEquity,
+                     double cashFlow) {
+            this.ticker = ticker;
+            this.key = key;
+            this.revenue = revenue;
+            this.netIncome = netIncome;
+            this.eps = eps;
+            this.debtToEquity = debtToEquity;
+            this.cashFlow = cashFlow;
+        }
+    }
+
+    private static final class Company {
+        final String name;
+        final String sector;
+        final double marketCap;
+        final double lastPrice;
+
+        Company(String name, String sector, double marketCap, double lastPrice) {
+            this.name = name;
+            this.sector = sector;
+            this.marketCap = marketCap;
+            this.lastPrice = lastPrice;
+        }
+    }
+}
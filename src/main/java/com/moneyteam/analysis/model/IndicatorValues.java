@@ -0,0 +1,92 @@
+package com.moneyteam.analysis.model;
+
+// Indicator readings for one ticker as of a bar close; NaN = not enough history yet
+public final class IndicatorValues {
+    private final String stockTicker;
+    private final long computedAtMillis;
+    private final double movingAverage;
+    private final double ema;
+    private final double rsi;
+    private final double macd;
+    private final double macdSignal;
+    private final double bollingerHigh;
+    private final double bollingerLow;
+    private final double atr;
+    private final double vwap;
+
+    public IndicatorValues(String stockTicker, long computedAtMillis, double movingAverage, double ema, double rsi,
+                           double macd, double macdSignal, double bollingerHigh, double bollingerLow,
+                           double atr, double vwap) {
+        this.stockTicker = stockTicker;
+        this.computedAtMillis = computedAtMillis;
+        this.movingAverage = movingAverage;
+        this.ema = ema;
+        this.rsi = rsi;
+        this.macd = macd;
+        this.macdSignal = macdSignal;
+        this.bollingerHigh = bollingerHigh;
+        this.bollingerLow = bollingerLow;
+        this.atr = atr;
+        this.vwap = vwap;
+    }
+
+    public String getStockTicker() {
+        return stockTicker;
+    }
+
+    public long getComputedAtMillis() {
+        return computedAtMillis;
+    }
+
+    public double getMovingAverage() {
+        return movingAverage;
+    }
+
+    public double getEma() {
+        return ema;
+    }
+
+    public double getRsi() {
+        return rsi;
+    }
+
+    public double getMacd() {
+        return macd;
+    }
+
+    public double getMacdSignal() {
+        return macdSignal;
+    }
+
+    public double getBollingerHigh() {
+        return bollingerHigh;
+    }
+
+    public double getBollingerLow() {
+        return bollingerLow;
+    }
+
+    public double getAtr() {
+        return atr;
+    }
+
+    public double getVwap() {
+        return vwap;
+    }
+
+    @Override
+    public String toString() {
+        return "IndicatorValues {" +
+                "stockTicker='" + stockTicker + '\'' +
+                ", movingAverage=" + movingAverage +
+                ", ema=" + ema +
+                ", rsi=" + rsi +
+                ", macd=" + macd +
+                ", macdSignal=" + macdSignal +
+                ", bollingerHigh=" + bollingerHigh +
+                ", bollingerLow=" + bollingerLow +
+                ", atr=" + atr +
+                ", vwap=" + vwap +
+                '}';
+    }
+}
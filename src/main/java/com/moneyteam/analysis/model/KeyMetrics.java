@@ -1,7 +1,6 @@
 package com.moneyteam.analysis.model;
 
-import java.text.NumberFormat;
-import java.util.Locale;
+import com.moneyteam.common.util.Formatters;
 
 public class KeyMetrics {
     private String stockTicker;
@@ -16,6 +15,24 @@ public class KeyMetrics {
     private double debtToEquityRatio;
     private Double forwardPERatio;
 
+    public KeyMetrics() {
+    }
+
+    // Metrics derivable from financial_statements and the stocks row; the rest are left NaN
+    public KeyMetrics(String stockTicker, String stockName, double priceToEarningsRatio, double earningsPerShare,
+                      double marketCap, double debtToEquityRatio) {
+        this.stockTicker = stockTicker;
+        this.stockName = stockName;
+        this.priceToEarningsRatio = priceToEarningsRatio;
+        this.priceToBookRatio = Double.NaN;
+        this.dividendYield = Double.NaN;
+        this.earningsPerShare = earningsPerShare;
+        this.beta = Double.NaN;
+        this.marketCap = marketCap;
+        this.returnOnEquity = Double.NaN;
+        this.debtToEquityRatio = debtToEquityRatio;
+    }
+
     // Getter for stockTicker
     public String getStockTicker() {
         return stockTicker;
@@ -28,11 +45,12 @@ public class KeyMetrics {
 
     // Formatter for dollar values with commas
     private String formatDollarAmount(Double amount) {
-        if (amount == null) {
-            return "N/A";
-        }
-        NumberFormat formatter = NumberFormat.getCurrencyInstance(Locale.US);
-        return formatter.format(amount);
+        // shared per-thread formatter instead of building a NumberFormat per value
+        return Formatters.currency(amount);
+    }
+
+    public String getFormattedMarketCap() {
+        return formatDollarAmount(marketCap);
     }
 
     // Getters and setters for each field
@@ -44,5 +62,35 @@ public class KeyMetrics {
         this.priceToEarningsRatio = priceToEarningsRatio;
     }
 
-    // Add similar methods for other metrics
+    public double getPriceToBookRatio() {
+        return priceToBookRatio;
+    }
+
+    public double getDividendYield() {
+        return dividendYield;
+    }
+
+    public double getEarningsPerShare() {
+        return earningsPerShare;
+    }
+
+    public double getBeta() {
+        return beta;
+    }
+
+    public double getMarketCap() {
+        return marketCap;
+    }
+
+    public double getReturnOnEquity() {
+        return returnOnEquity;
+    }
+
+    public double getDebtToEquityRatio() {
+        return debtToEquityRatio;
+    }
+
+    public Double getForwardPERatio() {
+        return forwardPERatio;
+    }
 }
@@ -0,0 +1,87 @@
+package com.moneyteam.analysis.model;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+
+/**
+ * Column-oriented contract terms for every listed option on one underlying.
+ *
+ * Contracts should be grouped by expiration (as the chain index returns them) so per-expiry terms
+ * are computed once per group. The log of each strike and the expiry instant are derived here once,
+ * since pricing runs far more often than the chain changes.
+ */
+public final class OptionChain {
+
+    // Listed equity options stop trading at 16:00 New York time on expiration day
+    private static final ZoneId EXCHANGE_ZONE = ZoneId.of("America/New_York");
+    private static final LocalTime EXPIRY_TIME = LocalTime.of(16, 0);
+
+    private final String stockTicker;
+    private final int[] expiryEpochDays;
+    private final double[] strikes;
+    private final boolean[] calls;
+    private final double dividendYield;
+    private final long[] expiryEpochSeconds;
+    private final double[] logStrikes;
+
+    public OptionChain(String stockTicker, int[] expiryEpochDays, double[] strikes, boolean[] calls,
+                       double dividendYield) {
+        int n = strikes.length;
+        if (expiryEpochDays.length != n || calls.length != n) {
+            throw new IllegalArgumentException("Option chain columns must all have the same length");
+        }
+        this.stockTicker = stockTicker;
+        this.expiryEpochDays = expiryEpochDays;
+        this.strikes = strikes;
+        this.calls = calls;
+        this.dividendYield = dividendYield;
+        this.expiryEpochSeconds = new long[n];
+        this.logStrikes = new double[n];
+        long lastSeconds = 0;
+        for (int i = 0; i < n; i++) {
+            if (!(strikes[i] > 0)) {
+                throw new IllegalArgumentException("Strike must be positive: " + strikes[i]);
+            }
+            if (i == 0 || expiryEpochDays[i] != expiryEpochDays[i - 1]) {
+                lastSeconds = LocalDate.ofEpochDay(expiryEpochDays[i]).atTime(EXPIRY_TIME)
+                        .atZone(EXCHANGE_ZONE).toEpochSecond();
+            }
+            expiryEpochSeconds[i] = lastSeconds;
+            logStrikes[i] = Math.log(strikes[i]);
+        }
+    }
+
+    public String getStockTicker() {
+        return stockTicker;
+    }
+
+    public int size() {
+        return strikes.length;
+    }
+
+    public int[] getExpiryEpochDays() {
+        return expiryEpochDays;
+    }
+
+    public double[] getStrikes() {
+        return strikes;
+    }
+
+    public boolean[] getCalls() {
+        return calls;
+    }
+
+    // Continuous annual yield; 0 for non-payers
+    public double getDividendYield() {
+        return dividendYield;
+    }
+
+    public long[] getExpiryEpochSeconds() {
+        return expiryEpochSeconds;
+    }
+
+    public double[] getLogStrikes() {
+        return logStrikes;
+    }
+}
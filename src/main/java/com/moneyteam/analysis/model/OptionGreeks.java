@@ -0,0 +1,70 @@
+package com.moneyteam.analysis.model;
+
+/**
+ * Black-Scholes value and sensitivities for every contract of an {@link OptionChain}, in the
+ * chain's order. Per unit of underlying (not per 100-share contract); vega and rho are per 1.00
+ * change in vol and rate, theta per year. NaN where the contract had no volatility.
+ */
+public final class OptionGreeks {
+    private final String stockTicker;
+    private final double spot;
+    private final long valuedAtMillis;
+    private final double[] price;
+    private final double[] delta;
+    private final double[] gamma;
+    private final double[] vega;
+    private final double[] theta;
+    private final double[] rho;
+
+    public OptionGreeks(String stockTicker, double spot, long valuedAtMillis, int size) {
+        this.stockTicker = stockTicker;
+        this.spot = spot;
+        this.valuedAtMillis = valuedAtMillis;
+        this.price = new double[size];
+        this.delta = new double[size];
+        this.gamma = new double[size];
+        this.vega = new double[size];
+        this.theta = new double[size];
+        this.rho = new double[size];
+    }
+
+    public String getStockTicker() {
+        return stockTicker;
+    }
+
+    public double getSpot() {
+        return spot;
+    }
+
+    public long getValuedAtMillis() {
+        return valuedAtMillis;
+    }
+
+    public int size() {
+        return price.length;
+    }
+
+    public double[] getPrice() {
+        return price;
+    }
+
+    public double[] getDelta() {
+        return delta;
+    }
+
+    public double[] getGamma() {
+        return gamma;
+    }
+
+    public double[] getVega() {
+        return vega;
+    }
+
+    public double[] getTheta() {
+        return theta;
+    }
+
+    public double[] getRho() {
+        return rho;
+    }
+}
@@ -0,0 +1,53 @@
+package com.moneyteam.analysis.model;
+
+import java.time.LocalDate;
+
+// One quoted option price (the mid), as posted by a chain snapshot
+public class OptionQuote {
+    private LocalDate expiration;
+    private double strike;
+    private boolean call;
+    private double price;
+
+    public OptionQuote() {
+    }
+
+    public OptionQuote(LocalDate expiration, double strike, boolean call, double price) {
+        this.expiration = expiration;
+        this.strike = strike;
+        this.call = call;
+        this.price = price;
+    }
+
+    public LocalDate getExpiration() {
+        return expiration;
+    }
+
+    public void setExpiration(LocalDate expiration) {
+        this.expiration = expiration;
+    }
+
+    public double getStrike() {
+        return strike;
+    }
+
+    public void setStrike(double strike) {
+        this.strike = strike;
+    }
+
+    public boolean isCall() {
+        return call;
+    }
+
+    public void setCall(boolean call) {
+        this.call = call;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public void setPrice(double price) {
+        this.price = price;
+    }
+}
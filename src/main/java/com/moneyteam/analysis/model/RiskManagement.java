@@ -1,128 +1,120 @@
 package com.moneyteam.analysis.model;
 
-public class RiskManagement {
-    public static String stockTicker;
-    public static String stockName;
-    public static String sector;
-    public static long marketCapAmount;
-    public static int volume;
-    public static double sizzle_Index;
-    public static int numberOfShares;
-    public static double open, close, last;
-
-    public static String getStockTicker() {
-        return stockTicker;
+import com.moneyteam.marketdata.model.Stock;
+
+/**
+ * Immutable risk view of one ticker at one point in time, published through
+ * AnalysisSnapshotRegistry alongside its {@link TechnicalAnalysis}.
+ */
+public final class RiskManagement {
+    private final String stockTicker;
+    private final String stockName;
+    private final String sector;
+    private final long marketCapAmount;
+    private final int volume;
+    private final double sizzle_Index;
+    private final int numberOfShares;
+    private final double open;
+    private final double close;
+    private final double last;
+    private final long asOfMillis;
+
+    public RiskManagement(String stockTicker, double last, String stockName, String sector, long marketCap,
+                          int volume, double sizzle_Index, int shares, double open, double close) {
+        this(stockTicker, last, stockName, sector, marketCap, volume, sizzle_Index, shares, open, close,
+                System.currentTimeMillis());
     }
 
-    public void setStockTicker(String stockTicker) {
+    private RiskManagement(String stockTicker, double last, String stockName, String sector, long marketCap,
+                           int volume, double sizzle_Index, int shares, double open, double close, long asOfMillis) {
         this.stockTicker = stockTicker;
+        this.last = last;
+        this.stockName = stockName;
+        this.sector = sector;
+        this.marketCapAmount = marketCap;
+        this.volume = volume;
+        this.sizzle_Index = sizzle_Index;
+        this.numberOfShares = shares;
+        this.open = open;
+        this.close = close;
+        this.asOfMillis = asOfMillis;
     }
 
-    public static String getStockName() {
-        return stockName;
+    public static RiskManagement from(Stock quote, long asOfMillis) {
+        return new RiskManagement(quote.getStockTicker(), price(quote.getLast()), quote.getStockName(),
+                quote.getSector(), quote.getMarketCapAmount() == null ? 0 : quote.getMarketCapAmount().longValue(),
+                quote.getVolume() == null ? 0 : quote.getVolume(),
+                quote.getSizzleIndex() == null ? 0 : quote.getSizzleIndex(),
+                quote.getNumberOfShares() == null ? 0 : quote.getNumberOfShares(),
+                price(quote.getOpen()), price(quote.getClose()), asOfMillis);
     }
 
-    public void setStockName(String stockName) {
-        this.stockName = stockName;
+    private static double price(Double value) {
+        return value == null ? Double.NaN : value;
     }
 
-    public static String getSector() {
-        return sector;
+    public String getStockTicker() {
+        return stockTicker;
     }
 
-    public void setSector(String sector) {
-        this.sector = sector;
+    public String getStockName() {
+        return stockName;
     }
 
-    public static long getMarketCap() {
-        return marketCapAmount;
+    public String getSector() {
+        return sector;
     }
 
-    public static void setMarketCap(long marketCap) {
-        RiskManagement.marketCapAmount = marketCap;
+    public long getMarketCap() {
+        return marketCapAmount;
     }
 
-    public static int getVolume() {
+    public int getVolume() {
         return volume;
     }
 
-    public static void setVolume(int volume) {
-        RiskManagement.volume = volume;
-    }
-
-    public static double getSizzle_Index() {
+    public double getSizzle_Index() {
         return sizzle_Index;
     }
 
-    public static void setSizzle_Index(double sizzle_Index) {
-        RiskManagement.sizzle_Index = sizzle_Index;
-    }
-
-    public static int getShares() {
+    public int getShares() {
         return numberOfShares;
     }
 
-    public static void setShares(int shares) {
-        RiskManagement.numberOfShares = shares;
-    }
-
-    public static double getOpen() {
+    public double getOpen() {
         return open;
     }
 
-    public static void setOpen(double open) {
-        RiskManagement.open = open;
-    }
-
-    public static double getClose() {
+    public double getClose() {
         return close;
     }
 
-    public static void setClose(double close) {
-        RiskManagement.close = close;
-    }
-
-    public static double getLast() {
+    public double getLast() {
         return last;
     }
 
-    public static void setLast(double last) {
-        RiskManagement.last = last;
+    public long getAsOfMillis() {
+        return asOfMillis;
     }
 
-    public RiskManagement(String stockTicker, double last, String stockName, String sector, int marketCap,
-                          int volume, double sizzle_Index, int shares, double open, double close) {
-        
-        this.stockTicker = stockTicker;
-        this.last = last;
-        this.stockName = stockName;
-        this.sector = sector;
-        this.marketCapAmount = marketCap;
-        this.volume = volume;
-        this.sizzle_Index = sizzle_Index;
-        this.numberOfShares = shares;
-        this.open = open;
-        this.close = close;
+    // Move since the previous close, as a fraction (0.02 = +2%); NaN if either price is missing
+    public double getDayChange() {
+        return close == 0 ? Double.NaN : (last - close) / close;
     }
 
-//    for(int i = 0; i < INVENTORY_SIZE; i++) {
-//        stock[i] = new Stock(String stockTicker, double last, String stockName, String sector, int marketCap,
-//        int volume, double sizzle_Index, int shares, double open, double close);
-//    }
-//    int stockdata = stock[0].getPrice();
     @Override
     public String toString() {
-        return "Stock{" +
-                "ticker" + stockTicker +
-                "last" + last +
-                "name" + stockName +
-                "stockSector" + sector +
-                "marketCap" + marketCapAmount +
-                "volume" + volume +
-                "sizzleIndex" + sizzle_Index +
-                "shares" + numberOfShares +
-                "open" + open +
-                "close" + close +
-        "}";
+        return "RiskManagement {" +
+                "ticker=" + stockTicker +
+                ", last=" + last +
+                ", name=" + stockName +
+                ", sector=" + sector +
+                ", marketCap=" + marketCapAmount +
+                ", volume=" + volume +
+                ", sizzleIndex=" + sizzle_Index +
+                ", shares=" + numberOfShares +
+                ", open=" + open +
+                ", close=" + close +
+                '}';
     }
 }
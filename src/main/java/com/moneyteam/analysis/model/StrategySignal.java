@@ -0,0 +1,54 @@
+package com.moneyteam.analysis.model;
+
+import com.moneyteam.trading.model.enums.OrderSide;
+
+// A BUY or SELL raised by a live strategy at a bar close
+public final class StrategySignal {
+    private final String strategyName;
+    private final String stockTicker;
+    private final OrderSide side;
+    private final long barEpochSecond;
+    private final double price;
+    private final long evaluatedAtMillis;
+
+    public StrategySignal(String strategyName, String stockTicker, OrderSide side, long barEpochSecond, double price,
+                          long evaluatedAtMillis) {
+        this.strategyName = strategyName;
+        this.stockTicker = stockTicker;
+        this.side = side;
+        this.barEpochSecond = barEpochSecond;
+        this.price = price;
+        this.evaluatedAtMillis = evaluatedAtMillis;
+    }
+
+    public String getStrategyName() {
+        return strategyName;
+    }
+
+    public String getStockTicker() {
+        return stockTicker;
+    }
+
+    public OrderSide getSide() {
+        return side;
+    }
+
+    // Open time of the bar that triggered the signal
+    public long getBarEpochSecond() {
+        return barEpochSecond;
+    }
+
+    // Close of that bar
+    public double getPrice() {
+        return price;
+    }
+
+    public long getEvaluatedAtMillis() {
+        return evaluatedAtMillis;
+    }
+
+    @Override
+    public String toString() {
+        return strategyName + " " + side + " " + stockTicker + " @ " + price;
+    }
+}
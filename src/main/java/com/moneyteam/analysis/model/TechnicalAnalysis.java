@@ -1,130 +1,131 @@
 package com.moneyteam.analysis.model;
 
-public class TechnicalAnalysis {
-    public  String stockTicker;
-    public  String stockName;
-    public  String sector;
-    public static long marketCapAmount;
-    public static int volume;
-    public static double sizzle_Index;
-    public static int numberOfShares;
-    public static double open;
-    public static double close;
-    public static double last;
-
-    public  String getStockTicker() {
-        return stockTicker;
+import com.moneyteam.marketdata.model.Stock;
+
+/**
+ * Immutable technical view of one ticker at one point in time. Instances are published through
+ * AnalysisSnapshotRegistry; a newer quote or indicator update replaces the snapshot rather than
+ * mutating it, so readers on any thread always see a consistent set of fields.
+ */
+public final class TechnicalAnalysis {
+    private final String stockTicker;
+    private final String stockName;
+    private final String sector;
+    private final long marketCapAmount;
+    private final int volume;
+    private final double sizzle_Index;
+    private final int numberOfShares;
+    private final double open;
+    private final double close;
+    private final double last;
+    private final long asOfMillis;
+    // Latest closed-bar indicators, or null before the first bar closes
+    private final IndicatorValues indicators;
+
+    public TechnicalAnalysis(String stockTicker, double last, String stockName, String sector, long marketCap,
+                             int volume, double sizzle_Index, int shares, double open, double close) {
+        this(stockTicker, last, stockName, sector, marketCap, volume, sizzle_Index, shares, open, close,
+                System.currentTimeMillis(), null);
     }
 
-    public void setStockTicker(String stockTicker) {
+    private TechnicalAnalysis(String stockTicker, double last, String stockName, String sector, long marketCap,
+                              int volume, double sizzle_Index, int shares, double open, double close,
+                              long asOfMillis, IndicatorValues indicators) {
         this.stockTicker = stockTicker;
+        this.last = last;
+        this.stockName = stockName;
+        this.sector = sector;
+        this.marketCapAmount = marketCap;
+        this.volume = volume;
+        this.sizzle_Index = sizzle_Index;
+        this.numberOfShares = shares;
+        this.open = open;
+        this.close = close;
+        this.asOfMillis = asOfMillis;
+        this.indicators = indicators;
     }
 
-    public  String getStockName() {
-        return stockName;
+    // Snapshot a quote; missing quote fields read as 0 (NaN for prices)
+    public static TechnicalAnalysis from(Stock quote, long asOfMillis, IndicatorValues indicators) {
+        return new TechnicalAnalysis(quote.getStockTicker(), price(quote.getLast()), quote.getStockName(),
+                quote.getSector(), quote.getMarketCapAmount() == null ? 0 : quote.getMarketCapAmount().longValue(),
+                quote.getVolume() == null ? 0 : quote.getVolume(),
+                quote.getSizzleIndex() == null ? 0 : quote.getSizzleIndex(),
+                quote.getNumberOfShares() == null ? 0 : quote.getNumberOfShares(),
+                price(quote.getOpen()), price(quote.getClose()), asOfMillis, indicators);
     }
 
-    public void setStockName(String stockName) {
-        this.stockName = stockName;
+    public TechnicalAnalysis withIndicators(IndicatorValues indicators) {
+        return new TechnicalAnalysis(stockTicker, last, stockName, sector, marketCapAmount, volume, sizzle_Index,
+                numberOfShares, open, close, asOfMillis, indicators);
     }
 
-    public  String getSector() {
-        return sector;
+    private static double price(Double value) {
+        return value == null ? Double.NaN : value;
     }
 
-    public void setSector(String sector) {
-        this.sector = sector;
+    public String getStockTicker() {
+        return stockTicker;
     }
 
-    public  long getMarketCap() {
-        return marketCapAmount;
+    public String getStockName() {
+        return stockName;
     }
 
-    public  void setMarketCap(long marketCap) {
-        TechnicalAnalysis.marketCapAmount = marketCap;
+    public String getSector() {
+        return sector;
     }
 
-    public  int getVolume() {
-        return volume;
+    public long getMarketCap() {
+        return marketCapAmount;
     }
 
-    public  void setVolume(int volume) {
-        TechnicalAnalysis.volume = volume;
+    public int getVolume() {
+        return volume;
     }
 
-    public  double getSizzle_Index() {
+    public double getSizzle_Index() {
         return sizzle_Index;
     }
 
-    public  void setSizzle_Index(double sizzle_Index) {
-        TechnicalAnalysis.sizzle_Index = sizzle_Index;
-    }
-
-    public  int getShares() {
+    public int getShares() {
         return numberOfShares;
     }
 
-    public  void setShares(int shares) {
-        TechnicalAnalysis.numberOfShares = shares;
-    }
-
-    public  double getOpen() {
+    public double getOpen() {
         return open;
     }
 
-    public  void setOpen(double open) {
-        TechnicalAnalysis.open = open;
-    }
-
-    public  double getClose() {
+    public double getClose() {
         return close;
     }
 
-    public  void setClose(double close) {
-        TechnicalAnalysis.close = close;
-    }
-
-    public  double getLast() {
+    public double getLast() {
         return last;
     }
 
-    public  void setLast(double last) {
-        TechnicalAnalysis.last = last;
+    public long getAsOfMillis() {
+        return asOfMillis;
     }
 
-    public TechnicalAnalysis(String stockTicker, double last, String stockName, String sector, int marketCap,
-                             int volume, double sizzle_Index, int shares, double open, double close) {
-        
-        this.stockTicker = stockTicker;
-        this.last = last;
-        this.stockName = stockName;
-        this.sector = sector;
-        this.marketCapAmount = marketCap;
-        this.volume = volume;
-        this.sizzle_Index = sizzle_Index;
-        this.numberOfShares = shares;
-        this.open = open;
-        this.close = close;
+    public IndicatorValues getIndicators() {
+        return indicators;
     }
 
-//    for(int i = 0; i < INVENTORY_SIZE; i++) {
-//        stock[i] = new Stock(String stockTicker, double last, String stockName, String sector, int marketCap,
-//        int volume, double sizzle_Index, int shares, double open, double close);
-//    }
-//    int stockdata = stock[0].getPrice();
     @Override
     public String toString() {
-        return "Stock{" +
-                "ticker" + stockTicker +
-                "last" + last +
-                "name" + stockName +
-                "stockSector" + sector +
-                "marketCap" + marketCapAmount +
-                "volume" + volume +
-                "sizzleIndex" + sizzle_Index +
-                "shares" + numberOfShares +
-                "open" + open +
-                "close" + close +
-        "}";
+        return "TechnicalAnalysis {" +
+                "ticker=" + stockTicker +
+                ", last=" + last +
+                ", name=" + stockName +
+                ", sector=" + sector +
+                ", marketCap=" + marketCapAmount +
+                ", volume=" + volume +
+                ", sizzleIndex=" + sizzle_Index +
+                ", shares=" + numberOfShares +
+                ", open=" + open +
+                ", close=" + close +
+                ", indicators=" + indicators +
+                '}';
     }
 }
@@ -0,0 +1,151 @@
+package com.moneyteam.analysis.model;
+
+/**
+ * One-day (or n-day) value-at-risk of a book, by three methods. Losses are reported as positive
+ * dollar amounts at the given confidence; CVaR is the mean loss beyond the VaR.
+ */
+public final class ValueAtRisk {
+    private final String scope;
+    private final int positions;
+    private final double grossExposure;
+    private final double netExposure;
+    private final double confidence;
+    private final int horizonDays;
+    private final int observations;
+    private final int paths;
+    private final double historicalVar;
+    private final double historicalCvar;
+    private final double parametricVar;
+    private final double parametricCvar;
+    private final double monteCarloVar;
+    private final double monteCarloCvar;
+    private final double intradayVar;
+    private final int intradayObservations;
+    private final long asOfMillis;
+    private final long elapsedMillis;
+
+    public ValueAtRisk(String scope, int positions, double grossExposure, double netExposure, double confidence,
+                       int horizonDays, int observations, int paths, double historicalVar, double historicalCvar,
+                       double parametricVar, double parametricCvar, double monteCarloVar, double monteCarloCvar,
+                       long asOfMillis, long elapsedMillis) {
+        this(scope, positions, grossExposure, netExposure, confidence, horizonDays, observations, paths,
+                historicalVar, historicalCvar, parametricVar, parametricCvar, monteCarloVar, monteCarloCvar,
+                0, 0, asOfMillis, elapsedMillis);
+    }
+
+    public ValueAtRisk(String scope, int positions, double grossExposure, double netExposure, double confidence,
+                       int horizonDays, int observations, int paths, double historicalVar, double historicalCvar,
+                       double parametricVar, double parametricCvar, double monteCarloVar, double monteCarloCvar,
+                       double intradayVar, int intradayObservations, long asOfMillis, long elapsedMillis) {
+        this.scope = scope;
+        this.positions = positions;
+        this.grossExposure = grossExposure;
+        this.netExposure = netExposure;
+        this.confidence = confidence;
+        this.horizonDays = horizonDays;
+        this.observations = observations;
+        this.paths = paths;
+        this.historicalVar = historicalVar;
+        this.historicalCvar = historicalCvar;
+        this.parametricVar = parametricVar;
+        this.parametricCvar = parametricCvar;
+        this.monteCarloVar = monteCarloVar;
+        this.monteCarloCvar = monteCarloCvar;
+        this.intradayVar = intradayVar;
+        this.intradayObservations = intradayObservations;
+        this.asOfMillis = asOfMillis;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public static ValueAtRisk empty(String scope, double confidence, int horizonDays, long asOfMillis) {
+        return new ValueAtRisk(scope, 0, 0, 0, confidence, horizonDays, 0, 0, 0, 0, 0, 0, 0, 0, asOfMillis, 0);
+    }
+
+    public ValueAtRisk withIntraday(double var, int bars) {
+        return new ValueAtRisk(scope, positions, grossExposure, netExposure, confidence, horizonDays, observations,
+                paths, historicalVar, historicalCvar, parametricVar, parametricCvar, monteCarloVar, monteCarloCvar,
+                var, bars, asOfMillis, elapsedMillis);
+    }
+
+    // "firm" or "user:<id>"
+    public String getScope() {
+        return scope;
+    }
+
+    public int getPositions() {
+        return positions;
+    }
+
+    public double getGrossExposure() {
+        return grossExposure;
+    }
+
+    public double getNetExposure() {
+        return netExposure;
+    }
+
+    public double getConfidence() {
+        return confidence;
+    }
+
+    public int getHorizonDays() {
+        return horizonDays;
+    }
+
+    // Daily returns in the historical window
+    public int getObservations() {
+        return observations;
+    }
+
+    public int getPaths() {
+        return paths;
+    }
+
+    public double getHistoricalVar() {
+        return historicalVar;
+    }
+
+    public double getHistoricalCvar() {
+        return historicalCvar;
+    }
+
+    public double getParametricVar() {
+        return parametricVar;
+    }
+
+    public double getParametricCvar() {
+        return parametricCvar;
+    }
+
+    public double getMonteCarloVar() {
+        return monteCarloVar;
+    }
+
+    public double getMonteCarloCvar() {
+        return monteCarloCvar;
+    }
+
+    // Parametric VaR from the live minute-bar covariance; 0 with 0 bars when the book is not covered
+    public double getIntradayVar() {
+        return intradayVar;
+    }
+
+    public int getIntradayObservations() {
+        return intradayObservations;
+    }
+
+    public long getAsOfMillis() {
+        return asOfMillis;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ValueAtRisk{%s, %d positions, gross=%.2f, %.1f%% %dd: hist=%.2f param=%.2f mc=%.2f (cvar %.2f)}",
+                scope, positions, grossExposure, confidence * 100, horizonDays, historicalVar, parametricVar,
+                monteCarloVar, monteCarloCvar);
+    }
+}
@@ -0,0 +1,128 @@
+package com.moneyteam.analysis.model;
+
+import java.util.Arrays;
+
+/**
+ * Implied volatility of one underlying by expiry and moneyness, interpolated between listed nodes.
+ *
+ * Each expiry is a slice of nodes sorted by log-moneyness ln(K / S), with S the spot the slice was
+ * solved at. Within a slice vol is linear in log-moneyness and flat beyond the outer strikes;
+ * between slices total variance (vol squared times years) is linear in time, which keeps the
+ * surface free of calendar arbitrage when the slices are. Immutable: {@link #withNode} copies
+ * only the one slice it changes, so a single-quote update costs one slice, not the surface.
+ */
+public final class VolatilitySurface {
+
+    private final String stockTicker;
+    private final long[] expiryEpochSeconds;
+    private final double[][] moneyness;
+    private final double[][] vols;
+    private final long updatedAtMillis;
+
+    public VolatilitySurface(String stockTicker, long[] expiryEpochSeconds, double[][] moneyness, double[][] vols,
+                             long updatedAtMillis) {
+        if (moneyness.length != expiryEpochSeconds.length || vols.length != expiryEpochSeconds.length) {
+            throw new IllegalArgumentException("Expected one slice per expiry");
+        }
+        for (int e = 0; e < vols.length; e++) {
+            if (moneyness[e].length != vols[e].length || moneyness[e].length == 0) {
+                throw new IllegalArgumentException("Slice " + e + " needs one or more nodes with one vol each");
+            }
+        }
+        this.stockTicker = stockTicker;
+        this.expiryEpochSeconds = expiryEpochSeconds;
+        this.moneyness = moneyness;
+        this.vols = vols;
+        this.updatedAtMillis = updatedAtMillis;
+    }
+
+    public String getStockTicker() {
+        return stockTicker;
+    }
+
+    public long[] getExpiryEpochSeconds() {
+        return expiryEpochSeconds;
+    }
+
+    public int expiries() {
+        return expiryEpochSeconds.length;
+    }
+
+    public double[] moneyness(int expiry) {
+        return moneyness[expiry];
+    }
+
+    public double[] vols(int expiry) {
+        return vols[expiry];
+    }
+
+    public long getUpdatedAtMillis() {
+        return updatedAtMillis;
+    }
+
+    public boolean isEmpty() {
+        return expiryEpochSeconds.length == 0;
+    }
+
+    // Same surface with one node's vol replaced
+    public VolatilitySurface withNode(int expiry, int node, double vol, long updatedAtMillis) {
+        double[][] nextVols = vols.clone();
+        nextVols[expiry] = vols[expiry].clone();
+        nextVols[expiry][node] = vol;
+        return new VolatilitySurface(stockTicker, expiryEpochSeconds, moneyness, nextVols, updatedAtMillis);
+    }
+
+    /**
+     * Vol at log-moneyness ln(K / S) for an expiry instant, as of valuationEpochSecond. NaN if the
+     * surface is empty or the expiry has passed.
+     */
+    public double vol(double logMoneyness, long expiryEpochSecond, long valuationEpochSecond) {
+        int n = expiryEpochSeconds.length;
+        if (n == 0 || expiryEpochSecond <= valuationEpochSecond) {
+            return Double.NaN;
+        }
+        int hi = Arrays.binarySearch(expiryEpochSeconds, expiryEpochSecond);
+        if (hi >= 0) {
+            return sliceVol(hi, logMoneyness);
+        }
+        hi = -hi - 1;
+        if (hi == 0) {
+            return sliceVol(0, logMoneyness);
+        }
+        if (hi == n) {
+            return sliceVol(n - 1, logMoneyness);
+        }
+        int lo = hi - 1;
+        double t = expiryEpochSecond - valuationEpochSecond;
+        double tLo = Math.max(1, expiryEpochSeconds[lo] - valuationEpochSecond);
+        double tHi = expiryEpochSeconds[hi] - valuationEpochSecond;
+        double vLo = sliceVol(lo, logMoneyness);
+        double vHi = sliceVol(hi, logMoneyness);
+        if (expiryEpochSeconds[lo] <= valuationEpochSecond) {
+            return vHi;
+        }
+        double wLo = vLo * vLo * tLo;
+        double wHi = vHi * vHi * tHi;
+        double w = wLo + (wHi - wLo) * (t - tLo) / (tHi - tLo);
+        return Math.sqrt(Math.max(w, 0) / t);
+    }
+
+    private double sliceVol(int expiry, double k) {
+        double[] m = moneyness[expiry];
+        double[] v = vols[expiry];
+        int last = m.length - 1;
+        if (k <= m[0]) {
+            return v[0];
+        }
+        if (k >= m[last]) {
+            return v[last];
+        }
+        int hi = Arrays.binarySearch(m, k);
+        if (hi >= 0) {
+            return v[hi];
+        }
+        hi = -hi - 1;
+        int lo = hi - 1;
+        return v[lo] + (v[hi] - v[lo]) * (k - m[lo]) / (m[hi] - m[lo]);
+    }
+}
@@ -0,0 +1,70 @@
+package com.moneyteam.analysis.repository;
+
+import com.moneyteam.analysis.model.FundamentalsIndex;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Bulk reads of {@code financial_statements} and the company columns of {@code stocks}: two
+ * streaming full-table selects on one StatelessSession, no entity mapping.
+ */
+@Repository
+public class FundamentalsRepository {
+
+    private static final int FETCH_SIZE = 5000;
+
+    private static final String SELECT_STATEMENTS =
+            "SELECT stock_ticker, fiscal_year, fiscal_quarter, revenue, net_income, eps, debt_to_equity, cash_flow "
+                    + "FROM financial_statements WHERE fiscal_year IS NOT NULL";
+
+    private static final String SELECT_COMPANIES =
+            "SELECT stock_ticker, stock_name, sector, market_cap_amount, last_price FROM stocks";
+
+    private final SessionFactory sessionFactory;
+
+    public FundamentalsRepository(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    public FundamentalsIndex loadIndex() {
+        FundamentalsIndex.Builder builder = new FundamentalsIndex.Builder();
+        StatelessSession session = sessionFactory.openStatelessSession();
+        try {
+            session.doWork(connection -> {
+                try (PreparedStatement ps = connection.prepareStatement(SELECT_STATEMENTS)) {
+                    ps.setFetchSize(FETCH_SIZE);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            builder.addStatement(rs.getString(1), rs.getInt(2), rs.getInt(3), getDouble(rs, 4),
+                                    getDouble(rs, 5), getDouble(rs, 6), getDouble(rs, 7), getDouble(rs, 8));
+                        }
+                    }
+                }
+                try (PreparedStatement ps = connection.prepareStatement(SELECT_COMPANIES)) {
+                    ps.setFetchSize(FETCH_SIZE);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            builder.addCompany(rs.getString(1), rs.getString(2), rs.getString(3), getDouble(rs, 4),
+                                    getDouble(rs, 5));
+                        }
+                    }
+                }
+            });
+        } finally {
+            session.close();
+        }
+        return builder.build(System.currentTimeMillis());
+    }
+
+    // SQL NULL -> NaN
+    private static double getDouble(ResultSet rs, int column) throws SQLException {
+        double value = rs.getDouble(column);
+        return rs.wasNull() ? Double.NaN : value;
+    }
+}
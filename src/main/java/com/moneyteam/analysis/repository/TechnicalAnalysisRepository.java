@@ -0,0 +1,53 @@
+package com.moneyteam.analysis.repository;
+
+import com.moneyteam.analysis.model.IndicatorValues;
+import com.moneyteam.common.util.MultiRowInsert;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.util.List;
+
+import static com.moneyteam.common.util.MultiRowInsert.setDouble;
+
+/**
+ * Appends indicator readings to {@code technical_analysis} with multi-row INSERTs on a
+ * StatelessSession. NaN readings (indicator still warming up) are stored as NULL.
+ */
+@Repository
+public class TechnicalAnalysisRepository {
+
+    static final int ROWS_PER_STATEMENT = 500;
+
+    private static final MultiRowInsert<IndicatorValues> INSERT = new MultiRowInsert<>(
+            MultiRowInsert.prefix("technical_analysis", "stock_ticker", "computed_at", "moving_average", "ema",
+                    "rsi_value", "macd", "macd_signal", "bollinger_high", "bollinger_low", "atr", "vwap"),
+            11, null, ROWS_PER_STATEMENT,
+            (ps, i, v) -> {
+                ps.setString(i++, v.getStockTicker());
+                ps.setTimestamp(i++, new Timestamp(v.getComputedAtMillis()));
+                setDouble(ps, i++, v.getMovingAverage());
+                setDouble(ps, i++, v.getEma());
+                setDouble(ps, i++, v.getRsi());
+                setDouble(ps, i++, v.getMacd());
+                setDouble(ps, i++, v.getMacdSignal());
+                setDouble(ps, i++, v.getBollingerHigh());
+                setDouble(ps, i++, v.getBollingerLow());
+                setDouble(ps, i++, v.getAtr());
+                setDouble(ps, i, v.getVwap());
+            });
+
+    private final SessionFactory sessionFactory;
+
+    public TechnicalAnalysisRepository(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    public void insertAll(List<IndicatorValues> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        MultiRowInsert.inTransaction(sessionFactory, connection -> INSERT.execute(connection, rows));
+    }
+}
@@ -0,0 +1,76 @@
+package com.moneyteam.analysis.service;
+
+import com.moneyteam.analysis.model.IndicatorValues;
+import com.moneyteam.analysis.model.RiskManagement;
+import com.moneyteam.analysis.model.TechnicalAnalysis;
+import com.moneyteam.marketdata.model.Stock;
+import com.moneyteam.marketdata.model.enums.DeliveryMode;
+import com.moneyteam.marketdata.service.QuoteBus;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latest immutable {@link TechnicalAnalysis} and {@link RiskManagement} snapshot per ticker.
+ *
+ * Writers replace a ticker's snapshot atomically; readers get whole, consistent objects without
+ * locking, so analysis can fan out across all cores over {@link #technicalSnapshots()}. Quotes
+ * arrive through a conflated {@link QuoteBus} subscription and indicator updates from
+ * {@link IndicatorEngine}.
+ */
+@Service
+public class AnalysisSnapshotRegistry implements DisposableBean {
+
+    private final ConcurrentHashMap<String, TechnicalAnalysis> technical = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, RiskManagement> risk = new ConcurrentHashMap<>();
+    private final QuoteBus.Subscription subscription;
+
+    public AnalysisSnapshotRegistry(QuoteBus quoteBus) {
+        this.subscription = quoteBus.subscribe("analysis-snapshots", this::publish, DeliveryMode.CONFLATED);
+    }
+
+    public void publish(Stock quote) {
+        String ticker = quote.getStockTicker();
+        if (ticker == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        // Carry the last indicator readings over onto the new quote snapshot
+        technical.compute(ticker, (k, previous) ->
+                TechnicalAnalysis.from(quote, now, previous == null ? null : previous.getIndicators()));
+        risk.put(ticker, RiskManagement.from(quote, now));
+    }
+
+    public void publishIndicators(IndicatorValues indicators) {
+        technical.computeIfPresent(indicators.getStockTicker(), (k, previous) -> previous.withIndicators(indicators));
+    }
+
+    public TechnicalAnalysis technical(String stockTicker) {
+        return technical.get(stockTicker);
+    }
+
+    public RiskManagement risk(String stockTicker) {
+        return risk.get(stockTicker);
+    }
+
+    // Point-in-time copy; safe to hand to a parallel stream
+    public List<TechnicalAnalysis> technicalSnapshots() {
+        return new ArrayList<>(technical.values());
+    }
+
+    public List<RiskManagement> riskSnapshots() {
+        return new ArrayList<>(risk.values());
+    }
+
+    public int size() {
+        return technical.size();
+    }
+
+    @Override
+    public void destroy() {
+        subscription.close();
+    }
+}
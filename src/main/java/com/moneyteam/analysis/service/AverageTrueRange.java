@@ -0,0 +1,26 @@
+package com.moneyteam.analysis.service;
+
+// Wilder ATR over bars
+public final class AverageTrueRange implements Indicator {
+
+    private final ExponentialMovingAverage average;
+    private double previousClose = Double.NaN;
+
+    public AverageTrueRange(int period) {
+        this.average = ExponentialMovingAverage.wilder(period);
+    }
+
+    public double update(double high, double low, double close) {
+        double range = high - low;
+        if (!Double.isNaN(previousClose)) {
+            range = Math.max(range, Math.max(Math.abs(high - previousClose), Math.abs(low - previousClose)));
+        }
+        previousClose = close;
+        return average.update(range);
+    }
+
+    @Override
+    public double value() {
+        return average.value();
+    }
+}
@@ -0,0 +1,214 @@
+package com.moneyteam.analysis.service;
+
+import com.moneyteam.analysis.model.BacktestConfig;
+import com.moneyteam.analysis.model.BacktestReport;
+import com.moneyteam.analysis.model.BacktestResult;
+import com.moneyteam.analysis.model.BarSeries;
+import com.moneyteam.analysis.model.DateRange;
+import com.moneyteam.marketdata.model.enums.BarInterval;
+import com.moneyteam.marketdata.repository.PriceHistoryRepository;
+import com.moneyteam.trading.model.enums.OrderSide;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+/**
+ * Replays historical bars through a {@link BacktestStrategy} with simulated fills, fees and
+ * long-only position accounting.
+ *
+ * Every (ticker, date range) pair is an independent job with its own strategy instance, so jobs are
+ * split across a fork-join pool and results are joined without any shared mutable state. Signals
+ * raised at a bar's close fill at the next bar's open (plus slippage) to keep look-ahead out.
+ */
+@Service
+public class BacktestEngine implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(BacktestEngine.class);
+
+    // Jobs per leaf task; a daily 10-year job is ~2.5k bars, so a few per leaf amortises forking
+    private static final int JOBS_PER_TASK = 4;
+
+    private final PriceHistoryRepository priceHistoryRepository;
+    private final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    public BacktestEngine(PriceHistoryRepository priceHistoryRepository) {
+        this.priceHistoryRepository = priceHistoryRepository;
+    }
+
+    // Load each ticker's bars from price_history, then run
+    public BacktestReport runFromHistory(Collection<String> tickers, BarInterval interval, DateRange history,
+                                         List<DateRange> ranges, Supplier<BacktestStrategy> strategy,
+                                         BacktestConfig config) {
+        List<BarSeries> data = new ArrayList<>(tickers.size());
+        for (String ticker : tickers) {
+            data.add(BarSeries.of(ticker, priceHistoryRepository.findBars(ticker, interval,
+                    history.fromEpochSecond(), history.toEpochSecondExclusive())));
+        }
+        return run(data, ranges, strategy, config);
+    }
+
+    /**
+     * Run the strategy over every series and, if ranges is non-empty, over each range of each
+     * series separately. Results come back in ticker order, then range order.
+     */
+    public BacktestReport run(Collection<BarSeries> data, List<DateRange> ranges,
+                              Supplier<BacktestStrategy> strategy, BacktestConfig config) {
+        long started = System.nanoTime();
+        List<DateRange> slices = ranges == null || ranges.isEmpty() ? Collections.singletonList(null) : ranges;
+        List<Job> jobs = new ArrayList<>(data.size() * slices.size());
+        for (BarSeries series : data) {
+            for (DateRange range : slices) {
+                jobs.add(new Job(series, range));
+            }
+        }
+        BacktestResult[] results = new BacktestResult[jobs.size()];
+        pool.invoke(new JobTask(jobs, 0, jobs.size(), results, strategy, config));
+
+        long elapsed = (System.nanoTime() - started) / 1_000_000;
+        log.info("Backtest {} finished {} runs in {} ms", config.getStrategyName(), jobs.size(), elapsed);
+        return new BacktestReport(config.getStrategyName(), Arrays.asList(results), elapsed);
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdownNow();
+    }
+
+    private static final class Job {
+        final BarSeries series;
+        final DateRange range;
+
+        Job(BarSeries series, DateRange range) {
+            this.series = series;
+            this.range = range;
+        }
+    }
+
+    private static final class JobTask extends RecursiveTask<Void> {
+        private final List<Job> jobs;
+        private final int from;
+        private final int to;
+        private final BacktestResult[] results;
+        private final Supplier<BacktestStrategy> strategy;
+        private final BacktestConfig config;
+
+        JobTask(List<Job> jobs, int from, int to, BacktestResult[] results,
+                Supplier<BacktestStrategy> strategy, BacktestConfig config) {
+            this.jobs = jobs;
+            this.from = from;
+            this.to = to;
+            this.results = results;
+            this.strategy = strategy;
+            this.config = config;
+        }
+
+        @Override
+        protected Void compute() {
+            if (to - from <= JOBS_PER_TASK) {
+                for (int i = from; i < to; i++) {
+                    Job job = jobs.get(i);
+                    results[i] = simulate(job.series, job.range, strategy.get(), config);
+                }
+                return null;
+            }
+            int mid = (from + to) >>> 1;
+            JobTask left = new JobTask(jobs, from, mid, results, strategy, config);
+            left.fork();
+            new JobTask(jobs, mid, to, results, strategy, config).compute();
+            left.join();
+            return null;
+        }
+    }
+
+    static BacktestResult simulate(BarSeries series, DateRange range, BacktestStrategy strategy,
+                                   BacktestConfig config) {
+        int start = range == null ? 0 : series.indexAtOrAfter(range.fromEpochSecond());
+        int end = range == null ? series.size() : series.indexAtOrAfter(range.toEpochSecondExclusive());
+        double[] open = series.getOpen();
+        double[] close = series.getClose();
+        double fee = config.getFeePerTrade();
+        double slip = config.getSlippageBps() / 10_000d;
+
+        strategy.prepare(series);
+
+        double cash = config.getStartingCash();
+        long shares = 0;
+        double entryCost = 0;
+        OrderSide pending = null;
+        int trades = 0;
+        int wins = 0;
+        double fees = 0;
+
+        double peak = cash;
+        double maxDrawdown = 0;
+        double previousEquity = cash;
+        double sumReturns = 0;
+        double sumSquares = 0;
+        int periods = 0;
+
+        for (int i = start; i < end; i++) {
+            if (pending == OrderSide.BUY) {
+                double price = open[i] * (1 + slip);
+                long qty = (long) ((cash - fee) / price);
+                if (qty > 0) {
+                    shares = qty;
+                    entryCost = qty * price + fee;
+                    cash -= entryCost;
+                    fees += fee;
+                }
+            } else if (pending == OrderSide.SELL && shares > 0) {
+                double proceeds = shares * open[i] * (1 - slip) - fee;
+                cash += proceeds;
+                fees += fee;
+                trades++;
+                if (proceeds > entryCost) {
+                    wins++;
+                }
+                shares = 0;
+            }
+            pending = null;
+
+            OrderSide signal = strategy.onBar(series, i, shares > 0);
+            // A signal on the last bar has no next open to fill at
+            if (i + 1 < end && ((signal == OrderSide.BUY && shares == 0) || (signal == OrderSide.SELL && shares > 0))) {
+                pending = signal;
+            }
+
+            double equity = cash + shares * close[i];
+            if (equity > peak) {
+                peak = equity;
+            } else if (peak > 0) {
+                maxDrawdown = Math.max(maxDrawdown, (peak - equity) / peak);
+            }
+            if (i > start) {
+                double r = equity / previousEquity - 1;
+                sumReturns += r;
+                sumSquares += r * r;
+                periods++;
+            }
+            previousEquity = equity;
+        }
+
+        double finalEquity = previousEquity;
+        double sharpe = 0;
+        if (periods > 1) {
+            double mean = sumReturns / periods;
+            double variance = (sumSquares - periods * mean * mean) / (periods - 1);
+            if (variance > 0) {
+                sharpe = mean / Math.sqrt(variance) * Math.sqrt(config.getPeriodsPerYear());
+            }
+        }
+        return new BacktestResult(series.getStockTicker(), range, end - start, trades, wins, fees, finalEquity,
+                finalEquity / config.getStartingCash() - 1, maxDrawdown, sharpe);
+    }
+}
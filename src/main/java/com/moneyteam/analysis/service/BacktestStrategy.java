@@ -0,0 +1,18 @@
+package com.moneyteam.analysis.service;
+
+import com.moneyteam.analysis.model.BarSeries;
+import com.moneyteam.trading.model.enums.OrderSide;
+
+/**
+ * A strategy the backtest engine can replay. The engine creates one instance per ticker and date
+ * range, calls {@link #prepare} once with the ticker's full history (so indicators are warm at the
+ * start of any range), then {@link #onBar} at each bar close. Orders fill at the next bar's open.
+ */
+public interface BacktestStrategy {
+
+    default void prepare(BarSeries series) {
+    }
+
+    // Return BUY or SELL to trade at the next open, or null to hold
+    OrderSide onBar(BarSeries series, int index, boolean inPosition);
+}
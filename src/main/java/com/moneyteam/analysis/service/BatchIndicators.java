@@ -0,0 +1,218 @@
+package com.moneyteam.analysis.service;
+
+import java.util.Arrays;
+
+/**
+ * Whole-series indicator kernels over primitive arrays, for backtests and historical analysis.
+ *
+ * Rolling windows are computed as differences of prefix sums, so each output is O(1) regardless of
+ * window length instead of O(window). The prefix-sum scans and ema carry a value from one element to
+ * the next and stay scalar. The sum reduction and the window-difference passes run on the Vector API
+ * (VectorKernels) when the JVM was started with --add-modules jdk.incubator.vector, as the build's
+ * tests and benchmarks are; otherwise they fall back to the scalar loops here, where sum uses four
+ * independent accumulators so the adds overlap in the pipeline. Positions before the first full
+ * window are NaN. BatchIndicatorsBenchmark compares both paths against the per-window loops.
+ */
+public final class BatchIndicators {
+
+    // Checked once; VectorKernels is never loaded without the module, so the fallback cannot link-fail
+    static final boolean VECTORIZED = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private BatchIndicators() {
+    }
+
+    public static double sum(double[] values) {
+        return VECTORIZED ? VectorKernels.sum(values) : scalarSum(values);
+    }
+
+    static double scalarSum(double[] values) {
+        double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int n = values.length;
+        int i = 0;
+        for (; i + 3 < n; i += 4) {
+            s0 += values[i];
+            s1 += values[i + 1];
+            s2 += values[i + 2];
+            s3 += values[i + 3];
+        }
+        for (; i < n; i++) {
+            s0 += values[i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    // prefix[i] = values[0] + ... + values[i - 1], offset by shift to limit cancellation
+    static double[] prefixSums(double[] values, double shift) {
+        double[] prefix = new double[values.length + 1];
+        double running = 0;
+        for (int i = 0; i < values.length; i++) {
+            running += values[i] - shift;
+            prefix[i + 1] = running;
+        }
+        return prefix;
+    }
+
+    static double[] prefixSquares(double[] values, double shift) {
+        double[] prefix = new double[values.length + 1];
+        double running = 0;
+        for (int i = 0; i < values.length; i++) {
+            double d = values[i] - shift;
+            running += d * d;
+            prefix[i + 1] = running;
+        }
+        return prefix;
+    }
+
+    public static double[] rollingSum(double[] values, int window) {
+        checkWindow(window);
+        double[] out = nanFilled(values.length, window);
+        if (values.length == 0) {
+            return out;
+        }
+        // Same shift as rollingMean: each window sums deviations, then adds the shift back window times
+        double shift = values[0];
+        windowDifferences(prefixSums(values, shift), window, 1.0, shift * window, out);
+        return out;
+    }
+
+    public static double[] rollingMean(double[] values, int window) {
+        checkWindow(window);
+        double[] out = nanFilled(values.length, window);
+        if (values.length == 0) {
+            return out;
+        }
+        // Summing deviations from the first price keeps prefix sums small on long series
+        double shift = values[0];
+        windowDifferences(prefixSums(values, shift), window, 1.0 / window, shift, out);
+        return out;
+    }
+
+    // Population variance over each window
+    public static double[] rollingVariance(double[] values, int window) {
+        checkWindow(window);
+        double[] out = nanFilled(values.length, window);
+        if (values.length == 0) {
+            return out;
+        }
+        double shift = values[0];
+        double[] sums = prefixSums(values, shift);
+        double[] squares = prefixSquares(values, shift);
+        if (VECTORIZED) {
+            VectorKernels.windowVariances(sums, squares, window, out);
+        } else {
+            scalarWindowVariances(sums, squares, window, out);
+        }
+        return out;
+    }
+
+    // out[i] = (prefix[i + 1] - prefix[i + 1 - window]) * scale + offset from the first full window on
+    static void windowDifferences(double[] prefix, int window, double scale, double offset, double[] out) {
+        if (VECTORIZED) {
+            VectorKernels.windowDifferences(prefix, window, scale, offset, out);
+        } else {
+            scalarWindowDifferences(prefix, window, scale, offset, out);
+        }
+    }
+
+    static void scalarWindowDifferences(double[] prefix, int window, double scale, double offset, double[] out) {
+        for (int i = window - 1; i < out.length; i++) {
+            out[i] = (prefix[i + 1] - prefix[i + 1 - window]) * scale + offset;
+        }
+    }
+
+    static void scalarWindowVariances(double[] sums, double[] squares, int window, double[] out) {
+        double inverse = 1.0 / window;
+        for (int i = window - 1; i < out.length; i++) {
+            double mean = (sums[i + 1] - sums[i + 1 - window]) * inverse;
+            double variance = (squares[i + 1] - squares[i + 1 - window]) * inverse - mean * mean;
+            out[i] = Math.max(0, variance);
+        }
+    }
+
+    public static double[] rollingStdDev(double[] values, int window) {
+        double[] out = rollingVariance(values, window);
+        for (int i = window - 1; i < out.length; i++) {
+            out[i] = Math.sqrt(out[i]);
+        }
+        return out;
+    }
+
+    // out[i] = prices[i] / prices[i - 1] - 1; out[0] = NaN
+    public static double[] simpleReturns(double[] prices) {
+        double[] out = new double[prices.length];
+        if (prices.length == 0) {
+            return out;
+        }
+        out[0] = Double.NaN;
+        for (int i = 1; i < prices.length; i++) {
+            out[i] = prices[i] / prices[i - 1] - 1;
+        }
+        return out;
+    }
+
+    public static double[] logReturns(double[] prices) {
+        double[] out = new double[prices.length];
+        if (prices.length == 0) {
+            return out;
+        }
+        out[0] = Double.NaN;
+        for (int i = 1; i < prices.length; i++) {
+            out[i] = Math.log(prices[i] / prices[i - 1]);
+        }
+        return out;
+    }
+
+    // Seeded with the first value; the whole series is defined
+    public static double[] ema(double[] values, int period) {
+        checkWindow(period);
+        double[] out = new double[values.length];
+        if (values.length == 0) {
+            return out;
+        }
+        double alpha = 2.0 / (period + 1);
+        double value = values[0];
+        out[0] = value;
+        for (int i = 1; i < values.length; i++) {
+            value += alpha * (values[i] - value);
+            out[i] = value;
+        }
+        return out;
+    }
+
+    /**
+     * Cross signal of fast against slow: +1 where fast moves from at-or-below to above slow, -1 for
+     * the reverse, 0 elsewhere. NaN on either side (warm-up) never produces a signal.
+     */
+    public static byte[] crossovers(double[] fast, double[] slow) {
+        int n = Math.min(fast.length, slow.length);
+        byte[] out = new byte[n];
+        if (n == 0) {
+            return out;
+        }
+        // above[i]: 1 if fast > slow (false for NaN), computed branch-free in one pass
+        byte[] above = new byte[n];
+        for (int i = 0; i < n; i++) {
+            above[i] = (byte) (fast[i] > slow[i] ? 1 : 0);
+        }
+        byte[] below = new byte[n];
+        for (int i = 0; i < n; i++) {
+            below[i] = (byte) (fast[i] <= slow[i] ? 1 : 0);
+        }
+        for (int i = 1; i < n; i++) {
+            out[i] = (byte) ((below[i - 1] & above[i]) - (above[i - 1] & below[i]));
+        }
+        return out;
+    }
+
+    private static void checkWindow(int window) {
+        if (window < 1) {
+            throw new IllegalArgumentException("Window must be positive");
+        }
+    }
+
+    private static double[] nanFilled(int length, int window) {
+        double[] out = new double[length];
+        Arrays.fill(out, 0, Math.min(length, window - 1), Double.NaN);
+        return out;
+    }
+}
@@ -0,0 +1,119 @@
+package com.moneyteam.analysis.service;
+
+import com.moneyteam.analysis.model.OptionChain;
+import com.moneyteam.analysis.model.OptionGreeks;
+
+/**
+ * Black-Scholes-Merton kernels for European options on a dividend-paying underlying, over the
+ * primitive columns of an {@link OptionChain}.
+ *
+ * The chain loop is arranged so each contract costs one exp() and no log(): log strikes come
+ * precomputed with the chain, time, discount factors and drift are recomputed only when the
+ * expiration changes, and the density at d2 follows from the density at d1 through the identity
+ * S e^(-qT) n(d1) = K e^(-rT) n(d2). The normal CDF is the Abramowitz-Stegun 26.2.17 polynomial,
+ * which reuses that density and is accurate to 7.5e-8.
+ */
+public final class BlackScholes {
+
+    static final double SECONDS_PER_YEAR = 365d * 86_400;
+    private static final double INV_SQRT_2PI = 0.3989422804014327;
+
+    private BlackScholes() {
+    }
+
+    public static double normalPdf(double x) {
+        return INV_SQRT_2PI * Math.exp(-0.5 * x * x);
+    }
+
+    public static double normalCdf(double x) {
+        return normalCdf(x, normalPdf(x));
+    }
+
+    // N(x) given pdf = n(x) already computed
+    static double normalCdf(double x, double pdf) {
+        double t = 1 / (1 + 0.2316419 * Math.abs(x));
+        double tail = pdf * t * (0.319381530 + t * (-0.356563782 + t * (1.781477937
+                + t * (-1.821255978 + t * 1.330274429))));
+        return x >= 0 ? 1 - tail : tail;
+    }
+
+    /**
+     * Values and Greeks of contracts [from, to) of the chain at the given spot, continuously
+     * compounded rate and per-contract vols, as of valuationEpochSecond. Expired contracts and
+     * zero vols are valued at (discounted) intrinsic; NaN vols give NaN.
+     */
+    public static void greeks(OptionChain chain, double spot, double rate, double[] vols, long valuationEpochSecond,
+                              OptionGreeks out, int from, int to) {
+        double[] strikes = chain.getStrikes();
+        double[] logStrikes = chain.getLogStrikes();
+        boolean[] calls = chain.getCalls();
+        long[] expiry = chain.getExpiryEpochSeconds();
+        double q = chain.getDividendYield();
+        double[] price = out.getPrice();
+        double[] delta = out.getDelta();
+        double[] gamma = out.getGamma();
+        double[] vega = out.getVega();
+        double[] theta = out.getTheta();
+        double[] rho = out.getRho();
+        double logSpot = Math.log(spot);
+
+        long lastExpiry = Long.MIN_VALUE;
+        double years = 0, sqrtYears = 0, discR = 1, discQ = 1, drift = 0;
+        for (int i = from; i < to; i++) {
+            if (expiry[i] != lastExpiry) {
+                lastExpiry = expiry[i];
+                years = Math.max(0, (lastExpiry - valuationEpochSecond) / SECONDS_PER_YEAR);
+                sqrtYears = Math.sqrt(years);
+                discR = Math.exp(-rate * years);
+                discQ = Math.exp(-q * years);
+                drift = (rate - q) * years;
+            }
+            double k = strikes[i];
+            double vol = vols[i];
+            boolean call = calls[i];
+            if (Double.isNaN(vol)) {
+                price[i] = delta[i] = gamma[i] = vega[i] = theta[i] = rho[i] = Double.NaN;
+                continue;
+            }
+            double s = spot * discQ;
+            double x = k * discR;
+            if (years == 0 || vol <= 0) {
+                // No optionality left: the forward payoff, discounted
+                boolean exercised = call ? s > x : x > s;
+                double sign = call ? 1 : -1;
+                price[i] = exercised ? sign * (s - x) : 0;
+                delta[i] = exercised ? sign * discQ : 0;
+                gamma[i] = 0;
+                vega[i] = 0;
+                theta[i] = exercised ? sign * (q * s - rate * x) : 0;
+                rho[i] = exercised ? sign * x * years : 0;
+                continue;
+            }
+
+            double sd = vol * sqrtYears;
+            double d1 = (logSpot - logStrikes[i] + drift) / sd + 0.5 * sd;
+            double d2 = d1 - sd;
+            double pdf1 = normalPdf(d1);
+            double pdf2 = pdf1 * s / x;
+            double decay = -s * pdf1 * vol / (2 * sqrtYears);
+            gamma[i] = discQ * pdf1 / (spot * sd);
+            vega[i] = s * pdf1 * sqrtYears;
+            if (call) {
+                double n1 = normalCdf(d1, pdf1);
+                double n2 = normalCdf(d2, pdf2);
+                price[i] = s * n1 - x * n2;
+                delta[i] = discQ * n1;
+                theta[i] = decay - rate * x * n2 + q * s * n1;
+                rho[i] = x * years * n2;
+            } else {
+                // N(-d) directly rather than 1 - N(d), which loses the far out-of-the-money tail
+                double m1 = normalCdf(-d1, pdf1);
+                double m2 = normalCdf(-d2, pdf2);
+                price[i] = x * m2 - s * m1;
+                delta[i] = -discQ * m1;
+                theta[i] = decay + rate * x * m2 - q * s * m1;
+                rho[i] = -x * years * m2;
+            }
+        }
+    }
+}
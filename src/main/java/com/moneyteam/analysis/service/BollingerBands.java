@@ -0,0 +1,70 @@
+package com.moneyteam.analysis.service;
+
+// Middle band = SMA(period), upper/lower = middle +/- k population standard deviations. Sums are kept
+// relative to a recent price so the variance does not cancel away against the squared mean
+public final class BollingerBands implements Indicator {
+
+    private static final int RESUM_INTERVAL = 4096;
+
+    private final DoubleRingBuffer window;
+    private final double k;
+    private double sum;
+    private double sumOfSquares;
+    private double shift = Double.NaN;
+    private int sinceResum;
+
+    public BollingerBands(int period, double k) {
+        this.window = new DoubleRingBuffer(period);
+        this.k = k;
+    }
+
+    public double update(double close) {
+        if (Double.isNaN(shift)) {
+            shift = close;
+        }
+        double evicted = window.push(close);
+        double d = close - shift;
+        if (Double.isNaN(evicted)) {
+            sum += d;
+            sumOfSquares += d * d;
+        } else {
+            double e = evicted - shift;
+            sum += d - e;
+            sumOfSquares += d * d - e * e;
+        }
+        if (++sinceResum == RESUM_INTERVAL) {
+            // Rebuild around the newest price, which also follows a trending series
+            sinceResum = 0;
+            shift = close;
+            sum = 0;
+            sumOfSquares = 0;
+            for (int i = 0; i < window.size(); i++) {
+                double v = window.get(i) - shift;
+                sum += v;
+                sumOfSquares += v * v;
+            }
+        }
+        return value();
+    }
+
+    // Middle band
+    @Override
+    public double value() {
+        return window.isFull() ? shift + sum / window.capacity() : Double.NaN;
+    }
+
+    public double upper() {
+        return value() + k * standardDeviation();
+    }
+
+    public double lower() {
+        return value() - k * standardDeviation();
+    }
+
+    private double standardDeviation() {
+        int n = window.capacity();
+        double mean = sum / n;
+        // Clamp: rounding in the running sums can still leave a tiny negative variance
+        return Math.sqrt(Math.max(0, sumOfSquares / n - mean * mean));
+    }
+}
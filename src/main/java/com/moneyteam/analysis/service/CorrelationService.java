@@ -0,0 +1,183 @@
+package com.moneyteam.analysis.service;
+
+import com.moneyteam.analysis.model.CorrelationMatrix;
+import com.moneyteam.common.util.MarketHours;
+import com.moneyteam.marketdata.model.Stock;
+import com.moneyteam.marketdata.model.enums.DeliveryMode;
+import com.moneyteam.marketdata.service.QuoteBus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Rolling covariance and correlation of one-minute log returns across a tracked ticker set.
+ *
+ * A direct {@link QuoteBus} subscription records the last price per tracked ticker without
+ * locking; once a minute the bar thread turns those into returns, feeds a {@link RollingCovariance}
+ * (O(n^2) per bar) and publishes an immutable {@link CorrelationMatrix} that readers such as the
+ * risk engine and screener take with a single volatile read. Outside the regular session a bar is
+ * only closed if a tracked ticker traded during it, so nights and weekends do not fill the window
+ * with zero returns.
+ */
+@Service
+public class CorrelationService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(CorrelationService.class);
+
+    static final long BAR_MILLIS = 60_000;
+    // One regular session of minute bars
+    static final int WINDOW_BARS = 390;
+
+    private final QuoteBus.Subscription subscription;
+    private final ScheduledExecutorService barClock;
+    private volatile Tracking tracking = new Tracking(List.of(), null);
+    private volatile CorrelationMatrix latest = new CorrelationMatrix(List.of(), new double[0], 0, 0);
+
+    public CorrelationService(QuoteBus quoteBus) {
+        this.barClock = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "correlation-bars");
+            t.setDaemon(true);
+            return t;
+        });
+        long now = System.currentTimeMillis();
+        barClock.scheduleAtFixedRate(this::closeBarQuietly, BAR_MILLIS - now % BAR_MILLIS, BAR_MILLIS,
+                TimeUnit.MILLISECONDS);
+        this.subscription = quoteBus.subscribe("correlation", this::onQuote, DeliveryMode.DIRECT);
+    }
+
+    /**
+     * Replace the tracked ticker set, e.g. with the union of all watchlists. Last prices carry over
+     * for tickers kept in the set, but the rolling window starts again from empty. Returns false
+     * (and keeps the window) if the set is unchanged.
+     */
+    public synchronized boolean track(Collection<String> stockTickers) {
+        LinkedHashSet<String> unique = new LinkedHashSet<>(stockTickers);
+        if (unique.equals(new HashSet<>(tracking.tickers))) {
+            return false;
+        }
+        List<String> tickers = new ArrayList<>(unique);
+        Tracking next = new Tracking(tickers, tracking);
+        tracking = next;
+        latest = next.covariance == null
+                ? new CorrelationMatrix(List.of(), new double[0], 0, System.currentTimeMillis())
+                : next.covariance.snapshot(tickers, System.currentTimeMillis());
+        log.info("Tracking correlations across {} tickers", tickers.size());
+        return true;
+    }
+
+    public List<String> trackedTickers() {
+        return tracking.tickers;
+    }
+
+    // Latest published matrix; never null, empty until tickers are tracked
+    public CorrelationMatrix snapshot() {
+        return latest;
+    }
+
+    void onQuote(Stock quote) {
+        Double last = quote.getLast();
+        if (last == null || last <= 0) {
+            return;
+        }
+        Tracking t = tracking;
+        Integer i = t.index.get(quote.getStockTicker());
+        if (i != null) {
+            long bits = Double.doubleToRawLongBits(last);
+            // A repeat of the last price (e.g. an after-hours lookup) is not a trade
+            if (t.last.getAndSet(i, bits) != bits) {
+                t.traded.lazySet(true);
+            }
+        }
+    }
+
+    /**
+     * Close one bar: returns since the previous bar for every tracked ticker, 0 where none traded.
+     * Until every ticker has had a price at an earlier bar close only the prices are recorded, so a
+     * ticker that has not quoted yet does not enter the window as a run of zero returns.
+     */
+    synchronized void closeBar(long closeMillis) {
+        Tracking t = tracking;
+        if (t.covariance == null) {
+            return;
+        }
+        // The bar covers the minute before closeMillis
+        if (!t.traded.getAndSet(false) && !MarketHours.isRegularSession(closeMillis - 1)) {
+            return;
+        }
+        int n = t.tickers.size();
+        double[] returns = new double[n];
+        boolean complete = true;
+        for (int i = 0; i < n; i++) {
+            double price = Double.longBitsToDouble(t.last.get(i));
+            double previous = t.previous[i];
+            if (previous > 0 && price > 0) {
+                returns[i] = Math.log(price / previous);
+            } else {
+                complete = false;
+            }
+            if (price > 0) {
+                t.previous[i] = price;
+            }
+        }
+        if (!complete) {
+            return;
+        }
+        t.covariance.update(returns);
+        latest = t.covariance.snapshot(t.tickers, closeMillis);
+    }
+
+    private void closeBarQuietly() {
+        try {
+            closeBar(System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            log.error("Correlation bar close failed: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        subscription.close();
+        barClock.shutdownNow();
+    }
+
+    private static final class Tracking {
+        final List<String> tickers;
+        final Map<String, Integer> index;
+        final AtomicLongArray last;           // raw double bits, written by quote threads
+        final double[] previous;              // bar thread only
+        final AtomicBoolean traded = new AtomicBoolean(); // a tracked price moved since the last bar
+        final RollingCovariance covariance;   // bar thread only; null when nothing is tracked
+
+        Tracking(List<String> tickers, Tracking carryFrom) {
+            int n = tickers.size();
+            this.tickers = List.copyOf(tickers);
+            this.index = new HashMap<>(n * 2);
+            this.last = new AtomicLongArray(n);
+            this.previous = new double[n];
+            for (int i = 0; i < n; i++) {
+                String ticker = this.tickers.get(i);
+                index.put(ticker, i);
+                Integer old = carryFrom == null ? null : carryFrom.index.get(ticker);
+                if (old != null) {
+                    last.set(i, carryFrom.last.get(old));
+                    previous[i] = carryFrom.previous[old];
+                }
+            }
+            this.covariance = n == 0 ? null : new RollingCovariance(n, WINDOW_BARS);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.moneyteam.analysis.service;
+
+// Fixed-size window of doubles; push() overwrites the oldest value once full and never allocates
+public final class DoubleRingBuffer {
+
+    private final double[] values;
+    private int head;
+    private int size;
+
+    public DoubleRingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.values = new double[capacity];
+    }
+
+    // Returns the value that fell out of the window, or NaN while the window is still filling
+    public double push(double value) {
+        double evicted = size == values.length ? values[head] : Double.NaN;
+        values[head] = value;
+        head = head + 1 == values.length ? 0 : head + 1;
+        if (size < values.length) {
+            size++;
+        }
+        return evicted;
+    }
+
+    // i = 0 is the oldest value in the window
+    public double get(int i) {
+        int index = head - size + i;
+        return values[index < 0 ? index + values.length : index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return values.length;
+    }
+
+    public boolean isFull() {
+        return size == values.length;
+    }
+}
@@ -0,0 +1,42 @@
+package com.moneyteam.analysis.service;
+
+// EMA with alpha = 2 / (period + 1), seeded with the simple average of the first period values
+public final class ExponentialMovingAverage implements Indicator {
+
+    private final int period;
+    private final double alpha;
+    private double value = Double.NaN;
+    private double seedSum;
+    private int count;
+
+    public ExponentialMovingAverage(int period) {
+        this(period, 2.0 / (period + 1));
+    }
+
+    ExponentialMovingAverage(int period, double alpha) {
+        this.period = period;
+        this.alpha = alpha;
+    }
+
+    // Wilder's smoothing (alpha = 1 / period), as used by RSI and ATR
+    public static ExponentialMovingAverage wilder(int period) {
+        return new ExponentialMovingAverage(period, 1.0 / period);
+    }
+
+    public double update(double sample) {
+        if (count < period) {
+            seedSum += sample;
+            if (++count == period) {
+                value = seedSum / period;
+            }
+        } else {
+            value += alpha * (sample - value);
+        }
+        return value;
+    }
+
+    @Override
+    public double value() {
+        return value;
+    }
+}
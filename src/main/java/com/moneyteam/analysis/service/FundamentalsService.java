@@ -0,0 +1,109 @@
+package com.moneyteam.analysis.service;
+
+import com.moneyteam.analysis.model.FinancialStatements;
+import com.moneyteam.analysis.model.FiscalPeriod;
+import com.moneyteam.analysis.model.FundamentalsIndex;
+import com.moneyteam.analysis.model.KeyMetrics;
+import com.moneyteam.analysis.model.RiskManagement;
+import com.moneyteam.analysis.repository.FundamentalsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Serves financial statements and key metrics from a {@link FundamentalsIndex} held in memory.
+ *
+ * Fundamentals change about once a quarter, so the whole table is bulk-loaded at startup and
+ * reloaded on a fixed schedule; each reload builds a new index and swaps it in with one volatile
+ * write. Lookups and fundamental screens never touch the database. P/E uses the live price from
+ * {@link AnalysisSnapshotRegistry} when there is one.
+ */
+@Service
+public class FundamentalsService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(FundamentalsService.class);
+
+    static final long REFRESH_HOURS = 6;
+
+    private final FundamentalsRepository repository;
+    private final AnalysisSnapshotRegistry snapshots;
+    private final ScheduledExecutorService refresher;
+    private volatile FundamentalsIndex index = FundamentalsIndex.empty();
+
+    public FundamentalsService(FundamentalsRepository repository, AnalysisSnapshotRegistry snapshots) {
+        this.repository = repository;
+        this.snapshots = snapshots;
+        this.refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "fundamentals-refresh");
+            t.setDaemon(true);
+            return t;
+        });
+        refresher.scheduleWithFixedDelay(this::refreshQuietly, 0, REFRESH_HOURS, TimeUnit.HOURS);
+    }
+
+    // Reload now; the previous index keeps serving until the new one is built
+    public FundamentalsIndex refresh() {
+        long started = System.nanoTime();
+        FundamentalsIndex loaded = repository.loadIndex();
+        index = loaded;
+        log.info("Loaded fundamentals for {} tickers ({} statements) in {} ms", loaded.size(),
+                loaded.statementCount(), (System.nanoTime() - started) / 1_000_000);
+        return loaded;
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.error("Fundamentals refresh failed, keeping index from {}: {}", index.getLoadedAtMillis(),
+                    e.getMessage());
+        }
+    }
+
+    public FundamentalsIndex index() {
+        return index;
+    }
+
+    public FinancialStatements statements(String stockTicker, FiscalPeriod period) {
+        return index.statements(stockTicker, period);
+    }
+
+    public FinancialStatements latestStatements(String stockTicker) {
+        return index.latest(stockTicker);
+    }
+
+    public KeyMetrics keyMetrics(String stockTicker) {
+        return index.keyMetrics(stockTicker, livePrice(stockTicker));
+    }
+
+    // Key metrics of every ticker that passes the filter, from memory only
+    public List<KeyMetrics> screen(Predicate<KeyMetrics> filter) {
+        FundamentalsIndex current = index;
+        List<KeyMetrics> matches = new ArrayList<>();
+        for (String ticker : current.tickers()) {
+            KeyMetrics metrics = current.keyMetrics(ticker, livePrice(ticker));
+            if (filter.test(metrics)) {
+                matches.add(metrics);
+            }
+        }
+        return matches;
+    }
+
+    private double livePrice(String stockTicker) {
+        RiskManagement quote = snapshots.risk(stockTicker);
+        return quote != null && quote.getLast() > 0 ? quote.getLast() : Double.NaN;
+    }
+
+    @Override
+    public void destroy() {
+        refresher.shutdownNow();
+    }
+}
@@ -0,0 +1,209 @@
+package com.moneyteam.analysis.service;
+
+import com.moneyteam.analysis.model.OptionChain;
+
+/**
+ * Implied volatility from option prices, over the primitive columns of an {@link OptionChain}.
+ *
+ * Each contract is solved on its out-of-the-money side, where the price is all time value. It starts
+ * from the Corrado-Miller closed-form estimate, which is usually within a few vol points, then
+ * takes Newton steps on vega inside a bracket that shrinks with every evaluation.
+ * If a Newton step would leave the bracket (flat vega far from the money) the solve finishes with
+ * Brent's method on what is left of it, so every quote inside the no-arbitrage bounds converges.
+ * Prices use the same kernel as {@link BlackScholes}, so a solved vol reprices its quote exactly.
+ */
+public final class ImpliedVolatility {
+
+    static final double MAX_VOL = 5.0;
+    private static final int MAX_NEWTON_STEPS = 8;
+    private static final int MAX_BRENT_STEPS = 64;
+    private static final double VOL_TOLERANCE = 1e-9;
+    // Price tolerance relative to the time value being solved for
+    private static final double PRICE_TOLERANCE = 1e-10;
+
+    private ImpliedVolatility() {
+    }
+
+    /**
+     * Solve contracts [from, to) of the chain for the vols that reproduce prices[i] at the given
+     * spot and rate, as of valuationEpochSecond. Prices outside the no-arbitrage bounds, expired
+     * contracts and vols above {@link #MAX_VOL} give NaN.
+     */
+    public static void solve(OptionChain chain, double spot, double rate, double[] prices, long valuationEpochSecond,
+                             double[] vols, int from, int to) {
+        double[] logStrikes = chain.getLogStrikes();
+        double[] strikes = chain.getStrikes();
+        boolean[] calls = chain.getCalls();
+        long[] expiry = chain.getExpiryEpochSeconds();
+        double q = chain.getDividendYield();
+        double logSpot = Math.log(spot);
+
+        long lastExpiry = Long.MIN_VALUE;
+        double years = 0, sqrtYears = 0, discR = 1, discQ = 1, drift = 0;
+        for (int i = from; i < to; i++) {
+            if (expiry[i] != lastExpiry) {
+                lastExpiry = expiry[i];
+                years = Math.max(0, (lastExpiry - valuationEpochSecond) / BlackScholes.SECONDS_PER_YEAR);
+                sqrtYears = Math.sqrt(years);
+                discR = Math.exp(-rate * years);
+                discQ = Math.exp(-q * years);
+                drift = (rate - q) * years;
+            }
+            vols[i] = years > 0
+                    ? solve(prices[i], calls[i], spot * discQ, strikes[i] * discR, logSpot - logStrikes[i] + drift,
+                            sqrtYears)
+                    : Double.NaN;
+        }
+    }
+
+    // One contract of the chain, for a single moved quote
+    public static double solve(OptionChain chain, int contract, double spot, double rate, double price,
+                               long valuationEpochSecond) {
+        double years = (chain.getExpiryEpochSeconds()[contract] - valuationEpochSecond) / BlackScholes.SECONDS_PER_YEAR;
+        if (!(years > 0)) {
+            return Double.NaN;
+        }
+        double q = chain.getDividendYield();
+        double s = spot * Math.exp(-q * years);
+        double x = chain.getStrikes()[contract] * Math.exp(-rate * years);
+        return solve(price, chain.getCalls()[contract], s, x,
+                Math.log(spot) - chain.getLogStrikes()[contract] + (rate - q) * years, Math.sqrt(years));
+    }
+
+    /**
+     * Solves on the out-of-the-money side, where the price is all time value: an in-the-money quote
+     * is moved across by put-call parity, and an out-of-the-money put is solved as the call with
+     * spot and strike swapped (P(s, x) = C(x, s) under Black-Scholes).
+     */
+    static double solve(double price, boolean call, double s, double x, double moneyness, double sqrtYears) {
+        boolean callOutOfTheMoney = x >= s;
+        double otm = call == callOutOfTheMoney ? price : call ? price - s + x : price + s - x;
+        return callOutOfTheMoney
+                ? solveCall(otm, s, x, moneyness, sqrtYears)
+                : solveCall(otm, x, s, -moneyness, sqrtYears);
+    }
+
+    // Vol giving a call worth target, with s and x the discounted spot and strike, moneyness ln(s / x)
+    static double solveCall(double target, double s, double x, double moneyness, double sqrtYears) {
+        if (!(target > Math.max(s - x, 0)) || !(target < s)) {
+            return Double.NaN;
+        }
+        double tolerance = PRICE_TOLERANCE * (target - Math.max(s - x, 0));
+        double lo = 0;
+        double hi = MAX_VOL;
+        double fHi = callPrice(s, x, moneyness, sqrtYears, hi) - target;
+        if (fHi < 0) {
+            return Double.NaN;
+        }
+        double fLo = Math.max(s - x, 0) - target;
+
+        double vol = initialGuess(target, s, x, sqrtYears);
+        for (int step = 0; step < MAX_NEWTON_STEPS; step++) {
+            double sd = vol * sqrtYears;
+            double d1 = moneyness / sd + 0.5 * sd;
+            double pdf1 = BlackScholes.normalPdf(d1);
+            double f = s * BlackScholes.normalCdf(d1, pdf1)
+                    - x * BlackScholes.normalCdf(d1 - sd, pdf1 * s / x) - target;
+            if (Math.abs(f) <= tolerance) {
+                return vol;
+            }
+            if (f > 0) {
+                hi = vol;
+                fHi = f;
+            } else {
+                lo = vol;
+                fLo = f;
+            }
+            double next = vol - f / (s * pdf1 * sqrtYears);
+            if (!(next > lo && next < hi)) {
+                break;
+            }
+            if (Math.abs(next - vol) <= VOL_TOLERANCE) {
+                return next;
+            }
+            vol = next;
+        }
+        return brent(target, s, x, moneyness, sqrtYears, lo, fLo, hi, fHi, tolerance);
+    }
+
+    // Corrado-Miller; clamped into (0, MAX_VOL) and 30% when the square root goes negative
+    static double initialGuess(double target, double s, double x, double sqrtYears) {
+        double half = target - 0.5 * (s - x);
+        double root = half * half - (s - x) * (s - x) / Math.PI;
+        if (!(root >= 0)) {
+            return 0.3;
+        }
+        double guess = Math.sqrt(2 * Math.PI) / (sqrtYears * (s + x)) * (half + Math.sqrt(root));
+        return guess > 1e-4 && guess < MAX_VOL ? guess : 0.3;
+    }
+
+    static double callPrice(double s, double x, double moneyness, double sqrtYears, double vol) {
+        if (vol <= 0) {
+            return Math.max(s - x, 0);
+        }
+        double sd = vol * sqrtYears;
+        double d1 = moneyness / sd + 0.5 * sd;
+        double pdf1 = BlackScholes.normalPdf(d1);
+        return s * BlackScholes.normalCdf(d1, pdf1) - x * BlackScholes.normalCdf(d1 - sd, pdf1 * s / x);
+    }
+
+    // Brent's method on [a, b] with f(a) < 0 < f(b)
+    private static double brent(double target, double s, double x, double moneyness, double sqrtYears,
+                                double a, double fa, double b, double fb, double tolerance) {
+        double c = a, fc = fa, d = b - a, e = d;
+        for (int step = 0; step < MAX_BRENT_STEPS; step++) {
+            if ((fb > 0) == (fc > 0)) {
+                c = a;
+                fc = fa;
+                d = b - a;
+                e = d;
+            }
+            if (Math.abs(fc) < Math.abs(fb)) {
+                a = b;
+                b = c;
+                c = a;
+                fa = fb;
+                fb = fc;
+                fc = fa;
+            }
+            double half = 0.5 * (c - b);
+            if (Math.abs(half) <= VOL_TOLERANCE || Math.abs(fb) <= tolerance) {
+                return b;
+            }
+            if (Math.abs(e) >= VOL_TOLERANCE && Math.abs(fa) > Math.abs(fb)) {
+                // Inverse quadratic interpolation, or secant when only two points are distinct
+                double p, r;
+                double ratio = fb / fa;
+                if (a == c) {
+                    p = 2 * half * ratio;
+                    r = 1 - ratio;
+                } else {
+                    double qa = fa / fc;
+                    double rb = fb / fc;
+                    p = ratio * (2 * half * qa * (qa - rb) - (b - a) * (rb - 1));
+                    r = (qa - 1) * (rb - 1) * (ratio - 1);
+                }
+                if (p > 0) {
+                    r = -r;
+                } else {
+                    p = -p;
+                }
+                if (2 * p < Math.min(3 * half * r - Math.abs(VOL_TOLERANCE * r), Math.abs(e * r))) {
+                    e = d;
+                    d = p / r;
+                } else {
+                    d = half;
+                    e = d;
+                }
+            } else {
+                d = half;
+                e = d;
+            }
+            a = b;
+            fa = fb;
+            b += Math.abs(d) > VOL_TOLERANCE ? d : Math.copySign(VOL_TOLERANCE, half);
+            fb = callPrice(s, x, moneyness, sqrtYears, b) - target;
+        }
+        return b;
+    }
+}
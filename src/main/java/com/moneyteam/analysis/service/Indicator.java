@@ -0,0 +1,11 @@
+package com.moneyteam.analysis.service;
+
+// A streaming indicator; value() is NaN until enough samples have been seen
+public interface Indicator {
+
+    double value();
+
+    default boolean isReady() {
+        return !Double.isNaN(value());
+    }
+}
@@ -0,0 +1,188 @@
+package com.moneyteam.analysis.service;
+
+import com.moneyteam.analysis.model.IndicatorValues;
+import com.moneyteam.analysis.repository.TechnicalAnalysisRepository;
+import com.moneyteam.marketdata.model.PriceBar;
+import com.moneyteam.marketdata.model.Stock;
+import com.moneyteam.marketdata.model.enums.BarInterval;
+import com.moneyteam.marketdata.model.enums.DeliveryMode;
+import com.moneyteam.marketdata.service.QuoteBus;
+import com.moneyteam.marketdata.service.SymbolMaster;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Keeps live indicators for every known ticker on a single thread.
+ *
+ * Quotes arrive through a conflated {@link QuoteBus} subscription, so the engine never falls behind
+ * the feed; each ticker's {@link IndicatorSet} sits in an array indexed by its {@link SymbolMaster}
+ * id. Minute-bar closes produce snapshots that are published to {@link AnalysisSnapshotRegistry}
+ * and written to {@code technical_analysis} in batches off the engine thread, on a timer so a quiet
+ * feed still gets its last bars written, and once more on shutdown; bar listeners get the closed bar
+ * itself.
+ */
+@Service
+public class IndicatorEngine implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(IndicatorEngine.class);
+
+    private static final long BAR_MILLIS = 60_000;
+    private static final long FLUSH_INTERVAL_MILLIS = 30_000;
+    private static final ZoneId SESSION_ZONE = ZoneId.of("America/New_York");
+
+    private final SymbolMaster symbolMaster;
+    private final TechnicalAnalysisRepository repository;
+    private final AnalysisSnapshotRegistry snapshots;
+    private final ScheduledExecutorService writer;
+    private final QuoteBus.Subscription subscription;
+    private final Map<String, IndicatorValues> latest = new ConcurrentHashMap<>();
+    private final CopyOnWriteArrayList<Consumer<PriceBar>> barListeners = new CopyOnWriteArrayList<>();
+    // Closed snapshots not yet written; appended by the engine thread, drained by the writer
+    private final List<IndicatorValues> pending = new ArrayList<>();
+
+    // Engine-thread state
+    private IndicatorSet[] sets = new IndicatorSet[0];
+    private long[] lastVolume = new long[0];
+    private long sessionDay;
+    private long sessionDayEndsMillis = Long.MIN_VALUE;
+
+    public IndicatorEngine(QuoteBus quoteBus, SymbolMaster symbolMaster, TechnicalAnalysisRepository repository,
+                           AnalysisSnapshotRegistry snapshots) {
+        this.symbolMaster = symbolMaster;
+        this.repository = repository;
+        this.snapshots = snapshots;
+        this.writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "indicator-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        this.writer.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS,
+                TimeUnit.MILLISECONDS);
+        this.subscription = quoteBus.subscribe("technical-indicators", this::onQuote, DeliveryMode.CONFLATED);
+    }
+
+    void onQuote(Stock quote) {
+        Double last = quote.getLast();
+        if (last == null || quote.getStockTicker() == null) {
+            return;
+        }
+        int id = symbolMaster.idOf(quote.getStockTicker());
+        if (id < 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        IndicatorSet set = setFor(id, quote.getStockTicker());
+
+        // Quote volume is cumulative for the day; the indicators want what traded since the last quote.
+        // The first quote for a ticker only seeds the baseline, so the day so far is not one giant print
+        long volume = quote.getVolume() == null ? 0 : quote.getVolume();
+        long previous = lastVolume[id];
+        long traded = previous < 0 ? 0 : volume >= previous ? volume - previous : volume;
+        lastVolume[id] = volume;
+
+        IndicatorValues closed = set.onTrade(now, last, traded, sessionDay(now));
+        if (closed != null) {
+            latest.put(closed.getStockTicker(), closed);
+            snapshots.publishIndicators(closed);
+            synchronized (pending) {
+                pending.add(closed);
+            }
+            if (!barListeners.isEmpty()) {
+                publishBar(set.lastClosedBar(BarInterval.MINUTE));
+            }
+        }
+    }
+
+    // Called on the engine thread for every closed minute bar; listeners must hand off quickly
+    public void addBarListener(Consumer<PriceBar> listener) {
+        barListeners.add(listener);
+    }
+
+    private void publishBar(PriceBar bar) {
+        for (Consumer<PriceBar> listener : barListeners) {
+            try {
+                listener.accept(bar);
+            } catch (RuntimeException e) {
+                log.error("Bar listener failed on {}: {}", bar.getStockTicker(), e.getMessage());
+            }
+        }
+    }
+
+    private IndicatorSet setFor(int id, String ticker) {
+        if (id >= sets.length) {
+            int size = Math.max(id + 1, sets.length * 2);
+            sets = Arrays.copyOf(sets, size);
+            int seen = lastVolume.length;
+            lastVolume = Arrays.copyOf(lastVolume, size);
+            // -1 marks a ticker with no quote yet
+            Arrays.fill(lastVolume, seen, size, -1);
+        }
+        IndicatorSet set = sets[id];
+        if (set == null) {
+            set = new IndicatorSet(ticker, BAR_MILLIS);
+            sets[id] = set;
+        }
+        return set;
+    }
+
+    // Trading-day number in exchange time; recomputed only when the day rolls over
+    private long sessionDay(long now) {
+        if (now >= sessionDayEndsMillis) {
+            LocalDate day = Instant.ofEpochMilli(now).atZone(SESSION_ZONE).toLocalDate();
+            sessionDay = day.toEpochDay();
+            sessionDayEndsMillis = day.plusDays(1).atStartOfDay(SESSION_ZONE).toInstant().toEpochMilli();
+        }
+        return sessionDay;
+    }
+
+    // Writes whatever has closed since the last flush, on the calling thread
+    void flush() {
+        List<IndicatorValues> batch;
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(pending);
+            pending.clear();
+        }
+        try {
+            repository.insertAll(batch);
+        } catch (RuntimeException e) {
+            log.error("Failed to write {} technical_analysis rows: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    // Indicators as of the ticker's last closed bar, or null if none has closed yet
+    public IndicatorValues latest(String stockTicker) {
+        return latest.get(stockTicker);
+    }
+
+    @Override
+    public void destroy() {
+        subscription.close();
+        writer.shutdown();
+        try {
+            // Let a flush already under way finish, then write what is left
+            writer.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+}
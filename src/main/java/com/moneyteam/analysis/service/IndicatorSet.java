@@ -0,0 +1,125 @@
+package com.moneyteam.analysis.service;
+
+import com.moneyteam.analysis.model.IndicatorValues;
+import com.moneyteam.marketdata.model.PriceBar;
+import com.moneyteam.marketdata.model.enums.BarInterval;
+
+/**
+ * The standard indicator bundle for one ticker. Trades are rolled into fixed-interval bars; bar
+ * indicators (SMA, EMA, RSI, MACD, Bollinger, ATR) update once per closed bar and VWAP updates per
+ * trade. Nothing here allocates after construction except the snapshot handed out on bar close.
+ * Not thread-safe: one owner thread per set.
+ */
+public final class IndicatorSet {
+
+    private final String stockTicker;
+    private final long barMillis;
+
+    private final SimpleMovingAverage sma = new SimpleMovingAverage(50);
+    private final ExponentialMovingAverage ema = new ExponentialMovingAverage(20);
+    private final RelativeStrengthIndex rsi = new RelativeStrengthIndex(14);
+    private final MovingAverageConvergenceDivergence macd = new MovingAverageConvergenceDivergence(12, 26, 9);
+    private final BollingerBands bollinger = new BollingerBands(20, 2.0);
+    private final AverageTrueRange atr = new AverageTrueRange(14);
+    private final VolumeWeightedAveragePrice vwap = new VolumeWeightedAveragePrice();
+
+    private long barStart = Long.MIN_VALUE;
+    private double barOpen;
+    private double barHigh;
+    private double barLow;
+    private double barClose;
+    private double barVolume;
+
+    // The bar most recently closed, kept as primitives until someone asks for it
+    private long closedStart = Long.MIN_VALUE;
+    private double closedOpen;
+    private double closedHigh;
+    private double closedLow;
+    private double closedClose;
+    private double closedVolume;
+    private long sessionDay = Long.MIN_VALUE;
+
+    public IndicatorSet(String stockTicker, long barMillis) {
+        this.stockTicker = stockTicker;
+        this.barMillis = barMillis;
+    }
+
+    /**
+     * Feed one trade. Returns a snapshot if this trade closed the previous bar, otherwise null.
+     * sessionDay changes reset VWAP.
+     */
+    public IndicatorValues onTrade(long epochMillis, double price, double volume, long sessionDay) {
+        IndicatorValues closed = null;
+        long start = epochMillis - Math.floorMod(epochMillis, barMillis);
+        if (start != barStart) {
+            if (barStart != Long.MIN_VALUE && start > barStart) {
+                closed = closeBar(barStart + barMillis);
+            } else if (start < barStart) {
+                // Out-of-order print for a bar we already closed: count it in VWAP only
+                vwap.update(price, volume);
+                return null;
+            }
+            barStart = start;
+            barOpen = barHigh = barLow = price;
+            barVolume = 0;
+        } else {
+            if (price > barHigh) barHigh = price;
+            if (price < barLow) barLow = price;
+        }
+        barClose = price;
+        barVolume += volume;
+
+        if (sessionDay != this.sessionDay) {
+            this.sessionDay = sessionDay;
+            vwap.reset();
+        }
+        vwap.update(price, volume);
+        return closed;
+    }
+
+    // Feed a completed bar directly (e.g. from history); returns the post-bar snapshot
+    public IndicatorValues onBar(long closeMillis, double high, double low, double close) {
+        barHigh = high;
+        barLow = low;
+        barClose = close;
+        IndicatorValues values = closeBar(closeMillis);
+        closedStart = closeMillis - barMillis;
+        closedOpen = Double.NaN;
+        closedVolume = 0;
+        return values;
+    }
+
+    private IndicatorValues closeBar(long closeMillis) {
+        closedStart = barStart;
+        closedOpen = barOpen;
+        closedHigh = barHigh;
+        closedLow = barLow;
+        closedClose = barClose;
+        closedVolume = barVolume;
+        sma.update(barClose);
+        ema.update(barClose);
+        rsi.update(barClose);
+        macd.update(barClose);
+        bollinger.update(barClose);
+        atr.update(barHigh, barLow, barClose);
+        return snapshot(closeMillis);
+    }
+
+    public IndicatorValues snapshot(long asOfMillis) {
+        return new IndicatorValues(stockTicker, asOfMillis, sma.value(), ema.value(), rsi.value(), macd.value(),
+                macd.signal(), bollinger.upper(), bollinger.lower(), atr.value(), vwap.value());
+    }
+
+    // The last bar closed by onTrade/onBar, or null if none has closed yet
+    public PriceBar lastClosedBar(BarInterval interval) {
+        if (closedStart == Long.MIN_VALUE) {
+            return null;
+        }
+        return new PriceBar(stockTicker, interval, Math.floorDiv(closedStart, 1000L), closedOpen, closedHigh,
+                closedLow, closedClose, (long) closedVolume);
+    }
+
+    public String getStockTicker() {
+        return stockTicker;
+    }
+}
@@ -0,0 +1,22 @@
+package com.moneyteam.analysis.service;
+
+import com.moneyteam.marketdata.model.PriceBar;
+import com.moneyteam.trading.model.enums.OrderSide;
+
+/**
+ * A strategy run bar by bar on live data by {@link StrategyScheduler}. One instance is created per
+ * subscribed ticker and only ever called by one thread at a time, so it can keep plain state.
+ */
+public interface LiveStrategy {
+
+    // BUY, SELL or null for no action at this bar's close
+    OrderSide onBar(PriceBar bar);
+
+    /**
+     * Called after the signal onBar just returned reached the signal handler. Not called when the
+     * scheduler drops it (past the deadline) or the handler throws, so position state kept here
+     * only changes for signals that were acted on.
+     */
+    default void onSignalDelivered(OrderSide side) {
+    }
+}
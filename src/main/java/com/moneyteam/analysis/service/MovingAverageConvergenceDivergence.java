@@ -0,0 +1,38 @@
+package com.moneyteam.analysis.service;
+
+// MACD line (fast EMA - slow EMA), its signal EMA and the histogram
+public final class MovingAverageConvergenceDivergence implements Indicator {
+
+    private final ExponentialMovingAverage fast;
+    private final ExponentialMovingAverage slow;
+    private final ExponentialMovingAverage signal;
+
+    public MovingAverageConvergenceDivergence(int fastPeriod, int slowPeriod, int signalPeriod) {
+        this.fast = new ExponentialMovingAverage(fastPeriod);
+        this.slow = new ExponentialMovingAverage(slowPeriod);
+        this.signal = new ExponentialMovingAverage(signalPeriod);
+    }
+
+    public double update(double close) {
+        fast.update(close);
+        slow.update(close);
+        double line = value();
+        if (!Double.isNaN(line)) {
+            signal.update(line);
+        }
+        return line;
+    }
+
+    @Override
+    public double value() {
+        return fast.value() - slow.value();
+    }
+
+    public double signal() {
+        return signal.value();
+    }
+
+    public double histogram() {
+        return value() - signal.value();
+    }
+}
@@ -0,0 +1,163 @@
+package com.moneyteam.analysis.service;
+
+import com.moneyteam.analysis.model.OptionChain;
+import com.moneyteam.analysis.model.OptionGreeks;
+import com.moneyteam.analysis.model.RiskManagement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Prices whole option chains with {@link BlackScholes}, in parallel across underlyings.
+ *
+ * Each chain is cut into slices of at most {@link #CONTRACTS_PER_TASK} contracts so one very large
+ * chain does not end up on a single worker, and the slices are split across a fork-join pool. Every
+ * slice writes its own range of its chain's output arrays, so nothing is shared between workers.
+ */
+@Service
+public class OptionPricingEngine implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(OptionPricingEngine.class);
+
+    // Continuously compounded; used when the caller does not pass a rate
+    public static final double RISK_FREE_RATE = 0.045;
+    // Contracts per fork-join leaf; a leaf of this size takes ~100 us
+    private static final int CONTRACTS_PER_TASK = 4_096;
+
+    private final AnalysisSnapshotRegistry snapshots;
+    private final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    public OptionPricingEngine(AnalysisSnapshotRegistry snapshots) {
+        this.snapshots = snapshots;
+    }
+
+    /**
+     * Greeks for each chain at its underlying's latest quote, keyed by ticker. vols holds one vol per
+     * contract for each ticker; chains without a quote or without vols are skipped.
+     */
+    public Map<String, OptionGreeks> priceAll(List<OptionChain> chains, Map<String, double[]> vols) {
+        List<OptionChain> priced = new ArrayList<>(chains.size());
+        List<double[]> chainVols = new ArrayList<>(chains.size());
+        List<Double> spots = new ArrayList<>(chains.size());
+        for (OptionChain chain : chains) {
+            RiskManagement quote = snapshots.risk(chain.getStockTicker());
+            double[] v = vols.get(chain.getStockTicker());
+            if (quote != null && quote.getLast() > 0 && v != null) {
+                priced.add(chain);
+                chainVols.add(v);
+                spots.add(quote.getLast());
+            }
+        }
+        double[] spotArray = new double[spots.size()];
+        for (int i = 0; i < spotArray.length; i++) {
+            spotArray[i] = spots.get(i);
+        }
+        OptionGreeks[] results = priceAll(priced, spotArray, chainVols.toArray(new double[0][]), RISK_FREE_RATE,
+                System.currentTimeMillis());
+        Map<String, OptionGreeks> byTicker = new LinkedHashMap<>();
+        for (OptionGreeks greeks : results) {
+            byTicker.put(greeks.getStockTicker(), greeks);
+        }
+        return byTicker;
+    }
+
+    /**
+     * Greeks of every chain at spots[i] and vols[i] (one per contract), as of valuationMillis.
+     * Results come back in chain order.
+     */
+    public OptionGreeks[] priceAll(List<OptionChain> chains, double[] spots, double[][] vols, double rate,
+                                   long valuationMillis) {
+        int n = chains.size();
+        if (spots.length != n || vols.length != n) {
+            throw new IllegalArgumentException("Expected a spot and a vol array for each of " + n + " chains");
+        }
+        long started = System.nanoTime();
+        OptionGreeks[] out = new OptionGreeks[n];
+        List<Slice> slices = new ArrayList<>();
+        int contracts = 0;
+        for (int c = 0; c < n; c++) {
+            OptionChain chain = chains.get(c);
+            if (vols[c].length != chain.size()) {
+                throw new IllegalArgumentException("Expected " + chain.size() + " vols for " + chain.getStockTicker());
+            }
+            out[c] = new OptionGreeks(chain.getStockTicker(), spots[c], valuationMillis, chain.size());
+            for (int from = 0; from < chain.size(); from += CONTRACTS_PER_TASK) {
+                slices.add(new Slice(c, from, Math.min(chain.size(), from + CONTRACTS_PER_TASK)));
+            }
+            contracts += chain.size();
+        }
+        if (!slices.isEmpty()) {
+            pool.invoke(new SliceTask(slices, 0, slices.size(), chains, spots, vols, rate,
+                    Math.floorDiv(valuationMillis, 1000L), out));
+        }
+        log.debug("Priced {} contracts on {} underlyings in {} us", contracts, n,
+                (System.nanoTime() - started) / 1_000);
+        return out;
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdownNow();
+    }
+
+    private static final class Slice {
+        final int chain;
+        final int from;
+        final int to;
+
+        Slice(int chain, int from, int to) {
+            this.chain = chain;
+            this.from = from;
+            this.to = to;
+        }
+    }
+
+    private static final class SliceTask extends RecursiveAction {
+        private final List<Slice> slices;
+        private final int from;
+        private final int to;
+        private final List<OptionChain> chains;
+        private final double[] spots;
+        private final double[][] vols;
+        private final double rate;
+        private final long valuationEpochSecond;
+        private final OptionGreeks[] out;
+
+        SliceTask(List<Slice> slices, int from, int to, List<OptionChain> chains, double[] spots, double[][] vols,
+                  double rate, long valuationEpochSecond, OptionGreeks[] out) {
+            this.slices = slices;
+            this.from = from;
+            this.to = to;
+            this.chains = chains;
+            this.spots = spots;
+            this.vols = vols;
+            this.rate = rate;
+            this.valuationEpochSecond = valuationEpochSecond;
+            this.out = out;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                Slice slice = slices.get(from);
+                int c = slice.chain;
+                BlackScholes.greeks(chains.get(c), spots[c], rate, vols[c], valuationEpochSecond, out[c],
+                        slice.from, slice.to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            SliceTask left = new SliceTask(slices, from, mid, chains, spots, vols, rate, valuationEpochSecond, out);
+            left.fork();
+            new SliceTask(slices, mid, to, chains, spots, vols, rate, valuationEpochSecond, out).compute();
+            left.join();
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.moneyteam.analysis.service;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Getter-based property access for model classes (Stock, KeyMetrics, FundamentalAnalysis, ...)
+ * without per-call reflection.
+ *
+ * The first use of a class scans its public no-arg getters once and binds each through
+ * LambdaMetafactory to a real Function / ToDoubleFunction instance, so reads afterwards are plain
+ * interface calls the JIT inlines like a direct getter. Primitive numeric getters also get an
+ * unboxed {@link Property#getDouble} path. Classes in packages not opened to this module (JDK types)
+ * fall back to method handle calls. Instances are cached per class for the JVM's lifetime.
+ */
+public final class PropertyAccessors<T> {
+
+    private static final ClassValue<PropertyAccessors<?>> CACHE = new ClassValue<>() {
+        @Override
+        protected PropertyAccessors<?> computeValue(Class<?> type) {
+            return new PropertyAccessors<>(type);
+        }
+    };
+
+    private final Class<T> type;
+    private final Map<String, Property<T>> properties;
+
+    private PropertyAccessors(Class<T> type) {
+        this.type = type;
+        this.properties = Collections.unmodifiableMap(bind(type));
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> PropertyAccessors<T> of(Class<T> type) {
+        return (PropertyAccessors<T>) CACHE.get(type);
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    public Set<String> propertyNames() {
+        return properties.keySet();
+    }
+
+    // null if the class has no such getter
+    public Property<T> property(String name) {
+        return properties.get(name);
+    }
+
+    public Object get(T target, String name) {
+        Property<T> property = properties.get(name);
+        if (property == null) {
+            throw new IllegalArgumentException(type.getSimpleName() + " has no property " + name);
+        }
+        return property.get(target);
+    }
+
+    /**
+     * Resolve the named properties once and return a reader producing one row per object; use this
+     * when building reports or tables over a whole universe.
+     */
+    @SuppressWarnings("unchecked")
+    public Function<T, Object[]> rowReader(String... names) {
+        Property<T>[] columns = new Property[names.length];
+        for (int i = 0; i < names.length; i++) {
+            columns[i] = properties.get(names[i]);
+            if (columns[i] == null) {
+                throw new IllegalArgumentException(type.getSimpleName() + " has no property " + names[i]);
+            }
+        }
+        return target -> {
+            Object[] row = new Object[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                row[i] = columns[i].getter.apply(target);
+            }
+            return row;
+        };
+    }
+
+    public static final class Property<T> {
+        private final String name;
+        private final Class<?> valueType;
+        private final Function<T, Object> getter;
+        private final ToDoubleFunction<T> doubleGetter;
+
+        Property(String name, Class<?> valueType, Function<T, Object> getter, ToDoubleFunction<T> doubleGetter) {
+            this.name = name;
+            this.valueType = valueType;
+            this.getter = getter;
+            this.doubleGetter = doubleGetter;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Class<?> getValueType() {
+            return valueType;
+        }
+
+        public Object get(T target) {
+            return getter.apply(target);
+        }
+
+        // Unboxed read for primitive numeric getters; boxed numbers unbox, null reads as NaN
+        public double getDouble(T target) {
+            if (doubleGetter != null) {
+                return doubleGetter.applyAsDouble(target);
+            }
+            Object value = getter.apply(target);
+            if (value instanceof Number) {
+                return ((Number) value).doubleValue();
+            }
+            if (value == null) {
+                return Double.NaN;
+            }
+            throw new IllegalStateException("Property " + name + " is not numeric");
+        }
+    }
+
+    private static <T> Map<String, Property<T>> bind(Class<T> type) {
+        Map<String, Property<T>> bound = new LinkedHashMap<>();
+        for (Method method : type.getMethods()) {
+            String name = propertyName(method);
+            if (name == null || bound.containsKey(name)) {
+                continue;
+            }
+            try {
+                bound.put(name, bindProperty(type, name, method));
+            } catch (Throwable e) {
+                throw new IllegalStateException("Cannot bind " + type.getSimpleName() + "." + method.getName(), e);
+            }
+        }
+        return bound;
+    }
+
+    private static <T> Property<T> bindProperty(Class<T> type, String name, Method method) throws Throwable {
+        Class<?> returnType = method.getReturnType();
+        MethodHandles.Lookup lookup;
+        try {
+            // Define the lambdas next to the class declaring the getter, not the model class: a getter
+            // inherited from a non-public superclass in another package is not reachable from the latter
+            lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+        } catch (IllegalAccessException e) {
+            // Package not opened to us (JDK and other module types): call through a plain method handle
+            MethodHandle handle = MethodHandles.publicLookup().unreflect(method)
+                    .asType(MethodType.methodType(Object.class, Object.class));
+            return new Property<>(name, returnType, target -> invoke(handle, target), null);
+        }
+        MethodHandle handle = lookup.unreflect(method);
+        return new Property<>(name, returnType, getter(lookup, handle, type, returnType),
+                isPrimitiveNumber(returnType) ? doubleGetter(lookup, handle, type, returnType) : null);
+    }
+
+    private static Object invoke(MethodHandle handle, Object target) {
+        try {
+            return (Object) handle.invokeExact(target);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // getFoo() -> foo, isFoo()/hasFoo() on booleans -> foo; null if not a getter
+    private static String propertyName(Method method) {
+        if (method.getParameterCount() != 0 || method.getReturnType() == void.class
+                || Modifier.isStatic(method.getModifiers()) || method.getDeclaringClass() == Object.class) {
+            return null;
+        }
+        String n = method.getName();
+        String stem;
+        if (n.startsWith("get") && n.length() > 3) {
+            stem = n.substring(3);
+        } else if ((n.startsWith("is") || n.startsWith("has")) && method.getReturnType() == boolean.class) {
+            stem = n.substring(n.startsWith("is") ? 2 : 3);
+            if (stem.isEmpty()) {
+                return null;
+            }
+        } else {
+            return null;
+        }
+        return Character.toLowerCase(stem.charAt(0)) + stem.substring(1);
+    }
+
+    private static boolean isPrimitiveNumber(Class<?> type) {
+        return type == double.class || type == float.class || type == long.class || type == int.class
+                || type == short.class || type == byte.class;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Function<T, Object> getter(MethodHandles.Lookup lookup, MethodHandle handle,
+                                                  Class<T> type, Class<?> returnType) throws Throwable {
+        CallSite site = LambdaMetafactory.metafactory(lookup, "apply",
+                MethodType.methodType(Function.class),
+                MethodType.methodType(Object.class, Object.class),
+                handle,
+                MethodType.methodType(boxed(returnType), type));
+        return (Function<T, Object>) site.getTarget().invokeExact();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ToDoubleFunction<T> doubleGetter(MethodHandles.Lookup lookup, MethodHandle handle,
+                                                        Class<T> type, Class<?> returnType) throws Throwable {
+        CallSite site = LambdaMetafactory.metafactory(lookup, "applyAsDouble",
+                MethodType.methodType(ToDoubleFunction.class),
+                MethodType.methodType(double.class, Object.class),
+                handle,
+                MethodType.methodType(returnType, type));
+        return (ToDoubleFunction<T>) site.getTarget().invokeExact();
+    }
+
+    private static Class<?> boxed(Class<?> type) {
+        return type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type;
+    }
+}
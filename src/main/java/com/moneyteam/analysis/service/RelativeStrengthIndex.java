@@ -0,0 +1,37 @@
+package com.moneyteam.analysis.service;
+
+// Wilder RSI over closes, 0..100
+public final class RelativeStrengthIndex implements Indicator {
+
+    private final ExponentialMovingAverage gains;
+    private final ExponentialMovingAverage losses;
+    private double previous = Double.NaN;
+
+    public RelativeStrengthIndex(int period) {
+        this.gains = ExponentialMovingAverage.wilder(period);
+        this.losses = ExponentialMovingAverage.wilder(period);
+    }
+
+    public double update(double close) {
+        if (!Double.isNaN(previous)) {
+            double change = close - previous;
+            gains.update(change > 0 ? change : 0);
+            losses.update(change < 0 ? -change : 0);
+        }
+        previous = close;
+        return value();
+    }
+
+    @Override
+    public double value() {
+        double gain = gains.value();
+        double loss = losses.value();
+        if (Double.isNaN(gain)) {
+            return Double.NaN;
+        }
+        if (loss == 0) {
+            return gain == 0 ? 50 : 100;
+        }
+        return 100 - 100 / (1 + gain / loss);
+    }
+}
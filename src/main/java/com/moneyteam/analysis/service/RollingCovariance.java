@@ -0,0 +1,129 @@
+package com.moneyteam.analysis.service;
+
+import com.moneyteam.analysis.model.CorrelationMatrix;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sample covariance of n series over a sliding window of bars, O(n^2) per bar.
+ *
+ * Keeps running sums of each series and of every pairwise product (packed lower triangle, see
+ * {@link CorrelationMatrix#packedIndex}); a new bar adds its products and the bar falling out of
+ * the window subtracts its own, so nothing is recomputed from the window. Not thread-safe.
+ */
+public final class RollingCovariance {
+
+    // Rebuild the running sums from the window this often so floating-point drift cannot accumulate
+    private static final int RESUM_INTERVAL = 4096;
+
+    private final int n;
+    private final int window;
+    private final double[] history;    // window x n ring, one row per bar
+    private final double[] sums;
+    private final double[] products;
+    private int next;
+    private int count;
+    private int sinceResum;
+
+    public RollingCovariance(int dimension, int window) {
+        if (dimension < 1 || window < 2) {
+            throw new IllegalArgumentException("Need at least one series and a window of two bars");
+        }
+        this.n = dimension;
+        this.window = window;
+        this.history = new double[window * dimension];
+        this.sums = new double[dimension];
+        this.products = new double[CorrelationMatrix.packedSize(dimension)];
+    }
+
+    public int dimension() {
+        return n;
+    }
+
+    public int observations() {
+        return count;
+    }
+
+    // One bar of returns, one per series in index order
+    public void update(double[] x) {
+        if (x.length != n) {
+            throw new IllegalArgumentException("Expected " + n + " values but got " + x.length);
+        }
+        int slot = next * n;
+        boolean evicting = count == window;
+        if (evicting) {
+            for (int i = 0; i < n; i++) {
+                double xi = x[i];
+                double oi = history[slot + i];
+                sums[i] += xi - oi;
+                int row = i * (i + 1) / 2;
+                for (int j = 0; j <= i; j++) {
+                    products[row + j] += xi * x[j] - oi * history[slot + j];
+                }
+            }
+        } else {
+            for (int i = 0; i < n; i++) {
+                double xi = x[i];
+                sums[i] += xi;
+                int row = i * (i + 1) / 2;
+                for (int j = 0; j <= i; j++) {
+                    products[row + j] += xi * x[j];
+                }
+            }
+            count++;
+        }
+        System.arraycopy(x, 0, history, slot, n);
+        next = next + 1 == window ? 0 : next + 1;
+        if (++sinceResum == RESUM_INTERVAL) {
+            sinceResum = 0;
+            resum();
+        }
+    }
+
+    public double covariance(int i, int j) {
+        if (count < 2) {
+            return Double.NaN;
+        }
+        return (products[CorrelationMatrix.packedIndex(i, j)] - sums[i] * sums[j] / count) / (count - 1);
+    }
+
+    // Packed covariance of the current window; NaN everywhere until two bars have been seen
+    public double[] packedCovariance() {
+        double[] covariance = new double[products.length];
+        if (count < 2) {
+            Arrays.fill(covariance, Double.NaN);
+            return covariance;
+        }
+        double inverseCount = 1d / count;
+        double inverseDof = 1d / (count - 1);
+        for (int i = 0; i < n; i++) {
+            double si = sums[i] * inverseCount;
+            int row = i * (i + 1) / 2;
+            for (int j = 0; j <= i; j++) {
+                covariance[row + j] = (products[row + j] - si * sums[j]) * inverseDof;
+            }
+        }
+        return covariance;
+    }
+
+    public CorrelationMatrix snapshot(List<String> tickers, long asOfMillis) {
+        return new CorrelationMatrix(tickers, packedCovariance(), count, asOfMillis);
+    }
+
+    private void resum() {
+        Arrays.fill(sums, 0);
+        Arrays.fill(products, 0);
+        for (int b = 0; b < count; b++) {
+            int base = b * n;
+            for (int i = 0; i < n; i++) {
+                double xi = history[base + i];
+                sums[i] += xi;
+                int row = i * (i + 1) / 2;
+                for (int j = 0; j <= i; j++) {
+                    products[row + j] += xi * history[base + j];
+                }
+            }
+        }
+    }
+}
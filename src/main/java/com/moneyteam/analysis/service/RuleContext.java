@@ -0,0 +1,51 @@
+package com.moneyteam.analysis.service;
+
+import java.util.Arrays;
+
+/**
+ * Per-ticker evaluation state for a {@link RuleSet}: the bar fields plus one calculator per
+ * distinct indicator used by any rule in the set. Create one per ticker with
+ * {@link RuleSet#newContext()}; not thread-safe.
+ */
+public final class RuleContext {
+
+    static final int OPEN = 0;
+    static final int HIGH = 1;
+    static final int LOW = 2;
+    static final int CLOSE = 3;
+    static final int VOLUME = 4;
+    static final int FIELD_COUNT = 5;
+
+    // Computes one indicator slot from each new bar
+    interface SlotCalculator {
+        double update(double open, double high, double low, double close, double volume);
+    }
+
+    final double[] slots;
+    private final SlotCalculator[] calculators;
+
+    RuleContext(SlotCalculator[] calculators) {
+        this.calculators = calculators;
+        this.slots = new double[FIELD_COUNT + calculators.length];
+        Arrays.fill(slots, Double.NaN);
+    }
+
+    // Feed a closed bar; every shared indicator updates exactly once
+    public void update(double open, double high, double low, double close, double volume) {
+        double[] s = slots;
+        s[OPEN] = open;
+        s[HIGH] = high;
+        s[LOW] = low;
+        s[CLOSE] = close;
+        s[VOLUME] = volume;
+        SlotCalculator[] c = calculators;
+        for (int i = 0; i < c.length; i++) {
+            s[FIELD_COUNT + i] = c[i].update(open, high, low, close, volume);
+        }
+    }
+
+    // Feed a single trade as a one-print bar
+    public void onTick(double price, double volume) {
+        update(price, price, price, price, volume);
+    }
+}
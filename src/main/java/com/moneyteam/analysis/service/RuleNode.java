@@ -0,0 +1,109 @@
+package com.moneyteam.analysis.service;
+
+import java.util.List;
+
+/**
+ * Parsed form of a strategy rule. {@link RuleSet} compiles these into lambdas; {@link #interpret}
+ * walks the tree directly and is kept as the reference evaluator.
+ */
+public final class RuleNode {
+
+    public enum Kind {
+        NUMBER, SLOT, FUNCTION, NEGATE,
+        ADD, SUB, MUL, DIV,
+        LT, LE, GT, GE, EQ, NE,
+        AND, OR, NOT
+    }
+
+    final Kind kind;
+    final double value;            // NUMBER
+    final String name;             // SLOT key (e.g. "sma(50)", "close") or FUNCTION name
+    final List<RuleNode> children;
+    int slot = -1;                 // assigned by RuleSet for SLOT nodes
+
+    RuleNode(Kind kind, double value, String name, List<RuleNode> children) {
+        this.kind = kind;
+        this.value = value;
+        this.name = name;
+        this.children = children;
+    }
+
+    static RuleNode number(double value) {
+        return new RuleNode(Kind.NUMBER, value, null, List.of());
+    }
+
+    static RuleNode slot(String key) {
+        return new RuleNode(Kind.SLOT, 0, key, List.of());
+    }
+
+    static RuleNode function(String name, List<RuleNode> args) {
+        return new RuleNode(Kind.FUNCTION, 0, name, List.copyOf(args));
+    }
+
+    static RuleNode unary(Kind kind, RuleNode operand) {
+        return new RuleNode(kind, 0, null, List.of(operand));
+    }
+
+    static RuleNode binary(Kind kind, RuleNode left, RuleNode right) {
+        return new RuleNode(kind, 0, null, List.of(left, right));
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public boolean isCondition() {
+        switch (kind) {
+            case LT: case LE: case GT: case GE: case EQ: case NE: case AND: case OR: case NOT:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    RuleNode child(int i) {
+        return children.get(i);
+    }
+
+    // Tree-walking evaluation; conditions yield 1 or 0
+    public double interpret(double[] slots) {
+        switch (kind) {
+            case NUMBER: return value;
+            case SLOT: return slots[slot];
+            case NEGATE: return -child(0).interpret(slots);
+            case ADD: return child(0).interpret(slots) + child(1).interpret(slots);
+            case SUB: return child(0).interpret(slots) - child(1).interpret(slots);
+            case MUL: return child(0).interpret(slots) * child(1).interpret(slots);
+            case DIV: return child(0).interpret(slots) / child(1).interpret(slots);
+            case LT: return child(0).interpret(slots) < child(1).interpret(slots) ? 1 : 0;
+            case LE: return child(0).interpret(slots) <= child(1).interpret(slots) ? 1 : 0;
+            case GT: return child(0).interpret(slots) > child(1).interpret(slots) ? 1 : 0;
+            case GE: return child(0).interpret(slots) >= child(1).interpret(slots) ? 1 : 0;
+            case EQ: return child(0).interpret(slots) == child(1).interpret(slots) ? 1 : 0;
+            case NE: return child(0).interpret(slots) != child(1).interpret(slots) ? 1 : 0;
+            case AND: return child(0).interpret(slots) != 0 && child(1).interpret(slots) != 0 ? 1 : 0;
+            case OR: return child(0).interpret(slots) != 0 || child(1).interpret(slots) != 0 ? 1 : 0;
+            case NOT: return child(0).interpret(slots) != 0 ? 0 : 1;
+            case FUNCTION:
+                switch (name) {
+                    case "abs": return Math.abs(child(0).interpret(slots));
+                    case "min": return Math.min(child(0).interpret(slots), child(1).interpret(slots));
+                    case "max": return Math.max(child(0).interpret(slots), child(1).interpret(slots));
+                    default: throw new IllegalStateException("Unknown function " + name);
+                }
+            default:
+                throw new IllegalStateException("Unhandled node " + kind);
+        }
+    }
+
+    @Override
+    public String toString() {
+        switch (kind) {
+            case NUMBER: return Double.toString(value);
+            case SLOT: return name;
+            case FUNCTION: return name + children;
+            case NEGATE: case NOT: return kind + "(" + child(0) + ")";
+            default: return "(" + child(0) + " " + kind + " " + child(1) + ")";
+        }
+    }
+}
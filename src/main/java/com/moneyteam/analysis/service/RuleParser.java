@@ -0,0 +1,255 @@
+package com.moneyteam.analysis.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Recursive-descent parser for strategy rules such as {@code rsi(14) < 30 and last > sma(50)}.
+ *
+ * <pre>
+ * rule    := or
+ * or      := and ("or" and)*
+ * and     := not ("and" not)*
+ * not     := "not" not | compare
+ * compare := sum (("<" | "<=" | ">" | ">=" | "==" | "!=") sum)?
+ * sum     := product (("+" | "-") product)*
+ * product := unary (("*" | "/") unary)*
+ * unary   := "-" unary | primary
+ * primary := number | field | indicator "(" number ("," number)* ")" | function "(" sum ("," sum)* ")" | "(" or ")"
+ * </pre>
+ *
+ * Indicator arguments must be literal numbers, so equal indicators always get the same key and
+ * can share one calculator. Keywords and names are case-insensitive.
+ */
+public final class RuleParser {
+
+    // Bar fields; "last" is the close of the bar (or the trade price when fed per tick)
+    static final Map<String, String> FIELDS = Map.of(
+            "open", "open", "high", "high", "low", "low", "close", "close", "last", "close", "volume", "volume");
+
+    // Indicator name -> number of arguments
+    static final Map<String, Integer> INDICATORS = Map.of(
+            "sma", 1, "ema", 1, "rsi", 1, "atr", 1, "stddev", 1,
+            "macd", 3, "macd_signal", 3, "bb_upper", 2, "bb_lower", 2);
+
+    static final Map<String, Integer> FUNCTIONS = Map.of("abs", 1, "min", 2, "max", 2);
+
+    private final String source;
+    private int pos;
+
+    private RuleParser(String source) {
+        this.source = source;
+    }
+
+    public static RuleNode parse(String source) {
+        RuleParser parser = new RuleParser(source);
+        RuleNode node = parser.parseOr();
+        parser.skipSpace();
+        if (parser.pos < source.length()) {
+            throw parser.error("Unexpected '" + source.charAt(parser.pos) + "'");
+        }
+        if (!node.isCondition()) {
+            throw new IllegalArgumentException("Rule must be a condition, not a value: " + source);
+        }
+        return node;
+    }
+
+    private RuleNode parseOr() {
+        RuleNode left = parseAnd();
+        while (acceptWord("or")) {
+            left = RuleNode.binary(RuleNode.Kind.OR, condition(left), condition(parseAnd()));
+        }
+        return left;
+    }
+
+    private RuleNode parseAnd() {
+        RuleNode left = parseNot();
+        while (acceptWord("and")) {
+            left = RuleNode.binary(RuleNode.Kind.AND, condition(left), condition(parseNot()));
+        }
+        return left;
+    }
+
+    private RuleNode parseNot() {
+        if (acceptWord("not")) {
+            return RuleNode.unary(RuleNode.Kind.NOT, condition(parseNot()));
+        }
+        return parseCompare();
+    }
+
+    private RuleNode parseCompare() {
+        RuleNode left = parseSum();
+        RuleNode.Kind op;
+        if (accept("<=")) {
+            op = RuleNode.Kind.LE;
+        } else if (accept(">=")) {
+            op = RuleNode.Kind.GE;
+        } else if (accept("==")) {
+            op = RuleNode.Kind.EQ;
+        } else if (accept("!=")) {
+            op = RuleNode.Kind.NE;
+        } else if (accept("<")) {
+            op = RuleNode.Kind.LT;
+        } else if (accept(">")) {
+            op = RuleNode.Kind.GT;
+        } else {
+            return left;
+        }
+        return RuleNode.binary(op, value(left), value(parseSum()));
+    }
+
+    private RuleNode parseSum() {
+        RuleNode left = parseProduct();
+        while (true) {
+            if (accept("+")) {
+                left = RuleNode.binary(RuleNode.Kind.ADD, value(left), value(parseProduct()));
+            } else if (accept("-")) {
+                left = RuleNode.binary(RuleNode.Kind.SUB, value(left), value(parseProduct()));
+            } else {
+                return left;
+            }
+        }
+    }
+
+    private RuleNode parseProduct() {
+        RuleNode left = parseUnary();
+        while (true) {
+            if (accept("*")) {
+                left = RuleNode.binary(RuleNode.Kind.MUL, value(left), value(parseUnary()));
+            } else if (accept("/")) {
+                left = RuleNode.binary(RuleNode.Kind.DIV, value(left), value(parseUnary()));
+            } else {
+                return left;
+            }
+        }
+    }
+
+    private RuleNode parseUnary() {
+        if (accept("-")) {
+            return RuleNode.unary(RuleNode.Kind.NEGATE, value(parseUnary()));
+        }
+        return parsePrimary();
+    }
+
+    private RuleNode parsePrimary() {
+        skipSpace();
+        if (accept("(")) {
+            RuleNode inner = parseOr();
+            expect(")");
+            return inner;
+        }
+        if (pos < source.length() && (Character.isDigit(source.charAt(pos)) || source.charAt(pos) == '.')) {
+            return RuleNode.number(parseNumber());
+        }
+        String word = parseWord();
+        if (word.isEmpty()) {
+            throw error(pos < source.length() ? "Unexpected '" + source.charAt(pos) + "'" : "Unexpected end of rule");
+        }
+        if (FIELDS.containsKey(word)) {
+            return RuleNode.slot(FIELDS.get(word));
+        }
+        if (INDICATORS.containsKey(word)) {
+            int arity = INDICATORS.get(word);
+            expect("(");
+            StringBuilder key = new StringBuilder(word).append('(');
+            for (int i = 0; i < arity; i++) {
+                if (i > 0) {
+                    expect(",");
+                    key.append(',');
+                }
+                skipSpace();
+                double arg = parseNumber();
+                key.append(arg == Math.rint(arg) ? Long.toString((long) arg) : Double.toString(arg));
+            }
+            expect(")");
+            return RuleNode.slot(key.append(')').toString());
+        }
+        if (FUNCTIONS.containsKey(word)) {
+            int arity = FUNCTIONS.get(word);
+            expect("(");
+            List<RuleNode> args = new ArrayList<>(arity);
+            for (int i = 0; i < arity; i++) {
+                if (i > 0) {
+                    expect(",");
+                }
+                args.add(value(parseSum()));
+            }
+            expect(")");
+            return RuleNode.function(word, args);
+        }
+        throw error("Unknown name '" + word + "'");
+    }
+
+    private double parseNumber() {
+        int start = pos;
+        while (pos < source.length() && (Character.isDigit(source.charAt(pos)) || source.charAt(pos) == '.')) {
+            pos++;
+        }
+        try {
+            return Double.parseDouble(source.substring(start, pos));
+        } catch (NumberFormatException e) {
+            pos = start;
+            throw error("Expected a number");
+        }
+    }
+
+    private String parseWord() {
+        int start = pos;
+        while (pos < source.length() && (Character.isLetterOrDigit(source.charAt(pos)) || source.charAt(pos) == '_')) {
+            pos++;
+        }
+        return source.substring(start, pos).toLowerCase(Locale.ROOT);
+    }
+
+    private boolean acceptWord(String word) {
+        skipSpace();
+        int end = pos + word.length();
+        if (end <= source.length() && source.regionMatches(true, pos, word, 0, word.length())
+                && (end == source.length() || !Character.isLetterOrDigit(source.charAt(end)))) {
+            pos = end;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean accept(String token) {
+        skipSpace();
+        if (source.startsWith(token, pos)) {
+            pos += token.length();
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(String token) {
+        if (!accept(token)) {
+            throw error("Expected '" + token + "'");
+        }
+    }
+
+    private void skipSpace() {
+        while (pos < source.length() && Character.isWhitespace(source.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private RuleNode condition(RuleNode node) {
+        if (!node.isCondition()) {
+            throw error("Expected a condition but found a value");
+        }
+        return node;
+    }
+
+    private RuleNode value(RuleNode node) {
+        if (node.isCondition()) {
+            throw error("Expected a value but found a condition");
+        }
+        return node;
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position " + pos + " in rule: " + source);
+    }
+}
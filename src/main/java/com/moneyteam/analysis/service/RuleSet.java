@@ -0,0 +1,332 @@
+package com.moneyteam.analysis.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * A group of strategy rules compiled together.
+ *
+ * Each rule is parsed once and compiled into a tree of primitive lambdas over a {@code double[]}
+ * of slots: no reflection, no boxing, no tree walking at evaluation time. Constant subtrees are
+ * folded and the common comparison shapes (indicator vs constant, indicator vs indicator) get their
+ * own lambdas. Every distinct indicator - {@code sma(50)} in ten rules is one indicator - gets a
+ * single slot, so a {@link RuleContext} updates it once per bar for all rules in the set.
+ */
+public final class RuleSet {
+
+    interface Value {
+        double eval(double[] s);
+    }
+
+    interface Condition {
+        boolean test(double[] s);
+    }
+
+    private final Map<String, CompiledRule> rules;
+    private final List<Supplier<RuleContext.SlotCalculator>> calculators;
+
+    private RuleSet(Map<String, CompiledRule> rules, List<Supplier<RuleContext.SlotCalculator>> calculators) {
+        this.rules = rules;
+        this.calculators = calculators;
+    }
+
+    // name -> rule source; throws IllegalArgumentException on the first rule that does not parse
+    public static RuleSet compile(Map<String, String> sources) {
+        Map<String, Integer> slotByKey = new LinkedHashMap<>();
+        slotByKey.put("open", RuleContext.OPEN);
+        slotByKey.put("high", RuleContext.HIGH);
+        slotByKey.put("low", RuleContext.LOW);
+        slotByKey.put("close", RuleContext.CLOSE);
+        slotByKey.put("volume", RuleContext.VOLUME);
+        List<Supplier<RuleContext.SlotCalculator>> calculators = new ArrayList<>();
+
+        Map<String, CompiledRule> compiled = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : sources.entrySet()) {
+            RuleNode tree = RuleParser.parse(entry.getValue());
+            assignSlots(tree, slotByKey, calculators);
+            compiled.put(entry.getKey(), new CompiledRule(entry.getKey(), entry.getValue(), tree, condition(tree)));
+        }
+        return new RuleSet(Collections.unmodifiableMap(compiled), List.copyOf(calculators));
+    }
+
+    public RuleContext newContext() {
+        RuleContext.SlotCalculator[] instances = new RuleContext.SlotCalculator[calculators.size()];
+        for (int i = 0; i < instances.length; i++) {
+            instances[i] = calculators.get(i).get();
+        }
+        return new RuleContext(instances);
+    }
+
+    public CompiledRule rule(String name) {
+        CompiledRule rule = rules.get(name);
+        if (rule == null) {
+            throw new IllegalArgumentException("No rule named " + name);
+        }
+        return rule;
+    }
+
+    public List<CompiledRule> rules() {
+        return new ArrayList<>(rules.values());
+    }
+
+    // Distinct indicators shared by all rules in the set
+    public int indicatorCount() {
+        return calculators.size();
+    }
+
+    private static void assignSlots(RuleNode node, Map<String, Integer> slotByKey,
+                                    List<Supplier<RuleContext.SlotCalculator>> calculators) {
+        if (node.kind == RuleNode.Kind.SLOT) {
+            Integer slot = slotByKey.get(node.name);
+            if (slot == null) {
+                slot = RuleContext.FIELD_COUNT + calculators.size();
+                calculators.add(calculatorFor(node.name));
+                slotByKey.put(node.name, slot);
+            }
+            node.slot = slot;
+        }
+        for (RuleNode child : node.children) {
+            assignSlots(child, slotByKey, calculators);
+        }
+    }
+
+    // key is the canonical form produced by RuleParser, e.g. "bb_upper(20,2)"
+    private static Supplier<RuleContext.SlotCalculator> calculatorFor(String key) {
+        String name = key.substring(0, key.indexOf('('));
+        String[] raw = key.substring(key.indexOf('(') + 1, key.length() - 1).split(",");
+        double[] args = new double[raw.length];
+        for (int i = 0; i < raw.length; i++) {
+            args[i] = Double.parseDouble(raw[i]);
+        }
+        int n = (int) args[0];
+        if (n < 1) {
+            throw new IllegalArgumentException("Indicator period must be positive: " + key);
+        }
+        switch (name) {
+            case "sma":
+                return () -> {
+                    SimpleMovingAverage sma = new SimpleMovingAverage(n);
+                    return (o, h, l, c, v) -> sma.update(c);
+                };
+            case "ema":
+                return () -> {
+                    ExponentialMovingAverage ema = new ExponentialMovingAverage(n);
+                    return (o, h, l, c, v) -> ema.update(c);
+                };
+            case "rsi":
+                return () -> {
+                    RelativeStrengthIndex rsi = new RelativeStrengthIndex(n);
+                    return (o, h, l, c, v) -> rsi.update(c);
+                };
+            case "atr":
+                return () -> {
+                    AverageTrueRange atr = new AverageTrueRange(n);
+                    return (o, h, l, c, v) -> atr.update(h, l, c);
+                };
+            case "stddev":
+                return () -> {
+                    BollingerBands bands = new BollingerBands(n, 1);
+                    return (o, h, l, c, v) -> {
+                        bands.update(c);
+                        return bands.upper() - bands.value();
+                    };
+                };
+            case "macd":
+                return () -> {
+                    MovingAverageConvergenceDivergence macd =
+                            new MovingAverageConvergenceDivergence(n, (int) args[1], (int) args[2]);
+                    return (o, h, l, c, v) -> macd.update(c);
+                };
+            case "macd_signal":
+                return () -> {
+                    MovingAverageConvergenceDivergence macd =
+                            new MovingAverageConvergenceDivergence(n, (int) args[1], (int) args[2]);
+                    return (o, h, l, c, v) -> {
+                        macd.update(c);
+                        return macd.signal();
+                    };
+                };
+            case "bb_upper":
+                return () -> {
+                    BollingerBands bands = new BollingerBands(n, args[1]);
+                    return (o, h, l, c, v) -> {
+                        bands.update(c);
+                        return bands.upper();
+                    };
+                };
+            case "bb_lower":
+                return () -> {
+                    BollingerBands bands = new BollingerBands(n, args[1]);
+                    return (o, h, l, c, v) -> {
+                        bands.update(c);
+                        return bands.lower();
+                    };
+                };
+            default:
+                throw new IllegalArgumentException("Unknown indicator " + name);
+        }
+    }
+
+    private static boolean isConstant(RuleNode node) {
+        if (node.kind == RuleNode.Kind.NUMBER) {
+            return true;
+        }
+        if (node.kind == RuleNode.Kind.SLOT) {
+            return false;
+        }
+        for (RuleNode child : node.children) {
+            if (!isConstant(child)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static Condition condition(RuleNode node) {
+        switch (node.kind) {
+            case AND: {
+                Condition a = condition(node.child(0));
+                Condition b = condition(node.child(1));
+                return s -> a.test(s) && b.test(s);
+            }
+            case OR: {
+                Condition a = condition(node.child(0));
+                Condition b = condition(node.child(1));
+                return s -> a.test(s) || b.test(s);
+            }
+            case NOT: {
+                Condition a = condition(node.child(0));
+                return s -> !a.test(s);
+            }
+            default:
+                return comparison(node);
+        }
+    }
+
+    private static Condition comparison(RuleNode node) {
+        RuleNode left = node.child(0);
+        RuleNode right = node.child(1);
+        if (isConstant(left) && isConstant(right)) {
+            boolean constant = node.interpret(null) != 0;
+            return s -> constant;
+        }
+        // slot op constant: the shape of most threshold rules
+        if (left.kind == RuleNode.Kind.SLOT && isConstant(right)) {
+            int i = left.slot;
+            double k = right.interpret(null);
+            switch (node.kind) {
+                case LT: return s -> s[i] < k;
+                case LE: return s -> s[i] <= k;
+                case GT: return s -> s[i] > k;
+                case GE: return s -> s[i] >= k;
+                case EQ: return s -> s[i] == k;
+                default: return s -> s[i] != k;
+            }
+        }
+        // slot op slot: price against an average, average against average
+        if (left.kind == RuleNode.Kind.SLOT && right.kind == RuleNode.Kind.SLOT) {
+            int i = left.slot;
+            int j = right.slot;
+            switch (node.kind) {
+                case LT: return s -> s[i] < s[j];
+                case LE: return s -> s[i] <= s[j];
+                case GT: return s -> s[i] > s[j];
+                case GE: return s -> s[i] >= s[j];
+                case EQ: return s -> s[i] == s[j];
+                default: return s -> s[i] != s[j];
+            }
+        }
+        Value a = value(left);
+        Value b = value(right);
+        switch (node.kind) {
+            case LT: return s -> a.eval(s) < b.eval(s);
+            case LE: return s -> a.eval(s) <= b.eval(s);
+            case GT: return s -> a.eval(s) > b.eval(s);
+            case GE: return s -> a.eval(s) >= b.eval(s);
+            case EQ: return s -> a.eval(s) == b.eval(s);
+            case NE: return s -> a.eval(s) != b.eval(s);
+            default: throw new IllegalStateException("Not a comparison: " + node.kind);
+        }
+    }
+
+    static Value value(RuleNode node) {
+        if (isConstant(node)) {
+            double k = node.interpret(null);
+            return s -> k;
+        }
+        switch (node.kind) {
+            case SLOT: {
+                int i = node.slot;
+                return s -> s[i];
+            }
+            case NEGATE: {
+                Value a = value(node.child(0));
+                return s -> -a.eval(s);
+            }
+            case FUNCTION: {
+                Value a = value(node.child(0));
+                if ("abs".equals(node.name)) {
+                    return s -> Math.abs(a.eval(s));
+                }
+                Value b = value(node.child(1));
+                return "min".equals(node.name) ? s -> Math.min(a.eval(s), b.eval(s)) : s -> Math.max(a.eval(s), b.eval(s));
+            }
+            default:
+                break;
+        }
+        Value a = value(node.child(0));
+        RuleNode right = node.child(1);
+        if (isConstant(right)) {
+            double k = right.interpret(null);
+            switch (node.kind) {
+                case ADD: return s -> a.eval(s) + k;
+                case SUB: return s -> a.eval(s) - k;
+                case MUL: return s -> a.eval(s) * k;
+                default: return s -> a.eval(s) / k;
+            }
+        }
+        Value b = value(right);
+        switch (node.kind) {
+            case ADD: return s -> a.eval(s) + b.eval(s);
+            case SUB: return s -> a.eval(s) - b.eval(s);
+            case MUL: return s -> a.eval(s) * b.eval(s);
+            case DIV: return s -> a.eval(s) / b.eval(s);
+            default: throw new IllegalStateException("Not arithmetic: " + node.kind);
+        }
+    }
+
+    public static final class CompiledRule {
+        private final String name;
+        private final String source;
+        private final RuleNode tree;
+        private final Condition condition;
+
+        CompiledRule(String name, String source, RuleNode tree, Condition condition) {
+            this.name = name;
+            this.source = source;
+            this.tree = tree;
+            this.condition = condition;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getSource() {
+            return source;
+        }
+
+        public boolean test(RuleContext context) {
+            return condition.test(context.slots);
+        }
+
+        // Reference tree-walking evaluation of the same rule
+        public boolean interpret(RuleContext context) {
+            return tree.interpret(context.slots) != 0;
+        }
+    }
+}
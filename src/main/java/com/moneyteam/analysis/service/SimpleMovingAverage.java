@@ -0,0 +1,34 @@
+package com.moneyteam.analysis.service;
+
+// Sliding-window mean, O(1) per update with a running sum
+public final class SimpleMovingAverage implements Indicator {
+
+    // Rebuild the running sum from the window this often so floating-point drift cannot accumulate
+    private static final int RESUM_INTERVAL = 4096;
+
+    private final DoubleRingBuffer window;
+    private double sum;
+    private int sinceResum;
+
+    public SimpleMovingAverage(int period) {
+        this.window = new DoubleRingBuffer(period);
+    }
+
+    public double update(double value) {
+        double evicted = window.push(value);
+        sum += Double.isNaN(evicted) ? value : value - evicted;
+        if (++sinceResum == RESUM_INTERVAL) {
+            sinceResum = 0;
+            sum = 0;
+            for (int i = 0; i < window.size(); i++) {
+                sum += window.get(i);
+            }
+        }
+        return value();
+    }
+
+    @Override
+    public double value() {
+        return window.isFull() ? sum / window.capacity() : Double.NaN;
+    }
+}
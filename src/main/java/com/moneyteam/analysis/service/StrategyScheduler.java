@@ -0,0 +1,336 @@
+package com.moneyteam.analysis.service;
+
+import com.moneyteam.analysis.model.StrategySignal;
+import com.moneyteam.marketdata.model.PriceBar;
+import com.moneyteam.marketdata.service.LatencyTracker;
+import com.moneyteam.trading.model.enums.OrderSide;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs registered {@link LiveStrategy} instances on every minute-bar close from
+ * {@link IndicatorEngine}.
+ *
+ * A bar only reaches the strategies subscribed to its ticker. Each (strategy, ticker) pair is a
+ * small mailbox; pairs with bars waiting queue up per strategy and are drained by that strategy's
+ * slot tasks on a work-stealing pool. A pair is queued at most once, so each instance still sees
+ * its bars in order on one thread. Per strategy:
+ * <ul>
+ *   <li>isolation - a strategy holds at most half the pool's workers, each for a time slice of
+ *       {@link #SLICE_NANOS} before the others get a turn; exceptions are caught and counted;</li>
+ *   <li>backpressure - a pair with {@link #MAX_QUEUED_BARS} bars waiting drops new bars instead of
+ *       queueing without bound, so a slow strategy cannot hold memory or delay the others;</li>
+ *   <li>deadline - a bar evaluated after its deadline still updates the strategy's indicators but
+ *       its signal is discarded and counted as late; only delivered signals are confirmed back
+ *       through {@link LiveStrategy#onSignalDelivered}.</li>
+ * </ul>
+ * Evaluation latency is tracked per strategy with {@link LatencyTracker}.
+ *
+ * Tasks are only ever submitted from outside the pool (the engine thread, or the dispatcher thread
+ * when a worker frees a slot): a task forked from a worker goes to that worker's own queue, which
+ * it drains before the shared one, so a busy strategy resubmitting itself would starve the rest.
+ */
+@Service
+public class StrategyScheduler implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(StrategyScheduler.class);
+
+    static final int MAX_QUEUED_BARS = 64;
+    // Bars drained per pair before it goes to the back of its strategy's ready queue
+    private static final int BARS_PER_DRAIN = 16;
+    // Time one strategy keeps a worker before other strategies get a turn
+    static final long SLICE_NANOS = 1_000_000;
+
+    private final ForkJoinPool pool;
+    private final int workersPerStrategy;
+    private final ConcurrentHashMap<String, CopyOnWriteArrayList<Pair>> byTicker = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Registration> strategies = new ConcurrentHashMap<>();
+    private final Thread dispatcher;
+    private volatile boolean stopped;
+
+    public StrategyScheduler(IndicatorEngine indicatorEngine) {
+        // asyncMode: event-style tasks that are never joined run FIFO
+        this.pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors(),
+                ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+        this.workersPerStrategy = Math.max(1, pool.getParallelism() / 2);
+        this.dispatcher = new Thread(this::dispatchLoop, "strategy-dispatch");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+        indicatorEngine.addBarListener(this::onBar);
+    }
+
+    /**
+     * Run a new instance from factory for each ticker on that ticker's bar closes. Signals are
+     * delivered on pool threads. deadlineMillis bounds bar close to signal; 0 means no deadline.
+     */
+    public Registration register(String name, Collection<String> tickers, Supplier<LiveStrategy> factory,
+                                 Consumer<StrategySignal> signals, long deadlineMillis) {
+        Registration registration = new Registration(name, signals, deadlineMillis);
+        for (String ticker : tickers) {
+            registration.pairs.add(new Pair(registration, ticker, factory.get()));
+        }
+        if (strategies.putIfAbsent(name, registration) != null) {
+            throw new IllegalArgumentException("A strategy named " + name + " is already registered");
+        }
+        for (Pair pair : registration.pairs) {
+            byTicker.computeIfAbsent(pair.ticker, k -> new CopyOnWriteArrayList<>()).add(pair);
+        }
+        log.info("Registered strategy {} on {} tickers", name, registration.pairs.size());
+        return registration;
+    }
+
+    public void unregister(String name) {
+        Registration registration = strategies.remove(name);
+        if (registration == null) {
+            return;
+        }
+        for (Pair pair : registration.pairs) {
+            List<Pair> pairs = byTicker.get(pair.ticker);
+            if (pairs != null) {
+                pairs.remove(pair);
+            }
+        }
+    }
+
+    // Called on the indicator engine thread; only enqueues
+    public void onBar(PriceBar bar) {
+        List<Pair> pairs = byTicker.get(bar.getStockTicker());
+        if (pairs == null) {
+            return;
+        }
+        long arrived = System.nanoTime();
+        for (Pair pair : pairs) {
+            pair.offer(new PendingBar(bar, arrived));
+        }
+    }
+
+    // Per-strategy counters and latency percentiles, keyed for JSON output
+    public Map<String, Object> metrics() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        for (Registration r : strategies.values()) {
+            Map<String, Object> s = new LinkedHashMap<>();
+            s.put("tickers", r.pairs.size());
+            s.put("evaluated", r.evaluated.get());
+            s.put("signals", r.signalCount.get());
+            s.put("dropped", r.dropped.get());
+            s.put("late", r.late.get());
+            s.put("errors", r.errors.get());
+            s.put("p50Ms", toMillis(r.latency.p50Nanos()));
+            s.put("p95Ms", toMillis(r.latency.p95Nanos()));
+            s.put("p99Ms", toMillis(r.latency.p99Nanos()));
+            m.put(r.name, s);
+        }
+        m.put("poolParallelism", pool.getParallelism());
+        m.put("poolQueued", pool.getQueuedSubmissionCount() + pool.getQueuedTaskCount());
+        m.put("poolSteals", pool.getStealCount());
+        return m;
+    }
+
+    // Parks until a worker frees a slot or requeues a pair, then fills every strategy's free slots
+    private void dispatchLoop() {
+        while (!stopped) {
+            LockSupport.park(this);
+            for (Registration registration : strategies.values()) {
+                registration.dispatch();
+            }
+        }
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos < 0 ? -1 : nanos / 1_000_000d;
+    }
+
+    @Override
+    public void destroy() {
+        stopped = true;
+        LockSupport.unpark(dispatcher);
+        pool.shutdownNow();
+    }
+
+    public final class Registration implements AutoCloseable {
+        private final String name;
+        private final Consumer<StrategySignal> signals;
+        private final long deadlineNanos;
+        private final List<Pair> pairs = new ArrayList<>();
+        private final LatencyTracker latency = new LatencyTracker(1024);
+        private final AtomicLong evaluated = new AtomicLong();
+        private final AtomicLong signalCount = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+        private final AtomicLong late = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        // Pairs with bars waiting, drained by at most workersPerStrategy slot tasks
+        private final ConcurrentLinkedQueue<Pair> ready = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger running = new AtomicInteger();
+
+        Registration(String name, Consumer<StrategySignal> signals, long deadlineMillis) {
+            this.name = name;
+            this.signals = signals;
+            this.deadlineNanos = deadlineMillis <= 0 ? Long.MAX_VALUE : deadlineMillis * 1_000_000;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public LatencyTracker getLatency() {
+            return latency;
+        }
+
+        // Engine thread: submit directly
+        void schedule(Pair pair) {
+            ready.add(pair);
+            dispatch();
+        }
+
+        // Start slot tasks while this strategy is under its worker limit
+        private void dispatch() {
+            while (!ready.isEmpty()) {
+                int current = running.get();
+                if (current >= workersPerStrategy) {
+                    return;
+                }
+                if (running.compareAndSet(current, current + 1)) {
+                    pool.execute(this::runSlot);
+                }
+            }
+        }
+
+        // One worker slot: drain ready pairs for one time slice, then give the worker back
+        private void runSlot() {
+            try {
+                long sliceEnd = System.nanoTime() + SLICE_NANOS;
+                Pair pair;
+                while ((pair = ready.poll()) != null) {
+                    pair.drain();
+                    if (System.nanoTime() - sliceEnd > 0) {
+                        break;
+                    }
+                }
+            } finally {
+                running.decrementAndGet();
+                // Follow-up submissions go through the dispatcher, never from a worker
+                if (!ready.isEmpty()) {
+                    LockSupport.unpark(dispatcher);
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            unregister(name);
+        }
+    }
+
+    private static final class PendingBar {
+        final PriceBar bar;
+        final long arrivedNanos;
+
+        PendingBar(PriceBar bar, long arrivedNanos) {
+            this.bar = bar;
+            this.arrivedNanos = arrivedNanos;
+        }
+    }
+
+    // One strategy instance on one ticker; in its strategy's ready queue at most once
+    private final class Pair {
+        final Registration owner;
+        final String ticker;
+        final LiveStrategy strategy;
+        final ConcurrentLinkedQueue<PendingBar> mailbox = new ConcurrentLinkedQueue<>();
+        final AtomicInteger queued = new AtomicInteger();
+        final AtomicBoolean scheduled = new AtomicBoolean();
+
+        Pair(Registration owner, String ticker, LiveStrategy strategy) {
+            this.owner = owner;
+            this.ticker = ticker;
+            this.strategy = strategy;
+        }
+
+        void offer(PendingBar bar) {
+            if (queued.incrementAndGet() > MAX_QUEUED_BARS) {
+                queued.decrementAndGet();
+                owner.dropped.incrementAndGet();
+                return;
+            }
+            mailbox.add(bar);
+            if (scheduled.compareAndSet(false, true)) {
+                owner.schedule(this);
+            }
+        }
+
+        void drain() {
+            try {
+                for (int i = 0; i < BARS_PER_DRAIN; i++) {
+                    PendingBar pending = mailbox.poll();
+                    if (pending == null) {
+                        break;
+                    }
+                    queued.decrementAndGet();
+                    evaluate(pending);
+                }
+            } finally {
+                scheduled.set(false);
+                // Requeue behind the strategy's other pairs; also catches a bar offered just before the reset
+                if (!mailbox.isEmpty() && scheduled.compareAndSet(false, true)) {
+                    owner.ready.add(this);
+                }
+            }
+        }
+
+        private void evaluate(PendingBar pending) {
+            long started = System.nanoTime();
+            OrderSide side;
+            try {
+                side = strategy.onBar(pending.bar);
+            } catch (RuntimeException e) {
+                if (owner.errors.incrementAndGet() <= 10) {
+                    log.error("Strategy {} failed on {}: {}", owner.name, ticker, e.getMessage());
+                }
+                return;
+            }
+            long finished = System.nanoTime();
+            owner.latency.record(finished - started);
+            owner.evaluated.incrementAndGet();
+            if (side == null) {
+                return;
+            }
+            if (finished - pending.arrivedNanos > owner.deadlineNanos) {
+                owner.late.incrementAndGet();
+                return;
+            }
+            owner.signalCount.incrementAndGet();
+            try {
+                owner.signals.accept(new StrategySignal(owner.name, ticker, side, pending.bar.getEpochSecond(),
+                        pending.bar.getClose(), System.currentTimeMillis()));
+            } catch (RuntimeException e) {
+                owner.errors.incrementAndGet();
+                log.error("Signal handler for {} failed on {}: {}", owner.name, ticker, e.getMessage());
+                return;
+            }
+            try {
+                strategy.onSignalDelivered(side);
+            } catch (RuntimeException e) {
+                owner.errors.incrementAndGet();
+                log.error("Strategy {} failed confirming {} on {}: {}", owner.name, side, ticker, e.getMessage());
+            }
+        }
+    }
+}
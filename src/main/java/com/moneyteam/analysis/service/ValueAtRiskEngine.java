@@ -0,0 +1,479 @@
+package com.moneyteam.analysis.service;
+
+import com.moneyteam.analysis.model.BarSeries;
+import com.moneyteam.analysis.model.CorrelationMatrix;
+import com.moneyteam.analysis.model.RiskManagement;
+import com.moneyteam.analysis.model.ValueAtRisk;
+import com.moneyteam.marketdata.model.enums.BarInterval;
+import com.moneyteam.marketdata.repository.PriceHistoryRepository;
+import com.moneyteam.trading.model.Position;
+import com.moneyteam.trading.repository.PositionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Historical, parametric and Monte Carlo value-at-risk for each user's book and for the firm.
+ *
+ * Daily closes come from price_history and are turned into an asset-major matrix of log returns
+ * over a shared calendar. Historical VaR replays those returns against today's exposures,
+ * parametric VaR uses the normal approximation of the same P&L series, and Monte Carlo draws
+ * correlated returns as a random mix of the de-meaned historical days (same covariance as the
+ * sample, no n x n factorisation needed), repriced through exp() so the tail keeps its skew.
+ * Paths are split across a fork-join pool, each leaf with its own {@link SplittableRandom} split
+ * from a fixed seed, so a given book always gets the same answer. When every ticker in the book is
+ * tracked by {@link CorrelationService}, an intraday parametric VaR from the live minute-bar
+ * covariance is reported alongside, scaled up to the horizon.
+ *
+ * The daily figures are cached per scope and reused until a position quantity changes, the day
+ * rolls, or a mark moves more than {@link #PRICE_TOLERANCE} from the price they were computed at;
+ * live quotes tick far more often than that and would otherwise rerun the simulation every call.
+ * The intraday figure is a small quadratic form and is recomputed on every call.
+ */
+@Service
+public class ValueAtRiskEngine implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ValueAtRiskEngine.class);
+
+    static final double CONFIDENCE = 0.99;
+    static final int HORIZON_DAYS = 1;
+    static final int LOOKBACK_DAYS = 252;
+    static final int MONTE_CARLO_PATHS = 100_000;
+    private static final long SEED = 0x5EED_CAFEL;
+
+    // Paths per fork-join leaf, and per block inside a leaf (the block width is the inner loop)
+    private static final int PATHS_PER_TASK = 4_096;
+    private static final int BLOCK = 64;
+
+    // Calendar days of history to load to cover LOOKBACK_DAYS trading days
+    private static final long HISTORY_SECONDS = 400L * 86_400;
+    // Minute bars needed before the intraday covariance is worth reporting
+    static final int MIN_INTRADAY_BARS = 30;
+    // Relative mark move that invalidates a cached result; VaR scales with exposure, so about as much
+    static final double PRICE_TOLERANCE = 0.005;
+
+    private final PositionRepository positionRepository;
+    private final PriceHistoryRepository priceHistoryRepository;
+    private final AnalysisSnapshotRegistry snapshots;
+    private final CorrelationService correlationService;
+    private final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    // Daily history per ticker, reloaded once per UTC day
+    private final ConcurrentHashMap<String, History> histories = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Cached> cache = new ConcurrentHashMap<>();
+
+    public ValueAtRiskEngine(PositionRepository positionRepository, PriceHistoryRepository priceHistoryRepository,
+                             AnalysisSnapshotRegistry snapshots, CorrelationService correlationService) {
+        this.positionRepository = positionRepository;
+        this.priceHistoryRepository = priceHistoryRepository;
+        this.snapshots = snapshots;
+        this.correlationService = correlationService;
+    }
+
+    public ValueAtRisk forUser(long userId) {
+        return compute("user:" + userId, positionRepository.findByUserRefId(userId));
+    }
+
+    public ValueAtRisk firmWide() {
+        return compute("firm", positionRepository.findAll());
+    }
+
+    /**
+     * VaR of the given positions, netted by ticker and marked at the latest quote (falling back to
+     * the last daily close, then the average price).
+     */
+    public ValueAtRisk compute(String scope, Collection<Position> positions) {
+        Map<String, Double> net = new TreeMap<>();
+        for (Position position : positions) {
+            if (position.getStockTicker() != null && position.getTotalQuantity() != null) {
+                net.merge(position.getStockTicker(), position.getTotalQuantity(), Double::sum);
+            }
+        }
+        net.values().removeIf(quantity -> quantity == 0);
+
+        long today = Math.floorDiv(System.currentTimeMillis(), 86_400_000L);
+        String[] tickers = net.keySet().toArray(new String[0]);
+        double[] quantities = new double[tickers.length];
+        double[] prices = new double[tickers.length];
+        BarSeries[] series = new BarSeries[tickers.length];
+        for (int i = 0; i < tickers.length; i++) {
+            quantities[i] = net.get(tickers[i]);
+            series[i] = history(tickers[i], today);
+            prices[i] = markPrice(tickers[i], series[i], positions);
+        }
+
+        double[] exposures = new double[tickers.length];
+        for (int i = 0; i < exposures.length; i++) {
+            exposures[i] = quantities[i] * prices[i];
+        }
+        ValueAtRisk result;
+        Cached cached = cache.get(scope);
+        if (cached != null && cached.day == today && Arrays.equals(cached.tickers, tickers)
+                && Arrays.equals(cached.quantities, quantities) && withinTolerance(cached.prices, prices)) {
+            result = cached.result;
+        } else {
+            ReturnMatrix matrix = ReturnMatrix.of(series, LOOKBACK_DAYS);
+            result = evaluate(scope, exposures, matrix.returns, matrix.observations);
+            cache.put(scope, new Cached(today, tickers, quantities, prices, result));
+            log.info("Computed {}", result);
+        }
+
+        CorrelationMatrix intraday = correlationService.snapshot();
+        double intradayVar = intradayVar(intraday, tickers, exposures);
+        if (!Double.isNaN(intradayVar)) {
+            result = result.withIntraday(intradayVar, intraday.getObservations());
+        }
+        return result;
+    }
+
+    // True if no mark has moved more than PRICE_TOLERANCE from the one the cached result used
+    static boolean withinTolerance(double[] cachedPrices, double[] prices) {
+        for (int i = 0; i < prices.length; i++) {
+            if (Math.abs(prices[i] - cachedPrices[i]) > PRICE_TOLERANCE * Math.abs(cachedPrices[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * z * sqrt(e' S e) over minute-bar log returns, scaled by sqrt of the bars in the horizon. NaN
+     * if a ticker is not in the matrix or the window is still too short.
+     */
+    static double intradayVar(CorrelationMatrix matrix, String[] tickers, double[] exposures) {
+        if (tickers.length == 0 || matrix.getObservations() < MIN_INTRADAY_BARS) {
+            return Double.NaN;
+        }
+        int[] index = new int[tickers.length];
+        for (int i = 0; i < tickers.length; i++) {
+            index[i] = matrix.indexOf(tickers[i]);
+            if (index[i] < 0) {
+                return Double.NaN;
+            }
+        }
+        double variance = 0;
+        for (int i = 0; i < tickers.length; i++) {
+            for (int j = 0; j < tickers.length; j++) {
+                variance += exposures[i] * exposures[j] * matrix.covariance(index[i], index[j]);
+            }
+        }
+        double barsInHorizon = (double) CorrelationService.WINDOW_BARS * HORIZON_DAYS;
+        return normalQuantile(CONFIDENCE) * Math.sqrt(Math.max(0, variance) * barsInHorizon);
+    }
+
+    // Drop cached results and history, e.g. after a price_history backfill
+    public void invalidate() {
+        cache.clear();
+        histories.clear();
+    }
+
+    /**
+     * VaR of a book given dollar exposures per asset and an asset-major matrix of daily log
+     * returns (returns[i * observations + t] is asset i on day t).
+     */
+    public ValueAtRisk evaluate(String scope, double[] exposures, double[] returns, int observations) {
+        long started = System.nanoTime();
+        int n = exposures.length;
+        if (n == 0 || observations < 2) {
+            return ValueAtRisk.empty(scope, CONFIDENCE, HORIZON_DAYS, System.currentTimeMillis());
+        }
+        if (returns.length != n * observations) {
+            throw new IllegalArgumentException("Expected " + n + " x " + observations + " returns");
+        }
+        double gross = 0;
+        double netExposure = 0;
+        for (double e : exposures) {
+            gross += Math.abs(e);
+            netExposure += e;
+        }
+        double sqrtH = Math.sqrt(HORIZON_DAYS);
+
+        // Historical: today's book revalued under each past day's moves
+        double[] pnl = new double[observations];
+        double[] linear = new double[observations];
+        for (int i = 0; i < n; i++) {
+            double e = exposures[i];
+            int row = i * observations;
+            for (int t = 0; t < observations; t++) {
+                double r = returns[row + t];
+                pnl[t] += e * Math.expm1(r * sqrtH);
+                linear[t] += e * r;
+            }
+        }
+        Arrays.sort(pnl);
+        double historicalVar = lossQuantile(pnl);
+        double historicalCvar = tailLoss(pnl);
+
+        // Parametric: normal P&L with the sample mean and variance of the linear series
+        double mean = BatchIndicators.sum(linear) / observations;
+        double squares = 0;
+        for (double v : linear) {
+            squares += (v - mean) * (v - mean);
+        }
+        double sigma = Math.sqrt(squares / (observations - 1)) * sqrtH;
+        double drift = mean * HORIZON_DAYS;
+        double z = normalQuantile(CONFIDENCE);
+        double density = Math.exp(-0.5 * z * z) / Math.sqrt(2 * Math.PI);
+        double parametricVar = Math.max(0, z * sigma - drift);
+        double parametricCvar = Math.max(0, sigma * density / (1 - CONFIDENCE) - drift);
+
+        // Monte Carlo: x = mu * h + sqrt(h) * A z with A the de-meaned returns / sqrt(T - 1)
+        double[] mu = new double[n];
+        double[] shocks = new double[returns.length];
+        double scale = sqrtH / Math.sqrt(observations - 1);
+        for (int i = 0; i < n; i++) {
+            int row = i * observations;
+            double m = 0;
+            for (int t = 0; t < observations; t++) {
+                m += returns[row + t];
+            }
+            m /= observations;
+            mu[i] = m * HORIZON_DAYS;
+            for (int t = 0; t < observations; t++) {
+                shocks[row + t] = (returns[row + t] - m) * scale;
+            }
+        }
+        double[] simulated = new double[MONTE_CARLO_PATHS];
+        pool.invoke(new PathTask(exposures, mu, shocks, observations, simulated, 0, MONTE_CARLO_PATHS,
+                new SplittableRandom(SEED)));
+        Arrays.sort(simulated);
+
+        long elapsed = (System.nanoTime() - started) / 1_000_000;
+        return new ValueAtRisk(scope, n, gross, netExposure, CONFIDENCE, HORIZON_DAYS, observations,
+                MONTE_CARLO_PATHS, historicalVar, historicalCvar, parametricVar, parametricCvar,
+                lossQuantile(simulated), tailLoss(simulated), System.currentTimeMillis(), elapsed);
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdownNow();
+    }
+
+    private BarSeries history(String ticker, long today) {
+        History cached = histories.get(ticker);
+        if (cached != null && cached.day == today) {
+            return cached.series;
+        }
+        long to = (today + 1) * 86_400;
+        BarSeries series = BarSeries.of(ticker,
+                priceHistoryRepository.findBars(ticker, BarInterval.DAILY, to - HISTORY_SECONDS, to));
+        histories.put(ticker, new History(today, series));
+        return series;
+    }
+
+    private double markPrice(String ticker, BarSeries series, Collection<Position> positions) {
+        RiskManagement quote = snapshots.risk(ticker);
+        if (quote != null && quote.getLast() > 0) {
+            return quote.getLast();
+        }
+        if (series.size() > 0) {
+            return series.getClose()[series.size() - 1];
+        }
+        for (Position position : positions) {
+            if (ticker.equals(position.getStockTicker()) && position.getAveragePrice() != null) {
+                return position.getAveragePrice().doubleValue();
+            }
+        }
+        return 0;
+    }
+
+    // Loss at the (1 - confidence) quantile of ascending P&L, as a positive number
+    private static double lossQuantile(double[] sortedPnl) {
+        int k = (int) Math.floor((1 - CONFIDENCE) * sortedPnl.length);
+        return Math.max(0, -sortedPnl[Math.min(k, sortedPnl.length - 1)]);
+    }
+
+    private static double tailLoss(double[] sortedPnl) {
+        int k = Math.max(1, (int) Math.floor((1 - CONFIDENCE) * sortedPnl.length));
+        double sum = 0;
+        for (int i = 0; i < k; i++) {
+            sum += sortedPnl[i];
+        }
+        return Math.max(0, -sum / k);
+    }
+
+    // Acklam's rational approximation to the inverse standard normal CDF (relative error ~1e-9)
+    static double normalQuantile(double p) {
+        if (p <= 0 || p >= 1) {
+            throw new IllegalArgumentException("Probability must be in (0, 1): " + p);
+        }
+        double[] a = {-3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+                1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00};
+        double[] b = {-5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+                6.680131188771972e+01, -1.328068155288572e+01};
+        double[] c = {-7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+                -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00};
+        double[] d = {7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00, 3.754408661907416e+00};
+        double low = 0.02425;
+        if (p < low || p > 1 - low) {
+            double q = Math.sqrt(-2 * Math.log(p < low ? p : 1 - p));
+            double x = (((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+                    / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+            return p < low ? x : -x;
+        }
+        double q = p - 0.5;
+        double r = q * q;
+        return (((((a[0] * r + a[1]) * r + a[2]) * r + a[3]) * r + a[4]) * r + a[5]) * q
+                / (((((b[0] * r + b[1]) * r + b[2]) * r + b[3]) * r + b[4]) * r + 1);
+    }
+
+    private static final class PathTask extends RecursiveAction {
+        private final double[] exposures;
+        private final double[] mu;
+        private final double[] shocks;
+        private final int observations;
+        private final double[] out;
+        private final int from;
+        private final int to;
+        private final SplittableRandom random;
+
+        PathTask(double[] exposures, double[] mu, double[] shocks, int observations, double[] out,
+                 int from, int to, SplittableRandom random) {
+            this.exposures = exposures;
+            this.mu = mu;
+            this.shocks = shocks;
+            this.observations = observations;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > PATHS_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                // Split before forking so the stream each range gets does not depend on scheduling
+                PathTask right = new PathTask(exposures, mu, shocks, observations, out, mid, to, random.split());
+                right.fork();
+                new PathTask(exposures, mu, shocks, observations, out, from, mid, random).compute();
+                right.join();
+                return;
+            }
+            int days = observations;
+            double[] z = new double[days * BLOCK];
+            double[] x = new double[BLOCK];
+            double[] pnl = new double[BLOCK];
+            for (int start = from; start < to; start += BLOCK) {
+                int width = Math.min(BLOCK, to - start);
+                for (int k = 0; k < days * BLOCK; k++) {
+                    z[k] = random.nextGaussian();
+                }
+                Arrays.fill(pnl, 0);
+                for (int i = 0; i < exposures.length; i++) {
+                    Arrays.fill(x, mu[i]);
+                    int row = i * days;
+                    // x[b] += A[i, t] * z[t, b]: contiguous over b, so it vectorises
+                    for (int t = 0; t < days; t++) {
+                        double a = shocks[row + t];
+                        int zRow = t * BLOCK;
+                        for (int b = 0; b < BLOCK; b++) {
+                            x[b] += a * z[zRow + b];
+                        }
+                    }
+                    double e = exposures[i];
+                    for (int b = 0; b < BLOCK; b++) {
+                        pnl[b] += e * Math.expm1(x[b]);
+                    }
+                }
+                System.arraycopy(pnl, 0, out, start, width);
+            }
+        }
+    }
+
+    /**
+     * Asset-major daily log returns over the union of the assets' trading days, newest
+     * {@code lookback} days. A missing bar carries the previous close, so that day's return is 0.
+     */
+    static final class ReturnMatrix {
+        final double[] returns;
+        final int observations;
+
+        private ReturnMatrix(double[] returns, int observations) {
+            this.returns = returns;
+            this.observations = observations;
+        }
+
+        static ReturnMatrix of(BarSeries[] series, int lookback) {
+            long[] days = calendar(series, lookback + 1);
+            int observations = Math.max(0, days.length - 1);
+            double[] returns = new double[series.length * observations];
+            for (int i = 0; i < series.length; i++) {
+                long[] time = series[i].getEpochSeconds();
+                double[] close = series[i].getClose();
+                int j = 0;
+                double previous = Double.NaN;
+                for (int d = 0; d < days.length; d++) {
+                    double price = previous;
+                    while (j < time.length && Math.floorDiv(time[j], 86_400L) <= days[d]) {
+                        price = close[j++];
+                    }
+                    if (d > 0 && previous > 0 && price > 0) {
+                        returns[i * observations + d - 1] = Math.log(price / previous);
+                    }
+                    previous = price;
+                }
+            }
+            return new ReturnMatrix(returns, observations);
+        }
+
+        // Sorted distinct epoch days on which any asset traded, the newest `count` of them
+        private static long[] calendar(BarSeries[] series, int count) {
+            int total = 0;
+            for (BarSeries s : series) {
+                total += s.size();
+            }
+            long[] all = new long[total];
+            int k = 0;
+            for (BarSeries s : series) {
+                for (long t : s.getEpochSeconds()) {
+                    all[k++] = Math.floorDiv(t, 86_400L);
+                }
+            }
+            Arrays.sort(all);
+            int distinct = 0;
+            for (int i = 0; i < all.length; i++) {
+                if (i == 0 || all[i] != all[i - 1]) {
+                    all[distinct++] = all[i];
+                }
+            }
+            return Arrays.copyOfRange(all, Math.max(0, distinct - count), distinct);
+        }
+    }
+
+    private static final class History {
+        final long day;
+        final BarSeries series;
+
+        History(long day, BarSeries series) {
+            this.day = day;
+            this.series = series;
+        }
+    }
+
+    private static final class Cached {
+        final long day;
+        final String[] tickers;
+        final double[] quantities;
+        final double[] prices;
+        final ValueAtRisk result;
+
+        Cached(long day, String[] tickers, double[] quantities, double[] prices, ValueAtRisk result) {
+            this.day = day;
+            this.tickers = tickers;
+            this.quantities = quantities;
+            this.prices = prices;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.moneyteam.analysis.service;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API versions of the BatchIndicators element-wise passes. Only referenced behind
+ * BatchIndicators.VECTORIZED, so this class is never loaded on a JVM without jdk.incubator.vector.
+ * The window passes do the same operations in the same order as the scalar loops and give identical
+ * results; sum reassociates the adds across lanes, so it matches the scalar sum only to rounding.
+ */
+final class VectorKernels {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private VectorKernels() {
+    }
+
+    static double sum(double[] values) {
+        DoubleVector acc = DoubleVector.zero(SPECIES);
+        int i = 0;
+        int upper = SPECIES.loopBound(values.length);
+        for (; i < upper; i += SPECIES.length()) {
+            acc = acc.add(DoubleVector.fromArray(SPECIES, values, i));
+        }
+        double s = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < values.length; i++) {
+            s += values[i];
+        }
+        return s;
+    }
+
+    static void windowDifferences(double[] prefix, int window, double scale, double offset, double[] out) {
+        int i = window - 1;
+        if (i >= out.length) {
+            return;
+        }
+        int upper = i + SPECIES.loopBound(out.length - i);
+        for (; i < upper; i += SPECIES.length()) {
+            DoubleVector hi = DoubleVector.fromArray(SPECIES, prefix, i + 1);
+            DoubleVector lo = DoubleVector.fromArray(SPECIES, prefix, i + 1 - window);
+            hi.sub(lo).mul(scale).add(offset).intoArray(out, i);
+        }
+        for (; i < out.length; i++) {
+            out[i] = (prefix[i + 1] - prefix[i + 1 - window]) * scale + offset;
+        }
+    }
+
+    static void windowVariances(double[] sums, double[] squares, int window, double[] out) {
+        double inverse = 1.0 / window;
+        int i = window - 1;
+        if (i >= out.length) {
+            return;
+        }
+        int upper = i + SPECIES.loopBound(out.length - i);
+        for (; i < upper; i += SPECIES.length()) {
+            DoubleVector mean = DoubleVector.fromArray(SPECIES, sums, i + 1)
+                    .sub(DoubleVector.fromArray(SPECIES, sums, i + 1 - window))
+                    .mul(inverse);
+            DoubleVector squareMean = DoubleVector.fromArray(SPECIES, squares, i + 1)
+                    .sub(DoubleVector.fromArray(SPECIES, squares, i + 1 - window))
+                    .mul(inverse);
+            squareMean.sub(mean.mul(mean)).max(0.0).intoArray(out, i);
+        }
+        for (; i < out.length; i++) {
+            double mean = (sums[i + 1] - sums[i + 1 - window]) * inverse;
+            double variance = (squares[i + 1] - squares[i + 1 - window]) * inverse - mean * mean;
+            out[i] = Math.max(0, variance);
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package com.moneyteam.analysis.service;
+
+import com.moneyteam.analysis.model.OptionChain;
+import com.moneyteam.analysis.model.OptionQuote;
+import com.moneyteam.analysis.model.RiskManagement;
+import com.moneyteam.analysis.model.VolatilitySurface;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Implied volatility surfaces per underlying, solved from option quotes with
+ * {@link ImpliedVolatility} and cached as immutable {@link VolatilitySurface}s.
+ *
+ * A rebuild solves every contract of every chain in parallel, one chain per fork-join leaf, and
+ * takes the out-of-the-money side at each strike (calls at or above spot, puts below) as that
+ * strike's node, falling back to the other side when it has no usable quote. After that a moved
+ * quote re-solves only its own contract and swaps in a copy of the one slice it belongs to, so
+ * readers always see a whole surface without locking. Node moneyness is fixed at the spot of the
+ * last rebuild; rebuild to re-centre the surface after a large move.
+ */
+@Service
+public class VolatilitySurfaceService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(VolatilitySurfaceService.class);
+
+    private final AnalysisSnapshotRegistry snapshots;
+    private final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public VolatilitySurfaceService(AnalysisSnapshotRegistry snapshots) {
+        this.snapshots = snapshots;
+    }
+
+    /**
+     * Solve and rebuild the surface of every chain from its quoted prices (one per contract),
+     * marked at each underlying's latest quote. Chains without a quote or prices are skipped.
+     */
+    public Map<String, VolatilitySurface> rebuild(List<OptionChain> chains, Map<String, double[]> prices) {
+        List<OptionChain> solvable = new ArrayList<>(chains.size());
+        List<double[]> chainPrices = new ArrayList<>(chains.size());
+        List<Double> spots = new ArrayList<>(chains.size());
+        for (OptionChain chain : chains) {
+            double spot = spot(chain.getStockTicker(), Double.NaN);
+            double[] p = prices.get(chain.getStockTicker());
+            if (spot > 0 && p != null) {
+                solvable.add(chain);
+                chainPrices.add(p);
+                spots.add(spot);
+            }
+        }
+        long started = System.nanoTime();
+        long now = System.currentTimeMillis();
+        Entry[] built = new Entry[solvable.size()];
+        pool.invoke(new RebuildTask(solvable, chainPrices, spots, now, built, 0, built.length));
+        Map<String, VolatilitySurface> surfaces = new LinkedHashMap<>();
+        for (Entry entry : built) {
+            entries.put(entry.chain.getStockTicker(), entry);
+            surfaces.put(entry.chain.getStockTicker(), entry.surface);
+        }
+        log.info("Rebuilt {} volatility surfaces in {} ms", built.length, (System.nanoTime() - started) / 1_000_000);
+        return surfaces;
+    }
+
+    // Rebuild one underlying at an explicit spot and time
+    public VolatilitySurface rebuild(OptionChain chain, double spot, double[] prices, long valuationMillis) {
+        Entry entry = build(chain, spot, prices, valuationMillis);
+        entries.put(chain.getStockTicker(), entry);
+        return entry.surface;
+    }
+
+    /**
+     * Rebuild one underlying from a snapshot of its quoted chain, marked at the underlying's latest
+     * quote. Quotes that do not solve are left off the surface.
+     */
+    public VolatilitySurface onChainQuotes(String stockTicker, List<OptionQuote> quotes) {
+        double spot = spot(stockTicker, Double.NaN);
+        if (!(spot > 0)) {
+            throw new IllegalArgumentException("No quote for underlying " + stockTicker);
+        }
+        if (quotes == null || quotes.isEmpty()) {
+            throw new IllegalArgumentException("No option quotes for " + stockTicker);
+        }
+        // The solver recomputes per-expiry terms only when the expiry changes, so group by expiry
+        List<OptionQuote> sorted = new ArrayList<>(quotes);
+        for (OptionQuote quote : sorted) {
+            if (quote == null || quote.getExpiration() == null) {
+                throw new IllegalArgumentException("Option quote without an expiration for " + stockTicker);
+            }
+        }
+        sorted.sort(Comparator.comparing(OptionQuote::getExpiration).thenComparingDouble(OptionQuote::getStrike));
+        int n = sorted.size();
+        int[] days = new int[n];
+        double[] strikes = new double[n];
+        boolean[] calls = new boolean[n];
+        double[] prices = new double[n];
+        for (int i = 0; i < n; i++) {
+            OptionQuote quote = sorted.get(i);
+            days[i] = (int) quote.getExpiration().toEpochDay();
+            strikes[i] = quote.getStrike();
+            calls[i] = quote.isCall();
+            prices[i] = quote.getPrice();
+        }
+        OptionChain chain = new OptionChain(stockTicker, days, strikes, calls, 0);
+        return rebuild(chain, spot, prices, System.currentTimeMillis());
+    }
+
+    /**
+     * A new price for one contract (by its index in the chain last rebuilt). Re-solves that contract
+     * only; returns false if the ticker has no surface, the contract is not a node or the price
+     * does not solve.
+     */
+    public boolean onQuote(String stockTicker, int contract, double price) {
+        Entry entry = entries.get(stockTicker);
+        if (entry == null || contract < 0 || contract >= entry.nodeOf.length || entry.nodeOf[contract] < 0) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        double vol = ImpliedVolatility.solve(entry.chain, contract, spot(stockTicker, entry.spot),
+                OptionPricingEngine.RISK_FREE_RATE, price, Math.floorDiv(now, 1000L));
+        if (Double.isNaN(vol)) {
+            return false;
+        }
+        synchronized (entry) {
+            entry.surface = entry.surface.withNode(entry.sliceOf[contract], entry.nodeOf[contract], vol, now);
+        }
+        return true;
+    }
+
+    public VolatilitySurface surface(String stockTicker) {
+        Entry entry = entries.get(stockTicker);
+        return entry == null ? null : entry.surface;
+    }
+
+    /**
+     * Surface vol for every contract of the ticker's chain at the current spot, in chain order, as
+     * {@link OptionPricingEngine} takes them; null if the ticker has no surface.
+     */
+    public double[] contractVols(String stockTicker) {
+        Entry entry = entries.get(stockTicker);
+        if (entry == null) {
+            return null;
+        }
+        VolatilitySurface surface = entry.surface;
+        OptionChain chain = entry.chain;
+        double logSpot = Math.log(spot(stockTicker, entry.spot));
+        long now = Math.floorDiv(System.currentTimeMillis(), 1000L);
+        double[] logStrikes = chain.getLogStrikes();
+        long[] expiry = chain.getExpiryEpochSeconds();
+        double[] out = new double[chain.size()];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = surface.vol(logStrikes[i] - logSpot, expiry[i], now);
+        }
+        return out;
+    }
+
+    public Map<String, double[]> contractVols(Collection<String> stockTickers) {
+        Map<String, double[]> vols = new LinkedHashMap<>();
+        for (String ticker : stockTickers) {
+            double[] v = contractVols(ticker);
+            if (v != null) {
+                vols.put(ticker, v);
+            }
+        }
+        return vols;
+    }
+
+    public OptionChain chain(String stockTicker) {
+        Entry entry = entries.get(stockTicker);
+        return entry == null ? null : entry.chain;
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdownNow();
+    }
+
+    private double spot(String stockTicker, double fallback) {
+        RiskManagement quote = snapshots.risk(stockTicker);
+        return quote != null && quote.getLast() > 0 ? quote.getLast() : fallback;
+    }
+
+    static Entry build(OptionChain chain, double spot, double[] prices, long valuationMillis) {
+        int n = chain.size();
+        if (prices.length != n) {
+            throw new IllegalArgumentException("Expected " + n + " prices for " + chain.getStockTicker());
+        }
+        double[] solved = new double[n];
+        ImpliedVolatility.solve(chain, spot, OptionPricingEngine.RISK_FREE_RATE, prices,
+                Math.floorDiv(valuationMillis, 1000L), solved, 0, n);
+
+        // Contracts by (expiry, strike, puts first) so each strike's pair is adjacent
+        long[] expiry = chain.getExpiryEpochSeconds();
+        double[] strikes = chain.getStrikes();
+        boolean[] calls = chain.getCalls();
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> {
+            int c = Long.compare(expiry[a], expiry[b]);
+            if (c == 0) {
+                c = Double.compare(strikes[a], strikes[b]);
+            }
+            return c != 0 ? c : Boolean.compare(calls[a], calls[b]);
+        });
+
+        int[] sliceOf = new int[n];
+        int[] nodeOf = new int[n];
+        Arrays.fill(nodeOf, -1);
+        List<Long> sliceExpiries = new ArrayList<>();
+        List<double[]> sliceMoneyness = new ArrayList<>();
+        List<double[]> sliceVols = new ArrayList<>();
+        double logSpot = Math.log(spot);
+        double[] m = new double[n];
+        double[] v = new double[n];
+        int[] source = new int[n];
+        int i = 0;
+        while (i < n) {
+            long e = expiry[order[i]];
+            int nodes = 0;
+            while (i < n && expiry[order[i]] == e) {
+                int j = i;
+                int put = -1;
+                int call = -1;
+                while (j < n && expiry[order[j]] == e && strikes[order[j]] == strikes[order[i]]) {
+                    if (calls[order[j]]) {
+                        call = order[j];
+                    } else {
+                        put = order[j];
+                    }
+                    j++;
+                }
+                boolean callSide = strikes[order[i]] >= spot;
+                int preferred = callSide ? call : put;
+                int other = callSide ? put : call;
+                int pick = preferred >= 0 && !Double.isNaN(solved[preferred]) ? preferred
+                        : other >= 0 && !Double.isNaN(solved[other]) ? other : -1;
+                if (pick >= 0) {
+                    m[nodes] = chain.getLogStrikes()[pick] - logSpot;
+                    v[nodes] = solved[pick];
+                    source[nodes] = pick;
+                    nodes++;
+                }
+                i = j;
+            }
+            if (nodes > 0) {
+                int slice = sliceExpiries.size();
+                for (int k = 0; k < nodes; k++) {
+                    sliceOf[source[k]] = slice;
+                    nodeOf[source[k]] = k;
+                }
+                sliceExpiries.add(e);
+                sliceMoneyness.add(Arrays.copyOf(m, nodes));
+                sliceVols.add(Arrays.copyOf(v, nodes));
+            }
+        }
+        long[] expiries = new long[sliceExpiries.size()];
+        for (int s = 0; s < expiries.length; s++) {
+            expiries[s] = sliceExpiries.get(s);
+        }
+        VolatilitySurface surface = new VolatilitySurface(chain.getStockTicker(), expiries,
+                sliceMoneyness.toArray(new double[0][]), sliceVols.toArray(new double[0][]), valuationMillis);
+        return new Entry(chain, spot, sliceOf, nodeOf, surface);
+    }
+
+    // One underlying: the chain last rebuilt, where each contract sits on the surface, and the surface
+    static final class Entry {
+        final OptionChain chain;
+        final double spot;
+        final int[] sliceOf;
+        final int[] nodeOf;
+        volatile VolatilitySurface surface;
+
+        Entry(OptionChain chain, double spot, int[] sliceOf, int[] nodeOf, VolatilitySurface surface) {
+            this.chain = chain;
+            this.spot = spot;
+            this.sliceOf = sliceOf;
+            this.nodeOf = nodeOf;
+            this.surface = surface;
+        }
+    }
+
+    private static final class RebuildTask extends RecursiveAction {
+        private final List<OptionChain> chains;
+        private final List<double[]> prices;
+        private final List<Double> spots;
+        private final long valuationMillis;
+        private final Entry[] out;
+        private final int from;
+        private final int to;
+
+        RebuildTask(List<OptionChain> chains, List<double[]> prices, List<Double> spots, long valuationMillis,
+                    Entry[] out, int from, int to) {
+            this.chains = chains;
+            this.prices = prices;
+            this.spots = spots;
+            this.valuationMillis = valuationMillis;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                for (int c = from; c < to; c++) {
+                    out[c] = build(chains.get(c), spots.get(c), prices.get(c), valuationMillis);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            RebuildTask left = new RebuildTask(chains, prices, spots, valuationMillis, out, from, mid);
+            left.fork();
+            new RebuildTask(chains, prices, spots, valuationMillis, out, mid, to).compute();
+            left.join();
+        }
+    }
+}
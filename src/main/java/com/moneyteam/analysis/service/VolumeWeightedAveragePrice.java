@@ -0,0 +1,26 @@
+package com.moneyteam.analysis.service;
+
+// Session VWAP; call reset() at the session boundary
+public final class VolumeWeightedAveragePrice implements Indicator {
+
+    private double priceVolume;
+    private double volume;
+
+    public double update(double price, double tradeVolume) {
+        if (tradeVolume > 0) {
+            priceVolume += price * tradeVolume;
+            volume += tradeVolume;
+        }
+        return value();
+    }
+
+    public void reset() {
+        priceVolume = 0;
+        volume = 0;
+    }
+
+    @Override
+    public double value() {
+        return volume == 0 ? Double.NaN : priceVolume / volume;
+    }
+}
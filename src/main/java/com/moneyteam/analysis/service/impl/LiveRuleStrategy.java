@@ -0,0 +1,43 @@
+package com.moneyteam.analysis.service.impl;
+
+import com.moneyteam.analysis.service.LiveStrategy;
+import com.moneyteam.analysis.service.RuleContext;
+import com.moneyteam.analysis.service.RuleSet;
+import com.moneyteam.marketdata.model.PriceBar;
+import com.moneyteam.trading.model.enums.OrderSide;
+
+// Live counterpart of RuleStrategy: the same compiled buy/sell rules fed one closed bar at a time
+public class LiveRuleStrategy implements LiveStrategy {
+
+    private final RuleContext context;
+    private final RuleSet.CompiledRule buy;
+    private final RuleSet.CompiledRule sell;
+    private boolean inPosition;
+
+    // rules is typically RuleStrategy.compile(buy, sell), shared by every ticker's instance
+    public LiveRuleStrategy(RuleSet rules, String buyRule, String sellRule) {
+        this.context = rules.newContext();
+        this.buy = rules.rule(buyRule);
+        this.sell = rules.rule(sellRule);
+    }
+
+    @Override
+    public OrderSide onBar(PriceBar bar) {
+        // Bars replayed through IndicatorSet.onBar carry no open; use the close
+        double open = Double.isNaN(bar.getOpen()) ? bar.getClose() : bar.getOpen();
+        context.update(open, bar.getHigh(), bar.getLow(), bar.getClose(), bar.getVolume());
+        if (!inPosition && buy.test(context)) {
+            return OrderSide.BUY;
+        }
+        if (inPosition && sell.test(context)) {
+            return OrderSide.SELL;
+        }
+        return null;
+    }
+
+    // A dropped BUY leaves us flat, so the next bar that passes the rule signals again
+    @Override
+    public void onSignalDelivered(OrderSide side) {
+        inPosition = side == OrderSide.BUY;
+    }
+}
@@ -0,0 +1,41 @@
+package com.moneyteam.analysis.service.impl;
+
+import com.moneyteam.analysis.model.BarSeries;
+import com.moneyteam.analysis.service.BacktestStrategy;
+import com.moneyteam.analysis.service.BatchIndicators;
+import com.moneyteam.trading.model.enums.OrderSide;
+
+// Long when the fast SMA crosses above the slow SMA, flat when it crosses back below
+public class MovingAverageCrossStrategy implements BacktestStrategy {
+
+    private final int fastPeriod;
+    private final int slowPeriod;
+    private byte[] crosses;
+
+    public MovingAverageCrossStrategy(int fastPeriod, int slowPeriod) {
+        if (fastPeriod >= slowPeriod) {
+            throw new IllegalArgumentException("Fast period must be shorter than slow period");
+        }
+        this.fastPeriod = fastPeriod;
+        this.slowPeriod = slowPeriod;
+    }
+
+    @Override
+    public void prepare(BarSeries series) {
+        double[] close = series.getClose();
+        crosses = BatchIndicators.crossovers(BatchIndicators.rollingMean(close, fastPeriod),
+                BatchIndicators.rollingMean(close, slowPeriod));
+    }
+
+    @Override
+    public OrderSide onBar(BarSeries series, int index, boolean inPosition) {
+        byte cross = crosses[index];
+        if (cross > 0 && !inPosition) {
+            return OrderSide.BUY;
+        }
+        if (cross < 0 && inPosition) {
+            return OrderSide.SELL;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,34 @@
+package com.moneyteam.analysis.service.impl;
+
+import com.moneyteam.analysis.model.BarSeries;
+import com.moneyteam.analysis.service.BacktestStrategy;
+import com.moneyteam.trading.model.enums.OrderSide;
+
+// The buy-above / sell-below rule from StockStrategiesImpl.shouldBuy / shouldSell, as a backtest strategy
+public class PriceThresholdStrategy implements BacktestStrategy {
+
+    private final double buyAbove;
+    private final double sellBelow;
+
+    public PriceThresholdStrategy(double buyAbove, double sellBelow) {
+        this.buyAbove = buyAbove;
+        this.sellBelow = sellBelow;
+    }
+
+    // Same thresholds StockStrategiesImpl uses
+    public PriceThresholdStrategy() {
+        this(50, 40);
+    }
+
+    @Override
+    public OrderSide onBar(BarSeries series, int index, boolean inPosition) {
+        double last = series.getClose()[index];
+        if (!inPosition && last > buyAbove) {
+            return OrderSide.BUY;
+        }
+        if (inPosition && last < sellBelow) {
+            return OrderSide.SELL;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,61 @@
+package com.moneyteam.analysis.service.impl;
+
+import com.moneyteam.analysis.model.BarSeries;
+import com.moneyteam.analysis.service.BacktestStrategy;
+import com.moneyteam.analysis.service.RuleContext;
+import com.moneyteam.analysis.service.RuleSet;
+import com.moneyteam.trading.model.enums.OrderSide;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Entry and exit rules written in the rule language, e.g. buy "rsi(14) < 30 and last > sma(50)"
+public class RuleStrategy implements BacktestStrategy {
+
+    private final RuleSet rules;
+    private final RuleSet.CompiledRule buy;
+    private final RuleSet.CompiledRule sell;
+    private RuleContext context;
+    private int fed;
+
+    // Compile once and share the RuleSet across strategy instances
+    public RuleStrategy(RuleSet rules, String buyRule, String sellRule) {
+        this.rules = rules;
+        this.buy = rules.rule(buyRule);
+        this.sell = rules.rule(sellRule);
+    }
+
+    public static RuleSet compile(String buyRule, String sellRule) {
+        Map<String, String> sources = new LinkedHashMap<>();
+        sources.put("buy", buyRule);
+        sources.put("sell", sellRule);
+        return RuleSet.compile(sources);
+    }
+
+    @Override
+    public void prepare(BarSeries series) {
+        context = rules.newContext();
+        fed = -1;
+    }
+
+    @Override
+    public OrderSide onBar(BarSeries series, int index, boolean inPosition) {
+        // Feed every bar up to this one so indicators are warm even when a range starts mid-series
+        double[] open = series.getOpen();
+        double[] high = series.getHigh();
+        double[] low = series.getLow();
+        double[] close = series.getClose();
+        long[] volume = series.getVolume();
+        while (fed < index) {
+            fed++;
+            context.update(open[fed], high[fed], low[fed], close[fed], volume[fed]);
+        }
+        if (!inPosition && buy.test(context)) {
+            return OrderSide.BUY;
+        }
+        if (inPosition && sell.test(context)) {
+            return OrderSide.SELL;
+        }
+        return null;
+    }
+}
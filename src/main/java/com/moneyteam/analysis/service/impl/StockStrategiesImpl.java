@@ -5,10 +5,7 @@ import com.moneyteam.analysis.model.TechnicalAnalysis;
 import com.moneyteam.analysis.model.FundamentalAnalysis;
 import com.moneyteam.analysis.model.RiskManagement;
 import com.moneyteam.marketdata.model.Stock;
-import com.moneyteam.marketdata.model.Crypto;
-
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import com.moneyteam.analysis.service.PropertyAccessors;
 
 //MarketDataService: This service class encapsulates the logic for retrieving and processing market data.
 // It interacts with the MarketData model class to fetch data and provides methods for the Controller to access and utilize the data.
@@ -28,7 +25,6 @@ public class StockStrategiesImpl {
     private FundamentalAnalysis fundamentalAnalysis;
     private Stock stock;
     private RiskManagement riskManagement;
-    private Crypto crypto;
 
     public Stock getStockData(String stockTicker) {
 
@@ -36,17 +32,18 @@ public class StockStrategiesImpl {
 
         return stock;
     }
-    public static Object[] getStockProperties(Object stock, String[] propertyNames) throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+    // Accessors are bound once per class (see PropertyAccessors); no reflective lookup or invoke per call
+    @SuppressWarnings("unchecked")
+    public static Object[] getStockProperties(Object stock, String[] propertyNames) throws NoSuchMethodException {
+        PropertyAccessors<Object> accessors = PropertyAccessors.of((Class<Object>) stock.getClass());
         Object[] rowData = new Object[propertyNames.length];
-        Class<?> Stock = stock.getClass();
 
         for (int i = 0; i < propertyNames.length; i++) {
-            String propertyName = propertyNames[i];
-            String getterMethodName = "get" + propertyName.substring(0, 1).toUpperCase() + propertyName.substring(1);
-            Method getterMethod = Stock.getMethod(getterMethodName);
-
-            Object propertyValue = getterMethod.invoke(stock);
-            rowData[i] = propertyValue;
+            PropertyAccessors.Property<Object> property = accessors.property(propertyNames[i]);
+            if (property == null) {
+                throw new NoSuchMethodException(stock.getClass().getName() + " has no getter for " + propertyNames[i]);
+            }
+            rowData[i] = property.get(stock);
         }
 
         return rowData;
@@ -0,0 +1,38 @@
+package com.moneyteam.common.config;
+
+import com.moneyteam.marketdata.service.OAuthTokenManager;
+import com.moneyteam.marketdata.service.ThinkOrSwimClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Instant;
+
+// One Schwab token manager for the whole app, seeded from the configured refresh token when present
+@Configuration
+public class ThinkOrSwimConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ThinkOrSwimConfig.class);
+
+    @Bean(destroyMethod = "close")
+    public OAuthTokenManager schwabTokenManager(@Value("${schwab.oauth.token-url}") String tokenUrl,
+                                                @Value("${schwab.oauth.client-id}") String clientId,
+                                                @Value("${schwab.oauth.redirect-uri}") String redirectUri,
+                                                @Value("${schwab.oauth.refresh-token:}") String refreshToken) {
+        OAuthTokenManager tokenManager = new OAuthTokenManager(tokenUrl, clientId, redirectUri);
+        if (refreshToken.isEmpty()) {
+            log.warn("No Schwab refresh token configured; SCHWAB quotes stay unavailable until authenticated");
+        } else {
+            // Already expired, so the first refresh runs straight away and swaps in a real access token
+            tokenManager.seed(new OAuthTokenManager.AccessToken(null, refreshToken, Instant.EPOCH));
+        }
+        return tokenManager;
+    }
+
+    @Bean
+    public ThinkOrSwimClient thinkOrSwimClient(OAuthTokenManager schwabTokenManager) {
+        return new ThinkOrSwimClient(schwabTokenManager);
+    }
+}
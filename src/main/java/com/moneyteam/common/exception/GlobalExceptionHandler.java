@@ -48,6 +48,17 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    /**
+     * Handles a request that collides with an operation already running.
+     */
+    @ExceptionHandler(OperationInProgressException.class)
+    public ResponseEntity<Map<String, String>> handleOperationInProgress(OperationInProgressException ex) {
+        Map<String, String> response = new HashMap<>();
+        response.put("error", ex.getMessage());
+        log.warn("Conflict: {}", ex.getMessage());
+        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+    }
+
     /**
      * Handles resource not found
      */
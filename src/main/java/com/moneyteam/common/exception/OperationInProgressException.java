@@ -0,0 +1,12 @@
+package com.moneyteam.common.exception;
+
+/**
+ * A single-flight operation (e.g. the options expiry run) is already running. Mapped to 409 so
+ * callers can retry later instead of treating it as a server error.
+ */
+public class OperationInProgressException extends IllegalStateException {
+
+    public OperationInProgressException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,51 @@
+package com.moneyteam.common.util;
+
+import java.text.NumberFormat;
+import java.util.Locale;
+
+/**
+ * Shared number formatters for reports and API output. NumberFormat is expensive to build and not
+ * thread-safe, so each thread gets one instance per style, built on first use and reused after.
+ * Null, NaN and infinite values format as "N/A".
+ */
+public final class Formatters {
+
+    private static final String MISSING = "N/A";
+
+    private static final ThreadLocal<NumberFormat> CURRENCY =
+            ThreadLocal.withInitial(() -> NumberFormat.getCurrencyInstance(Locale.US));
+    private static final ThreadLocal<NumberFormat> PERCENT = ThreadLocal.withInitial(() -> {
+        NumberFormat format = NumberFormat.getPercentInstance(Locale.US);
+        format.setMinimumFractionDigits(2);
+        format.setMaximumFractionDigits(2);
+        return format;
+    });
+    private static final ThreadLocal<NumberFormat> DECIMAL = ThreadLocal.withInitial(() -> {
+        NumberFormat format = NumberFormat.getNumberInstance(Locale.US);
+        format.setMinimumFractionDigits(2);
+        format.setMaximumFractionDigits(2);
+        return format;
+    });
+
+    private Formatters() {
+    }
+
+    // $1,234,567.89
+    public static String currency(Double amount) {
+        return isMissing(amount) ? MISSING : CURRENCY.get().format(amount);
+    }
+
+    // 0.0345 -> 3.45%
+    public static String percent(Double fraction) {
+        return isMissing(fraction) ? MISSING : PERCENT.get().format(fraction);
+    }
+
+    // Ratios such as P/E: 1,234.57
+    public static String decimal(Double value) {
+        return isMissing(value) ? MISSING : DECIMAL.get().format(value);
+    }
+
+    private static boolean isMissing(Double value) {
+        return value == null || value.isNaN() || value.isInfinite();
+    }
+}
@@ -0,0 +1,28 @@
+package com.moneyteam.common.util;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+// US equity regular session, 09:30-16:00 New York time on weekdays; exchange holidays are not modelled
+public final class MarketHours {
+
+    private static final ZoneId EXCHANGE_ZONE = ZoneId.of("America/New_York");
+    private static final LocalTime OPEN = LocalTime.of(9, 30);
+    private static final LocalTime CLOSE = LocalTime.of(16, 0);
+
+    private MarketHours() {
+    }
+
+    public static boolean isRegularSession(long epochMillis) {
+        ZonedDateTime now = Instant.ofEpochMilli(epochMillis).atZone(EXCHANGE_ZONE);
+        DayOfWeek day = now.getDayOfWeek();
+        if (day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY) {
+            return false;
+        }
+        LocalTime time = now.toLocalTime();
+        return !time.isBefore(OPEN) && time.isBefore(CLOSE);
+    }
+}
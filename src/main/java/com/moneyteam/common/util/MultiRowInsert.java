@@ -0,0 +1,157 @@
+package com.moneyteam.common.util;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.jdbc.Work;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * Multi-row INSERT shared by the bulk repositories: {@code INSERT INTO t (cols) VALUES (?, ...), ...}
+ * plus an optional suffix (e.g. ON DUPLICATE KEY UPDATE), written in statements of up to
+ * rowsPerStatement rows. The full-size statement is prepared once per call and reused; only the tail
+ * gets its own. JDBC work runs on a Hibernate StatelessSession - no entity loading, no dirty checking,
+ * no persistence context. Also holds the null-safe binders the row binders share.
+ */
+public final class MultiRowInsert<T> {
+
+    // Binds one row's parameters starting at index first
+    @FunctionalInterface
+    public interface RowBinder<T> {
+        void bind(PreparedStatement ps, int first, T row) throws SQLException;
+    }
+
+    private final String prefix;
+    private final String row;
+    private final String suffix;
+    private final int columns;
+    private final int rowsPerStatement;
+    private final RowBinder<T> binder;
+
+    public MultiRowInsert(String insertPrefix, int columns, String suffix, int rowsPerStatement, RowBinder<T> binder) {
+        if (columns <= 0 || rowsPerStatement <= 0) {
+            throw new IllegalArgumentException("columns and rowsPerStatement must be positive");
+        }
+        this.prefix = insertPrefix;
+        this.row = "(" + "?, ".repeat(columns - 1) + "?)";
+        this.suffix = suffix == null ? "" : suffix;
+        this.columns = columns;
+        this.rowsPerStatement = rowsPerStatement;
+        this.binder = binder;
+    }
+
+    // "INSERT INTO table (a, b, c) VALUES " for the given columns
+    public static String prefix(String table, String... columns) {
+        return "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ";
+    }
+
+    public String sql(int rows) {
+        StringBuilder sql = new StringBuilder(prefix.length() + rows * (row.length() + 2) + suffix.length());
+        sql.append(prefix);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(row);
+        }
+        return sql.append(suffix).toString();
+    }
+
+    // Returns the number of statements executed; timeoutSeconds <= 0 leaves the driver default
+    public int execute(Connection connection, Collection<? extends T> rows, int timeoutSeconds) throws SQLException {
+        Iterator<? extends T> it = rows.iterator();
+        int remaining = rows.size();
+        int statements = 0;
+        if (remaining >= rowsPerStatement) {
+            try (PreparedStatement full = connection.prepareStatement(sql(rowsPerStatement))) {
+                setTimeout(full, timeoutSeconds);
+                while (remaining >= rowsPerStatement) {
+                    bindRows(full, it, rowsPerStatement);
+                    full.executeUpdate();
+                    remaining -= rowsPerStatement;
+                    statements++;
+                }
+            }
+        }
+        if (remaining > 0) {
+            try (PreparedStatement tail = connection.prepareStatement(sql(remaining))) {
+                setTimeout(tail, timeoutSeconds);
+                bindRows(tail, it, remaining);
+                tail.executeUpdate();
+                statements++;
+            }
+        }
+        return statements;
+    }
+
+    public int execute(Connection connection, Collection<? extends T> rows) throws SQLException {
+        return execute(connection, rows, 0);
+    }
+
+    private void bindRows(PreparedStatement ps, Iterator<? extends T> it, int rows) throws SQLException {
+        for (int r = 0; r < rows; r++) {
+            binder.bind(ps, r * columns + 1, it.next());
+        }
+    }
+
+    private static void setTimeout(PreparedStatement ps, int timeoutSeconds) throws SQLException {
+        if (timeoutSeconds > 0) {
+            ps.setQueryTimeout(timeoutSeconds);
+        }
+    }
+
+    // Run JDBC work in one StatelessSession transaction; rolled back if it throws
+    public static void inTransaction(SessionFactory sessionFactory, Work work) {
+        StatelessSession session = sessionFactory.openStatelessSession();
+        try {
+            session.getTransaction().begin();
+            session.doWork(work);
+            session.getTransaction().commit();
+        } catch (RuntimeException e) {
+            if (session.getTransaction().isActive()) {
+                session.getTransaction().rollback();
+            }
+            throw e;
+        } finally {
+            session.close();
+        }
+    }
+
+    public static void setString(PreparedStatement ps, int index, String value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.VARCHAR);
+        } else {
+            ps.setString(index, value);
+        }
+    }
+
+    public static void setDouble(PreparedStatement ps, int index, Double value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.DOUBLE);
+        } else {
+            ps.setDouble(index, value);
+        }
+    }
+
+    // NaN and infinities (e.g. an indicator still warming up) are stored as NULL
+    public static void setDouble(PreparedStatement ps, int index, double value) throws SQLException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            ps.setNull(index, Types.DOUBLE);
+        } else {
+            ps.setDouble(index, value);
+        }
+    }
+
+    public static void setLong(PreparedStatement ps, int index, Number value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.BIGINT);
+        } else {
+            ps.setLong(index, value.longValue());
+        }
+    }
+}
@@ -1,18 +1,49 @@
 package com.moneyteam.marketdata.controller;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moneyteam.analysis.model.BacktestConfig;
+import com.moneyteam.analysis.model.BacktestReport;
+import com.moneyteam.analysis.model.DateRange;
+import com.moneyteam.analysis.model.KeyMetrics;
+import com.moneyteam.analysis.service.BacktestEngine;
+import com.moneyteam.analysis.service.BacktestStrategy;
+import com.moneyteam.analysis.service.FundamentalsService;
+import com.moneyteam.analysis.service.RuleSet;
+import com.moneyteam.analysis.service.StrategyScheduler;
+import com.moneyteam.analysis.service.impl.MovingAverageCrossStrategy;
+import com.moneyteam.analysis.service.impl.PriceThresholdStrategy;
+import com.moneyteam.analysis.service.impl.RuleStrategy;
+import com.moneyteam.marketdata.model.BackfillReport;
+import com.moneyteam.marketdata.model.ScreenResult;
 import com.moneyteam.marketdata.model.Stock;
+import com.moneyteam.marketdata.model.enums.BarInterval;
+import com.moneyteam.marketdata.model.enums.ScreenField;
+import com.moneyteam.marketdata.service.CryptoTickPipeline;
+import com.moneyteam.marketdata.service.HistoricalBackfillService;
+import com.moneyteam.marketdata.service.QuoteDecoder;
+import com.moneyteam.marketdata.service.ScreenPredicate;
+import com.moneyteam.marketdata.service.StockScreener;
+import com.moneyteam.marketdata.service.UpstreamRequestScheduler;
+import com.moneyteam.marketdata.service.impl.HedgedStockApiService;
 import com.moneyteam.trading.model.StockTradeRequest;
+import com.moneyteam.trading.service.PurchaseTrade;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 //BotController: This class acts as the central controller for the trading bot.
 // It receives users input from the UserInterface, interacts with the Model classes to execute
@@ -24,6 +55,30 @@ public class StockController {
 
     private static final Logger log = LoggerFactory.getLogger(StockController.class);
 
+    @Autowired
+    private UpstreamRequestScheduler requestScheduler;
+
+    @Autowired
+    private HedgedStockApiService hedgedStockApiService;
+
+    @Autowired
+    private CryptoTickPipeline cryptoTickPipeline;
+
+    @Autowired
+    private StockScreener stockScreener;
+
+    @Autowired
+    private StrategyScheduler strategyScheduler;
+
+    @Autowired
+    private HistoricalBackfillService historicalBackfillService;
+
+    @Autowired
+    private FundamentalsService fundamentalsService;
+
+    @Autowired
+    private BacktestEngine backtestEngine;
+
     @PostMapping("/stock")
     public ResponseEntity<?> executeStockTrade(@RequestBody StockTradeRequest tradeRequest) {
         // Retrieve users, stock, and strategy information from the tradeRequest
@@ -33,12 +88,182 @@ public class StockController {
         return null;
     }
 
+    // Queue depth, wait times and shed counts for each upstream market-data provider
+    @GetMapping("/marketdata/scheduler")
+    public ResponseEntity<Map<String, Object>> getSchedulerMetrics() {
+        return ResponseEntity.ok(requestScheduler.metrics());
+    }
+
+    // Latency percentiles, circuit state and hedge counts for each quote provider
+    @GetMapping("/marketdata/providers")
+    public ResponseEntity<Map<String, Object>> getProviderStats() {
+        return ResponseEntity.ok(hedgedStockApiService.providerStats());
+    }
+
+    // Per-shard tick, drop and bar counts for the crypto ingestion pipeline
+    @GetMapping("/marketdata/crypto")
+    public ResponseEntity<Map<String, Object>> getCryptoPipelineMetrics() {
+        return ResponseEntity.ok(cryptoTickPipeline.metrics());
+    }
+
+    // Evaluation counts, drops, late signals and latency percentiles for each live strategy
+    @GetMapping("/marketdata/strategies")
+    public ResponseEntity<Map<String, Object>> getStrategyMetrics() {
+        return ResponseEntity.ok(strategyScheduler.metrics());
+    }
+
+    // e.g. /marketdata/backfill?stockTicker=AAPL&stockTicker=MSFT&interval=DAILY&from=2020-01-01&to=2024-01-01
+    // Starts in the background and answers 202 with the job id to poll. Re-post with the same jobId to resume
+    // once it has finished; 409 while it is still running
+    @PostMapping("/marketdata/backfill")
+    public ResponseEntity<Map<String, String>> backfillHistory(
+            @RequestParam List<String> stockTicker,
+            @RequestParam(defaultValue = "DAILY") BarInterval interval,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String jobId) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        String id = jobId != null ? jobId : "backfill-" + interval + "-" + from + "-" + to;
+        log.info("Backfill {} requested for {} tickers", id, stockTicker.size());
+        historicalBackfillService.start(id, stockTicker, interval, from, to);
+        return ResponseEntity.accepted().body(Map.of("jobId", id));
+    }
+
+    // The job's report once it has finished; 202 while it is still running
+    @GetMapping("/marketdata/backfill/{jobId}")
+    public ResponseEntity<?> getBackfill(@PathVariable String jobId) {
+        if (historicalBackfillService.isRunning(jobId)) {
+            return ResponseEntity.accepted().body(Map.of("jobId", jobId, "state", "RUNNING"));
+        }
+        Optional<BackfillReport> report = historicalBackfillService.report(jobId);
+        return report.isPresent() ? ResponseEntity.ok(report.get()) : ResponseEntity.notFound().build();
+    }
+
+    // e.g. /marketdata/screen?minPrice=5&maxPrice=50&minVolume=1000000&sector=Technology&sortBy=SIZZLE_INDEX
+    // or /marketdata/screen?correlatedWith=AAPL&maxCorrelation=0.3 for diversifiers among watched tickers
+    @GetMapping("/marketdata/screen")
+    public ResponseEntity<List<ScreenResult>> screenStocks(
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) Double minVolume,
+            @RequestParam(required = false) Double minSizzleIndex,
+            @RequestParam(required = false) Double minMarkChange,
+            @RequestParam(required = false) Double maxMarkChange,
+            @RequestParam(required = false) Double minMarketCap,
+            @RequestParam(required = false) List<String> sector,
+            @RequestParam(required = false) String correlatedWith,
+            @RequestParam(required = false) Double minCorrelation,
+            @RequestParam(required = false) Double maxCorrelation,
+            @RequestParam(defaultValue = "VOLUME") ScreenField sortBy,
+            @RequestParam(defaultValue = "true") boolean descending,
+            @RequestParam(defaultValue = "50") int limit) {
+        ScreenPredicate predicate = ScreenPredicate.all();
+        if (minPrice != null || maxPrice != null) {
+            predicate = predicate.and(ScreenPredicate.priceBetween(minPrice == null ? Double.NEGATIVE_INFINITY : minPrice,
+                    maxPrice == null ? Double.POSITIVE_INFINITY : maxPrice));
+        }
+        if (minVolume != null) {
+            predicate = predicate.and(ScreenPredicate.atLeast(ScreenField.VOLUME, minVolume));
+        }
+        if (minSizzleIndex != null) {
+            predicate = predicate.and(ScreenPredicate.atLeast(ScreenField.SIZZLE_INDEX, minSizzleIndex));
+        }
+        if (minMarkChange != null || maxMarkChange != null) {
+            predicate = predicate.and(ScreenPredicate.between(ScreenField.MARK_CHANGE,
+                    minMarkChange == null ? Double.NEGATIVE_INFINITY : minMarkChange,
+                    maxMarkChange == null ? Double.POSITIVE_INFINITY : maxMarkChange));
+        }
+        if (minMarketCap != null) {
+            predicate = predicate.and(ScreenPredicate.atLeast(ScreenField.MARKET_CAP, minMarketCap));
+        }
+        if (sector != null && !sector.isEmpty()) {
+            predicate = predicate.and(ScreenPredicate.sectorIn(sector.toArray(new String[0])));
+        }
+        if (correlatedWith != null) {
+            predicate = predicate.and(stockScreener.correlationBetween(correlatedWith,
+                    minCorrelation == null ? -1 : minCorrelation, maxCorrelation == null ? 1 : maxCorrelation));
+        }
+        return ResponseEntity.ok(stockScreener.screen(predicate, sortBy, descending, Math.min(limit, 1000)));
+    }
+
+    // e.g. /marketdata/backtest?stockTicker=AAPL&from=2015-01-01&to=2024-12-31&strategy=sma-cross&fast=20&slow=50
+    // strategy is sma-cross, threshold (buyAbove / sellBelow) or rules (buyRule / sellRule in the rule language);
+    // replays daily bars from price_history, fee is charged per fill as in PurchaseTrade
+    @GetMapping("/marketdata/backtest")
+    public ResponseEntity<Map<String, Object>> backtest(
+            @RequestParam List<String> stockTicker,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "sma-cross") String strategy,
+            @RequestParam(defaultValue = "20") int fast,
+            @RequestParam(defaultValue = "50") int slow,
+            @RequestParam(defaultValue = "50") double buyAbove,
+            @RequestParam(defaultValue = "40") double sellBelow,
+            @RequestParam(required = false) String buyRule,
+            @RequestParam(required = false) String sellRule,
+            @RequestParam(defaultValue = "100000") double startingCash,
+            @RequestParam(defaultValue = "0") double fee) {
+        Supplier<BacktestStrategy> strategies =
+                backtestStrategy(strategy, fast, slow, buyAbove, sellBelow, buyRule, sellRule);
+        PurchaseTrade costs = new PurchaseTrade();
+        costs.setFees(fee);
+        BacktestReport report = backtestEngine.runFromHistory(stockTicker, BarInterval.DAILY, new DateRange(from, to),
+                List.of(), strategies, BacktestConfig.daily(strategy, startingCash, costs));
+        Map<String, Object> body = report.summary();
+        body.put("results", report.getResults());
+        return ResponseEntity.ok(body);
+    }
+
+    // One fresh strategy per backtest job; bad parameters fail here, before any history is loaded
+    private static Supplier<BacktestStrategy> backtestStrategy(String name, int fast, int slow, double buyAbove,
+                                                               double sellBelow, String buyRule, String sellRule) {
+        switch (name) {
+            case "sma-cross":
+                new MovingAverageCrossStrategy(fast, slow);
+                return () -> new MovingAverageCrossStrategy(fast, slow);
+            case "threshold":
+                return () -> new PriceThresholdStrategy(buyAbove, sellBelow);
+            case "rules":
+                if (buyRule == null || sellRule == null) {
+                    throw new IllegalArgumentException("rules strategy needs buyRule and sellRule");
+                }
+                RuleSet rules = RuleStrategy.compile(buyRule, sellRule);
+                return () -> new RuleStrategy(rules, "buy", "sell");
+            default:
+                throw new IllegalArgumentException("Unknown strategy " + name);
+        }
+    }
+
+    // Key metrics from the in-memory fundamentals, P/E at the live price; 404 if the ticker has none
+    @GetMapping("/marketdata/fundamentals/{stockTicker}")
+    public ResponseEntity<KeyMetrics> getFundamentals(@PathVariable String stockTicker) {
+        KeyMetrics metrics = fundamentalsService.keyMetrics(stockTicker);
+        return metrics == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(metrics);
+    }
+
+    // e.g. /marketdata/fundamentals?maxPe=20&minEps=1&maxDebtToEquity=1.5; a bound excludes tickers missing that value
+    @GetMapping("/marketdata/fundamentals")
+    public ResponseEntity<List<KeyMetrics>> screenFundamentals(
+            @RequestParam(required = false) Double maxPe,
+            @RequestParam(required = false) Double minEps,
+            @RequestParam(required = false) Double maxDebtToEquity,
+            @RequestParam(required = false) Double minMarketCap,
+            @RequestParam(defaultValue = "50") int limit) {
+        List<KeyMetrics> matches = fundamentalsService.screen(m ->
+                (maxPe == null || m.getPriceToEarningsRatio() <= maxPe)
+                        && (minEps == null || m.getEarningsPerShare() >= minEps)
+                        && (maxDebtToEquity == null || m.getDebtToEquityRatio() <= maxDebtToEquity)
+                        && (minMarketCap == null || m.getMarketCap() >= minMarketCap));
+        return ResponseEntity.ok(matches.subList(0, Math.min(matches.size(), Math.min(limit, 1000))));
+    }
+
     // using  a combination of Jackson's ObjectMapper and a custom class mapping approach
     // Other controller methods for options trades, analysis, risk management, etc.
     public List<Stock> getStockFromApiResponse(String apiResponse) throws Exception {
-            ObjectMapper objectMapper = new ObjectMapper();
-            List<Stock> stocks = objectMapper.readValue(apiResponse,
-                    new com.fasterxml.jackson.core.type.TypeReference<List<Stock>>() {});
+            // streaming decode with the shared mapper instead of a new ObjectMapper per call
+            List<Stock> stocks = QuoteDecoder.decode(apiResponse);
 
             for (Stock stock : stocks) {
                 System.out.println(stock);
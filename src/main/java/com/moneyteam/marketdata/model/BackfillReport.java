@@ -0,0 +1,66 @@
+package com.moneyteam.marketdata.model;
+
+import java.util.List;
+
+public class BackfillReport {
+    private final String jobId;
+    private final int totalChunks;
+    private final int skippedChunks;
+    private final int completedChunks;
+    private final List<String> failedChunks;
+    private final long barsWritten;
+    private final long elapsedMillis;
+
+    public BackfillReport(String jobId, int totalChunks, int skippedChunks, int completedChunks,
+                          List<String> failedChunks, long barsWritten, long elapsedMillis) {
+        this.jobId = jobId;
+        this.totalChunks = totalChunks;
+        this.skippedChunks = skippedChunks;
+        this.completedChunks = completedChunks;
+        this.failedChunks = failedChunks;
+        this.barsWritten = barsWritten;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public int getTotalChunks() {
+        return totalChunks;
+    }
+
+    // Chunks already checkpointed by an earlier run of the same job
+    public int getSkippedChunks() {
+        return skippedChunks;
+    }
+
+    public int getCompletedChunks() {
+        return completedChunks;
+    }
+
+    public List<String> getFailedChunks() {
+        return failedChunks;
+    }
+
+    public long getBarsWritten() {
+        return barsWritten;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "BackfillReport {" +
+                "jobId='" + jobId + '\'' +
+                ", totalChunks=" + totalChunks +
+                ", skippedChunks=" + skippedChunks +
+                ", completedChunks=" + completedChunks +
+                ", failedChunks=" + failedChunks.size() +
+                ", barsWritten=" + barsWritten +
+                ", elapsedMillis=" + elapsedMillis +
+                '}';
+    }
+}
@@ -1,4 +1,165 @@
 package com.moneyteam.marketdata.model;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * A crypto trading pair, e.g. BTC-USD.
+ *
+ * Prices and quantities are carried as fixed-point longs: price ticks = price * 10^priceScale and
+ * quantity units = quantity * 10^quantityScale (8 = satoshi for BTC). Scales come from the venue's
+ * tick and lot sizes where known. Fractional quantities stay exact and no tick allocates a BigDecimal
+ * or double on the hot path.
+ */
 public class Crypto {
+
+    // Largest quantity factor for which the split in notionalTicks cannot overflow (f^2 < 2^63)
+    private static final long MAX_SPLIT_FACTOR = 3_000_000_000L;
+
+    private final String symbol;
+    private final String baseAsset;
+    private final String quoteAsset;
+    private final int priceScale;
+    private final int quantityScale;
+    private final long priceFactor;
+    private final long quantityFactor;
+
+    public Crypto(String symbol, String baseAsset, String quoteAsset, int priceScale, int quantityScale) {
+        if (priceScale < 0 || priceScale > 12 || quantityScale < 0 || quantityScale > 12) {
+            throw new IllegalArgumentException("Scales must be between 0 and 12");
+        }
+        this.symbol = symbol;
+        this.baseAsset = baseAsset;
+        this.quoteAsset = quoteAsset;
+        this.priceScale = priceScale;
+        this.quantityScale = quantityScale;
+        this.priceFactor = pow10(priceScale);
+        this.quantityFactor = pow10(quantityScale);
+    }
+
+    // "BTC-USD" style symbol with no venue metadata: 8 price and 8 quantity decimals, enough for sub-cent pairs
+    public static Crypto of(String symbol) {
+        return of(symbol, 8, 8);
+    }
+
+    public static Crypto of(String symbol, int priceScale, int quantityScale) {
+        String[] parts = symbol.split("-");
+        return new Crypto(symbol, parts[0], parts.length > 1 ? parts[1] : "USD", priceScale, quantityScale);
+    }
+
+    // Scales from the venue's instrument listing, e.g. tick size "0.01" and lot size "0.00000001"
+    public static Crypto of(String symbol, String tickSize, String lotSize) {
+        return of(symbol, scaleOf(tickSize), scaleOf(lotSize));
+    }
+
+    // Decimal places in an increment such as "0.0010" (3); 0 for whole-number increments
+    static int scaleOf(String increment) {
+        return Math.max(0, new BigDecimal(increment).stripTrailingZeros().scale());
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public String getBaseAsset() {
+        return baseAsset;
+    }
+
+    public String getQuoteAsset() {
+        return quoteAsset;
+    }
+
+    public int getPriceScale() {
+        return priceScale;
+    }
+
+    public int getQuantityScale() {
+        return quantityScale;
+    }
+
+    public long toPriceTicks(String price) {
+        return parseFixed(price, priceScale);
+    }
+
+    public long toQuantityUnits(String quantity) {
+        return parseFixed(quantity, quantityScale);
+    }
+
+    public double toPrice(long priceTicks) {
+        return (double) priceTicks / priceFactor;
+    }
+
+    public double toQuantity(long quantityUnits) {
+        return (double) quantityUnits / quantityFactor;
+    }
+
+    // Quote-currency value of a fill, in price ticks, rounded half up
+    public long notionalTicks(long priceTicks, long quantityUnits) {
+        long high = Math.multiplyHigh(priceTicks, quantityUnits);
+        long low = priceTicks * quantityUnits;
+        if ((high == 0 && low >= 0) || (high == -1 && low < 0)) {
+            return (low + quantityFactor / 2) / quantityFactor;
+        }
+        if (priceTicks > 0 && quantityUnits > 0 && quantityFactor <= MAX_SPLIT_FACTOR) {
+            // p*q/f = p*(q/f) + (p/f)*(q%f) + (p%f)*(q%f)/f; only the last term is rounded and it is below f^2
+            long wholeUnits = quantityUnits / quantityFactor;
+            long fractionUnits = quantityUnits % quantityFactor;
+            long exact = Math.addExact(Math.multiplyExact(priceTicks, wholeUnits),
+                    Math.multiplyExact(priceTicks / quantityFactor, fractionUnits));
+            return Math.addExact(exact,
+                    ((priceTicks % quantityFactor) * fractionUnits + quantityFactor / 2) / quantityFactor);
+        }
+        // Negative or very fine-grained quantities whose product overflows a long
+        return BigDecimal.valueOf(priceTicks).multiply(BigDecimal.valueOf(quantityUnits))
+                .divide(BigDecimal.valueOf(quantityFactor), RoundingMode.HALF_UP).longValueExact();
+    }
+
+    /**
+     * Parse a plain decimal string ("27123.45", "0.00031") into a scaled long without going
+     * through double. Digits beyond the scale are truncated.
+     */
+    public static long parseFixed(String value, int scale) {
+        long result = 0;
+        int decimals = -1;
+        boolean negative = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '-' && i == 0) {
+                negative = true;
+            } else if (c == '.' && decimals < 0) {
+                decimals = 0;
+            } else if (c >= '0' && c <= '9') {
+                if (decimals >= scale) {
+                    continue;
+                }
+                result = Math.addExact(Math.multiplyExact(result, 10), c - '0');
+                if (decimals >= 0) {
+                    decimals++;
+                }
+            } else {
+                throw new NumberFormatException("Not a decimal: " + value);
+            }
+        }
+        for (int d = Math.max(decimals, 0); d < scale; d++) {
+            result = Math.multiplyExact(result, 10);
+        }
+        return negative ? -result : result;
+    }
+
+    private static long pow10(int n) {
+        long r = 1;
+        for (int i = 0; i < n; i++) {
+            r *= 10;
+        }
+        return r;
+    }
+
+    @Override
+    public String toString() {
+        return "Crypto {" +
+                "symbol='" + symbol + '\'' +
+                ", priceScale=" + priceScale +
+                ", quantityScale=" + quantityScale +
+                '}';
+    }
 }
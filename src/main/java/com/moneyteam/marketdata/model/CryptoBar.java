@@ -0,0 +1,114 @@
+package com.moneyteam.marketdata.model;
+
+import com.moneyteam.marketdata.model.enums.BarInterval;
+
+// A closed crypto OHLCV bar in fixed-point units; doubles are derived on read
+public final class CryptoBar {
+    private final Crypto asset;
+    private final BarInterval interval;
+    private final long startMillis;
+    private final long openTicks;
+    private final long highTicks;
+    private final long lowTicks;
+    private final long closeTicks;
+    private final long volumeUnits;
+    private final long notionalTicks;
+    private final int tradeCount;
+
+    public CryptoBar(Crypto asset, BarInterval interval, long startMillis, long openTicks, long highTicks,
+                     long lowTicks, long closeTicks, long volumeUnits, long notionalTicks, int tradeCount) {
+        this.asset = asset;
+        this.interval = interval;
+        this.startMillis = startMillis;
+        this.openTicks = openTicks;
+        this.highTicks = highTicks;
+        this.lowTicks = lowTicks;
+        this.closeTicks = closeTicks;
+        this.volumeUnits = volumeUnits;
+        this.notionalTicks = notionalTicks;
+        this.tradeCount = tradeCount;
+    }
+
+    public String getSymbol() {
+        return asset.getSymbol();
+    }
+
+    public Crypto getAsset() {
+        return asset;
+    }
+
+    public BarInterval getInterval() {
+        return interval;
+    }
+
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    public long getOpenTicks() {
+        return openTicks;
+    }
+
+    public long getHighTicks() {
+        return highTicks;
+    }
+
+    public long getLowTicks() {
+        return lowTicks;
+    }
+
+    public long getCloseTicks() {
+        return closeTicks;
+    }
+
+    public long getVolumeUnits() {
+        return volumeUnits;
+    }
+
+    public long getNotionalTicks() {
+        return notionalTicks;
+    }
+
+    public int getTradeCount() {
+        return tradeCount;
+    }
+
+    public double getOpen() {
+        return asset.toPrice(openTicks);
+    }
+
+    public double getHigh() {
+        return asset.toPrice(highTicks);
+    }
+
+    public double getLow() {
+        return asset.toPrice(lowTicks);
+    }
+
+    public double getClose() {
+        return asset.toPrice(closeTicks);
+    }
+
+    public double getVolume() {
+        return asset.toQuantity(volumeUnits);
+    }
+
+    public double getVwap() {
+        return volumeUnits == 0 ? getClose() : asset.toPrice(notionalTicks) / asset.toQuantity(volumeUnits);
+    }
+
+    @Override
+    public String toString() {
+        return "CryptoBar {" +
+                "symbol='" + asset.getSymbol() + '\'' +
+                ", interval=" + interval +
+                ", startMillis=" + startMillis +
+                ", open=" + getOpen() +
+                ", high=" + getHigh() +
+                ", low=" + getLow() +
+                ", close=" + getClose() +
+                ", volume=" + getVolume() +
+                ", trades=" + tradeCount +
+                '}';
+    }
+}
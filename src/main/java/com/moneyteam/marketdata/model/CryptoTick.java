@@ -0,0 +1,32 @@
+package com.moneyteam.marketdata.model;
+
+// One exchange trade print; price and quantity are fixed-point (see Crypto)
+public final class CryptoTick {
+    private final int symbolId;
+    private final long epochMillis;
+    private final long priceTicks;
+    private final long quantityUnits;
+
+    public CryptoTick(int symbolId, long epochMillis, long priceTicks, long quantityUnits) {
+        this.symbolId = symbolId;
+        this.epochMillis = epochMillis;
+        this.priceTicks = priceTicks;
+        this.quantityUnits = quantityUnits;
+    }
+
+    public int getSymbolId() {
+        return symbolId;
+    }
+
+    public long getEpochMillis() {
+        return epochMillis;
+    }
+
+    public long getPriceTicks() {
+        return priceTicks;
+    }
+
+    public long getQuantityUnits() {
+        return quantityUnits;
+    }
+}
@@ -0,0 +1,73 @@
+package com.moneyteam.marketdata.model;
+
+import com.moneyteam.marketdata.model.enums.BarInterval;
+
+// One OHLCV bar; immutable and primitive so large backfills stay cheap to hold and write
+public final class PriceBar {
+    private final String stockTicker;
+    private final BarInterval interval;
+    private final long epochSecond;
+    private final double open;
+    private final double high;
+    private final double low;
+    private final double close;
+    private final long volume;
+
+    public PriceBar(String stockTicker, BarInterval interval, long epochSecond,
+                    double open, double high, double low, double close, long volume) {
+        this.stockTicker = stockTicker;
+        this.interval = interval;
+        this.epochSecond = epochSecond;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+    }
+
+    public String getStockTicker() {
+        return stockTicker;
+    }
+
+    public BarInterval getInterval() {
+        return interval;
+    }
+
+    public long getEpochSecond() {
+        return epochSecond;
+    }
+
+    public double getOpen() {
+        return open;
+    }
+
+    public double getHigh() {
+        return high;
+    }
+
+    public double getLow() {
+        return low;
+    }
+
+    public double getClose() {
+        return close;
+    }
+
+    public long getVolume() {
+        return volume;
+    }
+
+    @Override
+    public String toString() {
+        return "PriceBar {" +
+                "stockTicker='" + stockTicker + '\'' +
+                ", interval=" + interval +
+                ", epochSecond=" + epochSecond +
+                ", open=" + open +
+                ", high=" + high +
+                ", low=" + low +
+                ", close=" + close +
+                ", volume=" + volume +
+                '}';
+    }
+}
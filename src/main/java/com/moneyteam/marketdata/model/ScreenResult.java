@@ -0,0 +1,64 @@
+package com.moneyteam.marketdata.model;
+
+// One screener hit, read from the screener's columns at screen time
+public final class ScreenResult {
+    private final String stockTicker;
+    private final String sector;
+    private final double last;
+    private final double volume;
+    private final double sizzleIndex;
+    private final double markChange;
+    private final double marketCapAmount;
+
+    public ScreenResult(String stockTicker, String sector, double last, double volume, double sizzleIndex,
+                        double markChange, double marketCapAmount) {
+        this.stockTicker = stockTicker;
+        this.sector = sector;
+        this.last = last;
+        this.volume = volume;
+        this.sizzleIndex = sizzleIndex;
+        this.markChange = markChange;
+        this.marketCapAmount = marketCapAmount;
+    }
+
+    public String getStockTicker() {
+        return stockTicker;
+    }
+
+    public String getSector() {
+        return sector;
+    }
+
+    public double getLast() {
+        return last;
+    }
+
+    public double getVolume() {
+        return volume;
+    }
+
+    public double getSizzleIndex() {
+        return sizzleIndex;
+    }
+
+    public double getMarkChange() {
+        return markChange;
+    }
+
+    public double getMarketCapAmount() {
+        return marketCapAmount;
+    }
+
+    @Override
+    public String toString() {
+        return "ScreenResult {" +
+                "stockTicker='" + stockTicker + '\'' +
+                ", sector='" + sector + '\'' +
+                ", last=" + last +
+                ", volume=" + volume +
+                ", sizzleIndex=" + sizzleIndex +
+                ", markChange=" + markChange +
+                ", marketCapAmount=" + marketCapAmount +
+                '}';
+    }
+}
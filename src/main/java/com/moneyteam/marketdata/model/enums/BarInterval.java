@@ -0,0 +1,35 @@
+package com.moneyteam.marketdata.model.enums;
+
+public enum BarInterval {
+    // code = provider interval string, maxChunkDays = largest range one upstream request may cover
+    DAILY("1d", 365, 86_400_000L),
+    HOUR("1h", 60, 3_600_000L),
+    MINUTE("1m", 7, 60_000L);
+
+    private final String code;
+    private final int maxChunkDays;
+    private final long millis;
+
+    BarInterval(String code, int maxChunkDays, long millis) {
+        this.code = code;
+        this.maxChunkDays = maxChunkDays;
+        this.millis = millis;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public int getMaxChunkDays() {
+        return maxChunkDays;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    // Start of the bar containing epochMillis; bars align to the epoch (UTC), not to a session
+    public long barStart(long epochMillis) {
+        return epochMillis - Math.floorMod(epochMillis, millis);
+    }
+}
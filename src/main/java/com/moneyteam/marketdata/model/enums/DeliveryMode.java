@@ -0,0 +1,6 @@
+package com.moneyteam.marketdata.model.enums;
+
+public enum DeliveryMode {
+    DIRECT,     // every tick, delivered on the publishing thread
+    CONFLATED   // latest quote per ticker, delivered on the subscriber's own thread
+}
@@ -0,0 +1,7 @@
+package com.moneyteam.marketdata.model.enums;
+
+public enum MarketDataProvider {
+    YAHOO,      // StockApiServiceImpl
+    SCHWAB,     // ThinkOrSwimClient (Schwab / TD)
+    FLASK       // local python-services/stock_data_api.py
+}
@@ -0,0 +1,8 @@
+package com.moneyteam.marketdata.model.enums;
+
+// Declared highest first; the scheduler drains lanes in ordinal order
+public enum RequestPriority {
+    ORDER_PRICING,  // quotes needed to price an order right now
+    INTERACTIVE,    // user facing lookups
+    BACKGROUND      // watchlist / fundamentals refreshes, can be shed under pressure
+}
@@ -0,0 +1,10 @@
+package com.moneyteam.marketdata.model.enums;
+
+// Numeric Stock fields the screener keeps as columns
+public enum ScreenField {
+    LAST,
+    VOLUME,
+    SIZZLE_INDEX,
+    MARK_CHANGE,
+    MARKET_CAP
+}
@@ -0,0 +1,132 @@
+package com.moneyteam.marketdata.repository;
+
+import com.moneyteam.common.util.MultiRowInsert;
+import com.moneyteam.marketdata.model.PriceBar;
+import com.moneyteam.marketdata.model.enums.BarInterval;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bulk writes into {@code price_history} and tracks finished backfill chunks in
+ * {@code backfill_checkpoints}. A chunk's bars and its checkpoint row commit in the same
+ * transaction, so a crash never leaves a chunk marked done without its data.
+ */
+@Repository
+public class PriceHistoryRepository {
+
+    static final int ROWS_PER_STATEMENT = 1000;
+
+    private static final MultiRowInsert<PriceBar> INSERT_BARS = new MultiRowInsert<>(
+            MultiRowInsert.prefix("price_history", "stock_ticker", "bar_interval", "bar_time", "open_price",
+                    "high_price", "low_price", "close_price", "volume"),
+            8, " ON DUPLICATE KEY UPDATE open_price = VALUES(open_price), high_price = VALUES(high_price), "
+                    + "low_price = VALUES(low_price), close_price = VALUES(close_price), volume = VALUES(volume)",
+            ROWS_PER_STATEMENT,
+            (ps, i, bar) -> {
+                ps.setString(i++, bar.getStockTicker());
+                ps.setString(i++, bar.getInterval().name());
+                ps.setLong(i++, bar.getEpochSecond());
+                ps.setDouble(i++, bar.getOpen());
+                ps.setDouble(i++, bar.getHigh());
+                ps.setDouble(i++, bar.getLow());
+                ps.setDouble(i++, bar.getClose());
+                ps.setLong(i, bar.getVolume());
+            });
+
+    private static final String INSERT_CHECKPOINT =
+            "INSERT IGNORE INTO backfill_checkpoints (job_id, stock_ticker, bar_interval, range_start, range_end, "
+                    + "bar_count) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_CHECKPOINTS =
+            "SELECT stock_ticker, bar_interval, range_start FROM backfill_checkpoints WHERE job_id = ?";
+
+    private static final String SELECT_BARS =
+            "SELECT bar_time, open_price, high_price, low_price, close_price, volume FROM price_history "
+                    + "WHERE stock_ticker = ? AND bar_interval = ? AND bar_time >= ? AND bar_time < ? ORDER BY bar_time";
+
+    private final SessionFactory sessionFactory;
+
+    public PriceHistoryRepository(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    public static String chunkKey(String stockTicker, BarInterval interval, LocalDate rangeStart) {
+        return stockTicker + '|' + interval.name() + '|' + rangeStart;
+    }
+
+    // Keys (see chunkKey) of every chunk already finished for this job
+    public Set<String> findCompletedChunks(String jobId) {
+        Set<String> done = new HashSet<>();
+        StatelessSession session = sessionFactory.openStatelessSession();
+        try {
+            session.doWork(connection -> {
+                try (PreparedStatement ps = connection.prepareStatement(SELECT_CHECKPOINTS)) {
+                    ps.setString(1, jobId);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            done.add(chunkKey(rs.getString(1), BarInterval.valueOf(rs.getString(2)),
+                                    rs.getDate(3).toLocalDate()));
+                        }
+                    }
+                }
+            });
+        } finally {
+            session.close();
+        }
+        return done;
+    }
+
+    // Bars in [fromEpochSecond, toEpochSecond), oldest first
+    public List<PriceBar> findBars(String stockTicker, BarInterval interval, long fromEpochSecond, long toEpochSecond) {
+        List<PriceBar> bars = new ArrayList<>();
+        StatelessSession session = sessionFactory.openStatelessSession();
+        try {
+            session.doWork(connection -> {
+                try (PreparedStatement ps = connection.prepareStatement(SELECT_BARS)) {
+                    ps.setString(1, stockTicker);
+                    ps.setString(2, interval.name());
+                    ps.setLong(3, fromEpochSecond);
+                    ps.setLong(4, toEpochSecond);
+                    ps.setFetchSize(1000);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            bars.add(new PriceBar(stockTicker, interval, rs.getLong(1), rs.getDouble(2),
+                                    rs.getDouble(3), rs.getDouble(4), rs.getDouble(5), rs.getLong(6)));
+                        }
+                    }
+                }
+            });
+        } finally {
+            session.close();
+        }
+        return bars;
+    }
+
+    // Write one chunk's bars and mark it complete, atomically
+    public void saveChunk(String jobId, String stockTicker, BarInterval interval,
+                          LocalDate rangeStart, LocalDate rangeEnd, List<PriceBar> bars) {
+        MultiRowInsert.inTransaction(sessionFactory, connection -> {
+            INSERT_BARS.execute(connection, bars);
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_CHECKPOINT)) {
+                ps.setString(1, jobId);
+                ps.setString(2, stockTicker);
+                ps.setString(3, interval.name());
+                ps.setDate(4, Date.valueOf(rangeStart));
+                ps.setDate(5, Date.valueOf(rangeEnd));
+                ps.setInt(6, bars.size());
+                ps.executeUpdate();
+            }
+        });
+    }
+}
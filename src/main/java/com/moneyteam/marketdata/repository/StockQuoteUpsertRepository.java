@@ -0,0 +1,82 @@
+package com.moneyteam.marketdata.repository;
+
+import com.moneyteam.common.util.MultiRowInsert;
+import com.moneyteam.marketdata.model.Stock;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Collection;
+
+import static com.moneyteam.common.util.MultiRowInsert.setDouble;
+import static com.moneyteam.common.util.MultiRowInsert.setLong;
+import static com.moneyteam.common.util.MultiRowInsert.setString;
+
+/**
+ * Writes quotes into {@code stocks} with multi-row INSERT ... ON DUPLICATE KEY UPDATE statements
+ * on a Hibernate StatelessSession - no entity loading, no dirty checking, no persistence context.
+ * Null quote fields never overwrite stored values.
+ */
+@Repository
+public class StockQuoteUpsertRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(StockQuoteUpsertRepository.class);
+
+    // Rows per statement; keeps each statement well under max_allowed_packet and the 65535 bind limit
+    static final int ROWS_PER_STATEMENT = 500;
+
+    private static final String[] COLUMNS = {
+            "stock_ticker", "stock_name", "sector", "market_cap_amount", "volume", "sizzle_index",
+            "ask", "bid", "number_of_shares", "open_price", "close_price", "last_price", "mark_change"
+    };
+
+    private static final MultiRowInsert<Stock> UPSERT = new MultiRowInsert<>(
+            MultiRowInsert.prefix("stocks", COLUMNS), COLUMNS.length, coalescingUpdate(), ROWS_PER_STATEMENT,
+            (ps, i, s) -> {
+                ps.setString(i++, s.getStockTicker());
+                setString(ps, i++, s.getStockName());
+                setString(ps, i++, s.getSector());
+                setDouble(ps, i++, s.getMarketCapAmount());
+                setLong(ps, i++, s.getVolume());
+                setDouble(ps, i++, s.getSizzleIndex());
+                setDouble(ps, i++, s.getAsk());
+                setDouble(ps, i++, s.getBid());
+                setLong(ps, i++, s.getNumberOfShares());
+                setDouble(ps, i++, s.getOpen());
+                setDouble(ps, i++, s.getClose());
+                setDouble(ps, i++, s.getLast());
+                setDouble(ps, i, s.getMarkChange());
+            });
+
+    private final SessionFactory sessionFactory;
+
+    public StockQuoteUpsertRepository(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    // Returns the number of statements executed
+    public int upsertAll(Collection<Stock> quotes) {
+        if (quotes.isEmpty()) {
+            return 0;
+        }
+        int[] statements = {0};
+        MultiRowInsert.inTransaction(sessionFactory, connection -> statements[0] = UPSERT.execute(connection, quotes));
+        log.debug("Upserted {} quotes in {} statements", quotes.size(), statements[0]);
+        return statements[0];
+    }
+
+    // Every column but the key keeps its stored value when the new one is NULL
+    private static String coalescingUpdate() {
+        StringBuilder sql = new StringBuilder(" ON DUPLICATE KEY UPDATE ");
+        for (int c = 1; c < COLUMNS.length; c++) {
+            if (c > 1) {
+                sql.append(", ");
+            }
+            sql.append(COLUMNS[c]).append(" = COALESCE(VALUES(").append(COLUMNS[c]).append("), ")
+                    .append(COLUMNS[c]).append(')');
+        }
+        return sql.toString();
+    }
+}
@@ -2,6 +2,7 @@ package com.moneyteam.marketdata.repository;
 
 import com.moneyteam.marketdata.model.Stock;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -9,5 +10,10 @@ import java.util.List;
 public interface StockTradeRepository extends JpaRepository<Stock, Long> {
 
     Stock findByStockTicker(String stockTicker);
+    boolean existsByStockTicker(String stockTicker);
     List<Stock> findBySector(String sector);
+
+    // Ticker column only - avoids hydrating Stock entities and their relations
+    @Query("select s.stockTicker from Stock s order by s.stockTicker")
+    List<String> findAllStockTickers();
 }
@@ -0,0 +1,68 @@
+package com.moneyteam.marketdata.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Consecutive-failure circuit breaker. Opens after a run of failures, lets a single probe through
+ * once the cool-down has passed (HALF_OPEN), and closes again on the first success.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong openedAt = new AtomicLong();
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+    }
+
+    // True if a call may be made now; in HALF_OPEN only the caller that wins the CAS gets to probe
+    public boolean allowRequest() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN && System.nanoTime() - openedAt.get() >= openNanos) {
+            return state.compareAndSet(State.OPEN, State.HALF_OPEN);
+        }
+        return false;
+    }
+
+    public void onSuccess() {
+        consecutiveFailures.set(0);
+        state.set(State.CLOSED);
+    }
+
+    public void onFailure() {
+        if (state.get() == State.HALF_OPEN || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAt.set(System.nanoTime());
+            state.set(State.OPEN);
+        }
+    }
+
+    // Call answered without a verdict on the provider (e.g. unknown symbol): the failure run stands, but
+    // a probe that got an answer shows the provider is reachable again
+    public void onNeutral() {
+        if (state.compareAndSet(State.HALF_OPEN, State.CLOSED)) {
+            consecutiveFailures.set(0);
+        }
+    }
+
+    // Probe result was discarded (e.g. it lost a hedge race); let the next caller probe instead
+    public void onAbandoned() {
+        state.compareAndSet(State.HALF_OPEN, State.OPEN);
+    }
+
+    public State getState() {
+        return state.get();
+    }
+}
@@ -0,0 +1,71 @@
+package com.moneyteam.marketdata.service;
+
+import com.moneyteam.marketdata.model.Stock;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Keeps only the latest quote per ticker for one slow consumer.
+ *
+ * Each ticker owns a slot holding its freshest quote and a dirty flag. A slot is put on the dirty
+ * queue only when its flag flips clean -> dirty, so the queue never holds more entries than there
+ * are tickers no matter how fast ticks arrive. Memory is bounded by ticker count, not tick rate.
+ */
+public class ConflatingQuoteQueue {
+
+    private static final class Slot {
+        volatile Stock latest;
+        final AtomicBoolean dirty = new AtomicBoolean(false);
+    }
+
+    private final ConcurrentHashMap<String, Slot> slots = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Slot> dirtySlots = new ConcurrentLinkedQueue<>();
+    private final LongAdder conflated = new LongAdder();
+
+    // Returns true if the ticker became dirty (i.e. the consumer has new work to pick up)
+    public boolean offer(Stock quote) {
+        Slot slot = slots.computeIfAbsent(quote.getStockTicker(), t -> new Slot());
+        slot.latest = quote;
+        if (slot.dirty.compareAndSet(false, true)) {
+            dirtySlots.offer(slot);
+            return true;
+        }
+        conflated.increment();
+        return false;
+    }
+
+    // Deliver up to max fresh quotes; returns how many were delivered
+    public int drain(Consumer<Stock> sink, int max) {
+        int delivered = 0;
+        Slot slot;
+        while (delivered < max && (slot = dirtySlots.poll()) != null) {
+            // Clear before reading so a tick landing after the read re-queues the slot
+            slot.dirty.set(false);
+            sink.accept(slot.latest);
+            delivered++;
+        }
+        return delivered;
+    }
+
+    public Stock latest(String stockTicker) {
+        Slot slot = slots.get(stockTicker);
+        return slot == null ? null : slot.latest;
+    }
+
+    public boolean isEmpty() {
+        return dirtySlots.isEmpty();
+    }
+
+    public int tickerCount() {
+        return slots.size();
+    }
+
+    // Ticks overwritten before the consumer saw them
+    public long conflatedCount() {
+        return conflated.sum();
+    }
+}
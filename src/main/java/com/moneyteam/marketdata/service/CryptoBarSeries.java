@@ -0,0 +1,54 @@
+package com.moneyteam.marketdata.service;
+
+import com.moneyteam.marketdata.model.CryptoBar;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-capacity ring of closed bars for one symbol and interval. The owning pipeline shard is the
+ * only writer and appends at most once a minute, so a plain monitor is uncontended; the oldest bar
+ * is overwritten once the ring is full.
+ */
+public final class CryptoBarSeries {
+
+    private final CryptoBar[] bars;
+    private int head;
+    private int size;
+
+    public CryptoBarSeries(int capacity) {
+        this.bars = new CryptoBar[capacity];
+    }
+
+    synchronized void add(CryptoBar bar) {
+        bars[head] = bar;
+        head = (head + 1) % bars.length;
+        if (size < bars.length) {
+            size++;
+        }
+    }
+
+    public synchronized CryptoBar latest() {
+        return size == 0 ? null : bars[(head - 1 + bars.length) % bars.length];
+    }
+
+    // Bars starting at or after sinceMillis, oldest first
+    public synchronized List<CryptoBar> since(long sinceMillis) {
+        List<CryptoBar> result = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            CryptoBar bar = bars[(head - size + i + bars.length) % bars.length];
+            if (bar.getStartMillis() >= sinceMillis) {
+                result.add(bar);
+            }
+        }
+        return result;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return bars.length;
+    }
+}
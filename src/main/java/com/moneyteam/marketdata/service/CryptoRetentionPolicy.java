@@ -0,0 +1,43 @@
+package com.moneyteam.marketdata.service;
+
+import java.time.Duration;
+
+/**
+ * How long the crypto pipeline keeps bars in memory. Crypto never closes, so there is no end-of-day
+ * to roll over on: minute bars are kept for a fixed window and are compacted into hourly bars as
+ * each hour completes; hourly bars are kept for a longer window. Anything older falls off the ring.
+ */
+public final class CryptoRetentionPolicy {
+
+    private final Duration minuteRetention;
+    private final Duration hourRetention;
+
+    public CryptoRetentionPolicy(Duration minuteRetention, Duration hourRetention) {
+        if (minuteRetention.toMinutes() < 60) {
+            throw new IllegalArgumentException("Minute bars must be kept for at least an hour");
+        }
+        this.minuteRetention = minuteRetention;
+        this.hourRetention = hourRetention;
+    }
+
+    // 2 days of minute bars, 90 days of hourly bars: roughly 5k bars per symbol
+    public static CryptoRetentionPolicy defaults() {
+        return new CryptoRetentionPolicy(Duration.ofDays(2), Duration.ofDays(90));
+    }
+
+    public int minuteBarCapacity() {
+        return (int) minuteRetention.toMinutes();
+    }
+
+    public int hourBarCapacity() {
+        return (int) Math.max(1, hourRetention.toHours());
+    }
+
+    public Duration getMinuteRetention() {
+        return minuteRetention;
+    }
+
+    public Duration getHourRetention() {
+        return hourRetention;
+    }
+}
@@ -0,0 +1,372 @@
+package com.moneyteam.marketdata.service;
+
+import com.moneyteam.marketdata.model.Crypto;
+import com.moneyteam.marketdata.model.CryptoBar;
+import com.moneyteam.marketdata.model.CryptoTick;
+import com.moneyteam.marketdata.model.enums.BarInterval;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Round-the-clock crypto trade ingestion.
+ *
+ * Symbols are sharded by dense id across a fixed set of consumer threads; each shard owns the bar
+ * builders for its symbols outright, so the per-tick path is one queue hand-off and a few long
+ * compares with no locks and no allocation. Minute bars roll continuously on epoch boundaries,
+ * hourly bars are compacted from closed minute bars, and both are held per the
+ * {@link CryptoRetentionPolicy}. Quiet symbols are closed by a sweep driven by event time, so
+ * replayed or simulated feeds roll bars the same way a live feed does. The shard threads start with
+ * the first registered symbol, so an instance no feed has registered with runs no threads.
+ */
+@Service
+public class CryptoTickPipeline implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(CryptoTickPipeline.class);
+
+    private static final int QUEUE_CAPACITY = 65_536;
+    // Late prints within this window still land in their minute before it is closed by the sweep
+    private static final long CLOSE_GRACE_MILLIS = 2_000;
+    private static final long SWEEP_INTERVAL_MILLIS = 250;
+
+    private final CryptoRetentionPolicy retention;
+    private final Shard[] shards;
+    private final CopyOnWriteArrayList<Consumer<CryptoBar>> barListeners = new CopyOnWriteArrayList<>();
+
+    private volatile SymbolTable symbols = SymbolTable.empty();
+    private volatile SymbolState[] states = new SymbolState[0];
+
+    public CryptoTickPipeline() {
+        this(Math.max(1, Runtime.getRuntime().availableProcessors() / 2), CryptoRetentionPolicy.defaults());
+    }
+
+    public CryptoTickPipeline(int shardCount, CryptoRetentionPolicy retention) {
+        this.retention = retention;
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i);
+        }
+    }
+
+    // Start the shard threads; called on the first registration, idempotent
+    public synchronized void start() {
+        for (Shard shard : shards) {
+            if (shard.thread.getState() == Thread.State.NEW) {
+                shard.thread.start();
+            }
+        }
+    }
+
+    synchronized boolean isStarted() {
+        return shards[0].thread.getState() != Thread.State.NEW;
+    }
+
+    // Register a pair; returns its id. Idempotent for an already-known symbol.
+    public synchronized int register(Crypto asset) {
+        int id = symbols.idOf(asset.getSymbol());
+        if (id >= 0) {
+            return id;
+        }
+        SymbolTable next = symbols.withAdded(Collections.singletonList(asset.getSymbol()));
+        id = next.idOf(asset.getSymbol());
+        start();
+        SymbolState[] grown = Arrays.copyOf(states, next.size());
+        grown[id] = new SymbolState(asset, retention);
+        // Publish the state array before the table so a tick that resolves the id can find its state
+        states = grown;
+        symbols = next;
+        return id;
+    }
+
+    public int idOf(String symbol) {
+        return symbols.idOf(symbol);
+    }
+
+    /**
+     * Hand a trade to its shard. Never blocks the caller: returns false (and counts a drop) if the
+     * shard is backed up.
+     */
+    public boolean publish(CryptoTick tick) {
+        Shard shard = shards[tick.getSymbolId() % shards.length];
+        if (shard.queue.offer(tick)) {
+            return true;
+        }
+        shard.dropped.incrementAndGet();
+        return false;
+    }
+
+    // Convenience for feeds that deliver decimal strings
+    public boolean publish(String symbol, long epochMillis, String price, String quantity) {
+        int id = symbols.idOf(symbol);
+        if (id < 0) {
+            throw new IllegalArgumentException("Unknown crypto symbol: " + symbol);
+        }
+        Crypto asset = states[id].asset;
+        return publish(new CryptoTick(id, epochMillis, asset.toPriceTicks(price), asset.toQuantityUnits(quantity)));
+    }
+
+    // Called on the shard thread as each bar closes; listeners must not block
+    public void addBarListener(Consumer<CryptoBar> listener) {
+        barListeners.add(listener);
+    }
+
+    public List<CryptoBar> bars(String symbol, BarInterval interval, long sinceMillis) {
+        SymbolState state = stateOf(symbol);
+        if (interval == BarInterval.MINUTE) {
+            return state.minutes.since(sinceMillis);
+        }
+        if (interval == BarInterval.HOUR) {
+            return state.hours.since(sinceMillis);
+        }
+        throw new IllegalArgumentException("Crypto bars are kept at MINUTE and HOUR only");
+    }
+
+    // Last traded price, or NaN before the first trade
+    public double lastPrice(String symbol) {
+        SymbolState state = stateOf(symbol);
+        long last = state.lastTicks;
+        return last == Long.MIN_VALUE ? Double.NaN : state.asset.toPrice(last);
+    }
+
+    private SymbolState stateOf(String symbol) {
+        int id = symbols.idOf(symbol);
+        if (id < 0) {
+            throw new IllegalArgumentException("Unknown crypto symbol: " + symbol);
+        }
+        return states[id];
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("symbols", symbols.size());
+        for (Shard shard : shards) {
+            Map<String, Object> s = new LinkedHashMap<>();
+            s.put("queueDepth", shard.queue.size());
+            s.put("ticks", shard.ticks.get());
+            s.put("dropped", shard.dropped.get());
+            s.put("late", shard.late.get());
+            s.put("barsClosed", shard.barsClosed.get());
+            m.put("shard-" + shard.index, s);
+        }
+        return m;
+    }
+
+    @Override
+    public void destroy() {
+        for (Shard shard : shards) {
+            shard.running = false;
+            shard.thread.interrupt();
+        }
+    }
+
+    // Working OHLCV for the bar currently being built; owned by a single shard thread
+    private static final class BarBuilder {
+        long start = Long.MIN_VALUE;
+        long open;
+        long high;
+        long low;
+        long close;
+        long volume;
+        long notional;
+        int count;
+
+        boolean isEmpty() {
+            return count == 0;
+        }
+
+        void add(long price, long quantity, long notionalTicks) {
+            if (count == 0) {
+                open = high = low = price;
+            } else {
+                if (price > high) high = price;
+                if (price < low) low = price;
+            }
+            close = price;
+            volume += quantity;
+            notional += notionalTicks;
+            count++;
+        }
+
+        // Fold a closed finer bar into this one
+        void merge(BarBuilder bar) {
+            if (count == 0) {
+                open = bar.open;
+                high = bar.high;
+                low = bar.low;
+            } else {
+                if (bar.high > high) high = bar.high;
+                if (bar.low < low) low = bar.low;
+            }
+            close = bar.close;
+            volume += bar.volume;
+            notional += bar.notional;
+            count += bar.count;
+        }
+
+        CryptoBar toBar(Crypto asset, BarInterval interval) {
+            return new CryptoBar(asset, interval, start, open, high, low, close, volume, notional, count);
+        }
+
+        void reset(long newStart) {
+            start = newStart;
+            volume = 0;
+            notional = 0;
+            count = 0;
+        }
+    }
+
+    private static final class SymbolState {
+        final Crypto asset;
+        final CryptoBarSeries minutes;
+        final CryptoBarSeries hours;
+        final BarBuilder minute = new BarBuilder();
+        final BarBuilder hour = new BarBuilder();
+        long lastMinuteClosed = Long.MIN_VALUE;
+        volatile long lastTicks = Long.MIN_VALUE;
+
+        SymbolState(Crypto asset, CryptoRetentionPolicy retention) {
+            this.asset = asset;
+            this.minutes = new CryptoBarSeries(retention.minuteBarCapacity());
+            this.hours = new CryptoBarSeries(retention.hourBarCapacity());
+        }
+    }
+
+    private final class Shard {
+        final int index;
+        final BlockingQueue<CryptoTick> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        final Thread thread;
+        final AtomicLong ticks = new AtomicLong();
+        final AtomicLong dropped = new AtomicLong();
+        final AtomicLong late = new AtomicLong();
+        final AtomicLong barsClosed = new AtomicLong();
+        volatile boolean running = true;
+
+        // Event-time watermark: newest tick time seen on this shard and when we saw it
+        long watermarkMillis = Long.MIN_VALUE;
+        long watermarkSeenNanos;
+        long lastSweepNanos = System.nanoTime();
+
+        Shard(int index) {
+            this.index = index;
+            this.thread = new Thread(this::run, "crypto-shard-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        private void run() {
+            while (running) {
+                try {
+                    CryptoTick tick = queue.poll(SWEEP_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (tick != null) {
+                        onTick(tick);
+                    }
+                    long now = System.nanoTime();
+                    if (now - lastSweepNanos >= TimeUnit.MILLISECONDS.toNanos(SWEEP_INTERVAL_MILLIS)) {
+                        lastSweepNanos = now;
+                        sweep(now);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (RuntimeException e) {
+                    log.error("Crypto shard {} failed on a tick: {}", index, e.getMessage(), e);
+                }
+            }
+        }
+
+        private void onTick(CryptoTick tick) {
+            ticks.incrementAndGet();
+            SymbolState state = states[tick.getSymbolId()];
+            long time = tick.getEpochMillis();
+            long minuteStart = BarInterval.MINUTE.barStart(time);
+
+            if (minuteStart <= state.lastMinuteClosed || (!state.minute.isEmpty() && minuteStart < state.minute.start)) {
+                // That minute is already published; keep bars immutable and count the straggler
+                late.incrementAndGet();
+                return;
+            }
+            if (minuteStart != state.minute.start) {
+                if (!state.minute.isEmpty()) {
+                    closeMinute(state);
+                }
+                state.minute.reset(minuteStart);
+            }
+            long price = tick.getPriceTicks();
+            state.minute.add(price, tick.getQuantityUnits(), state.asset.notionalTicks(price, tick.getQuantityUnits()));
+            state.lastTicks = price;
+
+            if (time > watermarkMillis) {
+                watermarkMillis = time;
+                watermarkSeenNanos = System.nanoTime();
+            }
+        }
+
+        // Close bars whose window has passed, for symbols that have gone quiet
+        private void sweep(long nowNanos) {
+            if (watermarkMillis == Long.MIN_VALUE) {
+                return;
+            }
+            long eventNow = watermarkMillis + TimeUnit.NANOSECONDS.toMillis(nowNanos - watermarkSeenNanos);
+            SymbolState[] snapshot = states;
+            for (int id = index; id < snapshot.length; id += shards.length) {
+                SymbolState state = snapshot[id];
+                if (!state.minute.isEmpty()
+                        && eventNow >= state.minute.start + BarInterval.MINUTE.getMillis() + CLOSE_GRACE_MILLIS) {
+                    closeMinute(state);
+                    state.minute.reset(Long.MIN_VALUE);
+                }
+                if (!state.hour.isEmpty()
+                        && eventNow >= state.hour.start + BarInterval.HOUR.getMillis() + CLOSE_GRACE_MILLIS) {
+                    closeHour(state);
+                }
+            }
+        }
+
+        private void closeMinute(SymbolState state) {
+            CryptoBar bar = state.minute.toBar(state.asset, BarInterval.MINUTE);
+            state.minutes.add(bar);
+            state.lastMinuteClosed = state.minute.start;
+            emit(bar);
+
+            // Compact into the hourly bar; close the previous hour first if this minute starts a new one
+            long hourStart = BarInterval.HOUR.barStart(state.minute.start);
+            if (!state.hour.isEmpty() && state.hour.start != hourStart) {
+                closeHour(state);
+            }
+            if (state.hour.isEmpty()) {
+                state.hour.reset(hourStart);
+            }
+            state.hour.merge(state.minute);
+        }
+
+        private void closeHour(SymbolState state) {
+            CryptoBar bar = state.hour.toBar(state.asset, BarInterval.HOUR);
+            state.hours.add(bar);
+            state.hour.reset(Long.MIN_VALUE);
+            emit(bar);
+        }
+
+        private void emit(CryptoBar bar) {
+            barsClosed.incrementAndGet();
+            for (Consumer<CryptoBar> listener : barListeners) {
+                try {
+                    listener.accept(bar);
+                } catch (RuntimeException e) {
+                    log.error("Crypto bar listener failed on {}: {}", bar.getSymbol(), e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.moneyteam.marketdata.service;
+
+import com.moneyteam.marketdata.model.BackfillReport;
+import com.moneyteam.marketdata.model.enums.BarInterval;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface HistoricalBackfillService {
+
+    /**
+     * Load [from, to) history for every ticker. Re-running with the same jobId skips chunks that
+     * were already written, so a crashed or cancelled job resumes where it stopped.
+     */
+    BackfillReport backfill(String jobId, List<String> stockTickers, BarInterval interval,
+                            LocalDate from, LocalDate to);
+
+    /**
+     * Run {@link #backfill} on a background thread and return at once. Throws
+     * OperationInProgressException while a job with the same id is still running.
+     */
+    void start(String jobId, List<String> stockTickers, BarInterval interval, LocalDate from, LocalDate to);
+
+    boolean isRunning(String jobId);
+
+    // Report of a started job once it has finished; kept for the most recent jobs only
+    Optional<BackfillReport> report(String jobId);
+}
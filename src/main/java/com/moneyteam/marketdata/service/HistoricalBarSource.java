@@ -0,0 +1,18 @@
+package com.moneyteam.marketdata.service;
+
+import com.moneyteam.marketdata.model.PriceBar;
+import com.moneyteam.marketdata.model.enums.BarInterval;
+import com.moneyteam.marketdata.model.enums.MarketDataProvider;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface HistoricalBarSource {
+
+    // Provider whose rate limit applies to fetchBars calls
+    MarketDataProvider getProvider();
+
+    // Bars for [from, to) in exchange time, oldest first
+    List<PriceBar> fetchBars(String stockTicker, BarInterval interval, LocalDate from, LocalDate to) throws IOException;
+}
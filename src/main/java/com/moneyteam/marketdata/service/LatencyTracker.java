@@ -0,0 +1,59 @@
+package com.moneyteam.marketdata.service;
+
+import java.util.Arrays;
+
+/**
+ * Rolling latency window over the last N samples. Percentiles are recomputed every few samples
+ * and published through volatile fields, so readers on the request path never sort or lock.
+ */
+public class LatencyTracker {
+
+    private static final int RECOMPUTE_EVERY = 16;
+
+    private final long[] samples;
+    private final long[] scratch;
+    private int next;
+    private int count;
+    private long recorded;
+
+    private volatile long p50Nanos = -1;
+    private volatile long p95Nanos = -1;
+    private volatile long p99Nanos = -1;
+
+    public LatencyTracker(int window) {
+        this.samples = new long[window];
+        this.scratch = new long[window];
+    }
+
+    public synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+        if (++recorded % RECOMPUTE_EVERY == 0 || count < RECOMPUTE_EVERY) {
+            System.arraycopy(samples, 0, scratch, 0, count);
+            Arrays.sort(scratch, 0, count);
+            p50Nanos = scratch[(int) (count * 0.50)];
+            p95Nanos = scratch[Math.min(count - 1, (int) (count * 0.95))];
+            p99Nanos = scratch[Math.min(count - 1, (int) (count * 0.99))];
+        }
+    }
+
+    // -1 until the first sample arrives
+    public long p50Nanos() {
+        return p50Nanos;
+    }
+
+    public long p95Nanos() {
+        return p95Nanos;
+    }
+
+    public long p99Nanos() {
+        return p99Nanos;
+    }
+
+    public synchronized long sampleCount() {
+        return recorded;
+    }
+}
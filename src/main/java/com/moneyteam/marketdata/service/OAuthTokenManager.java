@@ -0,0 +1,239 @@
+package com.moneyteam.marketdata.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps an OAuth access token fresh in the background.
+ *
+ * The current token is published through an AtomicReference so request threads only ever do a
+ * volatile read. Refreshes run on a single scheduler thread ahead of expiry; a CAS guard makes sure
+ * only one refresh is in flight no matter how many callers ask for one. After a failed refresh,
+ * requests are dropped until the backoff retry runs, so callers hitting an expired token cannot turn
+ * a failing token endpoint into a refresh storm.
+ */
+public class OAuthTokenManager implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(OAuthTokenManager.class);
+
+    private static final Duration DEFAULT_REFRESH_AHEAD = Duration.ofMinutes(5);
+    private static final Duration MIN_RETRY = Duration.ofSeconds(2);
+    private static final Duration MAX_RETRY = Duration.ofMinutes(1);
+
+    private final String tokenUrl;
+    private final String clientId;
+    private final String redirectUri;
+    private final Duration refreshAhead;
+    private final Clock clock;
+
+    private final AtomicReference<AccessToken> current = new AtomicReference<>();
+    private final AtomicBoolean refreshing = new AtomicBoolean(false);
+    private final ScheduledExecutorService scheduler;
+    private final AtomicReference<ScheduledFuture<?>> nextRefresh = new AtomicReference<>();
+    private volatile Duration retryDelay = MIN_RETRY;
+    // Set while a backoff retry is pending after a failed refresh; null otherwise
+    private volatile Instant retryAt;
+
+    public OAuthTokenManager(String tokenUrl, String clientId, String redirectUri) {
+        this(tokenUrl, clientId, redirectUri, DEFAULT_REFRESH_AHEAD, Clock.systemUTC());
+    }
+
+    public OAuthTokenManager(String tokenUrl, String clientId, String redirectUri,
+                             Duration refreshAhead, Clock clock) {
+        this.tokenUrl = tokenUrl;
+        this.clientId = clientId;
+        this.redirectUri = redirectUri;
+        this.refreshAhead = refreshAhead;
+        this.clock = clock;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "oauth-token-refresh");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // Immutable token snapshot, swapped atomically on every refresh
+    public static final class AccessToken {
+        private final String value;
+        private final String refreshToken;
+        private final Instant expiresAt;
+
+        public AccessToken(String value, String refreshToken, Instant expiresAt) {
+            this.value = value;
+            this.refreshToken = refreshToken;
+            this.expiresAt = expiresAt;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+
+        public Instant getExpiresAt() {
+            return expiresAt;
+        }
+
+        public boolean isExpired(Instant now) {
+            return !now.isBefore(expiresAt);
+        }
+    }
+
+    // Exchange the one-time authorization code for the first token pair and start the refresh cycle
+    public AccessToken exchangeAuthorizationCode(String authCode) throws IOException {
+        String body = "grant_type=authorization_code&access_type=offline"
+                + "&code=" + encode(authCode)
+                + "&client_id=" + encode(clientId)
+                + "&redirect_uri=" + encode(redirectUri);
+        AccessToken token = requestToken(body, null);
+        publish(token);
+        return token;
+    }
+
+    // Seed a token obtained elsewhere (e.g. restored from config) and schedule its refresh
+    public void seed(AccessToken token) {
+        publish(token);
+    }
+
+    /**
+     * Lock-free read of the current access token. Never blocks on a refresh; if the token has
+     * expired a background refresh is kicked off and the caller gets an IllegalStateException.
+     */
+    public String getAccessToken() {
+        AccessToken token = current.get();
+        if (token == null) {
+            throw new IllegalStateException("Client not authenticated. Please call authenticate() first.");
+        }
+        if (token.isExpired(clock.instant())) {
+            refreshAsync();
+            throw new IllegalStateException("Access token expired; refresh in progress.");
+        }
+        return token.getValue();
+    }
+
+    public AccessToken getCurrent() {
+        return current.get();
+    }
+
+    public boolean isAuthenticated() {
+        AccessToken token = current.get();
+        return token != null && !token.isExpired(clock.instant());
+    }
+
+    /**
+     * Request an out-of-band refresh. Dropped while one is in flight or while a backoff retry is
+     * pending; the scheduled retry covers it.
+     */
+    public void refreshAsync() {
+        Instant backoffUntil = retryAt;
+        if (backoffUntil != null && clock.instant().isBefore(backoffUntil)) {
+            return;
+        }
+        if (current.get() != null && refreshing.compareAndSet(false, true)) {
+            scheduler.execute(this::runRefresh);
+        }
+    }
+
+    private void refreshIfIdle() {
+        if (refreshing.compareAndSet(false, true)) {
+            runRefresh();
+        }
+    }
+
+    // Only ever runs on the scheduler thread with the refreshing flag held
+    private void runRefresh() {
+        try {
+            AccessToken old = current.get();
+            if (old == null || old.getRefreshToken() == null) {
+                log.warn("No refresh token available; re-authentication required");
+                return;
+            }
+            String body = "grant_type=refresh_token"
+                    + "&refresh_token=" + encode(old.getRefreshToken())
+                    + "&client_id=" + encode(clientId);
+            publish(requestToken(body, old.getRefreshToken()));
+            retryDelay = MIN_RETRY;
+            retryAt = null;
+            log.info("Access token refreshed, expires at {}", current.get().getExpiresAt());
+        } catch (IOException | RuntimeException e) {
+            // Keep serving the old token while it is still valid and retry with backoff
+            Duration delay = retryDelay;
+            retryDelay = delay.multipliedBy(2).compareTo(MAX_RETRY) > 0 ? MAX_RETRY : delay.multipliedBy(2);
+            log.error("Token refresh failed, retrying in {}s: {}", delay.toSeconds(), e.getMessage());
+            retryAt = clock.instant().plus(delay);
+            reschedule(delay);
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    private void publish(AccessToken token) {
+        current.set(token);
+        Duration untilRefresh = Duration.between(clock.instant(), token.getExpiresAt()).minus(refreshAhead);
+        reschedule(untilRefresh.isNegative() ? Duration.ZERO : untilRefresh);
+    }
+
+    // Callers on several threads may race here; each cancels exactly the future it replaced
+    private void reschedule(Duration delay) {
+        ScheduledFuture<?> next = scheduler.schedule(this::refreshIfIdle, delay.toMillis(), TimeUnit.MILLISECONDS);
+        ScheduledFuture<?> previous = nextRefresh.getAndSet(next);
+        if (previous != null) {
+            previous.cancel(false);
+        }
+    }
+
+    // Package-private so tests can stand in for the token endpoint
+    AccessToken requestToken(String formBody, String previousRefreshToken) throws IOException {
+        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
+            HttpPost post = new HttpPost(tokenUrl);
+            post.setEntity(new StringEntity(formBody, ContentType.APPLICATION_FORM_URLENCODED));
+
+            return httpClient.execute(post, response -> {
+                JsonNode json;
+                try (InputStream in = response.getEntity().getContent()) {
+                    json = QuoteDecoder.mapper().readTree(in);
+                }
+                if (response.getCode() != 200 || !json.hasNonNull("access_token")) {
+                    throw new IOException("Token request failed (HTTP " + response.getCode() + "): " + json);
+                }
+                long expiresIn = json.path("expires_in").asLong(1800);
+                // Schwab only rotates the refresh token occasionally; keep the old one when omitted
+                String refreshToken = json.hasNonNull("refresh_token")
+                        ? json.get("refresh_token").asText() : previousRefreshToken;
+                return new AccessToken(json.get("access_token").asText(), refreshToken,
+                        clock.instant().plusSeconds(expiresIn));
+            });
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,139 @@
+package com.moneyteam.marketdata.service;
+
+import com.moneyteam.marketdata.model.Stock;
+import com.moneyteam.marketdata.model.enums.DeliveryMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fan-out point for live quotes. DIRECT subscribers see every tick on the publisher's thread;
+ * CONFLATED subscribers get their own delivery thread fed from a {@link ConflatingQuoteQueue}, so
+ * a slow UI session or strategy only ever sees the freshest quote per ticker and never backs up
+ * the feed.
+ */
+@Component
+public class QuoteBus implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(QuoteBus.class);
+
+    private static final int DRAIN_BATCH = 256;
+
+    private final CopyOnWriteArrayList<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    public Subscription subscribe(String name, QuoteListener listener, DeliveryMode mode) {
+        Subscription subscription = mode == DeliveryMode.CONFLATED
+                ? new ConflatedSubscription(name, listener)
+                : new DirectSubscription(name, listener);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    public void publish(Stock quote) {
+        for (Subscription subscription : subscriptions) {
+            subscription.deliver(quote);
+        }
+    }
+
+    public int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    @Override
+    public void destroy() {
+        for (Subscription subscription : subscriptions) {
+            subscription.close();
+        }
+    }
+
+    public abstract class Subscription implements AutoCloseable {
+        protected final String name;
+        protected final QuoteListener listener;
+
+        Subscription(String name, QuoteListener listener) {
+            this.name = name;
+            this.listener = listener;
+        }
+
+        abstract void deliver(Stock quote);
+
+        public String getName() {
+            return name;
+        }
+
+        // Ticks dropped in favour of a newer quote for the same ticker (always 0 for DIRECT)
+        public long getConflatedCount() {
+            return 0;
+        }
+
+        protected void safeDeliver(Stock quote) {
+            try {
+                listener.onQuote(quote);
+            } catch (RuntimeException e) {
+                log.error("Quote listener {} failed on {}: {}", name, quote.getStockTicker(), e.getMessage());
+            }
+        }
+
+        @Override
+        public void close() {
+            subscriptions.remove(this);
+        }
+    }
+
+    private final class DirectSubscription extends Subscription {
+        DirectSubscription(String name, QuoteListener listener) {
+            super(name, listener);
+        }
+
+        @Override
+        void deliver(Stock quote) {
+            safeDeliver(quote);
+        }
+    }
+
+    private final class ConflatedSubscription extends Subscription {
+        private final ConflatingQuoteQueue queue = new ConflatingQuoteQueue();
+        private final Thread consumer;
+        private volatile boolean running = true;
+
+        ConflatedSubscription(String name, QuoteListener listener) {
+            super(name, listener);
+            this.consumer = new Thread(this::run, "quote-conflated-" + name);
+            this.consumer.setDaemon(true);
+            this.consumer.start();
+        }
+
+        @Override
+        void deliver(Stock quote) {
+            // Only wake the consumer when a ticker goes clean -> dirty
+            if (queue.offer(quote)) {
+                LockSupport.unpark(consumer);
+            }
+        }
+
+        private void run() {
+            while (running) {
+                if (queue.drain(this::safeDeliver, DRAIN_BATCH) == 0) {
+                    // unpark() before park() leaves a permit, so a tick racing this check is not lost
+                    LockSupport.park(this);
+                }
+            }
+        }
+
+        @Override
+        public long getConflatedCount() {
+            return queue.conflatedCount();
+        }
+
+        @Override
+        public void close() {
+            super.close();
+            running = false;
+            LockSupport.unpark(consumer);
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.moneyteam.marketdata.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moneyteam.marketdata.model.Stock;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Streams quote payloads straight into {@link Stock} objects with Jackson's {@link JsonParser}.
+ * No intermediate String body or JsonNode tree is built and unknown fields are skipped in place.
+ *
+ * Accepted shapes:
+ *   [ {quote}, {quote} ]                          - array of quotes (our own /api format)
+ *   { "AAPL": {quote}, "NVDA": {quote} }          - ticker keyed map (TD / Schwab quotes endpoint)
+ *   {"quoteResponse": {"result": [ {quote} ]}}    - Yahoo v7 quote envelope
+ *   {quote}                                       - a single quote object
+ */
+public final class QuoteDecoder {
+
+    // One configured mapper for the whole app; ObjectMapper is thread safe once configured.
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final JsonFactory FACTORY = MAPPER.getFactory();
+
+    private QuoteDecoder() {}
+
+    public static ObjectMapper mapper() {
+        return MAPPER;
+    }
+
+    // Decode every quote in the stream into new Stock objects.
+    public static List<Stock> decode(InputStream in) throws IOException {
+        List<Stock> stocks = new ArrayList<>();
+        try (JsonParser parser = FACTORY.createParser(in)) {
+            readQuotes(parser, Stock::new, stocks::add);
+        }
+        return stocks;
+    }
+
+    public static List<Stock> decode(String json) throws IOException {
+        List<Stock> stocks = new ArrayList<>();
+        try (JsonParser parser = FACTORY.createParser(json)) {
+            readQuotes(parser, Stock::new, stocks::add);
+        }
+        return stocks;
+    }
+
+    /**
+     * Decode every quote into the same {@code reuse} instance and hand it to {@code sink}.
+     * The sink must copy anything it wants to keep - the object is overwritten by the next quote.
+     */
+    public static void decodeInto(InputStream in, Stock reuse, Consumer<Stock> sink) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(in)) {
+            readQuotes(parser, () -> {
+                clear(reuse);
+                return reuse;
+            }, sink);
+        }
+    }
+
+    private static void readQuotes(JsonParser parser, Supplier<Stock> target,
+                                   Consumer<Stock> sink) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.START_ARRAY) {
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                sink.accept(readQuote(parser, target.get(), null));
+            }
+        } else if (token == JsonToken.START_OBJECT) {
+            // A ticker-keyed map or a single quote, fixed by the first field: a map opens with an
+            // object under a ticker-shaped key, a single quote with a scalar or a camelCase section.
+            Boolean map = null;
+            Stock single = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("quoteResponse".equals(name) && value == JsonToken.START_OBJECT) {
+                    readYahooEnvelope(parser, target, sink);
+                    continue;
+                }
+                if (map == null) {
+                    map = value == JsonToken.START_OBJECT && isTickerKey(name);
+                }
+                if (map) {
+                    if (value == JsonToken.START_OBJECT && isTickerKey(name)) {
+                        sink.accept(readQuote(parser, target.get(), name));
+                    } else {
+                        parser.skipChildren();
+                    }
+                } else {
+                    if (single == null) {
+                        single = target.get();
+                    }
+                    readField(parser, single, name, value);
+                }
+            }
+            if (single != null) {
+                sink.accept(single);
+            }
+        }
+    }
+
+    /**
+     * Keys of a ticker map: upper-case letters, digits and the symbol punctuation brokers use
+     * ("BRK.B", "BF/B", "$SPX", "/ES", "^VIX"), with at least one letter. Quote field and section
+     * names are camelCase, so never match.
+     */
+    static boolean isTickerKey(String name) {
+        int n = name.length();
+        if (n == 0 || n > 16) {
+            return false;
+        }
+        boolean letter = false;
+        for (int i = 0; i < n; i++) {
+            char c = name.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                letter = true;
+            } else if (!(c >= '0' && c <= '9') && c != '.' && c != '/' && c != '-' && c != '$' && c != '^'
+                    && c != '=') {
+                return false;
+            }
+        }
+        return letter;
+    }
+
+    // Yahoo wraps quotes as {"quoteResponse": {"result": [ ... ], "error": null}}
+    private static void readYahooEnvelope(JsonParser parser, Supplier<Stock> target,
+                                          Consumer<Stock> sink) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("result".equals(name) && value == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    sink.accept(readQuote(parser, target.get(), null));
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    // Parser is positioned on START_OBJECT of a quote; leaves it on the matching END_OBJECT.
+    private static Stock readQuote(JsonParser parser, Stock stock, String keyTicker) throws IOException {
+        if (keyTicker != null) {
+            stock.setStockTicker(keyTicker);
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            readField(parser, stock, name, parser.nextToken());
+        }
+        return stock;
+    }
+
+    private static void readField(JsonParser parser, Stock stock, String name, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return;
+        }
+        switch (name) {
+            case "stockTicker":
+            case "symbol":
+                stock.setStockTicker(parser.getText());
+                break;
+            case "stockName":
+            case "description":
+            case "shortName":
+                stock.setStockName(parser.getText());
+                break;
+            case "sector":
+                stock.setSector(parser.getText());
+                break;
+            case "marketCapAmount":
+            case "marketCap":
+                stock.setMarketCapAmount(parser.getValueAsDouble());
+                break;
+            case "volume":
+            case "totalVolume":
+            case "regularMarketVolume":
+                stock.setVolume(intOrNull(parser.getValueAsLong()));
+                break;
+            case "sizzleIndex":
+                stock.setSizzleIndex(parser.getValueAsDouble());
+                break;
+            case "ask":
+            case "askPrice":
+                stock.setAsk(parser.getValueAsDouble());
+                break;
+            case "bid":
+            case "bidPrice":
+                stock.setBid(parser.getValueAsDouble());
+                break;
+            case "numberOfShares":
+            case "sharesOutstanding":
+                stock.setNumberOfShares(intOrNull(parser.getValueAsLong()));
+                break;
+            case "open":
+            case "openPrice":
+            case "regularMarketOpen":
+                stock.setOpen(parser.getValueAsDouble());
+                break;
+            case "close":
+            case "closePrice":
+            case "regularMarketPreviousClose":
+                stock.setClose(parser.getValueAsDouble());
+                break;
+            case "last":
+            case "lastPrice":
+            case "regularMarketPrice":
+                stock.setLast(parser.getValueAsDouble());
+                break;
+            case "markChange":
+            case "markChangeInDouble":
+            case "regularMarketChange":
+                stock.setMarkChange(parser.getValueAsDouble());
+                break;
+            case "quote":
+            case "fundamental":
+            case "reference":
+            case "regular":
+                // Schwab nests quote sections per ticker; flatten them into the same Stock
+                if (value == JsonToken.START_OBJECT) {
+                    readQuote(parser, stock, null);
+                } else {
+                    parser.skipChildren();
+                }
+                break;
+            default:
+                // Unknown field - skip the value (and any nested object/array) without building a tree
+                parser.skipChildren();
+        }
+    }
+
+    // Counts are Integer columns; a mega-cap share count (AAPL ~1.5e10) does not fit, so it is left
+    // unset rather than failing the whole payload or storing a wrapped value
+    static Integer intOrNull(long value) {
+        return value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ? null : (int) value;
+    }
+
+    private static void clear(Stock stock) {
+        stock.setStockTicker(null);
+        stock.setStockName(null);
+        stock.setSector(null);
+        stock.setMarketCapAmount(null);
+        stock.setVolume(null);
+        stock.setSizzleIndex(null);
+        stock.setAsk(null);
+        stock.setBid(null);
+        stock.setNumberOfShares(null);
+        stock.setOpen(null);
+        stock.setClose(null);
+        stock.setLast(null);
+        stock.setMarkChange(null);
+    }
+}
@@ -0,0 +1,8 @@
+package com.moneyteam.marketdata.service;
+
+import com.moneyteam.marketdata.model.Stock;
+
+@FunctionalInterface
+public interface QuoteListener {
+    void onQuote(Stock quote);
+}
@@ -0,0 +1,18 @@
+package com.moneyteam.marketdata.service;
+
+import com.moneyteam.marketdata.model.Stock;
+
+import java.util.Collection;
+
+public interface QuotePersistenceService {
+
+    // Queue a quote for the next flush; later quotes for the same ticker replace earlier ones
+    void submit(Stock quote);
+
+    void submitAll(Collection<Stock> quotes);
+
+    // Write everything pending now; returns the number of tickers written
+    int flush();
+
+    int pendingCount();
+}
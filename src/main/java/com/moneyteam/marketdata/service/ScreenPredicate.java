@@ -0,0 +1,107 @@
+package com.moneyteam.marketdata.service;
+
+import com.moneyteam.marketdata.model.enums.ScreenField;
+
+import java.util.Arrays;
+
+/**
+ * A screener condition evaluated over whole columns at once. Each predicate produces a bitset with
+ * one bit per symbol id; and / or / not combine bitsets a word (64 symbols) at a time.
+ * Missing values (NaN) never match a range.
+ */
+@FunctionalInterface
+public interface ScreenPredicate {
+
+    long[] evaluate(StockScreener.Columns columns);
+
+    default ScreenPredicate and(ScreenPredicate other) {
+        return columns -> {
+            long[] a = evaluate(columns);
+            long[] b = other.evaluate(columns);
+            for (int i = 0; i < a.length; i++) {
+                a[i] &= b[i];
+            }
+            return a;
+        };
+    }
+
+    default ScreenPredicate or(ScreenPredicate other) {
+        return columns -> {
+            long[] a = evaluate(columns);
+            long[] b = other.evaluate(columns);
+            for (int i = 0; i < a.length; i++) {
+                a[i] |= b[i];
+            }
+            return a;
+        };
+    }
+
+    default ScreenPredicate negate() {
+        return columns -> {
+            long[] a = evaluate(columns);
+            long[] present = columns.present;
+            for (int i = 0; i < a.length; i++) {
+                a[i] = ~a[i] & present[i];
+            }
+            return a;
+        };
+    }
+
+    static ScreenPredicate all() {
+        return columns -> Arrays.copyOf(columns.present, columns.present.length);
+    }
+
+    // lo <= field <= hi; pass +/-Infinity for an open end
+    static ScreenPredicate between(ScreenField field, double lo, double hi) {
+        return columns -> {
+            double[] values = columns.values[field.ordinal()];
+            int n = columns.size;
+            long[] bits = new long[StockScreener.words(columns.capacity)];
+            for (int w = 0; w < bits.length; w++) {
+                int base = w << 6;
+                int end = Math.min(64, n - base);
+                long word = 0;
+                for (int b = 0; b < end; b++) {
+                    double v = values[base + b];
+                    word |= (v >= lo & v <= hi ? 1L : 0L) << b;
+                }
+                bits[w] = word;
+            }
+            return bits;
+        };
+    }
+
+    static ScreenPredicate atLeast(ScreenField field, double lo) {
+        return between(field, lo, Double.POSITIVE_INFINITY);
+    }
+
+    static ScreenPredicate atMost(ScreenField field, double hi) {
+        return between(field, Double.NEGATIVE_INFINITY, hi);
+    }
+
+    static ScreenPredicate priceBetween(double lo, double hi) {
+        return between(ScreenField.LAST, lo, hi);
+    }
+
+    static ScreenPredicate sectorIn(String... sectors) {
+        return columns -> {
+            // Resolve names to dictionary codes once per evaluation, then compare ints
+            boolean[] wanted = new boolean[columns.sectorNames.size() + 1];
+            for (String sector : sectors) {
+                Integer code = columns.sectorCodes.get(sector);
+                if (code != null) {
+                    wanted[code] = true;
+                }
+            }
+            int[] codes = columns.sector;
+            int n = columns.size;
+            long[] bits = new long[StockScreener.words(columns.capacity)];
+            for (int i = 0; i < n; i++) {
+                if (wanted[codes[i]]) {
+                    bits[i >>> 6] |= 1L << i;
+                }
+            }
+            return bits;
+        };
+    }
+}
@@ -1,6 +1,7 @@
 package com.moneyteam.marketdata.service;
 
 import com.moneyteam.marketdata.model.Stock;
+import com.moneyteam.marketdata.model.enums.RequestPriority;
 
 import java.io.IOException;
 import java.net.URI;
@@ -80,6 +81,11 @@ public abstract class StockApiService {
 
     public abstract Optional<Stock> fetchStockDetails(String stockTicker);
 
+    // Providers behind a rate limiter override this so order pricing can jump the queue
+    public Optional<Stock> fetchStockDetails(String stockTicker, RequestPriority priority) {
+        return fetchStockDetails(stockTicker);
+    }
+
     // You can add more methods to fetch additional stock information or perform other operations
 }
 /*Interacting with an API involves making HTTP requests to the API endpoints and processing the responses.
@@ -7,11 +7,11 @@ import org.apache.hc.core5.http.ClassicHttpResponse;
 import org.apache.hc.core5.http.HttpEntity;
 import org.apache.hc.core5.http.io.entity.EntityUtils;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
 
 public class StockDataClient {
 
@@ -33,9 +33,10 @@ public class StockDataClient {
                     // Parse the response as JSON
                     HttpEntity entity = response.getEntity();
                     if (entity != null) {
-                        String jsonResponse = EntityUtils.toString(entity);
-                        ObjectMapper objectMapper = new ObjectMapper();
-                        JsonNode rootNode = objectMapper.readTree(jsonResponse);
+                        JsonNode rootNode;
+                        try (InputStream body = entity.getContent()) {
+                            rootNode = QuoteDecoder.mapper().readTree(body);
+                        }
 
                         // Save the JSON response to a file
                         saveJsonToFile(ticker, rootNode);
@@ -60,8 +61,7 @@ public class StockDataClient {
     private static void saveJsonToFile(String ticker, JsonNode jsonNode) {
         String fileName = ticker + "_data.json";
         try (FileWriter fileWriter = new FileWriter(new File(fileName))) {
-            ObjectMapper objectMapper = new ObjectMapper();
-            objectMapper.writerWithDefaultPrettyPrinter().writeValue(fileWriter, jsonNode);
+            QuoteDecoder.mapper().writerWithDefaultPrettyPrinter().writeValue(fileWriter, jsonNode);
             System.out.println("JSON data saved to: " + fileName);
         } catch (IOException e) {
             System.out.println("Error writing JSON to file: " + e.getMessage());
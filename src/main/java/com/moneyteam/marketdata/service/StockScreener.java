@@ -0,0 +1,292 @@
+package com.moneyteam.marketdata.service;
+
+import com.moneyteam.analysis.model.CorrelationMatrix;
+import com.moneyteam.analysis.service.CorrelationService;
+import com.moneyteam.marketdata.model.ScreenResult;
+import com.moneyteam.marketdata.model.Stock;
+import com.moneyteam.marketdata.model.enums.DeliveryMode;
+import com.moneyteam.marketdata.model.enums.ScreenField;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * In-memory screener over the latest quote of every symbol.
+ *
+ * Quote fields are held as primitive columns indexed by {@link SymbolMaster} id and updated in
+ * place on every tick from a direct {@link QuoteBus} subscription, so there is no rebuild step.
+ * A screen evaluates its {@link ScreenPredicate} into a bitset over the columns, then keeps the
+ * top N matches with a bounded heap - no per-symbol objects until the final result rows.
+ * Correlation screens read the latest {@link CorrelationService} snapshot.
+ */
+@Service
+public class StockScreener implements DisposableBean {
+
+    private static final ScreenField[] FIELDS = ScreenField.values();
+
+    private final SymbolMaster symbolMaster;
+    private final CorrelationService correlationService;
+    private final StampedLock lock = new StampedLock();
+    private final Columns columns = new Columns(1024);
+    private final QuoteBus.Subscription subscription;
+
+    public StockScreener(SymbolMaster symbolMaster, QuoteBus quoteBus, CorrelationService correlationService) {
+        this.symbolMaster = symbolMaster;
+        this.correlationService = correlationService;
+        this.subscription = quoteBus.subscribe("stock-screener", this::update, DeliveryMode.DIRECT);
+    }
+
+    // Column storage; fields are read by ScreenPredicate implementations under the screener's read lock
+    public static final class Columns {
+        int capacity;
+        int size;
+        long[] present;
+        final double[][] values = new double[FIELDS.length][];
+        int[] sector;
+        final Map<String, Integer> sectorCodes = new HashMap<>();
+        final List<String> sectorNames = new ArrayList<>();
+
+        Columns(int capacity) {
+            this.capacity = capacity;
+            this.present = new long[words(capacity)];
+            for (int f = 0; f < values.length; f++) {
+                values[f] = new double[capacity];
+                Arrays.fill(values[f], Double.NaN);
+            }
+            this.sector = new int[capacity];
+        }
+
+        void ensureCapacity(int id) {
+            if (id < capacity) {
+                return;
+            }
+            int grown = Math.max(id + 1, capacity * 2);
+            for (int f = 0; f < values.length; f++) {
+                double[] column = Arrays.copyOf(values[f], grown);
+                Arrays.fill(column, capacity, grown, Double.NaN);
+                values[f] = column;
+            }
+            sector = Arrays.copyOf(sector, grown);
+            present = Arrays.copyOf(present, words(grown));
+            capacity = grown;
+        }
+
+        // 0 = no sector
+        int sectorCode(String name) {
+            if (name == null) {
+                return 0;
+            }
+            Integer code = sectorCodes.get(name);
+            if (code == null) {
+                sectorNames.add(name);
+                code = sectorNames.size();
+                sectorCodes.put(name, code);
+            }
+            return code;
+        }
+    }
+
+    static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    // Apply one quote in place; null fields keep the previous value
+    public void update(Stock quote) {
+        String ticker = quote.getStockTicker();
+        if (ticker == null) {
+            return;
+        }
+        int id = symbolMaster.register(ticker);
+        long stamp = lock.writeLock();
+        try {
+            Columns c = columns;
+            c.ensureCapacity(id);
+            set(c, ScreenField.LAST, id, quote.getLast());
+            set(c, ScreenField.VOLUME, id, quote.getVolume() == null ? null : quote.getVolume().doubleValue());
+            set(c, ScreenField.SIZZLE_INDEX, id, quote.getSizzleIndex());
+            set(c, ScreenField.MARK_CHANGE, id, quote.getMarkChange());
+            set(c, ScreenField.MARKET_CAP, id, quote.getMarketCapAmount());
+            if (quote.getSector() != null) {
+                c.sector[id] = c.sectorCode(quote.getSector());
+            }
+            c.present[id >>> 6] |= 1L << id;
+            if (id >= c.size) {
+                c.size = id + 1;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private static void set(Columns c, ScreenField field, int id, Double value) {
+        if (value != null) {
+            c.values[field.ordinal()][id] = value;
+        }
+    }
+
+    /**
+     * Symbols whose rolling correlation with stockTicker is within [lo, hi], from the latest
+     * correlation snapshot. Only tracked (watchlist) tickers can match, and never stockTicker itself.
+     */
+    public ScreenPredicate correlationBetween(String stockTicker, double lo, double hi) {
+        CorrelationMatrix matrix = correlationService.snapshot();
+        int self = matrix.indexOf(stockTicker);
+        if (self < 0) {
+            throw new IllegalArgumentException("No correlations tracked for " + stockTicker);
+        }
+        List<String> tickers = matrix.getTickers();
+        int[] ids = new int[tickers.size()];
+        int matched = 0;
+        for (int j = 0; j < tickers.size(); j++) {
+            double rho = matrix.correlation(self, j);
+            int id = symbolMaster.idOf(tickers.get(j));
+            // A ticker never quoted has no id and no columns to match
+            if (j != self && id >= 0 && rho >= lo && rho <= hi) {
+                ids[matched++] = id;
+            }
+        }
+        int[] matches = Arrays.copyOf(ids, matched);
+        return c -> {
+            long[] bits = new long[words(c.capacity)];
+            for (int id : matches) {
+                if (id < c.capacity) {
+                    bits[id >>> 6] |= 1L << id;
+                }
+            }
+            return bits;
+        };
+    }
+
+    public int count(ScreenPredicate predicate) {
+        long stamp = lock.readLock();
+        try {
+            long[] bits = predicate.evaluate(columns);
+            int count = 0;
+            for (int w = 0; w < bits.length; w++) {
+                count += Long.bitCount(bits[w] & columns.present[w]);
+            }
+            return count;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Matches of the predicate sorted by sortBy, best first, at most limit rows. Symbols with no
+     * value for sortBy sort last.
+     */
+    public List<ScreenResult> screen(ScreenPredicate predicate, ScreenField sortBy, boolean descending, int limit) {
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+        long stamp = lock.readLock();
+        try {
+            Columns c = columns;
+            long[] bits = predicate.evaluate(c);
+            double[] sortColumn = c.values[sortBy.ordinal()];
+
+            // Bounded min-heap on the sort key keeps the best `limit` ids seen so far
+            int[] heapIds = new int[limit];
+            double[] heapKeys = new double[limit];
+            int heapSize = 0;
+            for (int w = 0; w < bits.length; w++) {
+                long word = bits[w] & c.present[w];
+                while (word != 0) {
+                    int id = (w << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    double raw = sortColumn[id];
+                    double key = Double.isNaN(raw) ? Double.NEGATIVE_INFINITY : descending ? raw : -raw;
+                    if (heapSize < limit) {
+                        heapIds[heapSize] = id;
+                        heapKeys[heapSize] = key;
+                        siftUp(heapIds, heapKeys, heapSize++);
+                    } else if (key > heapKeys[0]) {
+                        heapIds[0] = id;
+                        heapKeys[0] = key;
+                        siftDown(heapIds, heapKeys, heapSize);
+                    }
+                }
+            }
+
+            // Pop smallest-first, fill from the back to get best-first order
+            ScreenResult[] rows = new ScreenResult[heapSize];
+            for (int i = heapSize - 1; i >= 0; i--) {
+                rows[i] = row(c, heapIds[0]);
+                heapIds[0] = heapIds[i];
+                heapKeys[0] = heapKeys[i];
+                siftDown(heapIds, heapKeys, i);
+            }
+            return new ArrayList<>(Arrays.asList(rows));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private ScreenResult row(Columns c, int id) {
+        int sectorCode = c.sector[id];
+        return new ScreenResult(symbolMaster.symbolOf(id), sectorCode == 0 ? null : c.sectorNames.get(sectorCode - 1),
+                c.values[ScreenField.LAST.ordinal()][id], c.values[ScreenField.VOLUME.ordinal()][id],
+                c.values[ScreenField.SIZZLE_INDEX.ordinal()][id], c.values[ScreenField.MARK_CHANGE.ordinal()][id],
+                c.values[ScreenField.MARKET_CAP.ordinal()][id]);
+    }
+
+    private static void siftUp(int[] ids, double[] keys, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (keys[parent] <= keys[i]) {
+                return;
+            }
+            swap(ids, keys, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(int[] ids, double[] keys, int size) {
+        int i = 0;
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                return;
+            }
+            int smallest = left + 1 < size && keys[left + 1] < keys[left] ? left + 1 : left;
+            if (keys[i] <= keys[smallest]) {
+                return;
+            }
+            swap(ids, keys, i, smallest);
+            i = smallest;
+        }
+    }
+
+    private static void swap(int[] ids, double[] keys, int a, int b) {
+        int id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        double key = keys[a];
+        keys[a] = keys[b];
+        keys[b] = key;
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            int count = 0;
+            for (long word : columns.present) {
+                count += Long.bitCount(word);
+            }
+            return count;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        subscription.close();
+    }
+}
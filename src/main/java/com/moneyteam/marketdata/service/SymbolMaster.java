@@ -0,0 +1,134 @@
+package com.moneyteam.marketdata.service;
+
+import com.moneyteam.marketdata.repository.StockTradeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Owns the process-wide {@link SymbolTable}, plus the set of tickers listed in {@code stocks}.
+ *
+ * The listing is the whole {@code stocks} ticker column, loaded at startup and reloaded every few
+ * minutes to pick up rows written by other instances; this instance's own inserts are added as they
+ * are flushed ({@link #onListed}). Listing checks are answered from memory, a miss included. The id
+ * table also takes tickers that are only quoted, and is never shrunk, so ids handed out earlier stay
+ * valid for the life of the process. Both are swapped copy-on-write; readers only do a volatile read.
+ */
+@Service
+public class SymbolMaster implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(SymbolMaster.class);
+
+    static final long REFRESH_MINUTES = 5;
+
+    private final StockTradeRepository stockTradeRepository;
+    private final ScheduledExecutorService refresher;
+    private volatile SymbolTable table = SymbolTable.empty();
+    private volatile SymbolTable listed = SymbolTable.empty();
+    private volatile boolean loaded;
+
+    public SymbolMaster(StockTradeRepository stockTradeRepository) {
+        this.stockTradeRepository = stockTradeRepository;
+        this.refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "symbol-refresh");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        load();
+        refresher.scheduleWithFixedDelay(this::load, REFRESH_MINUTES, REFRESH_MINUTES, TimeUnit.MINUTES);
+    }
+
+    // Replaces the listing with the stocks table; keeps the previous listing if the read fails
+    public void load() {
+        try {
+            List<String> tickers = stockTradeRepository.findAllStockTickers();
+            synchronized (this) {
+                table = table.withAdded(tickers);
+                listed = SymbolTable.empty().withAdded(tickers);
+            }
+            if (!loaded) {
+                log.info("Symbol master loaded {} tickers", tickers.size());
+            }
+            loaded = true;
+        } catch (RuntimeException e) {
+            log.error("Symbol master load failed, will retry in {} minutes: {}", REFRESH_MINUTES, e.getMessage());
+        }
+    }
+
+    public SymbolTable table() {
+        return table;
+    }
+
+    // -1 if the ticker has no id yet
+    public int idOf(String stockTicker) {
+        return stockTicker == null ? -1 : table.idOf(stockTicker);
+    }
+
+    public String symbolOf(int id) {
+        return table.symbolOf(id);
+    }
+
+    public int size() {
+        return table.size();
+    }
+
+    // True once the listing reflects the stocks table
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public boolean isKnown(String stockTicker) {
+        return idOf(stockTicker) >= 0;
+    }
+
+    /**
+     * True if the ticker is in {@code stocks} as of the last load or this instance's own inserts. Only
+     * before the first successful load, when the listing is empty, does this fall back to the database.
+     */
+    public boolean isListed(String stockTicker) {
+        if (stockTicker == null) {
+            return false;
+        }
+        if (loaded) {
+            return listed.contains(stockTicker);
+        }
+        return stockTradeRepository.existsByStockTicker(stockTicker);
+    }
+
+    // Tickers just written to stocks by this instance
+    public synchronized void onListed(Collection<String> stockTickers) {
+        table = table.withAdded(stockTickers);
+        listed = listed.withAdded(stockTickers);
+    }
+
+    // Returns the ticker's id, assigning the next dense id if it is new
+    public int register(String stockTicker) {
+        int id = table.idOf(stockTicker);
+        if (id >= 0) {
+            return id;
+        }
+        register(List.of(stockTicker));
+        return table.idOf(stockTicker);
+    }
+
+    public synchronized void register(Collection<String> stockTickers) {
+        table = table.withAdded(stockTickers);
+    }
+
+    @Override
+    public void destroy() {
+        refresher.shutdownNow();
+    }
+}
@@ -0,0 +1,157 @@
+package com.moneyteam.marketdata.service;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of a ticker <-> dense int id table.
+ *
+ * Ids run 0..size-1 in registration order so engines can index plain arrays by id. Lookups go
+ * through a small Bloom filter first (unknown tickers are rejected without touching the table),
+ * then an open-addressing int table that compares interned symbols by reference before equals().
+ *
+ * Snapshots share append-only backing arrays sized with spare room, so adding to the latest snapshot
+ * writes only the new entries and the arrays are rebuilt at double the size when they fill:
+ * amortized O(1) per ticker rather than a full copy. A snapshot ignores ids at or above its own size,
+ * so entries appended for a later snapshot never show through an earlier one.
+ */
+public final class SymbolTable {
+
+    private static final int BLOOM_BITS_PER_SYMBOL = 10;
+    private static final int MIN_CAPACITY = 16;
+
+    private final Storage storage;
+    private final int size;
+
+    private SymbolTable(Storage storage, int size) {
+        this.storage = storage;
+        this.size = size;
+    }
+
+    // Backing arrays; only appended to, under its own lock, by the snapshot that owns the tail
+    private static final class Storage {
+        final String[] symbols;
+        final int[] slots;      // id + 1, 0 = empty
+        final int slotMask;
+        final int[] bloom;      // int words so a racing reader never sees a torn word
+        final int bloomMask;
+        int count;
+
+        Storage(int capacity) {
+            symbols = new String[capacity];
+            int slotCapacity = Integer.highestOneBit(capacity * 2 - 1) << 1;
+            slots = new int[slotCapacity];
+            slotMask = slotCapacity - 1;
+            int bloomBits = Integer.highestOneBit(Math.max(64, capacity * BLOOM_BITS_PER_SYMBOL - 1)) << 1;
+            bloom = new int[bloomBits >>> 5];
+            bloomMask = bloomBits - 1;
+        }
+
+        int capacity() {
+            return symbols.length;
+        }
+
+        void append(String symbol) {
+            int id = count;
+            symbols[id] = symbol;
+            int h = mix(symbol.hashCode());
+            // three probes derived from one 32-bit hash (Kirsch-Mitzenmacher)
+            int h2 = (h >>> 16) | 1;
+            for (int k = 0; k < 3; k++) {
+                int bit = (h + k * h2) & bloomMask;
+                bloom[bit >>> 5] |= 1 << bit;
+            }
+            int i = h & slotMask;
+            while (slots[i] != 0) {
+                i = (i + 1) & slotMask;
+            }
+            slots[i] = id + 1;
+            count = id + 1;
+        }
+    }
+
+    public static SymbolTable empty() {
+        return new SymbolTable(new Storage(MIN_CAPACITY), 0);
+    }
+
+    // Build a table keeping every id from this one and appending new symbols after them
+    public SymbolTable withAdded(Collection<String> tickers) {
+        Set<String> fresh = new LinkedHashSet<>();
+        for (String ticker : tickers) {
+            if (ticker != null && idOf(ticker) < 0) {
+                fresh.add(ticker);
+            }
+        }
+        if (fresh.isEmpty()) {
+            return this;
+        }
+        int needed = size + fresh.size();
+        synchronized (storage) {
+            Storage target = storage;
+            // Append in place only from the tip; an older snapshot or a full table gets fresh arrays
+            if (storage.count != size || needed > storage.capacity()) {
+                int capacity = Math.max(MIN_CAPACITY, Integer.highestOneBit(needed - 1) << 1);
+                target = new Storage(Math.max(capacity, storage.capacity() * 2));
+                for (int id = 0; id < size; id++) {
+                    target.append(storage.symbols[id]);
+                }
+            }
+            for (String ticker : fresh) {
+                target.append(ticker.intern());
+            }
+            return new SymbolTable(target, needed);
+        }
+    }
+
+    public int idOf(String ticker) {
+        Storage s = storage;
+        int h = mix(ticker.hashCode());
+        if (!mightContain(s, h)) {
+            return -1;
+        }
+        for (int i = h & s.slotMask; ; i = (i + 1) & s.slotMask) {
+            int slot = s.slots[i];
+            // A slot past our size was empty when this snapshot was taken
+            if (slot == 0 || slot > size) {
+                return -1;
+            }
+            String symbol = s.symbols[slot - 1];
+            if (symbol == ticker || symbol.equals(ticker)) {
+                return slot - 1;
+            }
+        }
+    }
+
+    public boolean contains(String ticker) {
+        return idOf(ticker) >= 0;
+    }
+
+    public String symbolOf(int id) {
+        return storage.symbols[Objects.checkIndex(id, size)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static boolean mightContain(Storage s, int h) {
+        int h2 = (h >>> 16) | 1;
+        for (int k = 0; k < 3; k++) {
+            int bit = (h + k * h2) & s.bloomMask;
+            if ((s.bloom[bit >>> 5] & (1 << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        return h ^ (h >>> 16);
+    }
+}
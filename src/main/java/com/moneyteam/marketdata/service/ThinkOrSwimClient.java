@@ -1,15 +1,14 @@
 package com.moneyteam.marketdata.service;
 
 import org.apache.hc.client5.http.classic.methods.HttpGet;
-import org.apache.hc.client5.http.classic.methods.HttpPost;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
-import org.apache.hc.core5.http.ParseException;
-import org.apache.hc.core5.http.io.entity.EntityUtils;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moneyteam.marketdata.model.Stock;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 
 public class ThinkOrSwimClient {
 /*
@@ -22,11 +21,15 @@ private static final String BASE_URL = "https://api.tdameritrade.com/v1";
     private static final String TOKEN_URL = "https://api.tdameritrade.com/v1/oauth2/token";
     private static final String CLIENT_ID = "your_client_id@AMER.OAUTHAP"; // Replace with your client ID
     private static final String REDIRECT_URI = "http://localhost"; // Replace with your redirect URI
-    private String accessToken;
+    // Token lifecycle (refresh ahead of expiry) lives off the request path
+    private final OAuthTokenManager tokenManager;
 
     public ThinkOrSwimClient() {
-        // Initialize access token if needed
-        this.accessToken = null;
+        this(new OAuthTokenManager(TOKEN_URL, CLIENT_ID, REDIRECT_URI));
+    }
+
+    public ThinkOrSwimClient(OAuthTokenManager tokenManager) {
+        this.tokenManager = tokenManager;
     }
     /*
     Open this URL in a web browser. After logging in and authorizing the application, you will be redirected to the specified redirect URI with an authorization code in the URL.
@@ -36,58 +39,59 @@ private static final String BASE_URL = "https://api.tdameritrade.com/v1";
     //Flow: authorizationCode
     // Authenticate and fetch access token
     public void authenticate(String authCode) throws IOException {
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-            HttpPost post = new HttpPost(TOKEN_URL);
-            String body = String.format(
-                    "grant_type=authorization_code&access_type=offline&code=%s&client_id=%s&redirect_uri=%s",
-                    authCode, CLIENT_ID, REDIRECT_URI
-            );
-
-            post.setEntity(new org.apache.hc.core5.http.io.entity.StringEntity(body));
-            post.setHeader("Content-Type", "application/x-www-form-urlencoded");
-
-            String response = EntityUtils.toString(httpClient.execute(post).getEntity());
-            JsonNode jsonNode = new ObjectMapper().readTree(response);
-
-            if (jsonNode.has("access_token")) {
-                this.accessToken = jsonNode.get("access_token").asText();
-                System.out.println("Authenticated successfully! Access Token: " + accessToken);
-            } else {
-                System.out.println("Authentication failed: " + response);
-            }
-        } catch (ParseException e) {
-            throw new RuntimeException(e);
+        try {
+            OAuthTokenManager.AccessToken token = tokenManager.exchangeAuthorizationCode(authCode);
+            System.out.println("Authenticated successfully! Token expires at: " + token.getExpiresAt());
+        } catch (IOException e) {
+            System.out.println("Authentication failed: " + e.getMessage());
+            throw e;
         }
     }
     // Fetch stock details
     public JsonNode fetchStockDetails(String ticker) throws IOException{
         // Perform API call and return Stock object
-        if (this.accessToken == null) {
-            throw new IllegalStateException("Client not authenticated. Please call authenticate() first.");
+        String accessToken = tokenManager.getAccessToken();
+
+        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
+            HttpGet get = new HttpGet(BASE_URL + "/marketdata/" + ticker + "/quotes");
+            get.setHeader("Authorization", "Bearer " + accessToken);
+
+            return httpClient.execute(get, response -> {
+                try (InputStream body = response.getEntity().getContent()) {
+                    return QuoteDecoder.mapper().readTree(body);
+                }
+            });
         }
+    }
+
+    // Fetch a quote and stream it straight into a Stock (no String body, no JsonNode tree)
+    public Stock fetchQuote(String ticker) throws IOException {
+        String accessToken = tokenManager.getAccessToken();
 
         try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
             HttpGet get = new HttpGet(BASE_URL + "/marketdata/" + ticker + "/quotes");
             get.setHeader("Authorization", "Bearer " + accessToken);
 
-            String response = EntityUtils.toString(httpClient.execute(get).getEntity());
-            return new ObjectMapper().readTree(response);
-        } catch (ParseException e) {
-            throw new RuntimeException(e);
+            List<Stock> quotes = httpClient.execute(get, response -> {
+                try (InputStream body = response.getEntity().getContent()) {
+                    return QuoteDecoder.decode(body);
+                }
+            });
+            return quotes.isEmpty() ? null : quotes.get(0);
         }
     }
 
     // Output filtered data to terminal
     public void filterAndOutputStockData(String ticker) throws IOException {
-        JsonNode stockData = fetchStockDetails(ticker);
+        Stock stockData = fetchQuote(ticker);
 
         if (stockData != null) {
             System.out.println("Stock Details for: " + ticker);
-            System.out.println(stockData.toPrettyString());
+            System.out.println(stockData);
 
             // Apply custom filters here (e.g., price > X, volume < Y)
-            double price = stockData.get(ticker).get("lastPrice").asDouble();
-            if (price > 100) {
+            Double price = stockData.getLast();
+            if (price != null && price > 100) {
                 System.out.println("Stock is over $100!");
             }
         } else {
@@ -97,5 +101,5 @@ private static final String BASE_URL = "https://api.tdameritrade.com/v1";
 
 }
 //Handle Token Expiration
-//Access tokens may expire, so you will need to implement a mechanism to refresh the
-// token using the refresh token you received during the token exchange step.
\ No newline at end of file
+//Access tokens expire; OAuthTokenManager refreshes them on a background scheduler
+// using the refresh token received during the token exchange step.
\ No newline at end of file
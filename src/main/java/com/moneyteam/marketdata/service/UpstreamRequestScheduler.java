@@ -0,0 +1,415 @@
+package com.moneyteam.marketdata.service;
+
+import com.moneyteam.marketdata.model.enums.MarketDataProvider;
+import com.moneyteam.marketdata.model.enums.RequestPriority;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Paces every upstream market-data call through a per-provider token bucket.
+ *
+ * Each provider has one queue per {@link RequestPriority}. A dispatcher thread takes a token, then
+ * hands the highest-priority waiting request to the worker pool, so order pricing always jumps ahead
+ * of background refreshes. When a provider's queue is full, the oldest lower-priority request is
+ * shed to make room; background requests that have waited too long are shed instead of sent, and
+ * both they and requests cancelled while queued are dropped before a token is taken for them.
+ */
+@Component
+public class UpstreamRequestScheduler implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(UpstreamRequestScheduler.class);
+
+    private static final RequestPriority[] PRIORITIES = RequestPriority.values();
+
+    private final Map<MarketDataProvider, ProviderQueue> queues = new EnumMap<>(MarketDataProvider.class);
+    private final ExecutorService workers;
+
+    public UpstreamRequestScheduler() {
+        this.workers = Executors.newFixedThreadPool(8, r -> {
+            Thread t = new Thread(r, "upstream-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        // Defaults sized to each provider's published / observed limits
+        register(MarketDataProvider.YAHOO, 5, 10, 500, Duration.ofSeconds(30));
+        register(MarketDataProvider.SCHWAB, 2, 5, 500, Duration.ofSeconds(30));
+        register(MarketDataProvider.FLASK, 20, 20, 1000, Duration.ofSeconds(10));
+    }
+
+    // (Re)configure a provider's limits; replaces any previous queue for it
+    public synchronized void register(MarketDataProvider provider, double permitsPerSecond, int burst,
+                                      int maxQueued, Duration maxBackgroundWait) {
+        ProviderQueue old = queues.put(provider,
+                new ProviderQueue(provider, permitsPerSecond, burst, maxQueued, maxBackgroundWait));
+        if (old != null) {
+            old.shutdown();
+        }
+    }
+
+    /**
+     * Queue a call against a provider. The future completes with the call's result, or exceptionally
+     * with RejectedExecutionException if the request was shed.
+     */
+    public <T> CompletableFuture<T> submit(MarketDataProvider provider, RequestPriority priority, Callable<T> call) {
+        ProviderQueue queue = queues.get(provider);
+        if (queue == null) {
+            throw new IllegalArgumentException("No scheduler registered for provider " + provider);
+        }
+        Pending<T> pending = new Pending<>(priority, call);
+        queue.enqueue(pending);
+        return pending.future;
+    }
+
+    // Why a scheduled call did not complete, unchecked: RejectedExecutionException if it was shed,
+    // otherwise the call's own failure
+    public static RuntimeException failureOf(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof IOException) {
+            return new UncheckedIOException((IOException) cause);
+        }
+        return new IllegalStateException(cause);
+    }
+
+    // Queue depth, wait times and shed counts per provider, keyed for JSON output
+    public Map<String, Object> metrics() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (ProviderQueue queue : queues.values()) {
+            result.put(queue.provider.name(), queue.metrics());
+        }
+        return result;
+    }
+
+    public int queueDepth(MarketDataProvider provider) {
+        ProviderQueue queue = queues.get(provider);
+        return queue == null ? 0 : queue.depth();
+    }
+
+    @Override
+    public void destroy() {
+        for (ProviderQueue queue : queues.values()) {
+            queue.shutdown();
+        }
+        workers.shutdownNow();
+    }
+
+    private static final class Pending<T> {
+        final RequestPriority priority;
+        final Callable<T> call;
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        final long enqueuedAt = System.nanoTime();
+
+        Pending(RequestPriority priority, Callable<T> call) {
+            this.priority = priority;
+            this.call = call;
+        }
+
+        void run() {
+            if (future.isDone()) {
+                return; // cancelled by the caller while queued
+            }
+            try {
+                future.complete(call.call());
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        }
+
+        void shed(String reason) {
+            future.completeExceptionally(new RejectedExecutionException(reason));
+        }
+    }
+
+    // Single-consumer token bucket; only the provider's dispatcher thread touches it
+    private static final class TokenBucket {
+        private final double capacity;
+        private final double refillPerNano;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(double permitsPerSecond, int burst) {
+            this.capacity = burst;
+            this.refillPerNano = permitsPerSecond / 1_000_000_000d;
+            this.tokens = burst;
+            this.lastRefill = System.nanoTime();
+        }
+
+        void acquire() throws InterruptedException {
+            while (true) {
+                long now = System.nanoTime();
+                tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+                lastRefill = now;
+                if (tokens >= 1) {
+                    tokens -= 1;
+                    return;
+                }
+                long waitNanos = (long) Math.ceil((1 - tokens) / refillPerNano);
+                Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+            }
+        }
+
+        // Give back a token that was taken but not spent
+        void refund() {
+            tokens = Math.min(capacity, tokens + 1);
+        }
+    }
+
+    private final class ProviderQueue {
+        private final MarketDataProvider provider;
+        private final int maxQueued;
+        private final long maxBackgroundWaitNanos;
+        private final TokenBucket bucket;
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition notEmpty = lock.newCondition();
+        @SuppressWarnings("unchecked")
+        private final ArrayDeque<Pending<?>>[] lanes = new ArrayDeque[PRIORITIES.length];
+        private int size;
+
+        private final AtomicLongArray waitCount = new AtomicLongArray(PRIORITIES.length);
+        private final AtomicLongArray waitTotalNanos = new AtomicLongArray(PRIORITIES.length);
+        private final AtomicLongArray waitMaxNanos = new AtomicLongArray(PRIORITIES.length);
+        private final AtomicLong shed = new AtomicLong();
+
+        private final Thread dispatcher;
+        private volatile boolean running = true;
+        // Dispatcher-only scratch list of requests to shed outside the lock
+        private final List<Pending<?>> stale = new ArrayList<>();
+
+        ProviderQueue(MarketDataProvider provider, double permitsPerSecond, int burst,
+                      int maxQueued, Duration maxBackgroundWait) {
+            this.provider = provider;
+            this.maxQueued = maxQueued;
+            this.maxBackgroundWaitNanos = maxBackgroundWait.toNanos();
+            this.bucket = new TokenBucket(permitsPerSecond, burst);
+            for (int i = 0; i < lanes.length; i++) {
+                lanes[i] = new ArrayDeque<>();
+            }
+            this.dispatcher = new Thread(this::dispatchLoop, "upstream-dispatch-" + provider.name().toLowerCase());
+            this.dispatcher.setDaemon(true);
+            this.dispatcher.start();
+        }
+
+        void enqueue(Pending<?> pending) {
+            Pending<?> evicted = null;
+            lock.lock();
+            try {
+                if (size >= maxQueued) {
+                    evicted = evictBelow(pending.priority);
+                    if (evicted == null) {
+                        shed.incrementAndGet();
+                        pending.shed(provider + " queue full (" + maxQueued + ")");
+                        return;
+                    }
+                }
+                lanes[pending.priority.ordinal()].addLast(pending);
+                size++;
+                notEmpty.signal();
+            } finally {
+                lock.unlock();
+            }
+            if (evicted != null) {
+                shed.incrementAndGet();
+                evicted.shed(provider + " queue full, shed for higher priority work");
+            }
+        }
+
+        // Remove the oldest request from the lowest non-empty lane strictly below the given priority
+        private Pending<?> evictBelow(RequestPriority priority) {
+            for (int i = lanes.length - 1; i > priority.ordinal(); i--) {
+                if (!lanes[i].isEmpty()) {
+                    size--;
+                    return lanes[i].pollFirst();
+                }
+            }
+            return null;
+        }
+
+        // Highest-priority live request, or null if everything queued was stale or cancelled
+        private Pending<?> takeHighest() {
+            long now = System.nanoTime();
+            lock.lock();
+            try {
+                for (ArrayDeque<Pending<?>> lane : lanes) {
+                    Pending<?> p;
+                    while ((p = lane.pollFirst()) != null) {
+                        size--;
+                        if (p.future.isDone()) {
+                            continue;
+                        }
+                        if (isStale(p, now)) {
+                            stale.add(p);
+                            continue;
+                        }
+                        return p;
+                    }
+                }
+                return null;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Drop cancelled requests and collect stale background ones; the caller sheds them
+        private void purge() {
+            long now = System.nanoTime();
+            lock.lock();
+            try {
+                ArrayDeque<Pending<?>> background = lanes[RequestPriority.BACKGROUND.ordinal()];
+                for (ArrayDeque<Pending<?>> lane : lanes) {
+                    int before = lane.size();
+                    lane.removeIf(p -> {
+                        if (p.future.isDone()) {
+                            return true;
+                        }
+                        if (lane == background && isStale(p, now)) {
+                            stale.add(p);
+                            return true;
+                        }
+                        return false;
+                    });
+                    size -= before - lane.size();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean isStale(Pending<?> p, long now) {
+            return p.priority == RequestPriority.BACKGROUND && now - p.enqueuedAt > maxBackgroundWaitNanos;
+        }
+
+        private void shedStale() {
+            for (Pending<?> p : stale) {
+                shed.incrementAndGet();
+                p.shed(provider + " background request waited too long");
+            }
+            stale.clear();
+        }
+
+        private void awaitWork() throws InterruptedException {
+            lock.lock();
+            try {
+                while (size == 0) {
+                    notEmpty.await();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void dispatchLoop() {
+            while (running) {
+                try {
+                    awaitWork();
+                    // Shed before taking a token so dead requests never cost one
+                    purge();
+                    shedStale();
+                    if (depth() == 0) {
+                        continue;
+                    }
+                    // Pick after the token so the pick reflects whatever arrived while we waited for it
+                    bucket.acquire();
+                    Pending<?> next = takeHighest();
+                    shedStale();
+                    if (next == null) {
+                        bucket.refund();
+                        continue;
+                    }
+                    recordWait(next.priority.ordinal(), System.nanoTime() - next.enqueuedAt);
+                    workers.execute(next::run);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (RejectedExecutionException e) {
+                    log.warn("Upstream worker pool rejected a {} request", provider);
+                }
+            }
+        }
+
+        private void recordWait(int lane, long nanos) {
+            waitCount.incrementAndGet(lane);
+            waitTotalNanos.addAndGet(lane, nanos);
+            long max;
+            while (nanos > (max = waitMaxNanos.get(lane)) && !waitMaxNanos.compareAndSet(lane, max, nanos)) {
+                // retry until we either win or someone recorded a larger max
+            }
+        }
+
+        int depth() {
+            lock.lock();
+            try {
+                return size;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Map<String, Object> metrics() {
+            Map<String, Object> m = new LinkedHashMap<>();
+            Map<String, Object> perLane = new LinkedHashMap<>();
+            lock.lock();
+            int[] depths = new int[lanes.length];
+            try {
+                for (int i = 0; i < lanes.length; i++) {
+                    depths[i] = lanes[i].size();
+                }
+            } finally {
+                lock.unlock();
+            }
+            for (int i = 0; i < lanes.length; i++) {
+                long count = waitCount.get(i);
+                Map<String, Object> lane = new LinkedHashMap<>();
+                lane.put("queueDepth", depths[i]);
+                lane.put("dispatched", count);
+                lane.put("avgWaitMs", count == 0 ? 0.0 : waitTotalNanos.get(i) / (count * 1_000_000d));
+                lane.put("maxWaitMs", waitMaxNanos.get(i) / 1_000_000d);
+                perLane.put(PRIORITIES[i].name(), lane);
+            }
+            m.put("shed", shed.get());
+            m.put("lanes", perLane);
+            return m;
+        }
+
+        void shutdown() {
+            running = false;
+            dispatcher.interrupt();
+            lock.lock();
+            try {
+                for (ArrayDeque<Pending<?>> lane : lanes) {
+                    Pending<?> p;
+                    while ((p = lane.pollFirst()) != null) {
+                        p.shed(provider + " scheduler shut down");
+                    }
+                }
+                size = 0;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
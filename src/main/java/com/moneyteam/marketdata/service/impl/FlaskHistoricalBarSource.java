@@ -0,0 +1,91 @@
+package com.moneyteam.marketdata.service.impl;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.moneyteam.marketdata.model.PriceBar;
+import com.moneyteam.marketdata.model.enums.BarInterval;
+import com.moneyteam.marketdata.model.enums.MarketDataProvider;
+import com.moneyteam.marketdata.service.HistoricalBarSource;
+import com.moneyteam.marketdata.service.QuoteDecoder;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Reads bars from python-services/stock_data_api.py (GET /api/history/<ticker>)
+@Service
+public class FlaskHistoricalBarSource implements HistoricalBarSource, DisposableBean {
+
+    private static final String API_URL = "http://127.0.0.1:5000/api/history/";
+
+    // One pooled client shared by all backfill workers (default pool allows only 5 per route)
+    private final CloseableHttpClient httpClient = HttpClients.custom()
+            .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                    .setMaxConnPerRoute(16)
+                    .setMaxConnTotal(16)
+                    .build())
+            .build();
+
+    @Override
+    public MarketDataProvider getProvider() {
+        return MarketDataProvider.FLASK;
+    }
+
+    @Override
+    public List<PriceBar> fetchBars(String stockTicker, BarInterval interval, LocalDate from, LocalDate to)
+            throws IOException {
+        HttpGet get = new HttpGet(API_URL + stockTicker
+                + "?start=" + from + "&end=" + to + "&interval=" + interval.getCode());
+
+        return httpClient.execute(get, response -> {
+            if (response.getCode() != 200) {
+                throw new IOException("History request for " + stockTicker + " failed: HTTP " + response.getCode());
+            }
+            try (InputStream body = response.getEntity().getContent();
+                 JsonParser parser = QuoteDecoder.mapper().getFactory().createParser(body)) {
+                return readBars(parser, stockTicker, interval);
+            }
+        });
+    }
+
+    private static List<PriceBar> readBars(JsonParser parser, String stockTicker, BarInterval interval)
+            throws IOException {
+        List<PriceBar> bars = new ArrayList<>();
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            return bars;
+        }
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            long timestamp = 0;
+            long volume = 0;
+            double open = 0, high = 0, low = 0, close = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                parser.nextToken();
+                switch (name) {
+                    case "timestamp": timestamp = parser.getValueAsLong(); break;
+                    case "open": open = parser.getValueAsDouble(); break;
+                    case "high": high = parser.getValueAsDouble(); break;
+                    case "low": low = parser.getValueAsDouble(); break;
+                    case "close": close = parser.getValueAsDouble(); break;
+                    case "volume": volume = parser.getValueAsLong(); break;
+                    default: parser.skipChildren();
+                }
+            }
+            bars.add(new PriceBar(stockTicker, interval, timestamp, open, high, low, close, volume));
+        }
+        return bars;
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        httpClient.close();
+    }
+}
@@ -0,0 +1,82 @@
+package com.moneyteam.marketdata.service.impl;
+
+import com.moneyteam.marketdata.model.Stock;
+import com.moneyteam.marketdata.model.enums.MarketDataProvider;
+import com.moneyteam.marketdata.model.enums.RequestPriority;
+import com.moneyteam.marketdata.service.QuoteDecoder;
+import com.moneyteam.marketdata.service.StockApiService;
+import com.moneyteam.marketdata.service.UpstreamRequestScheduler;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+// Quotes from the local python-services/stock_data_api.py (GET /api/quote/<ticker>)
+@Service
+public class FlaskStockApiService extends StockApiService implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlaskStockApiService.class);
+
+    private static final String API_URL = "http://127.0.0.1:5000/api/quote/";
+
+    private final CloseableHttpClient httpClient = HttpClients.createDefault();
+    private final UpstreamRequestScheduler requestScheduler;
+
+    public FlaskStockApiService(UpstreamRequestScheduler requestScheduler) {
+        this.requestScheduler = requestScheduler;
+    }
+
+    @Override
+    public Optional<Stock> fetchStockDetails(String stockTicker) {
+        return fetchStockDetails(stockTicker, RequestPriority.INTERACTIVE);
+    }
+
+    @Override
+    public Optional<Stock> fetchStockDetails(String stockTicker, RequestPriority priority) {
+        CompletableFuture<Optional<Stock>> request = requestScheduler.submit(MarketDataProvider.FLASK, priority,
+                () -> fetchNow(stockTicker));
+        try {
+            return request.get();
+        } catch (InterruptedException e) {
+            // Lost a hedge race: drop the queued request so it never spends a token
+            request.cancel(false);
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } catch (ExecutionException e) {
+            // Shed or transport failure; the caller decides whether it counts against us
+            logger.warn("Flask request for {} not completed: {}", stockTicker, e.getCause().getMessage());
+            throw UpstreamRequestScheduler.failureOf(e);
+        }
+    }
+
+    private Optional<Stock> fetchNow(String stockTicker) throws IOException {
+        HttpGet get = new HttpGet(API_URL + stockTicker);
+        return httpClient.execute(get, response -> {
+            if (response.getCode() == 404) {
+                return Optional.empty(); // unknown symbol
+            }
+            if (response.getCode() != 200) {
+                throw new IOException("Flask quote service returned " + response.getCode());
+            }
+            try (InputStream body = response.getEntity().getContent()) {
+                List<Stock> quotes = QuoteDecoder.decode(body);
+                return quotes.isEmpty() ? Optional.<Stock>empty() : Optional.of(quotes.get(0));
+            }
+        });
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        httpClient.close();
+    }
+}
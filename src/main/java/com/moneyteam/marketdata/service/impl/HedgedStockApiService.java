@@ -0,0 +1,304 @@
+package com.moneyteam.marketdata.service.impl;
+
+import com.moneyteam.marketdata.model.Stock;
+import com.moneyteam.marketdata.model.enums.RequestPriority;
+import com.moneyteam.marketdata.service.CircuitBreaker;
+import com.moneyteam.marketdata.service.LatencyTracker;
+import com.moneyteam.marketdata.service.QuoteBus;
+import com.moneyteam.marketdata.service.QuotePersistenceService;
+import com.moneyteam.marketdata.service.StockApiService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Quote lookups across Yahoo, Schwab and the local Flask service.
+ *
+ * The first healthy provider is asked first. If it has not answered within its own rolling p95, one
+ * hedged request goes to the next healthy provider and the first valid answer wins; the loser is
+ * cancelled. A provider that fails or returns nothing fails over to the next one straight away.
+ * Hedges are capped at 10% of requests (HEDGE_BUDGET), so load grows by at most about 10%, not 2x.
+ * Cancelling the loser interrupts its provider call, which drops the request from the upstream
+ * scheduler if it has not been sent yet. Providers that keep failing are circuit-broken and skipped
+ * until a probe succeeds. Only transport errors and timeouts count as failures: an empty answer
+ * (unknown or delisted symbol) and a request shed by the scheduler leave the breaker alone.
+ */
+@Primary
+@Service
+public class HedgedStockApiService extends StockApiService implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(HedgedStockApiService.class);
+
+    private static final long DEFAULT_HEDGE_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+    private static final long MIN_HEDGE_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long REQUEST_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final double HEDGE_BUDGET = 0.10;
+
+    private final List<Provider> providers = new ArrayList<>();
+    private final QuotePersistenceService persistence;
+    private final QuoteBus quoteBus;
+    private final ExecutorService executor;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong failovers = new AtomicLong();
+
+    public HedgedStockApiService(StockApiServiceImpl yahoo,
+                                 ThinkOrSwimStockApiService schwab,
+                                 FlaskStockApiService flask,
+                                 QuotePersistenceService persistence,
+                                 QuoteBus quoteBus) {
+        // Preference order: cheapest / most complete first
+        providers.add(new Provider("YAHOO", yahoo));
+        providers.add(new Provider("SCHWAB", schwab));
+        providers.add(new Provider("FLASK", flask));
+        this.persistence = persistence;
+        this.quoteBus = quoteBus;
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "quote-hedge");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private static final class Provider {
+        final String name;
+        final StockApiService service;
+        final LatencyTracker latency = new LatencyTracker(512);
+        final CircuitBreaker breaker = new CircuitBreaker(5, Duration.ofSeconds(30));
+
+        Provider(String name, StockApiService service) {
+            this.name = name;
+            this.service = service;
+        }
+
+        long hedgeDelayNanos() {
+            long p95 = latency.p95Nanos();
+            return p95 < 0 ? DEFAULT_HEDGE_DELAY_NANOS : Math.max(MIN_HEDGE_DELAY_NANOS, p95);
+        }
+    }
+
+    private static final class Outcome {
+        final Attempt attempt;
+        final Optional<Stock> quote;
+
+        Outcome(Attempt attempt, Optional<Stock> quote) {
+            this.attempt = attempt;
+            this.quote = quote;
+        }
+    }
+
+    private final class Attempt {
+        final Provider provider;
+        volatile boolean cancelled;
+        volatile boolean timedOut;
+        Future<?> future;
+
+        Attempt(Provider provider) {
+            this.provider = provider;
+        }
+
+        void start(String stockTicker, RequestPriority priority, BlockingQueue<Outcome> outcomes) {
+            future = executor.submit(() -> {
+                long started = System.nanoTime();
+                Optional<Stock> quote = Optional.empty();
+                boolean failed = false;
+                boolean shed = false;
+                try {
+                    quote = provider.service.fetchStockDetails(stockTicker, priority);
+                } catch (RejectedExecutionException e) {
+                    logger.debug("{} shed the request for {}: {}", provider.name, stockTicker, e.getMessage());
+                    shed = true;
+                } catch (RuntimeException e) {
+                    logger.debug("{} failed for {}: {}", provider.name, stockTicker, e.getMessage());
+                    failed = true;
+                }
+                if (timedOut) {
+                    provider.breaker.onFailure();
+                    return;
+                }
+                if (cancelled || shed) {
+                    // Never reached the provider, or its answer is no longer wanted
+                    provider.breaker.onAbandoned();
+                } else if (failed) {
+                    provider.breaker.onFailure();
+                } else if (isValid(quote)) {
+                    provider.latency.record(System.nanoTime() - started);
+                    provider.breaker.onSuccess();
+                } else {
+                    // The provider answered, it just has no quote (unknown or delisted symbol)
+                    provider.breaker.onNeutral();
+                }
+                if (!cancelled) {
+                    outcomes.offer(new Outcome(this, quote));
+                }
+            });
+        }
+
+        // Interrupts the provider's wait on the scheduler, which cancels the queued request
+        void cancel() {
+            cancelled = true;
+            future.cancel(true);
+        }
+
+        // Still running at the request deadline: counts against the provider once the call unwinds
+        void timeOut() {
+            timedOut = true;
+            cancel();
+        }
+    }
+
+    @Override
+    public Optional<Stock> fetchStockDetails(String stockTicker) {
+        return fetchStockDetails(stockTicker, RequestPriority.INTERACTIVE);
+    }
+
+    @Override
+    public Optional<Stock> fetchStockDetails(String stockTicker, RequestPriority priority) {
+        requests.incrementAndGet();
+        long deadline = System.nanoTime() + REQUEST_TIMEOUT_NANOS;
+        BlockingQueue<Outcome> outcomes = new LinkedBlockingQueue<>();
+        List<Attempt> running = new ArrayList<>(2);
+        int next = 0;
+
+        // Launch the first provider whose breaker lets us through
+        Attempt primary = null;
+        while (primary == null && next < providers.size()) {
+            primary = tryLaunch(providers.get(next++), stockTicker, priority, outcomes);
+        }
+        if (primary == null) {
+            logger.warn("All quote providers are circuit-broken; no quote for {}", stockTicker);
+            return Optional.empty();
+        }
+        running.add(primary);
+        boolean hedged = false;
+
+        try {
+            while (true) {
+                long now = System.nanoTime();
+                if (now >= deadline) {
+                    // Background requests can legitimately sit in the rate limiter past the deadline
+                    if (priority != RequestPriority.BACKGROUND) {
+                        for (Attempt attempt : running) {
+                            attempt.timeOut();
+                        }
+                    }
+                    return Optional.empty();
+                }
+                long wait = hedged ? deadline - now
+                        : Math.min(deadline - now, primary.provider.hedgeDelayNanos());
+                Outcome outcome = outcomes.poll(wait, TimeUnit.NANOSECONDS);
+
+                if (outcome == null) {
+                    // Primary is slower than its own p95: hedge once, within budget
+                    hedged = true;
+                    if (hedges.get() < requests.get() * HEDGE_BUDGET + 1) {
+                        Attempt hedge = null;
+                        while (hedge == null && next < providers.size()) {
+                            hedge = tryLaunch(providers.get(next++), stockTicker, priority, outcomes);
+                        }
+                        if (hedge != null) {
+                            hedges.incrementAndGet();
+                            running.add(hedge);
+                        }
+                    }
+                    continue;
+                }
+
+                running.remove(outcome.attempt);
+                if (isValid(outcome.quote)) {
+                    onFetched(stockTicker, outcome.quote.get());
+                    return outcome.quote;
+                }
+                if (running.isEmpty()) {
+                    // Everything in flight failed; fail over to the next healthy provider
+                    Attempt failover = null;
+                    while (failover == null && next < providers.size()) {
+                        failover = tryLaunch(providers.get(next++), stockTicker, priority, outcomes);
+                    }
+                    if (failover == null) {
+                        return Optional.empty();
+                    }
+                    failovers.incrementAndGet();
+                    primary = failover;
+                    hedged = false;
+                    running.add(failover);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } finally {
+            for (Attempt attempt : running) {
+                attempt.cancel();
+            }
+        }
+    }
+
+    // Every winning quote goes to the bulk upsert and the live subscribers; a provider that left the
+    // ticker off gets the one asked for
+    private void onFetched(String stockTicker, Stock quote) {
+        if (quote.getStockTicker() == null) {
+            quote.setStockTicker(stockTicker);
+        }
+        persistence.submit(quote);
+        quoteBus.publish(quote);
+    }
+
+    private Attempt tryLaunch(Provider provider, String stockTicker, RequestPriority priority,
+                              BlockingQueue<Outcome> outcomes) {
+        if (!provider.breaker.allowRequest()) {
+            return null;
+        }
+        Attempt attempt = new Attempt(provider);
+        attempt.start(stockTicker, priority, outcomes);
+        return attempt;
+    }
+
+    private static boolean isValid(Optional<Stock> quote) {
+        return quote != null && quote.isPresent() && quote.get().getLast() != null;
+    }
+
+    // Per-provider latency percentiles and breaker state, plus hedge / failover counts
+    public Map<String, Object> providerStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (Provider provider : providers) {
+            Map<String, Object> p = new LinkedHashMap<>();
+            p.put("state", provider.breaker.getState().name());
+            p.put("samples", provider.latency.sampleCount());
+            p.put("p50Ms", toMillis(provider.latency.p50Nanos()));
+            p.put("p95Ms", toMillis(provider.latency.p95Nanos()));
+            p.put("p99Ms", toMillis(provider.latency.p99Nanos()));
+            stats.put(provider.name, p);
+        }
+        stats.put("requests", requests.get());
+        stats.put("hedges", hedges.get());
+        stats.put("failovers", failovers.get());
+        return stats;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos < 0 ? -1 : nanos / 1_000_000d;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,228 @@
+package com.moneyteam.marketdata.service.impl;
+
+import com.moneyteam.common.exception.OperationInProgressException;
+import com.moneyteam.marketdata.model.BackfillReport;
+import com.moneyteam.marketdata.model.PriceBar;
+import com.moneyteam.marketdata.model.enums.BarInterval;
+import com.moneyteam.marketdata.model.enums.RequestPriority;
+import com.moneyteam.marketdata.repository.PriceHistoryRepository;
+import com.moneyteam.marketdata.service.HistoricalBackfillService;
+import com.moneyteam.marketdata.service.HistoricalBarSource;
+import com.moneyteam.marketdata.service.UpstreamRequestScheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Splits a backfill into (ticker, date-range) chunks sized to what one upstream request can return,
+ * fetches them concurrently through the provider's rate limiter, and bulk writes each chunk together
+ * with its checkpoint row. A chunk that comes back empty is retried like an error and never
+ * checkpointed, so a throttled or flaky response is fetched again by a re-run instead of being
+ * recorded as done. Jobs started through {@link #start} run on their own threads, one per job id.
+ */
+@Service
+public class HistoricalBackfillServiceImpl implements HistoricalBackfillService, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(HistoricalBackfillServiceImpl.class);
+
+    // Upper bound on requests in flight; the provider's token bucket sets the actual pace
+    private static final int MAX_IN_FLIGHT = 8;
+    private static final int MAX_ATTEMPTS = 4;
+    private static final long RETRY_BASE_MS = 1000;
+    private static final int MAX_FINISHED_REPORTS = 100;
+
+    private final HistoricalBarSource barSource;
+    private final PriceHistoryRepository priceHistoryRepository;
+    private final UpstreamRequestScheduler requestScheduler;
+    private final long retryBaseMs;
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+    private final Map<String, BackfillReport> finished = Collections.synchronizedMap(
+            new LinkedHashMap<String, BackfillReport>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, BackfillReport> eldest) {
+                    return size() > MAX_FINISHED_REPORTS;
+                }
+            });
+    private final ExecutorService jobs = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "backfill-job");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @Autowired
+    public HistoricalBackfillServiceImpl(HistoricalBarSource barSource,
+                                         PriceHistoryRepository priceHistoryRepository,
+                                         UpstreamRequestScheduler requestScheduler) {
+        this(barSource, priceHistoryRepository, requestScheduler, RETRY_BASE_MS);
+    }
+
+    HistoricalBackfillServiceImpl(HistoricalBarSource barSource, PriceHistoryRepository priceHistoryRepository,
+                                  UpstreamRequestScheduler requestScheduler, long retryBaseMs) {
+        this.barSource = barSource;
+        this.priceHistoryRepository = priceHistoryRepository;
+        this.requestScheduler = requestScheduler;
+        this.retryBaseMs = retryBaseMs;
+    }
+
+    private static final class Chunk {
+        final String stockTicker;
+        final LocalDate from;
+        final LocalDate to;
+
+        Chunk(String stockTicker, LocalDate from, LocalDate to) {
+            this.stockTicker = stockTicker;
+            this.from = from;
+            this.to = to;
+        }
+    }
+
+    @Override
+    public void start(String jobId, List<String> stockTickers, BarInterval interval, LocalDate from, LocalDate to) {
+        if (!running.add(jobId)) {
+            throw new OperationInProgressException("Backfill " + jobId + " is already running");
+        }
+        finished.remove(jobId);
+        try {
+            jobs.execute(() -> {
+                try {
+                    finished.put(jobId, backfill(jobId, stockTickers, interval, from, to));
+                } catch (RuntimeException e) {
+                    log.error("Backfill {} failed: {}", jobId, e.getMessage());
+                } finally {
+                    running.remove(jobId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            running.remove(jobId);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean isRunning(String jobId) {
+        return running.contains(jobId);
+    }
+
+    @Override
+    public Optional<BackfillReport> report(String jobId) {
+        return Optional.ofNullable(finished.get(jobId));
+    }
+
+    @Override
+    public BackfillReport backfill(String jobId, List<String> stockTickers, BarInterval interval,
+                                   LocalDate from, LocalDate to) {
+        long started = System.currentTimeMillis();
+        Set<String> done = priceHistoryRepository.findCompletedChunks(jobId);
+
+        List<Chunk> pending = new ArrayList<>();
+        int total = 0;
+        for (String ticker : stockTickers) {
+            for (LocalDate start = from; start.isBefore(to); start = start.plusDays(interval.getMaxChunkDays())) {
+                LocalDate end = start.plusDays(interval.getMaxChunkDays());
+                if (end.isAfter(to)) {
+                    end = to;
+                }
+                total++;
+                if (!done.contains(PriceHistoryRepository.chunkKey(ticker, interval, start))) {
+                    pending.add(new Chunk(ticker, start, end));
+                }
+            }
+        }
+        log.info("Backfill {}: {} chunks, {} already done, {} to fetch", jobId, total, total - pending.size(),
+                pending.size());
+
+        AtomicInteger completed = new AtomicInteger();
+        AtomicLong bars = new AtomicLong();
+        List<String> failed = Collections.synchronizedList(new ArrayList<>());
+
+        ExecutorService pool = Executors.newFixedThreadPool(MAX_IN_FLIGHT, r -> {
+            Thread t = new Thread(r, "backfill-" + jobId);
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            for (Chunk chunk : pending) {
+                pool.execute(() -> {
+                    int written = runChunk(jobId, interval, chunk);
+                    if (written >= 0) {
+                        completed.incrementAndGet();
+                        bars.addAndGet(written);
+                    } else {
+                        failed.add(PriceHistoryRepository.chunkKey(chunk.stockTicker, interval, chunk.from));
+                    }
+                });
+            }
+            pool.shutdown();
+            while (!pool.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.info("Backfill {}: {}/{} chunks written", jobId, completed.get(), pending.size());
+            }
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+            log.warn("Backfill {} interrupted; rerun with the same job id to resume", jobId);
+        }
+
+        BackfillReport report = new BackfillReport(jobId, total, total - pending.size(), completed.get(),
+                new ArrayList<>(failed), bars.get(), System.currentTimeMillis() - started);
+        log.info("Backfill finished: {}", report);
+        return report;
+    }
+
+    // Returns bars written, or -1 if the chunk failed or came back empty on every attempt
+    private int runChunk(String jobId, BarInterval interval, Chunk chunk) {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                List<PriceBar> bars = requestScheduler.submit(barSource.getProvider(), RequestPriority.BACKGROUND,
+                        () -> barSource.fetchBars(chunk.stockTicker, interval, chunk.from, chunk.to)).join();
+                if (bars.isEmpty()) {
+                    log.warn("Chunk {} {}..{} attempt {} returned no bars", chunk.stockTicker, chunk.from, chunk.to,
+                            attempt);
+                } else {
+                    priceHistoryRepository.saveChunk(jobId, chunk.stockTicker, interval, chunk.from, chunk.to, bars);
+                    return bars.size();
+                }
+            } catch (CompletionException e) {
+                String reason = e.getCause().getMessage();
+                log.warn("Chunk {} {}..{} attempt {} failed: {}", chunk.stockTicker, chunk.from, chunk.to,
+                        attempt, reason);
+            } catch (RuntimeException e) {
+                log.warn("Chunk {} {}..{} attempt {} failed to save: {}", chunk.stockTicker, chunk.from, chunk.to,
+                        attempt, e.getMessage());
+            }
+            if (attempt == MAX_ATTEMPTS) {
+                break;
+            }
+            try {
+                Thread.sleep(retryBaseMs << (attempt - 1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void destroy() {
+        jobs.shutdownNow();
+    }
+}
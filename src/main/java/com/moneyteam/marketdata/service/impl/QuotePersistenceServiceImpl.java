@@ -0,0 +1,130 @@
+package com.moneyteam.marketdata.service.impl;
+
+import com.moneyteam.marketdata.model.Stock;
+import com.moneyteam.marketdata.repository.StockQuoteUpsertRepository;
+import com.moneyteam.marketdata.service.QuotePersistenceService;
+import com.moneyteam.marketdata.service.SymbolMaster;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces quote updates per ticker and flushes them in bulk on a fixed window, instead of a
+ * SELECT + UPDATE per ticker through StockTradeRepository.save().
+ */
+@Service
+public class QuotePersistenceServiceImpl implements QuotePersistenceService, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(QuotePersistenceServiceImpl.class);
+
+    private static final long FLUSH_WINDOW_MS = 1000;
+
+    private final StockQuoteUpsertRepository upsertRepository;
+    private final SymbolMaster symbolMaster;
+    private final Map<String, Stock> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+
+    public QuotePersistenceServiceImpl(StockQuoteUpsertRepository upsertRepository, SymbolMaster symbolMaster) {
+        this.upsertRepository = upsertRepository;
+        this.symbolMaster = symbolMaster;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "quote-flush");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, FLUSH_WINDOW_MS, FLUSH_WINDOW_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void submit(Stock quote) {
+        if (quote == null || quote.getStockTicker() == null) {
+            throw new IllegalArgumentException("Quote must have a stock ticker");
+        }
+        pending.merge(quote.getStockTicker(), quote, QuotePersistenceServiceImpl::coalesce);
+    }
+
+    @Override
+    public void submitAll(Collection<Stock> quotes) {
+        for (Stock quote : quotes) {
+            submit(quote);
+        }
+    }
+
+    @Override
+    public synchronized int flush() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        List<Stock> batch = new ArrayList<>(pending.size());
+        for (Map.Entry<String, Stock> entry : pending.entrySet()) {
+            // remove(key, value) leaves anything that arrived after we read it for the next window
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                batch.add(entry.getValue());
+            }
+        }
+        try {
+            int statements = upsertRepository.upsertAll(batch);
+            // Tickers inserted by this flush are now listed in stocks
+            List<String> tickers = new ArrayList<>(batch.size());
+            for (Stock quote : batch) {
+                tickers.add(quote.getStockTicker());
+            }
+            symbolMaster.onListed(tickers);
+            log.debug("Flushed {} quotes in {} statements", batch.size(), statements);
+            return batch.size();
+        } catch (RuntimeException e) {
+            // Put the batch back without clobbering anything newer
+            for (Stock quote : batch) {
+                pending.merge(quote.getStockTicker(), quote, (newer, older) -> coalesce(older, newer));
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Quote flush failed, will retry next window: {}", e.getMessage());
+        }
+    }
+
+    // Newer non-null fields win; returns a fresh Stock so callers' objects are never mutated
+    private static Stock coalesce(Stock older, Stock newer) {
+        return new Stock(
+                newer.getStockTicker(),
+                newer.getStockName() != null ? newer.getStockName() : older.getStockName(),
+                newer.getSector() != null ? newer.getSector() : older.getSector(),
+                newer.getMarketCapAmount() != null ? newer.getMarketCapAmount() : older.getMarketCapAmount(),
+                newer.getVolume() != null ? newer.getVolume() : older.getVolume(),
+                newer.getSizzleIndex() != null ? newer.getSizzleIndex() : older.getSizzleIndex(),
+                newer.getAsk() != null ? newer.getAsk() : older.getAsk(),
+                newer.getBid() != null ? newer.getBid() : older.getBid(),
+                newer.getNumberOfShares() != null ? newer.getNumberOfShares() : older.getNumberOfShares(),
+                newer.getOpen() != null ? newer.getOpen() : older.getOpen(),
+                newer.getClose() != null ? newer.getClose() : older.getClose(),
+                newer.getLast() != null ? newer.getLast() : older.getLast(),
+                newer.getMarkChange() != null ? newer.getMarkChange() : older.getMarkChange());
+    }
+
+    @Override
+    public void destroy() {
+        flusher.shutdown();
+        flushQuietly();
+    }
+}
@@ -1,34 +1,66 @@
 package com.moneyteam.marketdata.service.impl;
 
 import com.moneyteam.marketdata.model.Stock;
+import com.moneyteam.marketdata.model.enums.MarketDataProvider;
+import com.moneyteam.marketdata.model.enums.RequestPriority;
+import com.moneyteam.marketdata.service.QuoteDecoder;
 import com.moneyteam.marketdata.service.StockApiService;
+import com.moneyteam.marketdata.service.UpstreamRequestScheduler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 @Service
 public class StockApiServiceImpl extends StockApiService {
 
     private static final Logger logger = LoggerFactory.getLogger(StockApiServiceImpl.class);
     private final RestTemplate restTemplate = new RestTemplate();
+    private final UpstreamRequestScheduler requestScheduler;
 
     private static final String API_URL = "https://query1.finance.yahoo.com/v7/finance/quote?stockTickers=";
 
+    public StockApiServiceImpl(UpstreamRequestScheduler requestScheduler) {
+        this.requestScheduler = requestScheduler;
+    }
+
     @Override
     public Optional<Stock> fetchStockDetails(String stockTicker) {
+        return fetchStockDetails(stockTicker, RequestPriority.INTERACTIVE);
+    }
+
+    @Override
+    public Optional<Stock> fetchStockDetails(String stockTicker, RequestPriority priority) {
+        CompletableFuture<Optional<Stock>> request = requestScheduler.submit(MarketDataProvider.YAHOO, priority,
+                () -> fetchNow(stockTicker));
         try {
-            String url = API_URL + stockTicker;
-            logger.info("Fetching stock data from: {}", url);
-
-            // In production, map JSON to your Stock DTO
-            Stock stock = restTemplate.getForObject(url, Stock.class);
-            return Optional.ofNullable(stock);
-        } catch (Exception e) {
-            logger.error("Failed to fetch stock data for stockTicker {}: {}", stockTicker, e.getMessage());
+            return request.get();
+        } catch (InterruptedException e) {
+            // Lost a hedge race: drop the queued request so it never spends a token
+            request.cancel(false);
+            Thread.currentThread().interrupt();
             return Optional.empty();
+        } catch (ExecutionException e) {
+            // Shed or transport failure; the caller decides whether it counts against us
+            logger.warn("Yahoo request for {} not completed: {}", stockTicker, e.getCause().getMessage());
+            throw UpstreamRequestScheduler.failureOf(e);
         }
     }
+
+    // Transport and decode errors propagate so the hedging layer can count them against Yahoo
+    private Optional<Stock> fetchNow(String stockTicker) {
+        String url = API_URL + stockTicker;
+        logger.info("Fetching stock data from: {}", url);
+
+        // Stream the quote envelope straight into Stock instead of buffering the body
+        List<Stock> quotes = restTemplate.execute(url, HttpMethod.GET, null,
+                response -> QuoteDecoder.decode(response.getBody()));
+        return quotes == null || quotes.isEmpty() ? Optional.empty() : Optional.of(quotes.get(0));
+    }
 }
\ No newline at end of file
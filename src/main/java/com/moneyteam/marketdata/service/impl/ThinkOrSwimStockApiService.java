@@ -0,0 +1,57 @@
+package com.moneyteam.marketdata.service.impl;
+
+import com.moneyteam.marketdata.model.Stock;
+import com.moneyteam.marketdata.model.enums.MarketDataProvider;
+import com.moneyteam.marketdata.model.enums.RequestPriority;
+import com.moneyteam.marketdata.service.StockApiService;
+import com.moneyteam.marketdata.service.ThinkOrSwimClient;
+import com.moneyteam.marketdata.service.UpstreamRequestScheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+// Exposes ThinkOrSwimClient (Schwab / TD quotes) as a StockApiService
+@Service
+public class ThinkOrSwimStockApiService extends StockApiService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThinkOrSwimStockApiService.class);
+
+    private final ThinkOrSwimClient client;
+    private final UpstreamRequestScheduler requestScheduler;
+
+    public ThinkOrSwimStockApiService(ThinkOrSwimClient client, UpstreamRequestScheduler requestScheduler) {
+        this.client = client;
+        this.requestScheduler = requestScheduler;
+    }
+
+    public ThinkOrSwimClient getClient() {
+        return client;
+    }
+
+    @Override
+    public Optional<Stock> fetchStockDetails(String stockTicker) {
+        return fetchStockDetails(stockTicker, RequestPriority.INTERACTIVE);
+    }
+
+    @Override
+    public Optional<Stock> fetchStockDetails(String stockTicker, RequestPriority priority) {
+        CompletableFuture<Stock> request = requestScheduler.submit(MarketDataProvider.SCHWAB, priority,
+                () -> client.fetchQuote(stockTicker));
+        try {
+            return Optional.ofNullable(request.get());
+        } catch (InterruptedException e) {
+            // Lost a hedge race: drop the queued request so it never spends a token
+            request.cancel(false);
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } catch (ExecutionException e) {
+            // Shed or transport failure; the caller decides whether it counts against us
+            logger.warn("Schwab request for {} not completed: {}", stockTicker, e.getCause().getMessage());
+            throw UpstreamRequestScheduler.failureOf(e);
+        }
+    }
+}
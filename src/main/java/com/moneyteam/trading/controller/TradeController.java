@@ -1,20 +1,37 @@
 package com.moneyteam.trading.controller;
 
+import com.moneyteam.analysis.model.OptionQuote;
+import com.moneyteam.analysis.model.ValueAtRisk;
+import com.moneyteam.analysis.model.VolatilitySurface;
+import com.moneyteam.analysis.service.ValueAtRiskEngine;
+import com.moneyteam.analysis.service.VolatilitySurfaceService;
 import com.moneyteam.trading.dto.TradeRequestDto;
 import com.moneyteam.trading.dto.TradeResponseDto;
+import com.moneyteam.trading.model.OptionChainIndex;
+import com.moneyteam.trading.model.OptionExpiryReport;
+import com.moneyteam.trading.model.OptionType;
+import com.moneyteam.trading.model.PortfolioGreeks;
 import com.moneyteam.trading.model.enums.TradeStatus;
 import com.moneyteam.trading.model.enums.OrderSide;
+import com.moneyteam.trading.service.OptionChainService;
+import com.moneyteam.trading.service.OptionExpiryProcessor;
+import com.moneyteam.trading.service.PortfolioGreeksService;
 import com.moneyteam.trading.service.TradeService;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 //— includes endpoints
 //✔ /trade/place
@@ -28,10 +45,22 @@ import java.util.List;
 public class TradeController {
 
     private final TradeService tradeService;
+    private final ValueAtRiskEngine valueAtRiskEngine;
+    private final OptionExpiryProcessor optionExpiryProcessor;
+    private final PortfolioGreeksService portfolioGreeksService;
+    private final VolatilitySurfaceService volatilitySurfaceService;
+    private final OptionChainService optionChainService;
 
     @Autowired
-    public TradeController(TradeService tradeService)
-    { this.tradeService = tradeService; }
+    public TradeController(TradeService tradeService, ValueAtRiskEngine valueAtRiskEngine,
+                           OptionExpiryProcessor optionExpiryProcessor, PortfolioGreeksService portfolioGreeksService,
+                           VolatilitySurfaceService volatilitySurfaceService, OptionChainService optionChainService)
+    { this.tradeService = tradeService;
+      this.valueAtRiskEngine = valueAtRiskEngine;
+      this.optionExpiryProcessor = optionExpiryProcessor;
+      this.portfolioGreeksService = portfolioGreeksService;
+      this.volatilitySurfaceService = volatilitySurfaceService;
+      this.optionChainService = optionChainService; }
 
     private static final Logger log = LoggerFactory.getLogger(TradeController.class);
 
@@ -43,6 +72,84 @@ public class TradeController {
         return ResponseEntity.ok(response);
     }
 
+    // Firm-wide VaR across every user's positions
+    @GetMapping("/risk")
+    public ResponseEntity<ValueAtRisk> firmRisk() {
+        return ResponseEntity.ok(valueAtRiskEngine.firmWide());
+    }
+
+    @GetMapping("/risk/{userId}")
+    public ResponseEntity<ValueAtRisk> userRisk(@PathVariable Long userId) {
+        return ResponseEntity.ok(valueAtRiskEngine.forUser(userId));
+    }
+
+    // Live net option Greeks, firm-wide and per user
+    @GetMapping("/greeks")
+    public ResponseEntity<PortfolioGreeks> firmGreeks() {
+        return ResponseEntity.ok(portfolioGreeksService.firm());
+    }
+
+    @GetMapping("/greeks/{userId}")
+    public ResponseEntity<PortfolioGreeks> userGreeks(@PathVariable Long userId) {
+        return ResponseEntity.ok(portfolioGreeksService.user(userId));
+    }
+
+    // Settle (or finish settling) the options expiring on or before a date, on the expiry job's thread;
+    // normally runs by itself after the close. 409 while a run is in progress.
+    @PostMapping("/options/expire")
+    public ResponseEntity<Void> expireOptions(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        log.info("Options expiry requested through {}", date);
+        optionExpiryProcessor.submit(date);
+        return ResponseEntity.accepted().build();
+    }
+
+    // Report of the last finished expiry run; 204 before the first
+    @GetMapping("/options/expire")
+    public ResponseEntity<OptionExpiryReport> lastOptionExpiry() {
+        OptionExpiryReport report = optionExpiryProcessor.lastReport();
+        return report == null ? ResponseEntity.noContent().build() : ResponseEntity.ok(report);
+    }
+
+    // Listed contracts within band of the live spot over the next few expirations, from the in-memory
+    // chain index; 404 if nothing is listed on the underlying, empty while it has no quote
+    @GetMapping("/options/{stockTicker}/chain")
+    public ResponseEntity<List<Map<String, Object>>> optionChain(@PathVariable String stockTicker,
+                                                                 @RequestParam(defaultValue = "0.10") double band,
+                                                                 @RequestParam(defaultValue = "3") int expiries) {
+        OptionChainIndex index = optionChainService.index();
+        if (!index.contains(stockTicker)) {
+            return ResponseEntity.notFound().build();
+        }
+        List<Map<String, Object>> contracts = new ArrayList<>();
+        for (int id : optionChainService.nearSpot(stockTicker, band, expiries)) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("expiration", LocalDate.ofEpochDay(index.expiryEpochDay(id)));
+            row.put("strike", index.strike(id));
+            row.put("type", index.isCall(id) ? OptionType.CALL : OptionType.PUT);
+            contracts.add(row);
+        }
+        return ResponseEntity.ok(contracts);
+    }
+
+    // Chain snapshot of option prices for one underlying; rebuilds its vol surface, which the portfolio
+    // Greeks then price at. 400 if the underlying has no quote yet.
+    @PostMapping("/options/{stockTicker}/quotes")
+    public ResponseEntity<Map<String, Object>> optionQuotes(@PathVariable String stockTicker,
+                                                            @RequestBody List<OptionQuote> quotes) {
+        VolatilitySurface surface = volatilitySurfaceService.onChainQuotes(stockTicker, quotes);
+        int nodes = 0;
+        for (int e = 0; e < surface.expiries(); e++) {
+            nodes += surface.vols(e).length;
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("stockTicker", stockTicker);
+        body.put("quotes", quotes.size());
+        body.put("expiries", surface.expiries());
+        body.put("nodes", nodes);
+        return ResponseEntity.ok(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<TradeResponseDto> getById(@PathVariable Long id) {
         log.info("Fetching trade by ID: {}", id);
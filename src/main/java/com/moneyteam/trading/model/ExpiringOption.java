@@ -0,0 +1,54 @@
+package com.moneyteam.trading.model;
+
+import java.time.LocalDate;
+
+// One open options row due to expire, as read by the bulk expiry job
+public final class ExpiringOption {
+    private final long id;
+    private final long userId;
+    private final String stockTicker;
+    private final boolean call;
+    private final double strike;
+    private final double quantity;
+    private final LocalDate expiration;
+
+    public ExpiringOption(long id, long userId, String stockTicker, boolean call, double strike, double quantity,
+                          LocalDate expiration) {
+        this.id = id;
+        this.userId = userId;
+        this.stockTicker = stockTicker;
+        this.call = call;
+        this.strike = strike;
+        this.quantity = quantity;
+        this.expiration = expiration;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public String getStockTicker() {
+        return stockTicker;
+    }
+
+    public boolean isCall() {
+        return call;
+    }
+
+    public double getStrike() {
+        return strike;
+    }
+
+    // Contracts; negative when short
+    public double getQuantity() {
+        return quantity;
+    }
+
+    public LocalDate getExpiration() {
+        return expiration;
+    }
+}
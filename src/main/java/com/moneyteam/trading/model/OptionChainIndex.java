@@ -0,0 +1,307 @@
+package com.moneyteam.trading.model;
+
+import com.moneyteam.analysis.model.OptionChain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable index of listed option contracts: underlying -> expiration (epoch day) -> sorted
+ * strikes -> call and put slots.
+ *
+ * Everything is flat primitive arrays. Each level stores offsets into the next, so a range query
+ * is a hash probe plus binary searches. Contract ids are dense and ordered by (underlying,
+ * expiration, strike, call before put), so one underlying's chain is a contiguous id range and
+ * maps straight onto an {@link OptionChain}. Built once per refresh by {@link Builder}.
+ */
+public final class OptionChainIndex {
+
+    private static final OptionChainIndex EMPTY = new Builder().build(0);
+
+    private final Map<String, Integer> underlyingIndex;
+    private final String[] underlyings;
+    private final int[] expiryOffsets;    // expiries of underlying u are [expiryOffsets[u], expiryOffsets[u + 1])
+    private final int[] expiryDays;
+    private final int[] strikeOffsets;    // strikes of expiry e are [strikeOffsets[e], strikeOffsets[e + 1])
+    private final double[] strikes;
+    private final int[] callSlots;        // contract id per strike, or -1 if not listed
+    private final int[] putSlots;
+    private final int[] contractOffsets;  // contracts of underlying u are [contractOffsets[u], contractOffsets[u + 1])
+    private final int[] contractExpiryDays;
+    private final double[] contractStrikes;
+    private final boolean[] contractCalls;
+    private final long loadedAtMillis;
+
+    private OptionChainIndex(Map<String, Integer> underlyingIndex, String[] underlyings, int[] expiryOffsets,
+                             int[] expiryDays, int[] strikeOffsets, double[] strikes, int[] callSlots, int[] putSlots,
+                             int[] contractOffsets, int[] contractExpiryDays, double[] contractStrikes,
+                             boolean[] contractCalls, long loadedAtMillis) {
+        this.underlyingIndex = underlyingIndex;
+        this.underlyings = underlyings;
+        this.expiryOffsets = expiryOffsets;
+        this.expiryDays = expiryDays;
+        this.strikeOffsets = strikeOffsets;
+        this.strikes = strikes;
+        this.callSlots = callSlots;
+        this.putSlots = putSlots;
+        this.contractOffsets = contractOffsets;
+        this.contractExpiryDays = contractExpiryDays;
+        this.contractStrikes = contractStrikes;
+        this.contractCalls = contractCalls;
+        this.loadedAtMillis = loadedAtMillis;
+    }
+
+    public static OptionChainIndex empty() {
+        return EMPTY;
+    }
+
+    public List<String> underlyings() {
+        return Collections.unmodifiableList(Arrays.asList(underlyings));
+    }
+
+    public int size() {
+        return contractStrikes.length;
+    }
+
+    public long getLoadedAtMillis() {
+        return loadedAtMillis;
+    }
+
+    public boolean contains(String underlying) {
+        return underlyingIndex.containsKey(underlying);
+    }
+
+    // Listed expirations of the underlying, ascending epoch days; empty if unknown
+    public int[] expirations(String underlying) {
+        Integer u = underlyingIndex.get(underlying);
+        return u == null ? new int[0] : Arrays.copyOfRange(expiryDays, expiryOffsets[u], expiryOffsets[u + 1]);
+    }
+
+    // Contract id of one listing, or -1
+    public int find(String underlying, int expiryEpochDay, double strike, boolean call) {
+        Integer u = underlyingIndex.get(underlying);
+        if (u == null) {
+            return -1;
+        }
+        int e = Arrays.binarySearch(expiryDays, expiryOffsets[u], expiryOffsets[u + 1], expiryEpochDay);
+        if (e < 0) {
+            return -1;
+        }
+        int k = Arrays.binarySearch(strikes, strikeOffsets[e], strikeOffsets[e + 1], strike);
+        if (k < 0) {
+            return -1;
+        }
+        return call ? callSlots[k] : putSlots[k];
+    }
+
+    /**
+     * Ids of every contract on the underlying with a strike in [minStrike, maxStrike], over the
+     * first maxExpiries expirations on or after fromEpochDay. Ids come back by expiration, then
+     * strike, calls before puts.
+     */
+    public int[] range(String underlying, double minStrike, double maxStrike, int fromEpochDay, int maxExpiries) {
+        Integer u = underlyingIndex.get(underlying);
+        if (u == null || maxExpiries <= 0 || minStrike > maxStrike) {
+            return new int[0];
+        }
+        int first = lowerBound(expiryDays, expiryOffsets[u], expiryOffsets[u + 1], fromEpochDay);
+        int last = Math.min(expiryOffsets[u + 1], first + maxExpiries);
+        int[] out = new int[16];
+        int n = 0;
+        for (int e = first; e < last; e++) {
+            int from = lowerBound(strikes, strikeOffsets[e], strikeOffsets[e + 1], minStrike);
+            for (int k = from; k < strikeOffsets[e + 1] && strikes[k] <= maxStrike; k++) {
+                if (n + 2 > out.length) {
+                    out = Arrays.copyOf(out, out.length * 2);
+                }
+                if (callSlots[k] >= 0) {
+                    out[n++] = callSlots[k];
+                }
+                if (putSlots[k] >= 0) {
+                    out[n++] = putSlots[k];
+                }
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    // Strikes within band (0.10 = 10%) of spot over the next expiries expirations from fromEpochDay
+    public int[] nearSpot(String underlying, double spot, double band, int fromEpochDay, int expiries) {
+        return range(underlying, spot * (1 - band), spot * (1 + band), fromEpochDay, expiries);
+    }
+
+    /**
+     * The underlying's whole chain in contract-id order, for the analytics kernels; contract i of
+     * the chain is id {@code firstContract(underlying) + i}. null if the underlying is unknown.
+     */
+    public OptionChain chain(String underlying, double dividendYield) {
+        Integer u = underlyingIndex.get(underlying);
+        if (u == null) {
+            return null;
+        }
+        int from = contractOffsets[u];
+        int to = contractOffsets[u + 1];
+        return new OptionChain(underlying, Arrays.copyOfRange(contractExpiryDays, from, to),
+                Arrays.copyOfRange(contractStrikes, from, to), Arrays.copyOfRange(contractCalls, from, to),
+                dividendYield);
+    }
+
+    public int firstContract(String underlying) {
+        Integer u = underlyingIndex.get(underlying);
+        return u == null ? -1 : contractOffsets[u];
+    }
+
+    public String underlyingOf(int contract) {
+        // Every underlying has at least one contract, so the offsets are strictly increasing
+        int u = Arrays.binarySearch(contractOffsets, 0, underlyings.length, contract);
+        return underlyings[u >= 0 ? u : -u - 2];
+    }
+
+    public int expiryEpochDay(int contract) {
+        return contractExpiryDays[contract];
+    }
+
+    public double strike(int contract) {
+        return contractStrikes[contract];
+    }
+
+    public boolean isCall(int contract) {
+        return contractCalls[contract];
+    }
+
+    private static int lowerBound(int[] a, int from, int to, int key) {
+        int i = Arrays.binarySearch(a, from, to, key);
+        if (i < 0) {
+            return -i - 1;
+        }
+        while (i > from && a[i - 1] == key) {
+            i--;
+        }
+        return i;
+    }
+
+    private static int lowerBound(double[] a, int from, int to, double key) {
+        int i = Arrays.binarySearch(a, from, to, key);
+        if (i < 0) {
+            return -i - 1;
+        }
+        while (i > from && a[i - 1] == key) {
+            i--;
+        }
+        return i;
+    }
+
+    // Collects listings in any order, duplicates allowed; not thread-safe
+    public static final class Builder {
+        private final List<Listing> listings = new ArrayList<>();
+
+        public Builder add(String underlying, int expiryEpochDay, double strike, boolean call) {
+            if (underlying != null && strike > 0) {
+                listings.add(new Listing(underlying, expiryEpochDay, strike, call));
+            }
+            return this;
+        }
+
+        public int size() {
+            return listings.size();
+        }
+
+        public OptionChainIndex build(long loadedAtMillis) {
+            listings.sort(Comparator.<Listing, String>comparing(l -> l.underlying)
+                    .thenComparingInt(l -> l.expiryEpochDay)
+                    .thenComparingDouble(l -> l.strike)
+                    .thenComparing(l -> !l.call));
+
+            // One pass counts distinct underlyings, expirations, strikes and contracts
+            int underlyingCount = 0, expiryCount = 0, strikeCount = 0, contractCount = 0;
+            Listing previous = null;
+            for (Listing l : listings) {
+                boolean newUnderlying = previous == null || !previous.underlying.equals(l.underlying);
+                boolean newExpiry = newUnderlying || previous.expiryEpochDay != l.expiryEpochDay;
+                boolean newStrike = newExpiry || previous.strike != l.strike;
+                if (!newStrike && previous.call == l.call) {
+                    continue;
+                }
+                underlyingCount += newUnderlying ? 1 : 0;
+                expiryCount += newExpiry ? 1 : 0;
+                strikeCount += newStrike ? 1 : 0;
+                contractCount++;
+                previous = l;
+            }
+
+            String[] underlyings = new String[underlyingCount];
+            Map<String, Integer> index = new HashMap<>(underlyingCount * 2);
+            int[] expiryOffsets = new int[underlyingCount + 1];
+            int[] expiryDays = new int[expiryCount];
+            int[] strikeOffsets = new int[expiryCount + 1];
+            double[] strikes = new double[strikeCount];
+            int[] callSlots = new int[strikeCount];
+            int[] putSlots = new int[strikeCount];
+            int[] contractOffsets = new int[underlyingCount + 1];
+            int[] contractExpiryDays = new int[contractCount];
+            double[] contractStrikes = new double[contractCount];
+            boolean[] contractCalls = new boolean[contractCount];
+            Arrays.fill(callSlots, -1);
+            Arrays.fill(putSlots, -1);
+
+            int u = -1, e = -1, k = -1, c = 0;
+            previous = null;
+            for (Listing l : listings) {
+                boolean newUnderlying = previous == null || !previous.underlying.equals(l.underlying);
+                boolean newExpiry = newUnderlying || previous.expiryEpochDay != l.expiryEpochDay;
+                boolean newStrike = newExpiry || previous.strike != l.strike;
+                if (!newStrike && previous.call == l.call) {
+                    continue;
+                }
+                if (newUnderlying) {
+                    underlyings[++u] = l.underlying;
+                    index.put(l.underlying, u);
+                    expiryOffsets[u] = e + 1;
+                    contractOffsets[u] = c;
+                }
+                if (newExpiry) {
+                    expiryDays[++e] = l.expiryEpochDay;
+                    strikeOffsets[e] = k + 1;
+                }
+                if (newStrike) {
+                    strikes[++k] = l.strike;
+                }
+                if (l.call) {
+                    callSlots[k] = c;
+                } else {
+                    putSlots[k] = c;
+                }
+                contractExpiryDays[c] = l.expiryEpochDay;
+                contractStrikes[c] = l.strike;
+                contractCalls[c] = l.call;
+                c++;
+                previous = l;
+            }
+            expiryOffsets[underlyingCount] = expiryCount;
+            strikeOffsets[expiryCount] = strikeCount;
+            contractOffsets[underlyingCount] = contractCount;
+            return new OptionChainIndex(Collections.unmodifiableMap(index), underlyings, expiryOffsets, expiryDays,
+                    strikeOffsets, strikes, callSlots, putSlots, contractOffsets, contractExpiryDays, contractStrikes,
+                    contractCalls, loadedAtMillis);
+        }
+    }
+
+    private static final class Listing {
+        final String underlying;
+        final int expiryEpochDay;
+        final double strike;
+        final boolean call;
+
+        Listing(String underlying, int expiryEpochDay, double strike, boolean call) {
+            this.underlying = underlying;
+            this.expiryEpochDay = expiryEpochDay;
+            this.strike = strike;
+            this.call = call;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.moneyteam.trading.model;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Outcome of one expiry run over every contract expiring on or before its date. Incomplete when the time window ran out, underlyings had no close or
+ * some users' settlements failed; whatever was left stays OPEN and a re-run picks it up. Contracts
+ * another run had already settled are counted as skipped.
+ */
+public final class OptionExpiryReport {
+    private final LocalDate expirationDate;
+    private final int contracts;
+    private final int users;
+    private final int usersSettled;
+    private final int exercised;
+    private final int assigned;
+    private final int expired;
+    private final int deliveries;
+    private final int skipped;
+    private final List<String> missingCloses;
+    private final List<Long> failedUsers;
+    private final boolean complete;
+    private final long elapsedMillis;
+
+    public OptionExpiryReport(LocalDate expirationDate, int contracts, int users, int usersSettled, int exercised,
+                              int assigned, int expired, int deliveries, int skipped, List<String> missingCloses,
+                              List<Long> failedUsers, boolean complete, long elapsedMillis) {
+        this.expirationDate = expirationDate;
+        this.contracts = contracts;
+        this.users = users;
+        this.usersSettled = usersSettled;
+        this.exercised = exercised;
+        this.assigned = assigned;
+        this.expired = expired;
+        this.deliveries = deliveries;
+        this.skipped = skipped;
+        this.missingCloses = missingCloses;
+        this.failedUsers = failedUsers;
+        this.complete = complete;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public LocalDate getExpirationDate() {
+        return expirationDate;
+    }
+
+    public int getContracts() {
+        return contracts;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public int getUsersSettled() {
+        return usersSettled;
+    }
+
+    public int getExercised() {
+        return exercised;
+    }
+
+    public int getAssigned() {
+        return assigned;
+    }
+
+    public int getExpired() {
+        return expired;
+    }
+
+    public int getDeliveries() {
+        return deliveries;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+
+    public List<String> getMissingCloses() {
+        return missingCloses;
+    }
+
+    public List<Long> getFailedUsers() {
+        return failedUsers;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "OptionExpiryReport{" + expirationDate + ", contracts=" + contracts + ", users=" + usersSettled + "/"
+                + users + ", exercised=" + exercised + ", assigned=" + assigned + ", expired=" + expired
+                + ", deliveries=" + deliveries + ", skipped=" + skipped + ", missingCloses=" + missingCloses
+                + ", failedUsers=" + failedUsers + ", complete=" + complete
+                + ", elapsedMillis=" + elapsedMillis + '}';
+    }
+}
@@ -0,0 +1,46 @@
+package com.moneyteam.trading.model;
+
+// One user's open quantity in one option contract, as read for portfolio Greeks
+public final class OptionHolding {
+    private final long userId;
+    private final String stockTicker;
+    private final int expiryEpochDay;
+    private final double strike;
+    private final boolean call;
+    private final double quantity;
+
+    public OptionHolding(long userId, String stockTicker, int expiryEpochDay, double strike, boolean call,
+                         double quantity) {
+        this.userId = userId;
+        this.stockTicker = stockTicker;
+        this.expiryEpochDay = expiryEpochDay;
+        this.strike = strike;
+        this.call = call;
+        this.quantity = quantity;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public String getStockTicker() {
+        return stockTicker;
+    }
+
+    public int getExpiryEpochDay() {
+        return expiryEpochDay;
+    }
+
+    public double getStrike() {
+        return strike;
+    }
+
+    public boolean isCall() {
+        return call;
+    }
+
+    // Contracts; negative when short
+    public double getQuantity() {
+        return quantity;
+    }
+}
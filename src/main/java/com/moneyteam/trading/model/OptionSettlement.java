@@ -0,0 +1,68 @@
+package com.moneyteam.trading.model;
+
+import com.moneyteam.trading.model.enums.OptionStatus;
+
+/**
+ * Expiry outcome of one user's expiring contracts, one entry per options row: its new status and
+ * settlement price, and the shares it delivers with their strike notional (shares x strike). Shares
+ * are signed, positive when the user receives them, and 0 for a contract that expired. Deliveries
+ * are netted per underlying when the batch is written, over the rows that were still OPEN.
+ */
+public final class OptionSettlement {
+    private final long userId;
+    private final long[] optionIds;
+    private final OptionStatus[] statuses;
+    private final double[] settlementPrices;
+    private final String[] tickers;
+    private final double[] shares;
+    private final double[] notionals;
+
+    public OptionSettlement(long userId, long[] optionIds, OptionStatus[] statuses, double[] settlementPrices,
+                            String[] tickers, double[] shares, double[] notionals) {
+        int n = optionIds.length;
+        if (statuses.length != n || settlementPrices.length != n || tickers.length != n || shares.length != n
+                || notionals.length != n) {
+            throw new IllegalArgumentException("Settlement columns must line up");
+        }
+        this.userId = userId;
+        this.optionIds = optionIds;
+        this.statuses = statuses;
+        this.settlementPrices = settlementPrices;
+        this.tickers = tickers;
+        this.shares = shares;
+        this.notionals = notionals;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public long[] getOptionIds() {
+        return optionIds;
+    }
+
+    public OptionStatus[] getStatuses() {
+        return statuses;
+    }
+
+    public double[] getSettlementPrices() {
+        return settlementPrices;
+    }
+
+    // Underlying of each contract
+    public String[] getTickers() {
+        return tickers;
+    }
+
+    public double[] getShares() {
+        return shares;
+    }
+
+    public double[] getNotionals() {
+        return notionals;
+    }
+
+    public int contracts() {
+        return optionIds.length;
+    }
+}
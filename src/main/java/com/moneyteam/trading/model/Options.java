@@ -1,10 +1,12 @@
 package com.moneyteam.trading.model;
 
+import com.moneyteam.trading.model.enums.OptionStatus;
 import com.moneyteam.user.model.User;
 import com.moneyteam.marketdata.model.Stock;
 
 import javax.persistence.*;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "options")
@@ -29,6 +31,20 @@ public class Options {
     @Column(name = "user_id")
     private Long userRefId;
 
+    // Contracts held; negative when short
+    @Column(name = "quantity")
+    private Double quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private OptionStatus status = OptionStatus.OPEN;
+
+    @Column(name = "settlement_price")
+    private BigDecimal settlementPrice;
+
+    @Column(name = "settled_at")
+    private LocalDateTime settledAt;
+
     // ✅ relationship (read-only).
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", insertable = false, updatable = false)
@@ -38,5 +54,84 @@ public class Options {
     @JoinColumn(name = "stock_ticker", referencedColumnName = "stockTicker", insertable = false, updatable = false)
     private Stock stock;
 
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getStockTicker() {
+        return stockTicker;
+    }
+
+    public void setStockTicker(String stockTicker) {
+        this.stockTicker = stockTicker;
+    }
+
+    public OptionType getOptionType() {
+        return optionType;
+    }
+
+    public void setOptionType(OptionType optionType) {
+        this.optionType = optionType;
+    }
+
+    public BigDecimal getStrikePrice() {
+        return strikePrice;
+    }
+
+    public void setStrikePrice(BigDecimal strikePrice) {
+        this.strikePrice = strikePrice;
+    }
+
+    // ISO yyyy-MM-dd
+    public String getExpiration() {
+        return expiration;
+    }
+
+    public void setExpiration(String expiration) {
+        this.expiration = expiration;
+    }
+
+    public Long getUserRefId() {
+        return userRefId;
+    }
+
+    public void setUserRefId(Long userRefId) {
+        this.userRefId = userRefId;
+    }
+
+    public Double getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Double quantity) {
+        this.quantity = quantity;
+    }
+
+    public OptionStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OptionStatus status) {
+        this.status = status;
+    }
+
+    public BigDecimal getSettlementPrice() {
+        return settlementPrice;
+    }
+
+    public void setSettlementPrice(BigDecimal settlementPrice) {
+        this.settlementPrice = settlementPrice;
+    }
+
+    public LocalDateTime getSettledAt() {
+        return settledAt;
+    }
 
+    public void setSettledAt(LocalDateTime settledAt) {
+        this.settledAt = settledAt;
+    }
 }
@@ -0,0 +1,78 @@
+package com.moneyteam.trading.model;
+
+import java.util.List;
+
+/**
+ * Net option Greeks of a book (one user or the firm), summed over every open contract. Delta and
+ * gamma are in shares of underlying (delta x 100 x contracts); vega is dollars per 1.00 change in
+ * vol. Underlyings with no quote yet contribute nothing and are listed as unpriced; those priced
+ * at a fallback vol because they have no surface are listed as estimated. Immutable; each update
+ * produces a new instance.
+ */
+public final class PortfolioGreeks {
+    private final String scope;
+    private final double delta;
+    private final double gamma;
+    private final double vega;
+    private final long asOfMillis;
+    private final List<String> unpricedUnderlyings;
+    private final List<String> estimatedUnderlyings;
+
+    public PortfolioGreeks(String scope, double delta, double gamma, double vega, long asOfMillis) {
+        this(scope, delta, gamma, vega, asOfMillis, List.of(), List.of());
+    }
+
+    public PortfolioGreeks(String scope, double delta, double gamma, double vega, long asOfMillis,
+                           List<String> unpricedUnderlyings, List<String> estimatedUnderlyings) {
+        this.scope = scope;
+        this.delta = delta;
+        this.gamma = gamma;
+        this.vega = vega;
+        this.asOfMillis = asOfMillis;
+        this.unpricedUnderlyings = List.copyOf(unpricedUnderlyings);
+        this.estimatedUnderlyings = List.copyOf(estimatedUnderlyings);
+    }
+
+    public static PortfolioGreeks zero(String scope) {
+        return new PortfolioGreeks(scope, 0, 0, 0, 0);
+    }
+
+    public PortfolioGreeks plus(double deltaChange, double gammaChange, double vegaChange, long asOfMillis) {
+        return new PortfolioGreeks(scope, delta + deltaChange, gamma + gammaChange, vega + vegaChange, asOfMillis,
+                unpricedUnderlyings, estimatedUnderlyings);
+    }
+
+    public PortfolioGreeks withCoverage(List<String> unpriced, List<String> estimated) {
+        return new PortfolioGreeks(scope, delta, gamma, vega, asOfMillis, unpriced, estimated);
+    }
+
+    public String getScope() {
+        return scope;
+    }
+
+    public double getDelta() {
+        return delta;
+    }
+
+    public double getGamma() {
+        return gamma;
+    }
+
+    public double getVega() {
+        return vega;
+    }
+
+    public long getAsOfMillis() {
+        return asOfMillis;
+    }
+
+    // Held underlyings with no quote yet; their contracts are missing from the totals
+    public List<String> getUnpricedUnderlyings() {
+        return unpricedUnderlyings;
+    }
+
+    // Held underlyings with no volatility surface, priced at a realized or default vol
+    public List<String> getEstimatedUnderlyings() {
+        return estimatedUnderlyings;
+    }
+}
@@ -0,0 +1,5 @@
+package com.moneyteam.trading.model.enums;
+
+public enum OptionStatus {
+    OPEN, EXERCISED, ASSIGNED, EXPIRED
+}
@@ -0,0 +1,135 @@
+package com.moneyteam.trading.repository;
+
+import com.moneyteam.trading.model.OptionChainIndex;
+import com.moneyteam.trading.model.OptionHolding;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk read of every distinct option contract on file, from {@code options} and from
+ * {@code option_trade_details} joined to its trade: two streaming selects on one StatelessSession,
+ * no entity mapping. Open holdings are read the same way. {@code options.expiration} is text, so
+ * it is parsed here once per load rather than on every query.
+ */
+@Repository
+public class OptionContractRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(OptionContractRepository.class);
+
+    private static final int FETCH_SIZE = 5000;
+
+    private static final String SELECT_OPTIONS =
+            "SELECT DISTINCT stock_ticker, expiration, strike_price, option_type FROM options "
+                    + "WHERE option_type IN ('CALL', 'PUT') AND expiration IS NOT NULL AND strike_price IS NOT NULL";
+
+    private static final String SELECT_TRADED =
+            "SELECT DISTINCT t.stock_ticker, d.expiration_date, d.strike_price, d.option_type "
+                    + "FROM option_trade_details d JOIN trades t ON t.id = d.trade_id "
+                    + "WHERE d.option_type IN ('CALL', 'PUT') AND d.expiration_date IS NOT NULL "
+                    + "AND d.strike_price IS NOT NULL";
+
+    private static final String SELECT_HOLDINGS =
+            "SELECT user_id, stock_ticker, expiration, strike_price, option_type, quantity FROM options "
+                    + "WHERE status = 'OPEN' AND quantity <> 0 AND option_type IN ('CALL', 'PUT') "
+                    + "AND user_id IS NOT NULL AND expiration IS NOT NULL AND strike_price IS NOT NULL";
+
+    private final SessionFactory sessionFactory;
+
+    public OptionContractRepository(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    public OptionChainIndex loadIndex() {
+        OptionChainIndex.Builder builder = new OptionChainIndex.Builder();
+        int[] unparsed = new int[1];
+        StatelessSession session = sessionFactory.openStatelessSession();
+        try {
+            session.doWork(connection -> {
+                try (PreparedStatement ps = connection.prepareStatement(SELECT_OPTIONS)) {
+                    ps.setFetchSize(FETCH_SIZE);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            int day = parseEpochDay(rs.getString(2));
+                            if (day == Integer.MIN_VALUE) {
+                                unparsed[0]++;
+                                continue;
+                            }
+                            builder.add(rs.getString(1), day, rs.getDouble(3), "CALL".equals(rs.getString(4)));
+                        }
+                    }
+                }
+                try (PreparedStatement ps = connection.prepareStatement(SELECT_TRADED)) {
+                    ps.setFetchSize(FETCH_SIZE);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            Date expiration = rs.getDate(2);
+                            builder.add(rs.getString(1), (int) expiration.toLocalDate().toEpochDay(), rs.getDouble(3),
+                                    "CALL".equals(rs.getString(4)));
+                        }
+                    }
+                }
+            });
+        } finally {
+            session.close();
+        }
+        if (unparsed[0] > 0) {
+            log.warn("Skipped {} options rows with an expiration that is not yyyy-MM-dd", unparsed[0]);
+        }
+        return builder.build(System.currentTimeMillis());
+    }
+
+    // Every OPEN, non-zero options position
+    public List<OptionHolding> loadOpenHoldings() {
+        List<OptionHolding> holdings = new ArrayList<>();
+        int[] unparsed = new int[1];
+        StatelessSession session = sessionFactory.openStatelessSession();
+        try {
+            session.doWork(connection -> {
+                try (PreparedStatement ps = connection.prepareStatement(SELECT_HOLDINGS)) {
+                    ps.setFetchSize(FETCH_SIZE);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            int day = parseEpochDay(rs.getString(3));
+                            if (day == Integer.MIN_VALUE) {
+                                unparsed[0]++;
+                                continue;
+                            }
+                            holdings.add(new OptionHolding(rs.getLong(1), rs.getString(2), day, rs.getDouble(4),
+                                    "CALL".equals(rs.getString(5)), rs.getDouble(6)));
+                        }
+                    }
+                }
+            });
+        } finally {
+            session.close();
+        }
+        if (unparsed[0] > 0) {
+            log.warn("Skipped {} open options positions with an expiration that is not yyyy-MM-dd", unparsed[0]);
+        }
+        return holdings;
+    }
+
+    // yyyy-MM-dd, optionally followed by a time; Integer.MIN_VALUE if unparseable
+    static int parseEpochDay(String expiration) {
+        if (expiration == null || expiration.length() < 10) {
+            return Integer.MIN_VALUE;
+        }
+        try {
+            return (int) LocalDate.parse(expiration.substring(0, 10)).toEpochDay();
+        } catch (DateTimeParseException e) {
+            return Integer.MIN_VALUE;
+        }
+    }
+}
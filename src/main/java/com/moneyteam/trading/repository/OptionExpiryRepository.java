@@ -0,0 +1,338 @@
+package com.moneyteam.trading.repository;
+
+import com.moneyteam.common.util.MultiRowInsert;
+import com.moneyteam.marketdata.model.enums.BarInterval;
+import com.moneyteam.trading.model.ExpiringOption;
+import com.moneyteam.trading.model.OptionSettlement;
+import com.moneyteam.trading.model.enums.OptionStatus;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Set-based reads and writes for the options expiry job.
+ *
+ * Open contracts are found with a range scan on the (expiration, status) index; expiration is ISO
+ * text, so everything due by a date sorts below the next day. Settlement of a batch of users
+ * runs in one transaction. The batch's rows that are still OPEN are locked first (SELECT ... FOR
+ * UPDATE by primary key), so a concurrent run or manual close cannot change them underneath; rows
+ * no longer OPEN are skipped, and share deliveries are netted from the locked rows only. Outcomes
+ * and deliveries are staged into temporary tables with multi-row inserts, then applied with a
+ * handful of join updates and insert-selects: a constant number of statements per batch however
+ * many contracts it holds.
+ */
+@Repository
+public class OptionExpiryRepository {
+
+    static final int ROWS_PER_STATEMENT = 1000;
+
+    private static final String SELECT_OPEN =
+            "SELECT id, user_id, stock_ticker, option_type, strike_price, quantity, expiration FROM options "
+                    + "WHERE expiration < ? AND status = 'OPEN' AND option_type IN ('CALL', 'PUT') "
+                    + "AND user_id IS NOT NULL AND strike_price IS NOT NULL";
+
+    private static final String LOCK_OPEN_PREFIX = "SELECT id FROM options WHERE status = 'OPEN' AND id IN (";
+
+    private static final String SELECT_CLOSES =
+            "SELECT stock_ticker, close_price FROM price_history "
+                    + "WHERE bar_interval = ? AND bar_time >= ? AND bar_time < ?";
+
+    private static final String[] CREATE_STAGES = {
+            "DROP TEMPORARY TABLE IF EXISTS option_expiry_stage",
+            "DROP TEMPORARY TABLE IF EXISTS option_delivery_stage",
+            "CREATE TEMPORARY TABLE option_expiry_stage (id BIGINT PRIMARY KEY, status VARCHAR(16) NOT NULL, "
+                    + "settlement_price DOUBLE) ENGINE=MEMORY",
+            "CREATE TEMPORARY TABLE option_delivery_stage (user_id BIGINT NOT NULL, stock_ticker VARCHAR(32) NOT NULL, "
+                    + "shares DOUBLE NOT NULL, notional DOUBLE NOT NULL, PRIMARY KEY (user_id, stock_ticker)) ENGINE=MEMORY"
+    };
+
+    private static final String[] DROP_STAGES = {
+            "DROP TEMPORARY TABLE IF EXISTS option_expiry_stage",
+            "DROP TEMPORARY TABLE IF EXISTS option_delivery_stage"
+    };
+
+    private static final String UPDATE_OPTIONS =
+            "UPDATE options o JOIN option_expiry_stage s ON o.id = s.id "
+                    + "SET o.status = s.status, o.settlement_price = s.settlement_price, o.settled_at = ? "
+                    + "WHERE o.status = 'OPEN'";
+
+    // Receipts into a flat or long position move the average cost; deliveries out leave it.
+    // Runs before the quantity update, which it reads.
+    private static final String UPDATE_AVERAGE_PRICE =
+            "UPDATE positions p JOIN option_delivery_stage s ON p.user_id = s.user_id AND p.stock_ticker = s.stock_ticker "
+                    + "SET p.average_price = (COALESCE(p.total_quantity, 0) * COALESCE(p.average_price, 0) + s.notional) "
+                    + "/ (COALESCE(p.total_quantity, 0) + s.shares) "
+                    + "WHERE s.shares > 0 AND COALESCE(p.total_quantity, 0) >= 0";
+
+    private static final String UPDATE_QUANTITY =
+            "UPDATE positions p JOIN option_delivery_stage s ON p.user_id = s.user_id AND p.stock_ticker = s.stock_ticker "
+                    + "SET p.total_quantity = COALESCE(p.total_quantity, 0) + s.shares";
+
+    private static final String INSERT_POSITIONS =
+            "INSERT INTO positions (user_id, stock_ticker, total_quantity, average_price) "
+                    + "SELECT s.user_id, s.stock_ticker, s.shares, s.notional / s.shares FROM option_delivery_stage s "
+                    + "WHERE NOT EXISTS (SELECT 1 FROM positions p WHERE p.user_id = s.user_id "
+                    + "AND p.stock_ticker = s.stock_ticker)";
+
+    private static final String INSERT_TRADES =
+            "INSERT INTO trades (user_id, stock_ticker, side, status, quantity, price, execution_date) "
+                    + "SELECT user_id, stock_ticker, IF(shares > 0, 'BUY', 'SELL'), 'EXECUTED', ABS(shares), "
+                    + "notional / shares, ? FROM option_delivery_stage";
+
+    private static final MultiRowInsert<Object[]> STAGE_OUTCOMES = new MultiRowInsert<>(
+            MultiRowInsert.prefix("option_expiry_stage", "id", "status", "settlement_price"), 3, null,
+            ROWS_PER_STATEMENT, OptionExpiryRepository::bindValues);
+
+    private static final MultiRowInsert<Object[]> STAGE_DELIVERIES = new MultiRowInsert<>(
+            MultiRowInsert.prefix("option_delivery_stage", "user_id", "stock_ticker", "shares", "notional"), 4, null,
+            ROWS_PER_STATEMENT, OptionExpiryRepository::bindValues);
+
+    private final SessionFactory sessionFactory;
+
+    public OptionExpiryRepository(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    // Every OPEN call or put expiring on or before the date, including ones an earlier run missed
+    public List<ExpiringOption> findOpenThrough(LocalDate through) {
+        List<ExpiringOption> rows = new ArrayList<>();
+        StatelessSession session = sessionFactory.openStatelessSession();
+        try {
+            session.doWork(connection -> {
+                try (PreparedStatement ps = connection.prepareStatement(SELECT_OPEN)) {
+                    // Rows stored with a time part still sort below the next day
+                    ps.setString(1, through.plusDays(1).toString());
+                    ps.setFetchSize(ROWS_PER_STATEMENT);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            LocalDate expiration = parseExpiration(rs.getString(7));
+                            if (expiration != null) {
+                                rows.add(new ExpiringOption(rs.getLong(1), rs.getLong(2), rs.getString(3),
+                                        "CALL".equals(rs.getString(4)), rs.getDouble(5), rs.getDouble(6),
+                                        expiration));
+                            }
+                        }
+                    }
+                }
+            });
+        } finally {
+            session.close();
+        }
+        return rows;
+    }
+
+    // The date part of an ISO expiration; null for text that is not one
+    static LocalDate parseExpiration(String text) {
+        if (text == null || text.length() < 10) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(text.substring(0, 10));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    // Daily close of every ticker with a bar on that (UTC) date
+    public Map<String, Double> findDailyCloses(LocalDate day) {
+        Map<String, Double> closes = new HashMap<>();
+        long from = day.toEpochDay() * 86_400;
+        StatelessSession session = sessionFactory.openStatelessSession();
+        try {
+            session.doWork(connection -> {
+                try (PreparedStatement ps = connection.prepareStatement(SELECT_CLOSES)) {
+                    ps.setString(1, BarInterval.DAILY.name());
+                    ps.setLong(2, from);
+                    ps.setLong(3, from + 86_400);
+                    ps.setFetchSize(ROWS_PER_STATEMENT);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            double close = rs.getDouble(2);
+                            if (!rs.wasNull() && close > 0) {
+                                closes.put(rs.getString(1), close);
+                            }
+                        }
+                    }
+                }
+            });
+        } finally {
+            session.close();
+        }
+        return closes;
+    }
+
+    /**
+     * Apply one batch of settlements atomically: options statuses, position quantities and average
+     * cost, and one EXECUTED trade per delivery. Every statement gets timeoutSeconds; if one times
+     * out the whole batch rolls back and its contracts stay OPEN. Returns what was actually applied.
+     */
+    public Applied settle(List<OptionSettlement> batch, LocalDateTime settledAt, int timeoutSeconds) {
+        Applied applied = new Applied();
+        MultiRowInsert.inTransaction(sessionFactory, connection -> {
+            Set<Long> open = lockOpen(connection, batch, timeoutSeconds);
+            List<Object[]> outcomes = new ArrayList<>();
+            List<Object[]> deliveries = new ArrayList<>();
+            collect(batch, open, outcomes, deliveries, applied);
+            if (outcomes.isEmpty()) {
+                return;
+            }
+            execute(connection, CREATE_STAGES, timeoutSeconds);
+            try {
+                STAGE_OUTCOMES.execute(connection, outcomes, timeoutSeconds);
+                STAGE_DELIVERIES.execute(connection, deliveries, timeoutSeconds);
+                Timestamp at = Timestamp.valueOf(settledAt);
+                update(connection, UPDATE_OPTIONS, at, timeoutSeconds);
+                update(connection, UPDATE_AVERAGE_PRICE, null, timeoutSeconds);
+                update(connection, UPDATE_QUANTITY, null, timeoutSeconds);
+                update(connection, INSERT_POSITIONS, null, timeoutSeconds);
+                update(connection, INSERT_TRADES, at, timeoutSeconds);
+            } finally {
+                execute(connection, DROP_STAGES, timeoutSeconds);
+            }
+        });
+        return applied;
+    }
+
+    // Locks and returns the ids in the batch that are still OPEN, ROWS_PER_STATEMENT ids per query
+    private static Set<Long> lockOpen(Connection connection, List<OptionSettlement> batch, int timeoutSeconds)
+            throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        for (OptionSettlement settlement : batch) {
+            for (long id : settlement.getOptionIds()) {
+                ids.add(id);
+            }
+        }
+        Set<Long> open = new HashSet<>(ids.size() * 2);
+        for (int from = 0; from < ids.size(); from += ROWS_PER_STATEMENT) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + ROWS_PER_STATEMENT));
+            String sql = LOCK_OPEN_PREFIX + "?, ".repeat(chunk.size() - 1) + "?) FOR UPDATE";
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                ps.setQueryTimeout(timeoutSeconds);
+                for (int i = 0; i < chunk.size(); i++) {
+                    ps.setLong(i + 1, chunk.get(i));
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        open.add(rs.getLong(1));
+                    }
+                }
+            }
+        }
+        return open;
+    }
+
+    /**
+     * Outcome rows for the locked ids, and deliveries netted per (user, underlying) over those rows
+     * only. A delivery netting to zero shares is dropped: there is no cash ledger to book the strike
+     * difference against.
+     */
+    static void collect(List<OptionSettlement> batch, Set<Long> open, List<Object[]> outcomes,
+                        List<Object[]> deliveries, Applied applied) {
+        for (OptionSettlement settlement : batch) {
+            Map<String, double[]> net = new LinkedHashMap<>();
+            long[] ids = settlement.getOptionIds();
+            for (int i = 0; i < ids.length; i++) {
+                if (!open.contains(ids[i])) {
+                    applied.skipped++;
+                    continue;
+                }
+                OptionStatus status = settlement.getStatuses()[i];
+                outcomes.add(new Object[]{ids[i], status.name(), settlement.getSettlementPrices()[i]});
+                applied.count(status);
+                double shares = settlement.getShares()[i];
+                if (shares != 0) {
+                    double[] totals = net.computeIfAbsent(settlement.getTickers()[i], k -> new double[2]);
+                    totals[0] += shares;
+                    totals[1] += settlement.getNotionals()[i];
+                }
+            }
+            for (Map.Entry<String, double[]> entry : net.entrySet()) {
+                double[] totals = entry.getValue();
+                if (totals[0] != 0) {
+                    deliveries.add(new Object[]{settlement.getUserId(), entry.getKey(), totals[0], totals[1]});
+                    applied.deliveries++;
+                }
+            }
+        }
+    }
+
+    private static void bindValues(PreparedStatement ps, int first, Object[] values) throws SQLException {
+        for (int c = 0; c < values.length; c++) {
+            ps.setObject(first + c, values[c]);
+        }
+    }
+
+    private static void update(Connection connection, String sql, Timestamp at, int timeoutSeconds)
+            throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setQueryTimeout(timeoutSeconds);
+            if (at != null) {
+                ps.setTimestamp(1, at);
+            }
+            ps.executeUpdate();
+        }
+    }
+
+    // Contracts and deliveries one settle call actually wrote
+    public static final class Applied {
+        int exercised;
+        int assigned;
+        int expired;
+        int deliveries;
+        int skipped;
+
+        void count(OptionStatus status) {
+            exercised += status == OptionStatus.EXERCISED ? 1 : 0;
+            assigned += status == OptionStatus.ASSIGNED ? 1 : 0;
+            expired += status == OptionStatus.EXPIRED ? 1 : 0;
+        }
+
+        public int getExercised() {
+            return exercised;
+        }
+
+        public int getAssigned() {
+            return assigned;
+        }
+
+        public int getExpired() {
+            return expired;
+        }
+
+        public int getDeliveries() {
+            return deliveries;
+        }
+
+        // Already settled (no longer OPEN) when the batch locked its rows
+        public int getSkipped() {
+            return skipped;
+        }
+    }
+
+    private static void execute(Connection connection, String[] statements, int timeoutSeconds) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(timeoutSeconds);
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+        }
+    }
+}
@@ -1,8 +1,6 @@
 package com.moneyteam.trading.repository;
 
 import com.moneyteam.trading.model.OptionTradeDetails;
-import com.moneyteam.trading.model.Options;
-import com.moneyteam.trading.model.Trade;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -12,5 +10,5 @@ import java.util.List;
 public interface OptionsTradeRepository extends JpaRepository <OptionTradeDetails, Long> {
 
     //List<OptionTradeDetails> findByStockTicker(String stockTicker);
-    List<Options> findByOptionType(String optionType);
+    List<OptionTradeDetails> findByOptionType(String optionType);
 }
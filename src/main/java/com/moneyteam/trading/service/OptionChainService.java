@@ -0,0 +1,97 @@
+package com.moneyteam.trading.service;
+
+import com.moneyteam.analysis.model.OptionChain;
+import com.moneyteam.analysis.model.RiskManagement;
+import com.moneyteam.analysis.service.AnalysisSnapshotRegistry;
+import com.moneyteam.trading.model.OptionChainIndex;
+import com.moneyteam.trading.repository.OptionContractRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves option chain queries from an {@link OptionChainIndex} held in memory.
+ *
+ * The index is bulk-loaded at startup and reloaded on a fixed schedule, or on demand after new
+ * listings; each reload builds a new index and swaps it in with one volatile write, so queries
+ * never touch the database or wait on a reload.
+ */
+@Service
+public class OptionChainService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(OptionChainService.class);
+
+    static final long REFRESH_MINUTES = 15;
+    private static final ZoneId EXCHANGE_ZONE = ZoneId.of("America/New_York");
+
+    private final OptionContractRepository repository;
+    private final AnalysisSnapshotRegistry snapshots;
+    private final ScheduledExecutorService refresher;
+    private volatile OptionChainIndex index = OptionChainIndex.empty();
+
+    public OptionChainService(OptionContractRepository repository, AnalysisSnapshotRegistry snapshots) {
+        this.repository = repository;
+        this.snapshots = snapshots;
+        this.refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "option-chain-refresh");
+            t.setDaemon(true);
+            return t;
+        });
+        refresher.scheduleWithFixedDelay(this::refreshQuietly, 0, REFRESH_MINUTES, TimeUnit.MINUTES);
+    }
+
+    // Reload now; the previous index keeps serving until the new one is built
+    public OptionChainIndex refresh() {
+        long started = System.nanoTime();
+        OptionChainIndex loaded = repository.loadIndex();
+        index = loaded;
+        log.info("Loaded {} option contracts on {} underlyings in {} ms", loaded.size(), loaded.underlyings().size(),
+                (System.nanoTime() - started) / 1_000_000);
+        return loaded;
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.error("Option chain refresh failed, keeping index from {}: {}", index.getLoadedAtMillis(),
+                    e.getMessage());
+        }
+    }
+
+    public OptionChainIndex index() {
+        return index;
+    }
+
+    public OptionChain chain(String underlying) {
+        return index.chain(underlying, 0);
+    }
+
+    /**
+     * Contract ids with strikes within band of the live spot (0.10 = 10%) over the next expiries
+     * expirations, today's included; empty if there is no quote for the underlying.
+     */
+    public int[] nearSpot(String underlying, double band, int expiries) {
+        RiskManagement quote = snapshots.risk(underlying);
+        if (quote == null || !(quote.getLast() > 0)) {
+            return new int[0];
+        }
+        return index.nearSpot(underlying, quote.getLast(), band, today(), expiries);
+    }
+
+    static int today() {
+        return (int) LocalDate.now(EXCHANGE_ZONE).toEpochDay();
+    }
+
+    @Override
+    public void destroy() {
+        refresher.shutdownNow();
+    }
+}
@@ -0,0 +1,341 @@
+package com.moneyteam.trading.service;
+
+import com.moneyteam.analysis.model.RiskManagement;
+import com.moneyteam.analysis.service.AnalysisSnapshotRegistry;
+import com.moneyteam.common.exception.OperationInProgressException;
+import com.moneyteam.trading.model.ExpiringOption;
+import com.moneyteam.trading.model.OptionExpiryReport;
+import com.moneyteam.trading.model.OptionSettlement;
+import com.moneyteam.trading.model.enums.OptionStatus;
+import com.moneyteam.trading.repository.OptionExpiryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Expires, exercises and assigns every OPEN options row once its expiration date has come.
+ *
+ * Affected rows - everything expiring on or before the run's date, so a missed day is caught up -
+ * come from one range read on the (expiration, status) index and are grouped by user. Each user's
+ * outcome is computed in parallel on a fork-join pool against the underlying's daily close on the
+ * contract's own expiration date: contracts at least {@link #EXERCISE_THRESHOLD} in the money are
+ * exercised when long and assigned when short; the rest expire. Share deliveries are netted per (user, underlying).
+ * Results are written in batches of {@link #USERS_PER_BATCH} users, one transaction per batch.
+ * A batch that fails is split in half and retried until the failing users are isolated; they are
+ * reported and the run carries on with the rest. No batch starts after the {@link #WINDOW_MINUTES}
+ * window closes, and each statement's timeout is the time left in it. Anything not written stays
+ * OPEN, so a re-run only picks up what is left.
+ * Runs by itself after the close on weekdays, or on demand on the same job thread ({@link #submit}).
+ */
+@Service
+public class OptionExpiryProcessor implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(OptionExpiryProcessor.class);
+
+    static final double CONTRACT_MULTIPLIER = 100;
+    // OCC exercise-by-exception: a cent in the money is exercised unless instructed otherwise
+    static final double EXERCISE_THRESHOLD = 0.01;
+    static final long WINDOW_MINUTES = 30;
+    static final int USERS_PER_BATCH = 500;
+    // Users per fork-join leaf
+    private static final int USERS_PER_TASK = 256;
+    private static final ZoneId EXCHANGE_ZONE = ZoneId.of("America/New_York");
+    private static final LocalTime RUN_AFTER = LocalTime.of(17, 30);
+    private static final long CHECK_MINUTES = 10;
+
+    private final OptionExpiryRepository repository;
+    private final AnalysisSnapshotRegistry snapshots;
+    private final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    private final ScheduledExecutorService scheduler;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile LocalDate lastSettledDay;
+    private volatile OptionExpiryReport lastReport;
+
+    public OptionExpiryProcessor(OptionExpiryRepository repository, AnalysisSnapshotRegistry snapshots) {
+        this.repository = repository;
+        this.snapshots = snapshots;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "option-expiry");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::runIfDue, CHECK_MINUTES, CHECK_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Settle every OPEN contract expiring on or before the date. Only one run at a time; a second
+     * caller gets OperationInProgressException.
+     */
+    public OptionExpiryReport process(LocalDate through) {
+        if (!running.compareAndSet(false, true)) {
+            throw new OperationInProgressException("An options expiry run is already in progress");
+        }
+        try {
+            OptionExpiryReport report = run(through);
+            lastReport = report;
+            return report;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Queue a run on the expiry job's own thread and return at once; the outcome is published as
+     * {@link #lastReport()}. Rejected with OperationInProgressException while another run is going.
+     */
+    public void submit(LocalDate through) {
+        if (!running.compareAndSet(false, true)) {
+            throw new OperationInProgressException("An options expiry run is already in progress");
+        }
+        try {
+            scheduler.execute(() -> {
+                try {
+                    lastReport = run(through);
+                } catch (RuntimeException e) {
+                    log.error("Options expiry through {} failed: {}", through, e.getMessage());
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+            throw e;
+        }
+    }
+
+    // Most recent finished run, scheduled or on demand; null before the first
+    public OptionExpiryReport lastReport() {
+        return lastReport;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    private OptionExpiryReport run(LocalDate through) {
+        long started = System.nanoTime();
+        long deadline = started + TimeUnit.MINUTES.toNanos(WINDOW_MINUTES);
+        List<ExpiringOption> open = repository.findOpenThrough(through);
+        Map<LocalDate, Map<String, Double>> closes = closes(open);
+
+        // Group by user; contracts without an underlying close are left for a later run
+        TreeMap<Long, List<ExpiringOption>> byUser = new TreeMap<>();
+        TreeSet<String> missing = new TreeSet<>();
+        int contracts = 0;
+        for (ExpiringOption option : open) {
+            if (!closes.get(option.getExpiration()).containsKey(option.getStockTicker())) {
+                missing.add(option.getStockTicker() + " " + option.getExpiration());
+                continue;
+            }
+            byUser.computeIfAbsent(option.getUserId(), k -> new ArrayList<>()).add(option);
+            contracts++;
+        }
+        long[] users = new long[byUser.size()];
+        List<List<ExpiringOption>> groups = new ArrayList<>(byUser.size());
+        int u = 0;
+        for (Map.Entry<Long, List<ExpiringOption>> entry : byUser.entrySet()) {
+            users[u++] = entry.getKey();
+            groups.add(entry.getValue());
+        }
+        OptionSettlement[] settlements = new OptionSettlement[users.length];
+        if (users.length > 0) {
+            pool.invoke(new SettleTask(users, groups, closes, settlements, 0, users.length));
+        }
+
+        Progress progress = new Progress(LocalDateTime.now(EXCHANGE_ZONE), deadline);
+        for (int from = 0; from < settlements.length; from += USERS_PER_BATCH) {
+            if (deadline - System.nanoTime() <= 0) {
+                log.warn("Options expiry window closed with {} of {} users settled", progress.users, users.length);
+                break;
+            }
+            write(Arrays.asList(settlements).subList(from, Math.min(settlements.length, from + USERS_PER_BATCH)),
+                    progress);
+        }
+
+        boolean complete = progress.users == users.length && missing.isEmpty();
+        OptionExpiryReport report = new OptionExpiryReport(through, contracts, users.length, progress.users,
+                progress.exercised, progress.assigned, progress.expired, progress.deliveries, progress.skipped,
+                new ArrayList<>(missing), progress.failedUsers, complete,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        log.info("Options expiry {}", report);
+        return report;
+    }
+
+    // Write one batch; on failure bisect it so one bad user does not hold back the others
+    private void write(List<OptionSettlement> batch, Progress progress) {
+        long remaining = progress.deadline - System.nanoTime();
+        if (remaining <= 0) {
+            return;
+        }
+        try {
+            OptionExpiryRepository.Applied applied = repository.settle(batch, progress.settledAt,
+                    (int) Math.max(1, TimeUnit.NANOSECONDS.toSeconds(remaining)));
+            progress.add(batch.size(), applied);
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                log.error("Options expiry for user {} failed, leaving it OPEN: {}", batch.get(0).getUserId(),
+                        e.getMessage());
+                progress.failedUsers.add(batch.get(0).getUserId());
+                return;
+            }
+            log.warn("Options expiry batch of {} users at user {} failed, splitting: {}", batch.size(),
+                    batch.get(0).getUserId(), e.getMessage());
+            int mid = batch.size() / 2;
+            write(batch.subList(0, mid), progress);
+            write(batch.subList(mid, batch.size()), progress);
+        }
+    }
+
+    // Daily closes from price_history for each expiration date in the run; for today, fall back to the
+    // live last price
+    private Map<LocalDate, Map<String, Double>> closes(List<ExpiringOption> open) {
+        Map<LocalDate, Map<String, Double>> closes = new HashMap<>();
+        LocalDate today = LocalDate.now(EXCHANGE_ZONE);
+        for (ExpiringOption option : open) {
+            Map<String, Double> day = closes.computeIfAbsent(option.getExpiration(), repository::findDailyCloses);
+            String ticker = option.getStockTicker();
+            if (option.getExpiration().equals(today) && !day.containsKey(ticker)) {
+                RiskManagement quote = snapshots.risk(ticker);
+                if (quote != null && quote.getLast() > 0) {
+                    day.put(ticker, quote.getLast());
+                }
+            }
+        }
+        return closes;
+    }
+
+    // One user's outcome against the closes, per contract; the repository nets deliveries per underlying
+    static OptionSettlement settle(long userId, List<ExpiringOption> options,
+                                   Map<LocalDate, Map<String, Double>> closes) {
+        int n = options.size();
+        long[] ids = new long[n];
+        OptionStatus[] statuses = new OptionStatus[n];
+        double[] prices = new double[n];
+        String[] tickers = new String[n];
+        double[] shares = new double[n];
+        double[] notionals = new double[n];
+        for (int i = 0; i < n; i++) {
+            ExpiringOption option = options.get(i);
+            double close = closes.get(option.getExpiration()).get(option.getStockTicker());
+            double moneyness = option.isCall() ? close - option.getStrike() : option.getStrike() - close;
+            ids[i] = option.getId();
+            prices[i] = close;
+            tickers[i] = option.getStockTicker();
+            if (moneyness < EXERCISE_THRESHOLD || option.getQuantity() == 0) {
+                statuses[i] = OptionStatus.EXPIRED;
+                continue;
+            }
+            statuses[i] = option.getQuantity() > 0 ? OptionStatus.EXERCISED : OptionStatus.ASSIGNED;
+            // Long call or short put receives shares; long put or short call delivers them
+            shares[i] = option.getQuantity() * CONTRACT_MULTIPLIER * (option.isCall() ? 1 : -1);
+            notionals[i] = shares[i] * option.getStrike();
+        }
+        return new OptionSettlement(userId, ids, statuses, prices, tickers, shares, notionals);
+    }
+
+    // After the close on weekdays, until a run settles every user; each run also catches up earlier days
+    private void runIfDue() {
+        try {
+            ZonedDateTime now = ZonedDateTime.now(EXCHANGE_ZONE);
+            LocalDate today = now.toLocalDate();
+            if (today.equals(lastSettledDay) || now.toLocalTime().isBefore(RUN_AFTER)
+                    || today.getDayOfWeek() == DayOfWeek.SATURDAY || today.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                return;
+            }
+            OptionExpiryReport report = process(today);
+            if (report.getUsersSettled() == report.getUsers()) {
+                lastSettledDay = today;
+            }
+        } catch (RuntimeException e) {
+            log.error("Scheduled options expiry failed: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    private static final class Progress {
+        final LocalDateTime settledAt;
+        final long deadline;
+        final List<Long> failedUsers = new ArrayList<>();
+        int users;
+        int exercised;
+        int assigned;
+        int expired;
+        int deliveries;
+        int skipped;
+
+        Progress(LocalDateTime settledAt, long deadline) {
+            this.settledAt = settledAt;
+            this.deadline = deadline;
+        }
+
+        void add(int batchUsers, OptionExpiryRepository.Applied applied) {
+            users += batchUsers;
+            exercised += applied.getExercised();
+            assigned += applied.getAssigned();
+            expired += applied.getExpired();
+            deliveries += applied.getDeliveries();
+            skipped += applied.getSkipped();
+        }
+    }
+
+    private static final class SettleTask extends RecursiveAction {
+        private final long[] users;
+        private final List<List<ExpiringOption>> groups;
+        private final Map<LocalDate, Map<String, Double>> closes;
+        private final OptionSettlement[] out;
+        private final int from;
+        private final int to;
+
+        SettleTask(long[] users, List<List<ExpiringOption>> groups, Map<LocalDate, Map<String, Double>> closes,
+                   OptionSettlement[] out, int from, int to) {
+            this.users = users;
+            this.groups = groups;
+            this.closes = closes;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= USERS_PER_TASK) {
+                for (int i = from; i < to; i++) {
+                    out[i] = settle(users[i], groups.get(i), closes);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            SettleTask left = new SettleTask(users, groups, closes, out, from, mid);
+            left.fork();
+            new SettleTask(users, groups, closes, out, mid, to).compute();
+            left.join();
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package com.moneyteam.trading.service;
+
+import com.moneyteam.analysis.model.CorrelationMatrix;
+import com.moneyteam.analysis.model.OptionChain;
+import com.moneyteam.analysis.model.OptionGreeks;
+import com.moneyteam.analysis.model.RiskManagement;
+import com.moneyteam.analysis.model.VolatilitySurface;
+import com.moneyteam.analysis.service.AnalysisSnapshotRegistry;
+import com.moneyteam.analysis.service.BlackScholes;
+import com.moneyteam.analysis.service.CorrelationService;
+import com.moneyteam.analysis.service.OptionPricingEngine;
+import com.moneyteam.analysis.service.VolatilitySurfaceService;
+import com.moneyteam.marketdata.model.Stock;
+import com.moneyteam.marketdata.model.enums.DeliveryMode;
+import com.moneyteam.marketdata.service.QuoteBus;
+import com.moneyteam.trading.model.OptionHolding;
+import com.moneyteam.trading.model.PortfolioGreeks;
+import com.moneyteam.trading.repository.OptionContractRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Live net delta, gamma and vega of every user's options book and of the firm.
+ *
+ * Open holdings are grouped into one book per underlying, holding only the contracts someone
+ * holds. A quote on an underlying reprices that book alone with {@link BlackScholes} at surface
+ * vols from {@link VolatilitySurfaceService}. An underlying without a surface is priced at one flat
+ * vol instead: its realized vol from {@link CorrelationService} minute bars when it is tracked there,
+ * else the configured default. Responses list those underlyings as estimated, and underlyings with
+ * no quote yet as unpriced, rather than silently counting them as zero. Each user's new contribution from that underlying is
+ * compared with the one already in the totals, and only the difference is added to the user's
+ * total and the firm's. Totals are immutable {@link PortfolioGreeks} in a ConcurrentHashMap and a
+ * volatile field, so reads never lock. Holdings reload on a schedule; each reload reprices every
+ * book from scratch into fresh totals and swaps them in, which also clears accumulated rounding.
+ */
+@Service
+public class PortfolioGreeksService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(PortfolioGreeksService.class);
+
+    static final double CONTRACT_MULTIPLIER = 100;
+    static final long RELOAD_MINUTES = 5;
+    // Minute bars needed before realized vol stands in for a missing surface
+    static final int MIN_REALIZED_BARS = 60;
+    private static final double MINUTE_BARS_PER_YEAR = 390.0 * 252;
+
+    private final OptionContractRepository repository;
+    private final VolatilitySurfaceService surfaces;
+    private final AnalysisSnapshotRegistry snapshots;
+    private final CorrelationService correlationService;
+    private final double defaultVol;
+    private final ScheduledExecutorService reloader;
+    private final QuoteBus.Subscription subscription;
+    // Quote handling and reloads write under this; readers never take it
+    private final Object writeLock = new Object();
+    private volatile Map<String, Book> books = Collections.emptyMap();
+    private volatile Totals totals = new Totals();
+
+    public PortfolioGreeksService(OptionContractRepository repository, VolatilitySurfaceService surfaces,
+                                  AnalysisSnapshotRegistry snapshots, CorrelationService correlationService,
+                                  QuoteBus quoteBus, @Value("${options.greeks.default-vol:0.30}") double defaultVol) {
+        if (!(defaultVol > 0)) {
+            throw new IllegalArgumentException("Default vol must be positive");
+        }
+        this.repository = repository;
+        this.surfaces = surfaces;
+        this.snapshots = snapshots;
+        this.correlationService = correlationService;
+        this.defaultVol = defaultVol;
+        this.reloader = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "portfolio-greeks-reload");
+            t.setDaemon(true);
+            return t;
+        });
+        reloader.scheduleWithFixedDelay(this::reloadQuietly, 0, RELOAD_MINUTES, TimeUnit.MINUTES);
+        this.subscription = quoteBus.subscribe("portfolio-greeks", this::onQuote, DeliveryMode.CONFLATED);
+    }
+
+    public PortfolioGreeks firm() {
+        return withCoverage(totals.firm, null);
+    }
+
+    public PortfolioGreeks user(long userId) {
+        PortfolioGreeks greeks = totals.users.get(userId);
+        return withCoverage(greeks == null ? PortfolioGreeks.zero("user:" + userId) : greeks, userId);
+    }
+
+    // Point-in-time copy of every user's totals
+    public List<PortfolioGreeks> users() {
+        return new ArrayList<>(totals.users.values());
+    }
+
+    // Unpriced and estimated underlyings among the books the user holds (every book when userId is null)
+    private PortfolioGreeks withCoverage(PortfolioGreeks greeks, Long userId) {
+        TreeSet<String> unpriced = new TreeSet<>();
+        TreeSet<String> estimated = new TreeSet<>();
+        for (Book book : books.values()) {
+            if (userId != null && !book.holds(userId)) {
+                continue;
+            }
+            Pricing pricing = book.pricing;
+            if (pricing == Pricing.UNPRICED) {
+                unpriced.add(book.chain.getStockTicker());
+            } else if (pricing == Pricing.ESTIMATED) {
+                estimated.add(book.chain.getStockTicker());
+            }
+        }
+        return unpriced.isEmpty() && estimated.isEmpty() ? greeks
+                : greeks.withCoverage(new ArrayList<>(unpriced), new ArrayList<>(estimated));
+    }
+
+    /**
+     * Reload holdings and reprice every book at the latest quotes. Returns the number of holdings;
+     * the previous totals keep serving until the new ones are complete.
+     */
+    public int reload() {
+        long started = System.nanoTime();
+        List<OptionHolding> holdings = repository.loadOpenHoldings();
+        Map<String, Book> loaded = buildBooks(holdings);
+        int priced = 0;
+        int estimated = 0;
+        synchronized (writeLock) {
+            Totals fresh = new Totals();
+            long now = System.currentTimeMillis();
+            for (Book book : loaded.values()) {
+                RiskManagement quote = snapshots.risk(book.chain.getStockTicker());
+                if (quote != null && quote.getLast() > 0) {
+                    reprice(book, quote.getLast(), now, fresh);
+                    priced++;
+                    estimated += book.pricing == Pricing.ESTIMATED ? 1 : 0;
+                }
+            }
+            books = loaded;
+            totals = fresh;
+        }
+        log.info("Loaded {} option holdings on {} underlyings ({} priced, {} at a fallback vol) in {} ms",
+                holdings.size(), loaded.size(), priced, estimated, (System.nanoTime() - started) / 1_000_000);
+        return holdings.size();
+    }
+
+    private void reloadQuietly() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.error("Portfolio Greeks reload failed, keeping previous holdings: {}", e.getMessage());
+        }
+    }
+
+    void onQuote(Stock quote) {
+        String ticker = quote.getStockTicker();
+        Double last = quote.getLast();
+        if (ticker == null || last == null || !(last > 0) || !books.containsKey(ticker)) {
+            return;
+        }
+        synchronized (writeLock) {
+            Book book = books.get(ticker);
+            if (book != null) {
+                reprice(book, last, System.currentTimeMillis(), totals);
+            }
+        }
+    }
+
+    /**
+     * Reprice one underlying's book and apply the change in each holder's contribution to the
+     * totals, at surface vols or, without a surface, at {@link #fallbackVol}.
+     */
+    private void reprice(Book book, double spot, long nowMillis, Totals target) {
+        OptionChain chain = book.chain;
+        VolatilitySurface surface = surfaces.surface(chain.getStockTicker());
+        boolean fromSurface = surface != null && !surface.isEmpty();
+        double flat = fromSurface ? Double.NaN : fallbackVol(chain.getStockTicker());
+        int n = chain.size();
+        long nowSecond = Math.floorDiv(nowMillis, 1000L);
+        double logSpot = Math.log(spot);
+        double[] logStrikes = chain.getLogStrikes();
+        long[] expiry = chain.getExpiryEpochSeconds();
+        double[] vols = new double[n];
+        for (int i = 0; i < n; i++) {
+            double vol = expiry[i] <= nowSecond ? Double.NaN
+                    : fromSurface ? surface.vol(logStrikes[i] - logSpot, expiry[i], nowSecond) : flat;
+            // Past expiry there is no vol; zero values the contract at intrinsic
+            vols[i] = Double.isNaN(vol) ? 0 : vol;
+        }
+        book.pricing = fromSurface ? Pricing.SURFACE : Pricing.ESTIMATED;
+        OptionGreeks greeks = new OptionGreeks(chain.getStockTicker(), spot, nowMillis, n);
+        BlackScholes.greeks(chain, spot, OptionPricingEngine.RISK_FREE_RATE, vols, nowSecond, greeks, 0, n);
+
+        int users = book.userIds.length;
+        double[] delta = new double[users];
+        double[] gamma = new double[users];
+        double[] vega = new double[users];
+        for (int h = 0; h < book.holdingContract.length; h++) {
+            int c = book.holdingContract[h];
+            int u = book.holdingUser[h];
+            double shares = book.holdingShares[h];
+            delta[u] += shares * greeks.getDelta()[c];
+            gamma[u] += shares * greeks.getGamma()[c];
+            vega[u] += shares * greeks.getVega()[c];
+        }
+
+        double firmDelta = 0, firmGamma = 0, firmVega = 0;
+        for (int u = 0; u < users; u++) {
+            double dd = delta[u] - book.delta[u];
+            double dg = gamma[u] - book.gamma[u];
+            double dv = vega[u] - book.vega[u];
+            if (dd == 0 && dg == 0 && dv == 0 && target.users.containsKey(book.userIds[u])) {
+                continue;
+            }
+            target.users.compute(book.userIds[u], (id, previous) ->
+                    (previous == null ? PortfolioGreeks.zero("user:" + id) : previous).plus(dd, dg, dv, nowMillis));
+            book.delta[u] = delta[u];
+            book.gamma[u] = gamma[u];
+            book.vega[u] = vega[u];
+            firmDelta += dd;
+            firmGamma += dg;
+            firmVega += dv;
+        }
+        target.firm = target.firm.plus(firmDelta, firmGamma, firmVega, nowMillis);
+    }
+
+    // Annualized realized vol from the live minute bars when the ticker is tracked, else the default
+    double fallbackVol(String stockTicker) {
+        CorrelationMatrix matrix = correlationService.snapshot();
+        if (matrix.getObservations() >= MIN_REALIZED_BARS) {
+            double perBar = matrix.volatility(stockTicker);
+            if (perBar > 0) {
+                return perBar * Math.sqrt(MINUTE_BARS_PER_YEAR);
+            }
+        }
+        return defaultVol;
+    }
+
+    // One book per underlying: the distinct contracts held, ordered by expiry, strike, calls first
+    static Map<String, Book> buildBooks(List<OptionHolding> holdings) {
+        Map<String, List<OptionHolding>> byTicker = new HashMap<>();
+        for (OptionHolding holding : holdings) {
+            if (holding.getStockTicker() != null && holding.getStrike() > 0 && holding.getQuantity() != 0) {
+                byTicker.computeIfAbsent(holding.getStockTicker(), k -> new ArrayList<>()).add(holding);
+            }
+        }
+        Comparator<OptionHolding> contractOrder = Comparator.comparingInt(OptionHolding::getExpiryEpochDay)
+                .thenComparingDouble(OptionHolding::getStrike)
+                .thenComparing(h -> !h.isCall());
+        Map<String, Book> books = new HashMap<>(byTicker.size() * 2);
+        for (Map.Entry<String, List<OptionHolding>> entry : byTicker.entrySet()) {
+            List<OptionHolding> list = entry.getValue();
+            list.sort(contractOrder);
+            int size = list.size();
+            int[] contractExpiries = new int[size];
+            double[] contractStrikes = new double[size];
+            boolean[] contractCalls = new boolean[size];
+            int[] holdingContract = new int[size];
+            int[] holdingUser = new int[size];
+            double[] holdingShares = new double[size];
+            Map<Long, Integer> userSlots = new LinkedHashMap<>();
+            int contracts = 0;
+            OptionHolding previous = null;
+            for (int h = 0; h < size; h++) {
+                OptionHolding holding = list.get(h);
+                if (previous == null || contractOrder.compare(previous, holding) != 0) {
+                    contractExpiries[contracts] = holding.getExpiryEpochDay();
+                    contractStrikes[contracts] = holding.getStrike();
+                    contractCalls[contracts] = holding.isCall();
+                    contracts++;
+                }
+                holdingContract[h] = contracts - 1;
+                holdingUser[h] = userSlots.computeIfAbsent(holding.getUserId(), k -> userSlots.size());
+                holdingShares[h] = holding.getQuantity() * CONTRACT_MULTIPLIER;
+                previous = holding;
+            }
+            long[] userIds = new long[userSlots.size()];
+            for (Map.Entry<Long, Integer> slot : userSlots.entrySet()) {
+                userIds[slot.getValue()] = slot.getKey();
+            }
+            OptionChain chain = new OptionChain(entry.getKey(), Arrays.copyOf(contractExpiries, contracts),
+                    Arrays.copyOf(contractStrikes, contracts), Arrays.copyOf(contractCalls, contracts), 0);
+            books.put(entry.getKey(), new Book(chain, holdingContract, holdingUser, holdingShares, userIds));
+        }
+        return books;
+    }
+
+    @Override
+    public void destroy() {
+        subscription.close();
+        reloader.shutdownNow();
+    }
+
+    private enum Pricing {
+        UNPRICED,   // no quote yet
+        ESTIMATED,  // no surface; priced at a flat fallback vol
+        SURFACE
+    }
+
+    // Per-user totals and the firm total; replaced whole on reload
+    private static final class Totals {
+        final ConcurrentHashMap<Long, PortfolioGreeks> users = new ConcurrentHashMap<>();
+        volatile PortfolioGreeks firm = PortfolioGreeks.zero("firm");
+    }
+
+    /**
+     * Holdings on one underlying against its chain of held contracts, and each holder's
+     * contribution as last added to the totals. The contribution arrays are only touched under
+     * the write lock.
+     */
+    static final class Book {
+        final OptionChain chain;
+        final int[] holdingContract;
+        final int[] holdingUser;
+        final double[] holdingShares;
+        final long[] userIds;
+        final double[] delta;
+        final double[] gamma;
+        final double[] vega;
+        volatile Pricing pricing = Pricing.UNPRICED;
+
+        Book(OptionChain chain, int[] holdingContract, int[] holdingUser, double[] holdingShares, long[] userIds) {
+            this.chain = chain;
+            this.holdingContract = holdingContract;
+            this.holdingUser = holdingUser;
+            this.holdingShares = holdingShares;
+            this.userIds = userIds;
+            this.delta = new double[userIds.length];
+            this.gamma = new double[userIds.length];
+            this.vega = new double[userIds.length];
+        }
+
+        boolean holds(long userId) {
+            for (long id : userIds) {
+                if (id == userId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
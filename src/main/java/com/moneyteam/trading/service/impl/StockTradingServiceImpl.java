@@ -3,7 +3,6 @@ package com.moneyteam.trading.service.impl;
 import com.moneyteam.trading.model.Trade;
 import com.moneyteam.trading.model.StockTradeRequest;
 import com.moneyteam.trading.model.Options;
-import com.moneyteam.marketdata.model.Stock;
 import com.moneyteam.user.model.User;
 
 import com.moneyteam.trading.model.enums.TradeStatus;
@@ -31,7 +30,6 @@ public class StockTradingServiceImpl implements StockTradingService {
     //It might interact with a database or an external API to execute the trade.
     @Autowired
     private StockApiService stockApiService;
-    public Stock stock;
 
     @Override
     public void executeTrade(StockTradeRequest tradeRequest, PurchaseTrade stockPurchaseTrade) {
@@ -13,8 +13,14 @@ import com.moneyteam.user.repository.UserRepository;
 import com.moneyteam.trading.repository.PositionRepository;
 import com.moneyteam.trading.repository.TradeRepository;
 import com.moneyteam.marketdata.repository.StockTradeRepository;
+import com.moneyteam.marketdata.model.Stock;
+import com.moneyteam.marketdata.model.enums.RequestPriority;
+import com.moneyteam.marketdata.service.StockApiService;
+import com.moneyteam.marketdata.service.SymbolMaster;
 import com.moneyteam.trading.repository.OptionsTradeRepository;
 import com.moneyteam.trading.service.TradeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,30 +32,36 @@ import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 
-//private static final Logger log = LoggerFactory.getLogger(TradeServiceImpl.class);
-
 @Service
 @Transactional
 public class TradeServiceImpl implements TradeService {
 
+    private static final Logger log = LoggerFactory.getLogger(TradeServiceImpl.class);
+
     private final UserRepository userRepository;
     private final PositionRepository positionRepository;
     private final TradeRepository tradeRepository;
     private final StockTradeRepository stockTradeRepository;
     private final OptionsTradeRepository optionsTradeRepository;
+    private final SymbolMaster symbolMaster;
+    private final StockApiService stockApiService;
 
     public TradeServiceImpl(
             UserRepository userRepository,
             PositionRepository positionRepository,
             TradeRepository tradeRepository,
             StockTradeRepository stockTradeRepository,
-            OptionsTradeRepository optionsTradeRepository
+            OptionsTradeRepository optionsTradeRepository,
+            SymbolMaster symbolMaster,
+            StockApiService stockApiService
     ) {
         this.userRepository = userRepository;
         this.positionRepository = positionRepository;
         this.tradeRepository = tradeRepository;
         this.stockTradeRepository = stockTradeRepository;
         this.optionsTradeRepository = optionsTradeRepository;
+        this.symbolMaster = symbolMaster;
+        this.stockApiService = stockApiService;
     }
 //    public void executeTrade (Trade trade) {
 //        log.info("Executing trade: ");
@@ -111,6 +123,11 @@ public class TradeServiceImpl implements TradeService {
     @Override
     public TradeResponseDto placeTrade(TradeRequestDto dto) {
 
+    // In-memory symbol check against the stocks listing
+    if (!symbolMaster.isListed(dto.getStockTicker())) {
+        throw new IllegalArgumentException("Unknown stock ticker: " + dto.getStockTicker());
+    }
+
     User user = userRepository.findById(dto.getUserId())
             .orElseThrow(() -> new RuntimeException("User not found"));
     //Fetch or create position
@@ -123,7 +140,7 @@ public class TradeServiceImpl implements TradeService {
         trade.setPosition(position);
         trade.setStockTicker(dto.getStockTicker());
         trade.setQuantity(dto.getQuantity());
-        trade.setPrice(dto.getPrice());
+        trade.setPrice(fillPrice(dto));
         trade.setExecutionDate(LocalDateTime.now());
         trade.setSide(dto.getSide());
         trade.setStatus(TradeStatus.PENDING);
@@ -137,6 +154,28 @@ public class TradeServiceImpl implements TradeService {
 }
 
 
+    // Live quote for the order, fetched ahead of any queued background refreshes; the ask for a buy and
+    // the bid for a sell, else the last trade. Falls back to the client's price when no quote comes back.
+    private BigDecimal fillPrice(TradeRequestDto dto) {
+        Optional<Stock> quote;
+        try {
+            quote = stockApiService.fetchStockDetails(dto.getStockTicker(), RequestPriority.ORDER_PRICING);
+        } catch (RuntimeException e) {
+            log.warn("Order pricing quote for {} failed, using the requested price: {}",
+                    dto.getStockTicker(), e.getMessage());
+            return dto.getPrice();
+        }
+        Double price = quote.map(stock -> {
+            Double side = dto.getSide() == OrderSide.BUY ? stock.getAsk() : stock.getBid();
+            return side != null && side > 0 ? side : stock.getLast();
+        }).orElse(null);
+        if (price == null || !(price > 0)) {
+            log.warn("No live quote for {}, using the requested price", dto.getStockTicker());
+            return dto.getPrice();
+        }
+        return BigDecimal.valueOf(price);
+    }
+
     private Position createNewPosition(User user, String stockTicker) {
     Position position = new Position();
     position.setUsers(user);
@@ -0,0 +1,14 @@
+package com.moneyteam.watchlist.repository;
+
+import com.moneyteam.watchlist.model.Watchlist;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface WatchlistRepository extends JpaRepository<Watchlist, Long> {
+
+    // Union of every user's watchlist, ticker column only
+    @Query("select distinct s.stockTicker from Watchlist w join w.stocks s order by s.stockTicker")
+    List<String> findAllWatchedTickers();
+}
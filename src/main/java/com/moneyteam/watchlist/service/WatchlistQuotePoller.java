@@ -0,0 +1,87 @@
+package com.moneyteam.watchlist.service;
+
+import com.moneyteam.analysis.service.CorrelationService;
+import com.moneyteam.common.util.MarketHours;
+import com.moneyteam.marketdata.model.enums.RequestPriority;
+import com.moneyteam.marketdata.service.StockApiService;
+import com.moneyteam.watchlist.repository.WatchlistRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the watched tickers priced. Once a minute the union of all watchlists is pushed to
+ * {@link CorrelationService#track}, and during the regular session each ticker is fetched at
+ * BACKGROUND priority; the fetch publishes to the QuoteBus, which is where the correlation
+ * service, screener and indicators pick the price up.
+ */
+@Service
+public class WatchlistQuotePoller implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(WatchlistQuotePoller.class);
+
+    static final long POLL_MILLIS = 60_000;
+
+    private final WatchlistRepository watchlistRepository;
+    private final StockApiService stockApiService;
+    private final CorrelationService correlationService;
+    private final ScheduledExecutorService poller;
+
+    public WatchlistQuotePoller(WatchlistRepository watchlistRepository, StockApiService stockApiService,
+                                CorrelationService correlationService) {
+        this.watchlistRepository = watchlistRepository;
+        this.stockApiService = stockApiService;
+        this.correlationService = correlationService;
+        this.poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "watchlist-poller");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        // Fixed delay: a slow round (rate-limited upstream) pushes the next one back instead of piling up
+        poller.scheduleWithFixedDelay(this::pollQuietly, 0, POLL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    // Returns the number of quotes fetched
+    int poll(long nowMillis) {
+        List<String> tickers = watchlistRepository.findAllWatchedTickers();
+        correlationService.track(tickers);
+        if (!MarketHours.isRegularSession(nowMillis)) {
+            return 0;
+        }
+        int fetched = 0;
+        for (String ticker : tickers) {
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
+            if (stockApiService.fetchStockDetails(ticker, RequestPriority.BACKGROUND).isPresent()) {
+                fetched++;
+            }
+        }
+        return fetched;
+    }
+
+    private void pollQuietly() {
+        try {
+            int fetched = poll(System.currentTimeMillis());
+            log.debug("Watchlist poll fetched {} quotes", fetched);
+        } catch (RuntimeException e) {
+            log.error("Watchlist poll failed: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        poller.shutdownNow();
+    }
+}
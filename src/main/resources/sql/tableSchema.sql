@@ -99,6 +99,29 @@ CREATE TABLE IF NOT EXISTS option_trade_details (
         ON DELETE CASCADE ON UPDATE CASCADE
 ) ENGINE=InnoDB;
 
+-- ============================================================
+--  OPTIONS (option contracts held per user)
+-- ============================================================
+CREATE TABLE IF NOT EXISTS options (
+    id               BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id          BIGINT,
+    stock_ticker     VARCHAR(32),
+    option_type      VARCHAR(16),
+    strike_price     DECIMAL(19,4),
+    expiration       VARCHAR(32),
+    quantity         DOUBLE NOT NULL DEFAULT 0,   -- contracts; negative when short
+    status           VARCHAR(16) NOT NULL DEFAULT 'OPEN',
+    settlement_price DECIMAL(19,4),               -- underlying close used at expiry
+    settled_at       DATETIME,
+
+    INDEX idx_options_chain (stock_ticker, expiration),
+    INDEX idx_options_expiry (expiration, status),
+
+    CONSTRAINT fk_options_user
+        FOREIGN KEY (user_id) REFERENCES users(id)
+        ON DELETE CASCADE ON UPDATE CASCADE
+) ENGINE=InnoDB;
+
 -- ============================================================
 --  WATCHLISTS
 -- ============================================================
@@ -135,11 +158,18 @@ CREATE TABLE IF NOT EXISTS watchlist_stocks (
 CREATE TABLE IF NOT EXISTS technical_analysis (
     id             BIGINT AUTO_INCREMENT PRIMARY KEY,
     stock_ticker   VARCHAR(32) NOT NULL,
+    computed_at    TIMESTAMP NULL,
     moving_average DOUBLE,
+    ema            DOUBLE,
     rsi_value      DOUBLE,
     macd           DOUBLE,
+    macd_signal    DOUBLE,
     bollinger_high DOUBLE,
     bollinger_low  DOUBLE,
+    atr            DOUBLE,
+    vwap           DOUBLE,
+
+    INDEX idx_ta_ticker_time (stock_ticker, computed_at),
 
     CONSTRAINT fk_ta_stock
         FOREIGN KEY (stock_ticker) REFERENCES stocks(stock_ticker)
@@ -153,13 +183,46 @@ CREATE TABLE IF NOT EXISTS financial_statements (
     id              BIGINT AUTO_INCREMENT PRIMARY KEY,
     stock_ticker    VARCHAR(32) NOT NULL,
     fiscal_year     INT,
+    fiscal_quarter  TINYINT NOT NULL DEFAULT 0,   -- 1-4, or 0 for the full fiscal year
     revenue         DECIMAL(19,4),
     net_income      DECIMAL(19,4),
     eps             DECIMAL(10,4),
     debt_to_equity  DECIMAL(10,4),
     cash_flow       DECIMAL(19,4),
 
+    UNIQUE KEY uq_fs_period (stock_ticker, fiscal_year, fiscal_quarter),
+
     CONSTRAINT fk_fs_stock
         FOREIGN KEY (stock_ticker) REFERENCES stocks(stock_ticker)
         ON DELETE CASCADE ON UPDATE CASCADE
-) ENGINE=InnoDB;
\ No newline at end of file
+) ENGINE=InnoDB;
+
+-- ============================================================
+--  PRICE HISTORY (bulk loaded by the backfill job)
+-- ============================================================
+-- No FK to stocks: history is often loaded for tickers before they are listed there.
+CREATE TABLE IF NOT EXISTS price_history (
+    stock_ticker  VARCHAR(32) NOT NULL,
+    bar_interval  VARCHAR(8)  NOT NULL,
+    bar_time      BIGINT      NOT NULL,   -- epoch seconds, bar open
+    open_price    DOUBLE,
+    high_price    DOUBLE,
+    low_price     DOUBLE,
+    close_price   DOUBLE,
+    volume        BIGINT,
+    PRIMARY KEY (stock_ticker, bar_interval, bar_time)
+) ENGINE=InnoDB;
+
+-- ============================================================
+--  BACKFILL CHECKPOINTS (one row per finished ticker/date-range chunk)
+-- ============================================================
+CREATE TABLE IF NOT EXISTS backfill_checkpoints (
+    job_id        VARCHAR(64) NOT NULL,
+    stock_ticker  VARCHAR(32) NOT NULL,
+    bar_interval  VARCHAR(8)  NOT NULL,
+    range_start   DATE        NOT NULL,
+    range_end     DATE        NOT NULL,
+    bar_count     INT,
+    completed_at  TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (job_id, stock_ticker, bar_interval, range_start)
+) ENGINE=InnoDB;
@@ -0,0 +1,98 @@
+package com.moneyteam.analysis.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class FundamentalsIndexTest {
+
+    @Test
+    void trailingEpsSumsTheLastFourConsecutiveQuarters() {
+        FundamentalsIndex index = new FundamentalsIndex.Builder()
+                // added out of order; an older quarter and the full year are ignored
+                .addStatement("AAPL", 2024, 2, 0, 0, 1.40, 0, 0)
+                .addStatement("AAPL", 2023, 2, 0, 0, 9.00, 0, 0)
+                .addStatement("AAPL", 2023, 4, 0, 0, 2.10, 0, 0)
+                .addStatement("AAPL", 2024, 1, 0, 0, 1.50, 0, 0)
+                .addStatement("AAPL", 2023, 3, 0, 0, 1.30, 0, 0)
+                .addStatement("AAPL", 2023, 0, 0, 0, 6.00, 0, 0)
+                .build(0);
+
+        assertThat(index.trailingEps("AAPL")).isCloseTo(1.40 + 1.50 + 2.10 + 1.30, within(1e-12));
+    }
+
+    @Test
+    void firstQuarterFollowsTheFourthQuarterOfThePriorYear() {
+        FundamentalsIndex index = new FundamentalsIndex.Builder()
+                .addStatement("MSFT", 2024, 1, 0, 0, 3.0, 0, 0)
+                .addStatement("MSFT", 2023, 4, 0, 0, 2.0, 0, 0)
+                .addStatement("MSFT", 2023, 3, 0, 0, 1.0, 0, 0)
+                .addStatement("MSFT", 2023, 2, 0, 0, 0.5, 0, 0)
+                .build(0);
+
+        assertThat(index.trailingEps("MSFT")).isCloseTo(6.5, within(1e-12));
+    }
+
+    @Test
+    void aGapInTheQuartersFallsBackToTheLatestFullYear() {
+        FundamentalsIndex index = new FundamentalsIndex.Builder()
+                // 2023 Q4 is missing
+                .addStatement("IBM", 2024, 2, 0, 0, 2.0, 0, 0)
+                .addStatement("IBM", 2024, 1, 0, 0, 2.0, 0, 0)
+                .addStatement("IBM", 2023, 3, 0, 0, 2.0, 0, 0)
+                .addStatement("IBM", 2023, 2, 0, 0, 2.0, 0, 0)
+                .addStatement("IBM", 2023, 0, 0, 0, 7.5, 0, 0)
+                .addStatement("IBM", 2022, 0, 0, 0, 6.0, 0, 0)
+                // a quarter without EPS is a gap too
+                .addStatement("ORCL", 2024, 2, 0, 0, 1.0, 0, 0)
+                .addStatement("ORCL", 2024, 1, 0, 0, Double.NaN, 0, 0)
+                .addStatement("ORCL", 2023, 4, 0, 0, 1.0, 0, 0)
+                .addStatement("ORCL", 2023, 3, 0, 0, 1.0, 0, 0)
+                .addStatement("ORCL", 2023, 0, 0, 0, 4.2, 0, 0)
+                .build(0);
+
+        assertThat(index.trailingEps("IBM")).isEqualTo(7.5);
+        assertThat(index.trailingEps("ORCL")).isEqualTo(4.2);
+    }
+
+    @Test
+    void noUsableDataIsNaN() {
+        FundamentalsIndex index = new FundamentalsIndex.Builder()
+                .addCompany("NEW", "Newly Listed", "Tech", 1e9, 10)
+                .addStatement("FEW", 2024, 2, 0, 0, 1.0, 0, 0)
+                .addStatement("FEW", 2024, 1, 0, 0, 1.0, 0, 0)
+                .addStatement("GAP", 2024, 2, 0, 0, 1.0, 0, 0)
+                .addStatement("GAP", 2023, 4, 0, 0, 1.0, 0, 0)
+                .addStatement("GAP", 2023, 3, 0, 0, 1.0, 0, 0)
+                .addStatement("GAP", 2023, 2, 0, 0, 1.0, 0, 0)
+                .build(0);
+
+        assertThat(index.trailingEps("MISSING")).isNaN();
+        assertThat(index.trailingEps("NEW")).isNaN();
+        // fewer than four quarters, or a gap, with no full year on file
+        assertThat(index.trailingEps("FEW")).isNaN();
+        assertThat(index.trailingEps("GAP")).isNaN();
+    }
+
+    @Test
+    void keyMetricsPriceTheTrailingEarnings() {
+        FundamentalsIndex index = new FundamentalsIndex.Builder()
+                .addCompany("AAPL", "Apple", "Technology", 3e12, 180)
+                .addStatement("AAPL", 2024, 1, 0, 0, 1.5, 1.8, 0)
+                .addStatement("AAPL", 2023, 4, 0, 0, 2.1, 1.6, 0)
+                .addStatement("AAPL", 2023, 3, 0, 0, 1.3, 1.5, 0)
+                .addStatement("AAPL", 2023, 2, 0, 0, 1.1, 1.4, 0)
+                .build(0);
+
+        KeyMetrics live = index.keyMetrics("AAPL", 240);
+        assertThat(live.getEarningsPerShare()).isCloseTo(6.0, within(1e-12));
+        assertThat(live.getPriceToEarningsRatio()).isCloseTo(40, within(1e-9));
+        assertThat(live.getDebtToEquityRatio()).isEqualTo(1.8);
+        // NaN price falls back to the stocks table
+        assertThat(index.keyMetrics("AAPL", Double.NaN).getPriceToEarningsRatio()).isCloseTo(30, within(1e-9));
+        assertThat(index.keyMetrics("MISSING", 10)).isNull();
+        assertThat(index.statements("AAPL", FiscalPeriod.of(2023, 4)).getEarningsPerShare()).isEqualTo(2.1);
+        assertThat(index.latest("AAPL").getEarningsPerShare()).isEqualTo(1.5);
+    }
+}
@@ -0,0 +1,17 @@
+package com.moneyteam.analysis.model;
+
+// Public model over a package-private base. javac bridges the base's public getters into this class
+// except final ones, so getSpread() is only reachable through QuoteFields from other packages.
+public class QuoteFixture extends QuoteFields {
+}
+
+abstract class QuoteFields {
+
+    public double getBid() {
+        return 99.5;
+    }
+
+    public final double getSpread() {
+        return 0.25;
+    }
+}
@@ -0,0 +1,87 @@
+package com.moneyteam.analysis.service;
+
+import com.moneyteam.analysis.model.BacktestConfig;
+import com.moneyteam.analysis.model.BacktestReport;
+import com.moneyteam.analysis.model.BarSeries;
+import com.moneyteam.analysis.service.impl.MovingAverageCrossStrategy;
+import com.moneyteam.marketdata.repository.PriceHistoryRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * A 20/50 SMA cross over 500 tickers of 10 years of daily bars, one job per ticker, split across the
+ * engine's fork-join pool.
+ *
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat cp.txt) org.openjdk.jmh.Main BacktestEngineBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BacktestEngineBenchmark {
+
+    @Param({"500"})
+    int tickers;
+
+    @Param({"2520"})
+    int bars;
+
+    BacktestEngine engine;
+    List<BarSeries> data;
+    BacktestConfig config;
+
+    @Setup
+    public void setUp() {
+        engine = new BacktestEngine(mock(PriceHistoryRepository.class));
+        config = new BacktestConfig("sma-cross", 100_000, 1, 5, 252);
+        Random random = new Random(42);
+        data = new ArrayList<>(tickers);
+        for (int t = 0; t < tickers; t++) {
+            long[] time = new long[bars];
+            double[] open = new double[bars];
+            double[] high = new double[bars];
+            double[] low = new double[bars];
+            double[] close = new double[bars];
+            double price = 50 + random.nextInt(100);
+            for (int i = 0; i < bars; i++) {
+                time[i] = (18_000L + i) * 86_400;
+                open[i] = price;
+                price *= 1 + random.nextGaussian() * 0.02;
+                close[i] = price;
+                high[i] = Math.max(open[i], close[i]);
+                low[i] = Math.min(open[i], close[i]);
+            }
+            data.add(new BarSeries("T" + t, time, open, high, low, close, new long[bars]));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.destroy();
+    }
+
+    @Benchmark
+    public BacktestReport smaCross() {
+        return engine.run(data, List.of(), () -> new MovingAverageCrossStrategy(20, 50), config);
+    }
+}
@@ -0,0 +1,147 @@
+package com.moneyteam.analysis.service;
+
+import com.moneyteam.analysis.model.BacktestConfig;
+import com.moneyteam.analysis.model.BacktestReport;
+import com.moneyteam.analysis.model.BacktestResult;
+import com.moneyteam.analysis.model.BarSeries;
+import com.moneyteam.analysis.model.DateRange;
+import com.moneyteam.marketdata.repository.PriceHistoryRepository;
+import com.moneyteam.trading.model.enums.OrderSide;
+import com.moneyteam.trading.service.PurchaseTrade;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+
+class BacktestEngineTest {
+
+    private static final LocalDate DAY0 = LocalDate.of(2024, 1, 1);
+
+    private final BacktestEngine engine = new BacktestEngine(mock(PriceHistoryRepository.class));
+
+    @AfterEach
+    void tearDown() {
+        engine.destroy();
+    }
+
+    @Test
+    void signalsFillAtTheNextOpenAndPayTheFeeEachWay() {
+        BarSeries series = series("AAPL",
+                new double[] {9, 10, 11, 12, 13},
+                new double[] {9.5, 10.5, 11.5, 12.5, 13.5});
+        // Buy at bar 0's close, sell at bar 2's close, buy again on the last bar (never fills)
+        BacktestStrategy strategy = scripted(Map.of(0, OrderSide.BUY, 2, OrderSide.SELL, 4, OrderSide.BUY));
+
+        BacktestResult result = BacktestEngine.simulate(series, null, strategy,
+                new BacktestConfig("test", 1000, 1, 0, 252));
+
+        // 99 shares at bar 1's open of 10 with $1 fee, sold at bar 3's open of 12 less $1
+        assertThat(result.getTrades()).isEqualTo(1);
+        assertThat(result.getWinningTrades()).isEqualTo(1);
+        assertThat(result.getFeesPaid()).isEqualTo(2);
+        assertThat(result.getFinalEquity()).isCloseTo(1000 - 991 + 99 * 12 - 1, within(1e-9));
+        assertThat(result.getTotalReturn()).isCloseTo(0.196, within(1e-9));
+        assertThat(result.getBars()).isEqualTo(5);
+    }
+
+    @Test
+    void slippageMovesBothFillsAgainstTheTrader() {
+        BarSeries series = series("AAPL", new double[] {10, 10, 10}, new double[] {10, 10, 10});
+        BacktestStrategy strategy = scripted(Map.of(0, OrderSide.BUY, 1, OrderSide.SELL));
+
+        BacktestResult result = BacktestEngine.simulate(series, null, strategy,
+                new BacktestConfig("test", 1000, 0, 100, 252));
+
+        // 1% up on the buy (99 shares at 10.10), 1% down on the sell (9.90)
+        assertThat(result.getFinalEquity()).isCloseTo(1000 - 99 * 10.1 + 99 * 9.9, within(1e-9));
+        assertThat(result.getWinningTrades()).isZero();
+    }
+
+    @Test
+    void dailyConfigTakesItsFeeFromThePurchaseTrade() {
+        PurchaseTrade costs = new PurchaseTrade();
+        costs.setFees(2.5);
+        BacktestConfig config = BacktestConfig.daily("sma-cross", 10_000, costs);
+
+        assertThat(config.getFeePerTrade()).isEqualTo(2.5);
+        assertThat(config.getSlippageBps()).isZero();
+        assertThat(config.getPeriodsPerYear()).isEqualTo(252);
+
+        BarSeries series = series("AAPL", new double[] {10, 10, 10, 10}, new double[] {10, 10, 10, 10});
+        BacktestResult result = BacktestEngine.simulate(series, null,
+                scripted(Map.of(0, OrderSide.BUY, 1, OrderSide.SELL, 2, OrderSide.BUY)), config);
+        // Two buys and a sell; the second buy's position is still open at the end
+        assertThat(result.getFeesPaid()).isEqualTo(7.5);
+        assertThat(result.getTrades()).isEqualTo(1);
+    }
+
+    @Test
+    void drawdownAndSharpeFollowTheEquityCurve() {
+        double[] closes = {100, 100, 110, 99, 121};
+        BarSeries series = series("AAPL", closes, closes);
+        BacktestResult result = BacktestEngine.simulate(series, null, scripted(Map.of(0, OrderSide.BUY)),
+                new BacktestConfig("test", 1000, 0, 0, 252));
+
+        // 10 shares from bar 1 on: equity 1000, 1000, 1100, 990, 1210
+        double[] equity = {1000, 1000, 1100, 990, 1210};
+        double[] returns = new double[4];
+        double mean = 0;
+        for (int i = 1; i < equity.length; i++) {
+            returns[i - 1] = equity[i] / equity[i - 1] - 1;
+            mean += returns[i - 1] / 4;
+        }
+        double squares = 0;
+        for (double r : returns) {
+            squares += (r - mean) * (r - mean);
+        }
+        assertThat(result.getFinalEquity()).isCloseTo(1210, within(1e-9));
+        assertThat(result.getMaxDrawdown()).isCloseTo(0.1, within(1e-12));
+        assertThat(result.getSharpeRatio()).isCloseTo(mean / Math.sqrt(squares / 3) * Math.sqrt(252), within(1e-9));
+        assertThat(result.getTrades()).isZero();
+    }
+
+    @Test
+    void runSplitsByTickerAndRangeWithOneStrategyPerJob() {
+        double[] prices = new double[10];
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = 10 + i;
+        }
+        List<BarSeries> data = List.of(series("AAPL", prices, prices), series("MSFT", prices, prices));
+        List<DateRange> ranges = List.of(new DateRange(DAY0, DAY0.plusDays(3)),
+                new DateRange(DAY0.plusDays(4), DAY0.plusDays(20)));
+        AtomicInteger created = new AtomicInteger();
+
+        BacktestReport report = engine.run(data, ranges, () -> {
+            created.incrementAndGet();
+            return scripted(Map.of());
+        }, new BacktestConfig("hold", 1000, 0, 0, 252));
+
+        assertThat(report.getStrategyName()).isEqualTo("hold");
+        assertThat(created.get()).isEqualTo(4);
+        assertThat(report.getResults()).extracting(BacktestResult::getStockTicker)
+                .containsExactly("AAPL", "AAPL", "MSFT", "MSFT");
+        assertThat(report.getResults()).extracting(BacktestResult::getBars).containsExactly(4, 6, 4, 6);
+        assertThat(report.getResults()).extracting(BacktestResult::getRange)
+                .containsExactly(ranges.get(0), ranges.get(1), ranges.get(0), ranges.get(1));
+    }
+
+    // Returns the scripted side at each bar; the engine drops signals that do not fit the position
+    private static BacktestStrategy scripted(Map<Integer, OrderSide> signals) {
+        return (series, index, inPosition) -> signals.get(index);
+    }
+
+    private static BarSeries series(String ticker, double[] open, double[] close) {
+        long[] time = new long[open.length];
+        for (int i = 0; i < time.length; i++) {
+            time[i] = DAY0.plusDays(i).toEpochDay() * 86_400;
+        }
+        return new BarSeries(ticker, time, open, close, open, close, new long[open.length]);
+    }
+}
@@ -0,0 +1,136 @@
+package com.moneyteam.analysis.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BatchIndicators kernels against the straightforward scalar loops they replace: a single-accumulator
+ * sum, and a rolling mean/std-dev that re-sums every window. The forked JVM gets the Vector API module,
+ * so the public kernels take the vector path; the scalar* benchmarks run the fallback for comparison.
+ * About 1M bars: a minute series over a few years, or daily bars across the whole universe.
+ *
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat cp.txt) org.openjdk.jmh.Main BatchIndicatorsBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class BatchIndicatorsBenchmark {
+
+    @Param({"1000000"})
+    int length;
+
+    @Param({"50"})
+    int window;
+
+    double[] prices;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        prices = new double[length];
+        double price = 100;
+        for (int i = 0; i < length; i++) {
+            price *= 1 + random.nextGaussian() * 0.01;
+            prices[i] = price;
+        }
+    }
+
+    @Benchmark
+    public double sumSingleAccumulator() {
+        double s = 0;
+        for (double value : prices) {
+            s += value;
+        }
+        return s;
+    }
+
+    @Benchmark
+    public double sum() {
+        return BatchIndicators.sum(prices);
+    }
+
+    @Benchmark
+    public double scalarSum() {
+        return BatchIndicators.scalarSum(prices);
+    }
+
+    @Benchmark
+    public double[] rollingMeanPerWindow() {
+        double[] out = new double[prices.length];
+        for (int i = 0; i < prices.length; i++) {
+            if (i < window - 1) {
+                out[i] = Double.NaN;
+                continue;
+            }
+            double s = 0;
+            for (int j = i + 1 - window; j <= i; j++) {
+                s += prices[j];
+            }
+            out[i] = s / window;
+        }
+        return out;
+    }
+
+    @Benchmark
+    public double[] rollingMean() {
+        return BatchIndicators.rollingMean(prices, window);
+    }
+
+    @Benchmark
+    public double[] scalarRollingMean() {
+        double[] out = new double[prices.length];
+        double shift = prices[0];
+        BatchIndicators.scalarWindowDifferences(BatchIndicators.prefixSums(prices, shift), window,
+                1.0 / window, shift, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] rollingStdDevPerWindow() {
+        double[] out = new double[prices.length];
+        for (int i = 0; i < prices.length; i++) {
+            if (i < window - 1) {
+                out[i] = Double.NaN;
+                continue;
+            }
+            double s = 0;
+            for (int j = i + 1 - window; j <= i; j++) {
+                s += prices[j];
+            }
+            double mean = s / window;
+            double squares = 0;
+            for (int j = i + 1 - window; j <= i; j++) {
+                double d = prices[j] - mean;
+                squares += d * d;
+            }
+            out[i] = Math.sqrt(squares / window);
+        }
+        return out;
+    }
+
+    @Benchmark
+    public double[] rollingStdDev() {
+        return BatchIndicators.rollingStdDev(prices, window);
+    }
+
+    @Benchmark
+    public double[] ema() {
+        return BatchIndicators.ema(prices, window);
+    }
+}
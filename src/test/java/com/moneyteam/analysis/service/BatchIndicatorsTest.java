@@ -0,0 +1,115 @@
+package com.moneyteam.analysis.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class BatchIndicatorsTest {
+
+    private final double[] prices = randomWalk(10_007, 100);
+
+    @Test
+    void surefireRunsTheVectorPath() {
+        assertThat(BatchIndicators.VECTORIZED).isTrue();
+    }
+
+    @Test
+    void vectorSumMatchesScalarToRounding() {
+        assertThat(BatchIndicators.sum(prices))
+                .isCloseTo(BatchIndicators.scalarSum(prices), within(1e-9 * BatchIndicators.scalarSum(prices)));
+        assertThat(BatchIndicators.sum(new double[] {1, 2, 3})).isEqualTo(6);
+        assertThat(BatchIndicators.sum(new double[0])).isZero();
+    }
+
+    @Test
+    void vectorWindowPassesMatchScalarExactly() {
+        for (int window : new int[] {1, 3, 50, 10_007, 20_000}) {
+            double shift = prices[0];
+            double[] sums = BatchIndicators.prefixSums(prices, shift);
+            double[] squares = BatchIndicators.prefixSquares(prices, shift);
+
+            double[] scalar = new double[prices.length];
+            BatchIndicators.scalarWindowDifferences(sums, window, 1.0 / window, shift, scalar);
+            assertThat(BatchIndicators.rollingMean(prices, window)).containsExactly(withNanPrefix(scalar, window));
+
+            double[] scalarVariance = new double[prices.length];
+            BatchIndicators.scalarWindowVariances(sums, squares, window, scalarVariance);
+            assertThat(BatchIndicators.rollingVariance(prices, window))
+                    .containsExactly(withNanPrefix(scalarVariance, window));
+        }
+    }
+
+    @Test
+    void rollingWindowsMatchBruteForce() {
+        int window = 20;
+        double[] sum = BatchIndicators.rollingSum(prices, window);
+        double[] mean = BatchIndicators.rollingMean(prices, window);
+        double[] stdDev = BatchIndicators.rollingStdDev(prices, window);
+        for (int i = 0; i < prices.length; i++) {
+            if (i < window - 1) {
+                assertThat(sum[i]).isNaN();
+                assertThat(mean[i]).isNaN();
+                continue;
+            }
+            double s = 0;
+            for (int j = i + 1 - window; j <= i; j++) {
+                s += prices[j];
+            }
+            double m = s / window;
+            double squares = 0;
+            for (int j = i + 1 - window; j <= i; j++) {
+                squares += (prices[j] - m) * (prices[j] - m);
+            }
+            assertThat(sum[i]).isCloseTo(s, within(1e-6));
+            assertThat(mean[i]).isCloseTo(m, within(1e-6));
+            assertThat(stdDev[i]).isCloseTo(Math.sqrt(squares / window), within(1e-6));
+        }
+    }
+
+    @Test
+    void rollingSumKeepsPrecisionFarFromZero() {
+        // Unshifted prefix sums of this series reach ~1e13 and lose about a cent in every window
+        Random random = new Random(11);
+        double[] high = new double[100_000];
+        for (int i = 0; i < high.length; i++) {
+            high[i] = 1e8 + random.nextGaussian() * 10;
+        }
+        int window = 5;
+        double[] sum = BatchIndicators.rollingSum(high, window);
+        for (int i = high.length - 1000; i < high.length; i++) {
+            double s = 0;
+            for (int j = i + 1 - window; j <= i; j++) {
+                s += high[j];
+            }
+            assertThat(sum[i]).isCloseTo(s, within(1e-5));
+        }
+    }
+
+    @Test
+    void rejectsNonPositiveWindows() {
+        assertThatThrownBy(() -> BatchIndicators.rollingSum(prices, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static double[] withNanPrefix(double[] values, int window) {
+        double[] copy = values.clone();
+        Arrays.fill(copy, 0, Math.min(window - 1, copy.length), Double.NaN);
+        return copy;
+    }
+
+    private static double[] randomWalk(int length, double start) {
+        Random random = new Random(7);
+        double[] out = new double[length];
+        double price = start;
+        for (int i = 0; i < length; i++) {
+            price *= 1 + random.nextGaussian() * 0.01;
+            out[i] = price;
+        }
+        return out;
+    }
+}
@@ -0,0 +1,164 @@
+package com.moneyteam.analysis.service;
+
+import com.moneyteam.analysis.model.OptionChain;
+import com.moneyteam.analysis.model.OptionGreeks;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class BlackScholesTest {
+
+    private static final int EXPIRY = (int) LocalDate.of(2025, 6, 20).toEpochDay();
+    private static final double RATE = 0.04;
+    private static final double YIELD = 0.015;
+    private static final double[] STRIKES = {50, 80, 95, 100, 105, 120, 200};
+
+    @Test
+    void normalCdfIsWithinTheAbramowitzStegunBound() {
+        double worst = 0;
+        for (double x = -8; x <= 8; x += 0.01) {
+            worst = Math.max(worst, Math.abs(BlackScholes.normalCdf(x) - referenceCdf(x)));
+        }
+        assertThat(worst).isLessThan(7.5e-8);
+        assertThat(BlackScholes.normalCdf(0)).isCloseTo(0.5, within(1e-9));
+        assertThat(BlackScholes.normalCdf(-40)).isZero();
+        assertThat(BlackScholes.normalCdf(40)).isEqualTo(1.0);
+        // symmetric by construction, so N(-x) keeps the tail 1 - N(x) would lose
+        assertThat(BlackScholes.normalCdf(-1.3) + BlackScholes.normalCdf(1.3)).isEqualTo(1.0);
+    }
+
+    @Test
+    void callsAndPutsSatisfyPutCallParity() {
+        OptionChain chain = pairs(STRIKES, EXPIRY);
+        long valuation = valuation(chain, 0.75);
+        double spot = 101.5;
+        OptionGreeks g = price(chain, spot, 0.35, valuation);
+        double years = 0.75;
+        for (int i = 0; i < STRIKES.length; i++) {
+            double forwardGap = spot * Math.exp(-YIELD * years) - STRIKES[i] * Math.exp(-RATE * years);
+            // C - P = S e^-qT - K e^-rT, and the deltas differ by e^-qT
+            assertThat(g.getPrice()[2 * i] - g.getPrice()[2 * i + 1]).isCloseTo(forwardGap, within(1e-9));
+            assertThat(g.getDelta()[2 * i] - g.getDelta()[2 * i + 1])
+                    .isCloseTo(Math.exp(-YIELD * years), within(1e-12));
+            assertThat(g.getGamma()[2 * i]).isEqualTo(g.getGamma()[2 * i + 1]);
+            assertThat(g.getVega()[2 * i]).isEqualTo(g.getVega()[2 * i + 1]);
+        }
+    }
+
+    @Test
+    void greeksMatchFiniteDifferencesOfThePrice() {
+        OptionChain chain = pairs(STRIKES, EXPIRY);
+        double years = 0.5;
+        long valuation = valuation(chain, years);
+        double spot = 100;
+        double vol = 0.3;
+        OptionGreeks g = price(chain, spot, vol, valuation);
+
+        double h = 0.01;
+        OptionGreeks up = price(chain, spot + h, vol, valuation);
+        OptionGreeks down = price(chain, spot - h, vol, valuation);
+        OptionGreeks volUp = price(chain, spot, vol + 1e-4, valuation);
+        OptionGreeks volDown = price(chain, spot, vol - 1e-4, valuation);
+        long day = 86_400;
+        OptionGreeks later = price(chain, spot, vol, valuation + day);
+        OptionGreeks earlier = price(chain, spot, vol, valuation - day);
+        OptionGreeks rateUp = greeks(chain, spot, RATE + 1e-4, vol, valuation);
+        OptionGreeks rateDown = greeks(chain, spot, RATE - 1e-4, vol, valuation);
+        double dayYears = day / BlackScholes.SECONDS_PER_YEAR;
+
+        for (int i = 0; i < chain.size(); i++) {
+            String contract = chain.getStrikes()[i] + (chain.getCalls()[i] ? " call" : " put");
+            assertThat(g.getDelta()[i]).as("delta " + contract)
+                    .isCloseTo((up.getPrice()[i] - down.getPrice()[i]) / (2 * h), within(1e-5));
+            assertThat(g.getGamma()[i]).as("gamma " + contract)
+                    .isCloseTo((up.getDelta()[i] - down.getDelta()[i]) / (2 * h), within(1e-5));
+            assertThat(g.getVega()[i]).as("vega " + contract)
+                    .isCloseTo((volUp.getPrice()[i] - volDown.getPrice()[i]) / 2e-4, within(1e-3));
+            // theta is per year of calendar time passing
+            assertThat(g.getTheta()[i]).as("theta " + contract)
+                    .isCloseTo((later.getPrice()[i] - earlier.getPrice()[i]) / (2 * dayYears), within(2e-3));
+            assertThat(g.getRho()[i]).as("rho " + contract)
+                    .isCloseTo((rateUp.getPrice()[i] - rateDown.getPrice()[i]) / 2e-4, within(1e-3));
+        }
+    }
+
+    @Test
+    void expiredContractsAreWorthTheirIntrinsicValue() {
+        OptionChain chain = pairs(new double[] {90, 100, 110}, EXPIRY);
+        long atExpiry = chain.getExpiryEpochSeconds()[0];
+        for (long valuation : new long[] {atExpiry, atExpiry + 86_400}) {
+            OptionGreeks g = price(chain, 100, 0.3, valuation);
+            assertThat(g.getPrice()).containsExactly(10, 0, 0, 0, 0, 10);
+            assertThat(g.getDelta()).containsExactly(1, 0, 0, 0, 0, -1);
+            assertThat(g.getGamma()).containsOnly(0);
+            assertThat(g.getVega()).containsOnly(0);
+            // exercised contracts keep the carry of the forward payoff, q S - r K
+            assertThat(g.getTheta()[0]).isCloseTo(YIELD * 100 - RATE * 90, within(1e-12));
+            assertThat(g.getTheta()[5]).isCloseTo(RATE * 110 - YIELD * 100, within(1e-12));
+            assertThat(g.getTheta()[2]).isZero();
+        }
+    }
+
+    @Test
+    void zeroVolIsTheDiscountedForwardPayoffAndNanVolIsNaN() {
+        OptionChain chain = pairs(new double[] {90, 110}, EXPIRY);
+        double years = 1;
+        long valuation = valuation(chain, years);
+        OptionGreeks g = price(chain, 100, 0, valuation);
+        double s = 100 * Math.exp(-YIELD * years);
+        assertThat(g.getPrice()[0]).isCloseTo(s - 90 * Math.exp(-RATE * years), within(1e-12));
+        assertThat(g.getPrice()[1]).isZero();
+        assertThat(g.getPrice()[3]).isCloseTo(110 * Math.exp(-RATE * years) - s, within(1e-12));
+        assertThat(g.getDelta()[0]).isCloseTo(Math.exp(-YIELD * years), within(1e-15));
+
+        OptionGreeks nan = price(chain, 100, Double.NaN, valuation);
+        assertThat(nan.getPrice()).containsOnly(Double.NaN);
+        assertThat(nan.getDelta()).containsOnly(Double.NaN);
+    }
+
+    // call, put at each strike
+    private static OptionChain pairs(double[] strikes, int expiry) {
+        int n = strikes.length * 2;
+        int[] days = new int[n];
+        double[] k = new double[n];
+        boolean[] calls = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            days[i] = expiry;
+            k[i] = strikes[i / 2];
+            calls[i] = i % 2 == 0;
+        }
+        return new OptionChain("AAPL", days, k, calls, YIELD);
+    }
+
+    private static long valuation(OptionChain chain, double years) {
+        return chain.getExpiryEpochSeconds()[0] - Math.round(years * BlackScholes.SECONDS_PER_YEAR);
+    }
+
+    private static OptionGreeks price(OptionChain chain, double spot, double vol, long valuation) {
+        return greeks(chain, spot, RATE, vol, valuation);
+    }
+
+    private static OptionGreeks greeks(OptionChain chain, double spot, double rate, double vol, long valuation) {
+        double[] vols = new double[chain.size()];
+        Arrays.fill(vols, vol);
+        OptionGreeks out = new OptionGreeks("AAPL", spot, valuation * 1000, chain.size());
+        BlackScholes.greeks(chain, spot, rate, vols, valuation, out, 0, chain.size());
+        return out;
+    }
+
+    // N(x) by composite Simpson's rule on the density from 0, to about 1e-13
+    private static double referenceCdf(double x) {
+        int steps = 20_000;
+        double h = Math.abs(x) / steps;
+        double sum = BlackScholes.normalPdf(0) + BlackScholes.normalPdf(x);
+        for (int i = 1; i < steps; i++) {
+            sum += (i % 2 == 1 ? 4 : 2) * BlackScholes.normalPdf(i * h);
+        }
+        double half = sum * h / 3;
+        return x >= 0 ? 0.5 + half : 0.5 - half;
+    }
+}
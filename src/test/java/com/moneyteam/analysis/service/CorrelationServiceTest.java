@@ -0,0 +1,109 @@
+package com.moneyteam.analysis.service;
+
+import com.moneyteam.marketdata.model.Stock;
+import com.moneyteam.marketdata.service.QuoteBus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class CorrelationServiceTest {
+
+    private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+    // Saturday, and a Wednesday mid-session
+    private static final long WEEKEND = ZonedDateTime.of(2024, 6, 15, 12, 0, 0, 0, NEW_YORK).toInstant().toEpochMilli();
+    private static final long SESSION = ZonedDateTime.of(2024, 6, 12, 10, 0, 0, 0, NEW_YORK).toInstant().toEpochMilli();
+
+    private final QuoteBus quoteBus = new QuoteBus();
+    private final CorrelationService service = new CorrelationService(quoteBus);
+
+    @AfterEach
+    void tearDown() {
+        service.destroy();
+        quoteBus.destroy();
+    }
+
+    @Test
+    void offSessionBarClosesOnlyWhenATrackedPriceMoved() {
+        service.track(List.of("AAPL", "MSFT"));
+        service.onQuote(quote("AAPL", 190));
+        service.onQuote(quote("MSFT", 420));
+        service.closeBar(WEEKEND);
+        service.onQuote(quote("AAPL", 191));
+        service.closeBar(WEEKEND + CorrelationService.BAR_MILLIS);
+        assertThat(service.snapshot().getObservations()).isEqualTo(1);
+
+        service.closeBar(WEEKEND + 2 * CorrelationService.BAR_MILLIS);
+        service.onQuote(quote("AAPL", 191));
+        service.closeBar(WEEKEND + 3 * CorrelationService.BAR_MILLIS);
+        assertThat(service.snapshot().getObservations()).isEqualTo(1);
+
+        service.onQuote(quote("MSFT", 421));
+        service.closeBar(WEEKEND + 4 * CorrelationService.BAR_MILLIS);
+        assertThat(service.snapshot().getObservations()).isEqualTo(2);
+    }
+
+    @Test
+    void sessionBarClosesWithoutTrades() {
+        service.track(List.of("AAPL", "MSFT"));
+        service.onQuote(quote("AAPL", 190));
+        service.onQuote(quote("MSFT", 420));
+        service.closeBar(SESSION);
+        service.closeBar(SESSION + CorrelationService.BAR_MILLIS);
+        service.closeBar(SESSION + 2 * CorrelationService.BAR_MILLIS);
+        assertThat(service.snapshot().getObservations()).isEqualTo(2);
+        assertThat(service.snapshot().covariance("AAPL", "AAPL")).isZero();
+    }
+
+    @Test
+    void windowStartsOnceEveryTickerHasAPreviousPrice() {
+        service.track(List.of("AAPL", "MSFT"));
+        service.onQuote(quote("AAPL", 190));
+        service.closeBar(SESSION);
+        service.onQuote(quote("AAPL", 200));
+        service.closeBar(SESSION + CorrelationService.BAR_MILLIS);
+        assertThat(service.snapshot().getObservations()).isZero();
+
+        // MSFT's first price only sets its baseline
+        service.onQuote(quote("MSFT", 420));
+        service.closeBar(SESSION + 2 * CorrelationService.BAR_MILLIS);
+        assertThat(service.snapshot().getObservations()).isZero();
+
+        service.onQuote(quote("AAPL", 210));
+        service.onQuote(quote("MSFT", 400));
+        service.closeBar(SESSION + 3 * CorrelationService.BAR_MILLIS);
+        service.closeBar(SESSION + 4 * CorrelationService.BAR_MILLIS);
+        assertThat(service.snapshot().getObservations()).isEqualTo(2);
+        // AAPL returns log(210/200), then 0 for a session bar with no trade
+        assertThat(service.snapshot().covariance("AAPL", "AAPL"))
+                .isCloseTo(Math.pow(Math.log(1.05), 2) / 2, within(1e-12));
+        assertThat(service.snapshot().covariance("MSFT", "MSFT")).isCloseTo(Math.pow(Math.log(400.0 / 420), 2) / 2,
+                within(1e-12));
+    }
+
+    @Test
+    void trackingTheSameSetKeepsTheWindow() {
+        assertThat(service.track(List.of("AAPL", "MSFT"))).isTrue();
+        service.onQuote(quote("AAPL", 190));
+        service.onQuote(quote("MSFT", 420));
+        service.closeBar(SESSION);
+        service.closeBar(SESSION + CorrelationService.BAR_MILLIS);
+
+        assertThat(service.track(List.of("MSFT", "AAPL", "AAPL"))).isFalse();
+        assertThat(service.snapshot().getObservations()).isEqualTo(1);
+        assertThat(service.track(List.of("AAPL", "MSFT", "NVDA"))).isTrue();
+        assertThat(service.snapshot().getObservations()).isZero();
+    }
+
+    private static Stock quote(String ticker, double last) {
+        Stock stock = new Stock();
+        stock.setStockTicker(ticker);
+        stock.setLast(last);
+        return stock;
+    }
+}
@@ -0,0 +1,116 @@
+package com.moneyteam.analysis.service;
+
+import com.moneyteam.analysis.model.OptionChain;
+import com.moneyteam.analysis.model.OptionGreeks;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ImpliedVolatilityTest {
+
+    private static final int EXPIRY = (int) LocalDate.of(2025, 6, 20).toEpochDay();
+    private static final double SPOT = 100;
+    private static final double RATE = 0.04;
+
+    @Test
+    void solvedVolRepricesAcrossStrikesAndSides() {
+        double[] strikes = {60, 80, 95, 100, 105, 120, 150};
+        for (double vol : new double[] {0.08, 0.25, 0.6, 1.5}) {
+            for (double strike : strikes) {
+                for (boolean call : new boolean[] {true, false}) {
+                    // Far enough from the money at low vol there is no time value left to solve for
+                    if (timeValue(strike, call, vol, 0.5, 0.02) > 1e-4) {
+                        assertRoundTrip(strike, call, vol, 0.5, 0.02);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void deepInAndOutOfTheMoneyQuotesRoundTrip() {
+        // Deep in the money the price is almost all intrinsic; solved on the other side via parity
+        assertRoundTrip(40, true, 0.3, 1.0, 0);
+        assertRoundTrip(250, false, 0.3, 1.0, 0);
+        // Deep out of the money the price is a few cents, where vega is flat
+        assertRoundTrip(160, true, 0.3, 0.5, 0);
+        assertRoundTrip(55, false, 0.3, 0.5, 0);
+    }
+
+    @Test
+    void shortExpiriesRoundTrip() {
+        double oneDay = 1 / 365.0;
+        assertRoundTrip(100, true, 0.2, oneDay, 0);
+        assertRoundTrip(101, true, 0.2, oneDay, 0);
+        assertRoundTrip(98, false, 0.4, oneDay, 0);
+        assertRoundTrip(100, false, 0.3, 7 / 365.0, 0.01);
+    }
+
+    @Test
+    void pricesOutsideTheNoArbitrageBoundsGiveNaN() {
+        OptionChain chain = chain(90, true, 0);
+        long valuation = valuation(chain, 0.5);
+        double intrinsic = SPOT - 90 * Math.exp(-RATE * 0.5);
+
+        // below discounted intrinsic, at or above spot, zero, negative, NaN
+        for (double price : new double[] {intrinsic - 0.5, SPOT, SPOT + 1, 0, -1, Double.NaN}) {
+            assertThat(ImpliedVolatility.solve(chain, 0, SPOT, RATE, price, valuation)).as("price %s", price).isNaN();
+        }
+        // a put worth more than its discounted strike
+        OptionChain put = chain(90, false, 0);
+        assertThat(ImpliedVolatility.solve(put, 0, SPOT, RATE, 95, valuation)).isNaN();
+        // a vol above the solver's cap
+        double tooVolatile = price(chain, ImpliedVolatility.MAX_VOL * 1.5, valuation);
+        assertThat(ImpliedVolatility.solve(chain, 0, SPOT, RATE, tooVolatile, valuation)).isNaN();
+        // expired
+        long afterExpiry = chain.getExpiryEpochSeconds()[0] + 1;
+        assertThat(ImpliedVolatility.solve(chain, 0, SPOT, RATE, 11, afterExpiry)).isNaN();
+    }
+
+    @Test
+    void chainSolveMatchesSingleContractSolve() {
+        OptionChain chain = new OptionChain("AAPL", new int[] {EXPIRY, EXPIRY, EXPIRY + 30, EXPIRY + 30},
+                new double[] {90, 110, 90, 110}, new boolean[] {false, true, false, true}, 0.01);
+        long valuation = valuation(chain, 0.25);
+        double[] prices = {1.2, 2.5, 2.0, 3.4};
+        double[] vols = new double[4];
+        ImpliedVolatility.solve(chain, SPOT, RATE, prices, valuation, vols, 0, 4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(vols[i]).isEqualTo(ImpliedVolatility.solve(chain, i, SPOT, RATE, prices[i], valuation));
+            assertThat(vols[i]).isBetween(0.05, 1.0);
+        }
+    }
+
+    private static void assertRoundTrip(double strike, boolean call, double vol, double years, double dividendYield) {
+        OptionChain chain = chain(strike, call, dividendYield);
+        long valuation = valuation(chain, years);
+        double price = price(chain, vol, valuation);
+        double solved = ImpliedVolatility.solve(chain, 0, SPOT, RATE, price, valuation);
+        assertThat(solved).as("K=%s call=%s vol=%s T=%s price=%s", strike, call, vol, years, price)
+                .isCloseTo(vol, within(1e-6));
+        assertThat(price(chain, solved, valuation)).isCloseTo(price, within(1e-9 * Math.max(1, price)));
+    }
+
+    private static double timeValue(double strike, boolean call, double vol, double years, double dividendYield) {
+        OptionChain chain = chain(strike, call, dividendYield);
+        long valuation = valuation(chain, years);
+        return price(chain, vol, valuation) - price(chain, 0, valuation);
+    }
+
+    private static OptionChain chain(double strike, boolean call, double dividendYield) {
+        return new OptionChain("AAPL", new int[] {EXPIRY}, new double[] {strike}, new boolean[] {call}, dividendYield);
+    }
+
+    private static long valuation(OptionChain chain, double years) {
+        return chain.getExpiryEpochSeconds()[0] - Math.round(years * BlackScholes.SECONDS_PER_YEAR);
+    }
+
+    private static double price(OptionChain chain, double vol, long valuation) {
+        OptionGreeks greeks = new OptionGreeks("AAPL", SPOT, valuation * 1000, 1);
+        BlackScholes.greeks(chain, SPOT, RATE, new double[] {vol}, valuation, greeks, 0, 1);
+        return greeks.getPrice()[0];
+    }
+}
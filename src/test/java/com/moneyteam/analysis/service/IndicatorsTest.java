@@ -0,0 +1,186 @@
+package com.moneyteam.analysis.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class IndicatorsTest {
+
+    // Wilder's RSI(14) worked example as published by StockCharts; their table rounds the averages to
+    // four places, which moves the RSI by under 0.1
+    private static final double[] RSI_CLOSES = {
+            44.34, 44.09, 44.15, 43.61, 44.33, 44.83, 45.10, 45.42, 45.84, 46.08, 45.89, 46.03, 45.61, 46.28,
+            46.28, 46.00, 46.03, 46.41, 46.22, 45.64};
+    private static final double[] RSI_EXPECTED = {70.53, 66.32, 66.55, 69.41, 66.36, 57.97};
+
+    private final double[] prices = randomWalk(10_000, 100);
+
+    @Test
+    void smaIsTheWindowMean() {
+        SimpleMovingAverage sma = new SimpleMovingAverage(3);
+        assertThat(sma.update(1)).isNaN();
+        assertThat(sma.update(2)).isNaN();
+        assertThat(sma.update(3)).isEqualTo(2);
+        assertThat(sma.update(10)).isEqualTo(5);
+        assertThat(sma.isReady()).isTrue();
+
+        // Past the resum interval the running sum still matches a fresh sum of the window
+        SimpleMovingAverage sma50 = new SimpleMovingAverage(50);
+        for (int i = 0; i < prices.length; i++) {
+            double value = sma50.update(prices[i]);
+            if (i >= 49) {
+                assertThat(value).isCloseTo(mean(prices, i - 49, i), within(1e-9));
+            }
+        }
+    }
+
+    @Test
+    void emaIsSeededWithTheSmaThenSmoothed() {
+        ExponentialMovingAverage ema = new ExponentialMovingAverage(3);
+        assertThat(ema.update(1)).isNaN();
+        assertThat(ema.update(2)).isNaN();
+        assertThat(ema.update(3)).isEqualTo(2);
+        // alpha = 2 / (3 + 1)
+        assertThat(ema.update(10)).isEqualTo(6);
+        assertThat(ema.update(4)).isEqualTo(5);
+
+        ExponentialMovingAverage wilder = ExponentialMovingAverage.wilder(4);
+        for (double v : new double[] {4, 4, 4, 4}) {
+            wilder.update(v);
+        }
+        assertThat(wilder.update(8)).isEqualTo(5);
+    }
+
+    @Test
+    void rsiMatchesWildersWorkedExample() {
+        RelativeStrengthIndex rsi = new RelativeStrengthIndex(14);
+        for (int i = 0; i < 14; i++) {
+            assertThat(rsi.update(RSI_CLOSES[i])).isNaN();
+        }
+        for (int i = 14; i < RSI_CLOSES.length; i++) {
+            assertThat(rsi.update(RSI_CLOSES[i])).isCloseTo(RSI_EXPECTED[i - 14], within(0.1));
+        }
+    }
+
+    @Test
+    void rsiOfOneSidedOrFlatSeries() {
+        RelativeStrengthIndex rising = new RelativeStrengthIndex(3);
+        RelativeStrengthIndex falling = new RelativeStrengthIndex(3);
+        RelativeStrengthIndex flat = new RelativeStrengthIndex(3);
+        for (int i = 0; i < 5; i++) {
+            rising.update(10 + i);
+            falling.update(10 - i);
+            flat.update(10);
+        }
+        assertThat(rising.value()).isEqualTo(100);
+        assertThat(falling.value()).isZero();
+        assertThat(flat.value()).isEqualTo(50);
+    }
+
+    @Test
+    void macdIsTheEmaSpreadWithASignalOfTheSpread() {
+        MovingAverageConvergenceDivergence macd = new MovingAverageConvergenceDivergence(12, 26, 9);
+        ExponentialMovingAverage fast = new ExponentialMovingAverage(12);
+        ExponentialMovingAverage slow = new ExponentialMovingAverage(26);
+        ExponentialMovingAverage signal = new ExponentialMovingAverage(9);
+        for (int i = 0; i < 200; i++) {
+            double line = macd.update(prices[i]);
+            double expected = fast.update(prices[i]) - slow.update(prices[i]);
+            if (i < 25) {
+                assertThat(line).isNaN();
+                continue;
+            }
+            signal.update(expected);
+            assertThat(line).isCloseTo(expected, within(1e-12));
+            if (i < 33) {
+                assertThat(macd.signal()).isNaN();
+            } else {
+                assertThat(macd.signal()).isCloseTo(signal.value(), within(1e-12));
+                assertThat(macd.histogram()).isCloseTo(expected - signal.value(), within(1e-12));
+            }
+        }
+    }
+
+    @Test
+    void bollingerBandsUsePopulationStandardDeviation() {
+        BollingerBands bands = new BollingerBands(4, 2);
+        for (double v : new double[] {2, 4, 4, 4}) {
+            bands.update(v);
+        }
+        // mean 3.5, population variance 0.75
+        assertThat(bands.update(5)).isEqualTo(4.25);
+        assertThat(bands.upper()).isCloseTo(4.25 + 2 * Math.sqrt(0.1875), within(1e-12));
+        assertThat(bands.lower()).isCloseTo(4.25 - 2 * Math.sqrt(0.1875), within(1e-12));
+
+        BollingerBands bands20 = new BollingerBands(20, 2);
+        for (int i = 0; i < prices.length; i++) {
+            bands20.update(prices[i]);
+            if (i >= 19) {
+                double m = mean(prices, i - 19, i);
+                double squares = 0;
+                for (int j = i - 19; j <= i; j++) {
+                    squares += (prices[j] - m) * (prices[j] - m);
+                }
+                double sd = Math.sqrt(squares / 20);
+                assertThat(bands20.value()).isCloseTo(m, within(1e-9));
+                assertThat(bands20.upper()).isCloseTo(m + 2 * sd, within(1e-6));
+                assertThat(bands20.lower()).isCloseTo(m - 2 * sd, within(1e-6));
+            }
+        }
+
+        BollingerBands flat = new BollingerBands(3, 2);
+        for (int i = 0; i < 3; i++) {
+            flat.update(100.1);
+        }
+        assertThat(flat.upper()).isEqualTo(flat.lower());
+    }
+
+    @Test
+    void atrAveragesTheTrueRangeWithWilderSmoothing() {
+        AverageTrueRange atr = new AverageTrueRange(3);
+        assertThat(atr.update(11, 9, 10)).isNaN();      // TR 2: no previous close
+        assertThat(atr.update(12, 11, 11.5)).isNaN();   // TR 2: high - previous close
+        // TR 3.5: previous close - low; seeded with the mean of the first three
+        assertThat(atr.update(11, 8, 9)).isEqualTo(2.5);
+        // TR 1: high - previous close
+        assertThat(atr.update(10, 9.5, 9.8)).isEqualTo(2);
+    }
+
+    @Test
+    void vwapWeightsBySizeAndResetsPerSession() {
+        VolumeWeightedAveragePrice vwap = new VolumeWeightedAveragePrice();
+        assertThat(vwap.value()).isNaN();
+        vwap.update(10, 100);
+        vwap.update(11, 300);
+        // zero and negative sizes are ignored
+        vwap.update(50, 0);
+        vwap.update(50, -10);
+        assertThat(vwap.value()).isEqualTo(10.75);
+
+        vwap.reset();
+        assertThat(vwap.value()).isNaN();
+        assertThat(vwap.update(12, 5)).isEqualTo(12);
+    }
+
+    private static double mean(double[] values, int from, int to) {
+        double sum = 0;
+        for (int i = from; i <= to; i++) {
+            sum += values[i];
+        }
+        return sum / (to - from + 1);
+    }
+
+    private static double[] randomWalk(int n, double start) {
+        Random random = new Random(7);
+        double[] prices = new double[n];
+        double price = start;
+        for (int i = 0; i < n; i++) {
+            price *= 1 + random.nextGaussian() * 0.01;
+            prices[i] = price;
+        }
+        return prices;
+    }
+}
@@ -0,0 +1,124 @@
+package com.moneyteam.analysis.service;
+
+import com.moneyteam.marketdata.model.Stock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Reading a report's columns off every Stock in a universe: a reflective lookup and invoke per cell
+ * (the old getStockProperties), reflection with the Methods resolved once, and PropertyAccessors
+ * row readers. The direct getter calls are the floor.
+ *
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat cp.txt) org.openjdk.jmh.Main PropertyAccessorsBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertyAccessorsBenchmark {
+
+    private static final String[] COLUMNS = {"stockTicker", "last", "bid", "ask", "volume", "marketCapAmount"};
+
+    @Param({"5000"})
+    int stocks;
+
+    Stock[] universe;
+    Method[] methods;
+    Function<Stock, Object[]> rowReader;
+    PropertyAccessors.Property<Stock> last;
+
+    @Setup
+    public void setUp() throws Exception {
+        Random random = new Random(42);
+        universe = new Stock[stocks];
+        for (int i = 0; i < stocks; i++) {
+            double price = 10 + random.nextDouble() * 500;
+            universe[i] = new Stock("T" + i, "Name " + i, "Tech", price * 1e7, random.nextInt(1_000_000), 0.0,
+                    price + 0.01, price - 0.01, 10_000_000, price, price, price, 0.0);
+        }
+        methods = new Method[COLUMNS.length];
+        for (int i = 0; i < COLUMNS.length; i++) {
+            methods[i] = Stock.class.getMethod(getterName(COLUMNS[i]));
+        }
+        rowReader = PropertyAccessors.of(Stock.class).rowReader(COLUMNS);
+        last = PropertyAccessors.of(Stock.class).property("last");
+    }
+
+    @Benchmark
+    public int reflectionLookupPerCell() throws Exception {
+        int cells = 0;
+        for (Stock stock : universe) {
+            for (String column : COLUMNS) {
+                if (Stock.class.getMethod(getterName(column)).invoke(stock) != null) {
+                    cells++;
+                }
+            }
+        }
+        return cells;
+    }
+
+    @Benchmark
+    public int reflectionCachedMethods() throws Exception {
+        int cells = 0;
+        for (Stock stock : universe) {
+            for (Method method : methods) {
+                if (method.invoke(stock) != null) {
+                    cells++;
+                }
+            }
+        }
+        return cells;
+    }
+
+    @Benchmark
+    public int accessorRows() {
+        int cells = 0;
+        for (Stock stock : universe) {
+            for (Object value : rowReader.apply(stock)) {
+                if (value != null) {
+                    cells++;
+                }
+            }
+        }
+        return cells;
+    }
+
+    @Benchmark
+    public double accessorGetDouble() {
+        double sum = 0;
+        for (Stock stock : universe) {
+            sum += last.getDouble(stock);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double directGetter() {
+        double sum = 0;
+        for (Stock stock : universe) {
+            sum += stock.getLast();
+        }
+        return sum;
+    }
+
+    private static String getterName(String property) {
+        return "get" + Character.toUpperCase(property.charAt(0)) + property.substring(1);
+    }
+}
@@ -0,0 +1,136 @@
+package com.moneyteam.analysis.service;
+
+import com.moneyteam.analysis.model.QuoteFixture;
+import com.moneyteam.analysis.service.impl.StockStrategiesImpl;
+import com.moneyteam.marketdata.model.Stock;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PropertyAccessorsTest {
+
+    public static class Sample {
+        public static int getCount() {
+            return 1;
+        }
+
+        public double getPrice() {
+            return 12.5;
+        }
+
+        public int getShares() {
+            return 300;
+        }
+
+        public Double getBoxed() {
+            return 7.0;
+        }
+
+        public Double getMissing() {
+            return null;
+        }
+
+        public String getName() {
+            return "sample";
+        }
+
+        public boolean isActive() {
+            return true;
+        }
+
+        public boolean hasDividend() {
+            return false;
+        }
+
+        public String isLabel() {
+            return "not a boolean getter";
+        }
+
+        public String get() {
+            return "no stem";
+        }
+
+        public double getWithArgument(int i) {
+            return i;
+        }
+    }
+
+    // Extends a public model whose base class is package-private in another package
+    public static class DerivedQuote extends QuoteFixture {
+    }
+
+    @Test
+    void getIsAndHasGettersBecomeProperties() {
+        PropertyAccessors<Sample> accessors = PropertyAccessors.of(Sample.class);
+
+        assertThat(accessors.propertyNames()).containsExactlyInAnyOrder(
+                "price", "shares", "boxed", "missing", "name", "active", "dividend");
+        Sample sample = new Sample();
+        assertThat(accessors.get(sample, "name")).isEqualTo("sample");
+        assertThat(accessors.get(sample, "active")).isEqualTo(true);
+        assertThat(accessors.get(sample, "dividend")).isEqualTo(false);
+        assertThat(accessors.property("price").getValueType()).isEqualTo(double.class);
+        assertThat(PropertyAccessors.of(Sample.class)).isSameAs(accessors);
+    }
+
+    @Test
+    void getDoubleReadsPrimitivesAndBoxedNumbers() {
+        PropertyAccessors<Sample> accessors = PropertyAccessors.of(Sample.class);
+        Sample sample = new Sample();
+
+        assertThat(accessors.property("price").getDouble(sample)).isEqualTo(12.5);
+        assertThat(accessors.property("shares").getDouble(sample)).isEqualTo(300.0);
+        assertThat(accessors.property("boxed").getDouble(sample)).isEqualTo(7.0);
+        assertThat(accessors.property("missing").getDouble(sample)).isNaN();
+        assertThat(accessors.get(sample, "price")).isEqualTo(12.5);
+        assertThatThrownBy(() -> accessors.property("name").getDouble(sample))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void unknownPropertyIsRejected() {
+        PropertyAccessors<Sample> accessors = PropertyAccessors.of(Sample.class);
+
+        assertThat(accessors.property("volume")).isNull();
+        assertThatThrownBy(() -> accessors.get(new Sample(), "volume")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> accessors.rowReader("price", "volume")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> StockStrategiesImpl.getStockProperties(new Stock(), new String[] {"last", "volumes"}))
+                .isInstanceOf(NoSuchMethodException.class)
+                .hasMessageContaining("volumes");
+    }
+
+    @Test
+    void stockPropertiesAreReadInRequestedOrder() throws Exception {
+        Stock stock = new Stock();
+        stock.setStockTicker("AAPL");
+        stock.setLast(190.0);
+
+        assertThat(StockStrategiesImpl.getStockProperties(stock, new String[] {"last", "stockTicker", "bid"}))
+                .containsExactly(190.0, "AAPL", null);
+        assertThat(PropertyAccessors.of(Stock.class).rowReader("stockTicker", "last").apply(stock))
+                .containsExactly("AAPL", 190.0);
+    }
+
+    @Test
+    void gettersOfANonPublicSuperclassInAnotherPackageAreBound() {
+        PropertyAccessors<DerivedQuote> accessors = PropertyAccessors.of(DerivedQuote.class);
+        DerivedQuote quote = new DerivedQuote();
+
+        assertThat(accessors.propertyNames()).contains("bid", "spread");
+        assertThat(accessors.property("spread").getDouble(quote)).isEqualTo(0.25);
+        assertThat(accessors.get(quote, "bid")).isEqualTo(99.5);
+    }
+
+    @Test
+    void classesInPackagesNotOpenToUsFallBackToMethodHandles() {
+        PropertyAccessors<LocalDate> accessors = PropertyAccessors.of(LocalDate.class);
+        LocalDate date = LocalDate.of(2024, 2, 29);
+
+        assertThat(accessors.get(date, "year")).isEqualTo(2024);
+        assertThat(accessors.property("monthValue").getDouble(date)).isEqualTo(2.0);
+        assertThat(accessors.get(date, "leapYear")).isEqualTo(true);
+    }
+}
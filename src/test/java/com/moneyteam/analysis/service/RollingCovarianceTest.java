@@ -0,0 +1,110 @@
+package com.moneyteam.analysis.service;
+
+import com.moneyteam.analysis.model.CorrelationMatrix;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class RollingCovarianceTest {
+
+    private static final int N = 4;
+    private static final int WINDOW = 50;
+
+    @Test
+    void matchesBruteForceThroughEvictionAndResums() {
+        RollingCovariance covariance = new RollingCovariance(N, WINDOW);
+        double[][] bars = correlatedReturns(10_000, 1);
+
+        for (int b = 0; b < bars.length; b++) {
+            covariance.update(bars[b]);
+            assertThat(covariance.observations()).isEqualTo(Math.min(b + 1, WINDOW));
+            // Every bar while filling, then around each resum and at a spread of points after
+            if (b < WINDOW + 5 || b % 97 == 0 || Math.abs(b % 4096 - 4095) <= 2) {
+                assertMatchesBruteForce(covariance, bars, b);
+            }
+        }
+    }
+
+    @Test
+    void aSpikeLeavesNoTraceOnceEvicted() {
+        RollingCovariance covariance = new RollingCovariance(N, WINDOW);
+        double[][] bars = correlatedReturns(3 * WINDOW, 2);
+        // A halt-and-reopen sized move, a thousand times the usual return
+        bars[10][0] = 0.8;
+        bars[10][2] = -0.5;
+        for (int b = 0; b < bars.length; b++) {
+            covariance.update(bars[b]);
+            if (b == 10 + WINDOW - 1 || b == 10 + WINDOW) {
+                assertMatchesBruteForce(covariance, bars, b);
+            }
+        }
+        assertThat(covariance.covariance(0, 0)).isLessThan(1e-5);
+    }
+
+    @Test
+    void needsTwoBarsAndTheRightWidth() {
+        RollingCovariance covariance = new RollingCovariance(2, 3);
+        assertThat(covariance.covariance(0, 1)).isNaN();
+        covariance.update(new double[] {1, 2});
+        assertThat(covariance.packedCovariance()).containsOnly(Double.NaN);
+
+        covariance.update(new double[] {3, 0});
+        assertThat(covariance.covariance(0, 0)).isEqualTo(2);
+        assertThat(covariance.covariance(0, 1)).isEqualTo(-2);
+        assertThat(covariance.covariance(1, 0)).isEqualTo(-2);
+
+        CorrelationMatrix matrix = covariance.snapshot(List.of("A", "B"), 7);
+        assertThat(matrix.correlation("A", "B")).isCloseTo(-1, within(1e-12));
+        assertThat(matrix.getObservations()).isEqualTo(2);
+        assertThat(matrix.getAsOfMillis()).isEqualTo(7);
+
+        assertThatThrownBy(() -> covariance.update(new double[] {1})).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RollingCovariance(0, 3)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RollingCovariance(2, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void assertMatchesBruteForce(RollingCovariance covariance, double[][] bars, int last) {
+        int first = Math.max(0, last - WINDOW + 1);
+        int count = last - first + 1;
+        if (count < 2) {
+            return;
+        }
+        double[] mean = new double[N];
+        for (int b = first; b <= last; b++) {
+            for (int i = 0; i < N; i++) {
+                mean[i] += bars[b][i] / count;
+            }
+        }
+        double[] packed = covariance.packedCovariance();
+        for (int i = 0; i < N; i++) {
+            for (int j = 0; j <= i; j++) {
+                double sum = 0;
+                for (int b = first; b <= last; b++) {
+                    sum += (bars[b][i] - mean[i]) * (bars[b][j] - mean[j]);
+                }
+                double expected = sum / (count - 1);
+                assertThat(covariance.covariance(i, j)).isCloseTo(expected, within(1e-13 + 1e-9 * Math.abs(expected)));
+                assertThat(packed[CorrelationMatrix.packedIndex(i, j)]).isCloseTo(covariance.covariance(i, j),
+                        within(1e-15));
+            }
+        }
+    }
+
+    // Minute-sized returns sharing one common factor
+    private static double[][] correlatedReturns(int bars, long seed) {
+        Random random = new Random(seed);
+        double[][] out = new double[bars][N];
+        for (int b = 0; b < bars; b++) {
+            double common = random.nextGaussian();
+            for (int i = 0; i < N; i++) {
+                out[b][i] = 0.001 * (0.5 * common + random.nextGaussian());
+            }
+        }
+        return out;
+    }
+}
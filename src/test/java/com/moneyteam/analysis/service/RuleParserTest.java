@@ -0,0 +1,76 @@
+package com.moneyteam.analysis.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RuleParserTest {
+
+    @Test
+    void arithmeticBindsTighterThanComparison() {
+        assertThat(RuleParser.parse("close > 1 + 2 * 3 - -4 / 2").toString())
+                .isEqualTo("(close GT ((1.0 ADD (2.0 MUL 3.0)) SUB (NEGATE(4.0) DIV 2.0)))");
+        assertThat(RuleParser.parse("(close - open) * 2 >= high").toString())
+                .isEqualTo("(((close SUB open) MUL 2.0) GE high)");
+    }
+
+    @Test
+    void notBindsTighterThanAndWhichBindsTighterThanOr() {
+        assertThat(RuleParser.parse("close > 1 or close < 2 and not volume == 0").toString())
+                .isEqualTo("((close GT 1.0) OR ((close LT 2.0) AND NOT((volume EQ 0.0))))");
+        assertThat(RuleParser.parse("not not close > 1 and open > 1 or high > 1").toString())
+                .isEqualTo("((NOT(NOT((close GT 1.0))) AND (open GT 1.0)) OR (high GT 1.0))");
+        assertThat(RuleParser.parse("(close > 1 or open > 1) and high > 1").getKind()).isEqualTo(RuleNode.Kind.AND);
+    }
+
+    @Test
+    void keywordsAndNamesAreCaseInsensitiveAndLastIsClose() {
+        assertThat(RuleParser.parse("RSI(14) < 30 AND Last > SMA(50)").toString())
+                .isEqualTo("((rsi(14) LT 30.0) AND (close GT sma(50)))");
+        // a name that merely starts with a keyword is not the keyword
+        assertThatThrownBy(() -> RuleParser.parse("close > 1 andy"))
+                .hasMessageStartingWith("Unexpected 'a' at position 10");
+    }
+
+    @Test
+    void errorsReportWhereParsingStopped() {
+        assertThatThrownBy(() -> RuleParser.parse("rsi(14) < "))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unexpected end of rule at position 10 in rule: rsi(14) < ");
+        assertThatThrownBy(() -> RuleParser.parse("close > foo(3)"))
+                .hasMessageStartingWith("Unknown name 'foo' at position 11");
+        assertThatThrownBy(() -> RuleParser.parse("sma(close) > 1"))
+                .hasMessageStartingWith("Expected a number at position 4");
+        assertThatThrownBy(() -> RuleParser.parse("macd(12, 26) > 0"))
+                .hasMessageStartingWith("Expected ',' at position 11");
+        assertThatThrownBy(() -> RuleParser.parse("(close > 1"))
+                .hasMessageStartingWith("Expected ')' at position 10");
+        assertThatThrownBy(() -> RuleParser.parse("close > 1 $"))
+                .hasMessageStartingWith("Unexpected '$' at position 10");
+    }
+
+    @Test
+    void conditionsAndValuesCannotBeMixed() {
+        assertThatThrownBy(() -> RuleParser.parse("close + 1"))
+                .hasMessageStartingWith("Rule must be a condition");
+        assertThatThrownBy(() -> RuleParser.parse("close and open > 1"))
+                .hasMessageContaining("Expected a condition but found a value");
+        assertThatThrownBy(() -> RuleParser.parse("(close > 1) + 1 > 2"))
+                .hasMessageContaining("Expected a value but found a condition");
+    }
+
+    @Test
+    void equalIndicatorsGetOneKeyAndShareASlot() {
+        assertThat(RuleParser.parse("sma(50.0) > sma( 50 )").toString()).isEqualTo("(sma(50) GT sma(50))");
+        assertThat(RuleParser.parse("bb_upper(20, 2.5) > close").toString()).isEqualTo("(bb_upper(20,2.5) GT close)");
+
+        RuleSet set = RuleSet.compile(Map.of(
+                "a", "close > sma(50)",
+                "b", "close < sma(50.0) and rsi(14) < 30",
+                "c", "RSI(14.0) > 70"));
+        assertThat(set.indicatorCount()).isEqualTo(2);
+    }
+}
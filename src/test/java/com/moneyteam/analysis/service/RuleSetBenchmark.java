@@ -0,0 +1,101 @@
+package com.moneyteam.analysis.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compiled rule lambdas against the reference tree-walking interpreter: every rule of a set evaluated
+ * for every ticker, as the strategy scheduler does on each bar close. Rules are drawn from a few
+ * common shapes over a handful of periods, so the whole set shares about a dozen indicator slots.
+ *
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat cp.txt) org.openjdk.jmh.Main RuleSetBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RuleSetBenchmark {
+
+    private static final String[] SHAPES = {
+            "rsi(%d) < %d",
+            "close > sma(%d) and rsi(14) < %d",
+            "ema(%d) > sma(50) or volume > %d000",
+            "not (close < bb_lower(%d,2)) and abs(close - open) / close * 100 < %d",
+            "macd(12,26,9) > macd_signal(12,26,9) and atr(%d) < %d"};
+
+    @Param({"2000"})
+    int rules;
+
+    @Param({"1000"})
+    int tickers;
+
+    List<RuleSet.CompiledRule> compiled;
+    RuleContext[] contexts;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        Map<String, String> sources = new LinkedHashMap<>();
+        int[] periods = {10, 14, 20};
+        for (int i = 0; i < rules; i++) {
+            String shape = SHAPES[i % SHAPES.length];
+            sources.put("r" + i, String.format(shape, periods[random.nextInt(periods.length)], 1 + random.nextInt(99)));
+        }
+        RuleSet set = RuleSet.compile(sources);
+        compiled = set.rules();
+        contexts = new RuleContext[tickers];
+        for (int t = 0; t < tickers; t++) {
+            contexts[t] = set.newContext();
+            double price = 50 + random.nextInt(100);
+            for (int bar = 0; bar < 100; bar++) {
+                double open = price;
+                price *= 1 + random.nextGaussian() * 0.02;
+                contexts[t].update(open, Math.max(open, price), Math.min(open, price), price, random.nextInt(100_000));
+            }
+        }
+    }
+
+    @Benchmark
+    public int compiled() {
+        int fired = 0;
+        for (RuleContext context : contexts) {
+            for (RuleSet.CompiledRule rule : compiled) {
+                if (rule.test(context)) {
+                    fired++;
+                }
+            }
+        }
+        return fired;
+    }
+
+    @Benchmark
+    public int interpreted() {
+        int fired = 0;
+        for (RuleContext context : contexts) {
+            for (RuleSet.CompiledRule rule : compiled) {
+                if (rule.interpret(context)) {
+                    fired++;
+                }
+            }
+        }
+        return fired;
+    }
+}
@@ -0,0 +1,127 @@
+package com.moneyteam.analysis.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RuleSetTest {
+
+    private static final String[] OPERANDS = {
+            "open", "high", "low", "close", "volume", "sma(5)", "ema(10)", "rsi(14)", "atr(14)", "stddev(20)",
+            "macd(12,26,9)", "macd_signal(12,26,9)", "bb_upper(20,2)", "bb_lower(20,2)"};
+    private static final String[] COMPARISONS = {"<", "<=", ">", ">=", "==", "!="};
+
+    @Test
+    void compiledRulesAgreeWithTheInterpreterOnRandomBars() {
+        Random random = new Random(7);
+        Map<String, String> sources = new LinkedHashMap<>();
+        for (int i = 0; i < 300; i++) {
+            sources.put("r" + i, condition(random, 3));
+        }
+        // the hand-written shapes the compiler specialises
+        sources.put("threshold", "rsi(14) < 30");
+        sources.put("crossing", "sma(5) > ema(10)");
+        sources.put("folded", "1 + 2 > 2 * 1 and close > 0");
+        sources.put("equal", "close == close and volume != 0");
+        RuleSet set = RuleSet.compile(sources);
+        RuleContext context = set.newContext();
+
+        int checked = 0;
+        int fired = 0;
+        double price = 100;
+        for (int bar = 0; bar < 500; bar++) {
+            double open = price;
+            price *= 1 + random.nextGaussian() * 0.02;
+            // repeat prices now and then so == and != see both outcomes
+            double close = random.nextInt(10) == 0 ? open : price;
+            context.update(open, Math.max(open, close) * 1.01, Math.min(open, close) * 0.99, close,
+                    random.nextInt(3) * 1000);
+            for (RuleSet.CompiledRule rule : set.rules()) {
+                boolean compiled = rule.test(context);
+                assertThat(compiled).as("%s at bar %d", rule.getSource(), bar).isEqualTo(rule.interpret(context));
+                checked++;
+                fired += compiled ? 1 : 0;
+            }
+        }
+        assertThat(checked).isEqualTo(500 * sources.size());
+        // not trivially all-false (or all-true) rules
+        assertThat(fired).isBetween(checked / 10, checked * 9 / 10);
+    }
+
+    @Test
+    void indicatorsStartAsNanSoRulesStayFalseUntilWarm() {
+        RuleSet set = RuleSet.compile(Map.of("dip", "close < sma(3)", "notDip", "not close < sma(3)"));
+        RuleContext context = set.newContext();
+
+        context.onTick(10, 1);
+        assertThat(set.rule("dip").test(context)).isFalse();
+        context.onTick(10, 1);
+        context.onTick(7, 1);
+        assertThat(set.rule("dip").test(context)).isTrue();
+        assertThat(set.rule("notDip").test(context)).isFalse();
+    }
+
+    @Test
+    void contextsAreIndependentPerTicker() {
+        RuleSet set = RuleSet.compile(Map.of("up", "close > sma(2)"));
+        RuleContext a = set.newContext();
+        RuleContext b = set.newContext();
+        for (double p : new double[] {1, 2, 3}) {
+            a.onTick(p, 0);
+            b.onTick(4 - p, 0);
+        }
+        assertThat(set.rule("up").test(a)).isTrue();
+        assertThat(set.rule("up").test(b)).isFalse();
+    }
+
+    @Test
+    void badRulesAndNamesAreRejected() {
+        assertThatThrownBy(() -> RuleSet.compile(Map.of("x", "sma(0) > 1")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("period must be positive");
+        RuleSet set = RuleSet.compile(Map.of("x", "close > 1"));
+        assertThatThrownBy(() -> set.rule("y")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String condition(Random random, int depth) {
+        int pick = depth == 0 ? 0 : random.nextInt(4);
+        switch (pick) {
+            case 1:
+                return "(" + condition(random, depth - 1) + ") and (" + condition(random, depth - 1) + ")";
+            case 2:
+                return "(" + condition(random, depth - 1) + ") or (" + condition(random, depth - 1) + ")";
+            case 3:
+                return "not (" + condition(random, depth - 1) + ")";
+            default:
+                return value(random, 2) + " " + COMPARISONS[random.nextInt(COMPARISONS.length)] + " " + value(random, 2);
+        }
+    }
+
+    private static String value(Random random, int depth) {
+        int pick = depth == 0 ? random.nextInt(2) : random.nextInt(7);
+        switch (pick) {
+            case 0:
+                return OPERANDS[random.nextInt(OPERANDS.length)];
+            case 1:
+                return Integer.toString(random.nextInt(120));
+            case 2:
+                return value(random, depth - 1) + " + " + value(random, depth - 1);
+            case 3:
+                return "(" + value(random, depth - 1) + ") * " + value(random, depth - 1);
+            case 4:
+                return "-(" + value(random, depth - 1) + ") / (" + value(random, depth - 1) + ")";
+            case 5:
+                return "abs(" + value(random, depth - 1) + ")";
+            default:
+                List<String> args = new ArrayList<>(List.of(value(random, depth - 1), value(random, depth - 1)));
+                return (random.nextBoolean() ? "min(" : "max(") + String.join(", ", args) + ")";
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.moneyteam.analysis.service;
+
+import com.moneyteam.analysis.model.StrategySignal;
+import com.moneyteam.marketdata.model.PriceBar;
+import com.moneyteam.marketdata.model.enums.BarInterval;
+import com.moneyteam.trading.model.enums.OrderSide;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class StrategySchedulerTest {
+
+    private final StrategyScheduler scheduler = new StrategyScheduler(mock(IndicatorEngine.class));
+
+    @AfterEach
+    void tearDown() {
+        scheduler.destroy();
+    }
+
+    @Test
+    void deliveredSignalIsConfirmedToTheStrategy() throws Exception {
+        BuyingStrategy strategy = new BuyingStrategy(0);
+        List<StrategySignal> signals = new CopyOnWriteArrayList<>();
+        scheduler.register("buyer", List.of("AAPL"), () -> strategy, signals::add, 0);
+
+        scheduler.onBar(bar("AAPL"));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (strategy.delivered.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(signals).hasSize(1);
+        assertThat(strategy.delivered).containsExactly(OrderSide.BUY);
+    }
+
+    @Test
+    void lateSignalIsNotConfirmed() throws Exception {
+        // Evaluation alone overruns the 1 ms deadline
+        BuyingStrategy strategy = new BuyingStrategy(20);
+        List<StrategySignal> signals = new CopyOnWriteArrayList<>();
+        scheduler.register("slow", List.of("AAPL"), () -> strategy, signals::add, 1);
+
+        scheduler.onBar(bar("AAPL"));
+
+        assertThat(strategy.evaluated.await(2, TimeUnit.SECONDS)).isTrue();
+        awaitMetric("slow", "late", 1);
+        assertThat(signals).isEmpty();
+        assertThat(strategy.delivered).isEmpty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void awaitMetric(String strategy, String metric, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (System.nanoTime() < deadline) {
+            Object value = ((Map<String, Object>) scheduler.metrics().get(strategy)).get(metric);
+            if ((Long) value >= expected) {
+                return;
+            }
+            Thread.sleep(5);
+        }
+        throw new AssertionError(strategy + " never reached " + metric + " = " + expected);
+    }
+
+    private static PriceBar bar(String ticker) {
+        return new PriceBar(ticker, BarInterval.MINUTE, 1_718_200_800L, 100, 101, 99, 100.5, 1_000);
+    }
+
+    private static final class BuyingStrategy implements LiveStrategy {
+        final long sleepMillis;
+        final CountDownLatch evaluated = new CountDownLatch(1);
+        final List<OrderSide> delivered = new CopyOnWriteArrayList<>();
+
+        BuyingStrategy(long sleepMillis) {
+            this.sleepMillis = sleepMillis;
+        }
+
+        @Override
+        public OrderSide onBar(PriceBar bar) {
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            evaluated.countDown();
+            return OrderSide.BUY;
+        }
+
+        @Override
+        public void onSignalDelivered(OrderSide side) {
+            delivered.add(side);
+        }
+    }
+}
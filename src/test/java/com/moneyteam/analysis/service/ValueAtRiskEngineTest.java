@@ -0,0 +1,169 @@
+package com.moneyteam.analysis.service;
+
+import com.moneyteam.analysis.model.BarSeries;
+import com.moneyteam.analysis.model.CorrelationMatrix;
+import com.moneyteam.analysis.model.RiskManagement;
+import com.moneyteam.analysis.model.ValueAtRisk;
+import com.moneyteam.marketdata.model.PriceBar;
+import com.moneyteam.marketdata.model.enums.BarInterval;
+import com.moneyteam.marketdata.repository.PriceHistoryRepository;
+import com.moneyteam.trading.model.Position;
+import com.moneyteam.trading.repository.PositionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ValueAtRiskEngineTest {
+
+    private final PositionRepository positionRepository = mock(PositionRepository.class);
+    private final PriceHistoryRepository priceHistoryRepository = mock(PriceHistoryRepository.class);
+    private final AnalysisSnapshotRegistry snapshots = mock(AnalysisSnapshotRegistry.class);
+    private final CorrelationService correlationService = mock(CorrelationService.class);
+    private final ValueAtRiskEngine engine =
+            new ValueAtRiskEngine(positionRepository, priceHistoryRepository, snapshots, correlationService);
+
+    @AfterEach
+    void tearDown() {
+        engine.destroy();
+    }
+
+    @Test
+    void normalQuantileMatchesTabulatedValues() {
+        assertThat(ValueAtRiskEngine.normalQuantile(0.5)).isCloseTo(0, within(1e-12));
+        assertThat(ValueAtRiskEngine.normalQuantile(0.975)).isCloseTo(1.959963985, within(1e-8));
+        assertThat(ValueAtRiskEngine.normalQuantile(0.99)).isCloseTo(2.326347874, within(1e-8));
+        // lower tail region of the approximation
+        assertThat(ValueAtRiskEngine.normalQuantile(0.01)).isCloseTo(-2.326347874, within(1e-8));
+        assertThat(ValueAtRiskEngine.normalQuantile(1e-5)).isCloseTo(-4.264890794, within(1e-7));
+        assertThatThrownBy(() -> ValueAtRiskEngine.normalQuantile(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ValueAtRiskEngine.normalQuantile(1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void historicalMonteCarloAndParametricAgreeOnGaussianReturns() {
+        int observations = 1_000;
+        double sigma = 0.01;
+        Random random = new Random(3);
+        double[] returns = new double[2 * observations];
+        for (int t = 0; t < observations; t++) {
+            double common = random.nextGaussian();
+            returns[t] = sigma * common;
+            // corr 0.6 with the first asset
+            returns[observations + t] = sigma * (0.6 * common + 0.8 * random.nextGaussian());
+        }
+        double[] exposures = {1_000_000, 500_000};
+
+        ValueAtRisk var = engine.evaluate("test", exposures, returns, observations);
+
+        // sd of the book = sigma * sqrt(1 + 0.25 + 2 * 0.5 * 0.6)
+        double expected = ValueAtRiskEngine.normalQuantile(0.99) * sigma * Math.sqrt(1.6) * 1_000_000;
+        assertThat(var.getParametricVar()).isCloseTo(expected, within(0.05 * expected));
+        assertThat(var.getHistoricalVar()).isCloseTo(var.getParametricVar(), within(0.15 * expected));
+        assertThat(var.getMonteCarloVar()).isCloseTo(var.getParametricVar(), within(0.05 * expected));
+        assertThat(var.getHistoricalCvar()).isGreaterThan(var.getHistoricalVar());
+        assertThat(var.getParametricCvar()).isGreaterThan(var.getParametricVar());
+        assertThat(var.getMonteCarloCvar()).isGreaterThan(var.getMonteCarloVar());
+        assertThat(var.getGrossExposure()).isEqualTo(1_500_000);
+    }
+
+    @Test
+    void monteCarloIsReproducibleForTheSameBook() {
+        Random random = new Random(5);
+        double[] returns = new double[3 * 252];
+        for (int i = 0; i < returns.length; i++) {
+            returns[i] = 0.02 * random.nextGaussian();
+        }
+        double[] exposures = {10_000, -4_000, 7_500};
+
+        ValueAtRisk first = engine.evaluate("a", exposures, returns, 252);
+        ValueAtRisk second = engine.evaluate("b", exposures, returns, 252);
+
+        assertThat(second.getMonteCarloVar()).isEqualTo(first.getMonteCarloVar());
+        assertThat(second.getMonteCarloCvar()).isEqualTo(first.getMonteCarloCvar());
+        assertThat(first.getMonteCarloVar()).isPositive();
+    }
+
+    @Test
+    void returnMatrixCarriesGapsAndAlignsLateStarters() {
+        BarSeries full = series("A", new long[] {0, 1, 2, 3, 4}, new double[] {100, 110, 121, 121, 110});
+        BarSeries gap = series("B", new long[] {0, 1, 3, 4}, new double[] {50, 50, 55, 55});
+        BarSeries late = series("C", new long[] {2, 3, 4}, new double[] {10, 20, 10});
+
+        ValueAtRiskEngine.ReturnMatrix matrix =
+                ValueAtRiskEngine.ReturnMatrix.of(new BarSeries[] {full, gap, late}, 252);
+
+        assertThat(matrix.observations).isEqualTo(4);
+        double[] r = matrix.returns;
+        assertThat(r[0]).isCloseTo(Math.log(1.1), within(1e-12));
+        assertThat(r[2]).isZero();
+        // B has no day-2 bar: flat that day, the whole move lands on day 3
+        assertThat(r[4]).isZero();
+        assertThat(r[5]).isZero();
+        assertThat(r[6]).isCloseTo(Math.log(1.1), within(1e-12));
+        // C has no price before day 2, so no return until day 3
+        assertThat(r[8]).isZero();
+        assertThat(r[9]).isZero();
+        assertThat(r[10]).isCloseTo(Math.log(2), within(1e-12));
+        assertThat(r[11]).isCloseTo(Math.log(0.5), within(1e-12));
+
+        ValueAtRiskEngine.ReturnMatrix newest = ValueAtRiskEngine.ReturnMatrix.of(new BarSeries[] {full}, 2);
+        assertThat(newest.observations).isEqualTo(2);
+        assertThat(newest.returns[0]).isZero();
+        assertThat(newest.returns[1]).isCloseTo(Math.log(110.0 / 121), within(1e-12));
+    }
+
+    @Test
+    void cachedResultIsReusedUntilAMarkMovesPastTheTolerance() {
+        Position position = new Position();
+        position.setStockTicker("AAPL");
+        position.setTotalQuantity(100.0);
+        List<PriceBar> bars = new ArrayList<>();
+        Random random = new Random(9);
+        double close = 100;
+        for (int day = 0; day < 300; day++) {
+            close *= 1 + 0.01 * random.nextGaussian();
+            bars.add(new PriceBar("AAPL", BarInterval.DAILY, day * 86_400L, close, close, close, close, 1));
+        }
+        when(priceHistoryRepository.findBars(eq("AAPL"), eq(BarInterval.DAILY), anyLong(), anyLong()))
+                .thenReturn(bars);
+        when(correlationService.snapshot()).thenReturn(new CorrelationMatrix(List.of(), new double[0], 0, 0));
+        when(snapshots.risk("AAPL")).thenReturn(quote(100), quote(100.4), quote(101));
+
+        ValueAtRisk first = engine.compute("firm", List.of(position));
+        ValueAtRisk nudged = engine.compute("firm", List.of(position));
+        ValueAtRisk moved = engine.compute("firm", List.of(position));
+
+        assertThat(nudged).isSameAs(first);
+        assertThat(moved).isNotSameAs(first);
+        assertThat(moved.getGrossExposure()).isEqualTo(10_100);
+        verify(priceHistoryRepository, times(1)).findBars(eq("AAPL"), eq(BarInterval.DAILY), anyLong(), anyLong());
+
+        position.setTotalQuantity(200.0);
+        assertThat(engine.compute("firm", List.of(position)).getGrossExposure()).isEqualTo(20_200);
+    }
+
+    private static RiskManagement quote(double last) {
+        return new RiskManagement("AAPL", last, "Apple", "Tech", 0, 0, 0, 0, last, last);
+    }
+
+    private static BarSeries series(String ticker, long[] days, double[] closes) {
+        long[] seconds = new long[days.length];
+        for (int i = 0; i < days.length; i++) {
+            seconds[i] = days[i] * 86_400 + 57_600;
+        }
+        return new BarSeries(ticker, seconds, closes, closes, closes, closes, new long[days.length]);
+    }
+}
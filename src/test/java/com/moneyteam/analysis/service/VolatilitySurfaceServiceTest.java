@@ -0,0 +1,84 @@
+package com.moneyteam.analysis.service;
+
+import com.moneyteam.analysis.model.OptionChain;
+import com.moneyteam.analysis.model.OptionGreeks;
+import com.moneyteam.analysis.model.OptionQuote;
+import com.moneyteam.analysis.model.RiskManagement;
+import com.moneyteam.analysis.model.VolatilitySurface;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class VolatilitySurfaceServiceTest {
+
+    private final AnalysisSnapshotRegistry snapshots = mock(AnalysisSnapshotRegistry.class);
+    private final VolatilitySurfaceService service = new VolatilitySurfaceService(snapshots);
+
+    @AfterEach
+    void tearDown() {
+        service.destroy();
+    }
+
+    @Test
+    void postedChainQuotesRebuildTheSurface() {
+        when(snapshots.risk("AAPL")).thenReturn(new RiskManagement("AAPL", 100, null, null, 0, 0, 0, 0, 100, 100));
+        LocalDate near = LocalDate.now().plusDays(30);
+        LocalDate far = LocalDate.now().plusDays(120);
+        List<OptionQuote> quotes = new ArrayList<>();
+        // far expiry first, so the service has to group them
+        for (LocalDate expiration : new LocalDate[] {far, near}) {
+            for (double strike : new double[] {90, 100, 110}) {
+                quotes.add(new OptionQuote(expiration, strike, true, price(expiration, strike, true, 0.3)));
+                quotes.add(new OptionQuote(expiration, strike, false, price(expiration, strike, false, 0.3)));
+            }
+        }
+        // one quote below intrinsic; its strike keeps the other side
+        quotes.add(new OptionQuote(near, 120, false, 1.0));
+
+        VolatilitySurface surface = service.onChainQuotes("AAPL", quotes);
+
+        assertThat(surface.expiries()).isEqualTo(2);
+        assertThat(surface.vols(0)).hasSize(3);
+        for (double vol : surface.vols(0)) {
+            assertThat(vol).isCloseTo(0.3, within(1e-4));
+        }
+        assertThat(service.surface("AAPL")).isSameAs(surface);
+        for (double vol : service.contractVols("AAPL")) {
+            assertThat(vol).isCloseTo(0.3, within(1e-4));
+        }
+    }
+
+    @Test
+    void quotesNeedAnUnderlyingQuoteAndContracts() {
+        List<OptionQuote> quotes = List.of(new OptionQuote(LocalDate.now().plusDays(30), 100, true, 3));
+        assertThatThrownBy(() -> service.onChainQuotes("MSFT", quotes))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("No quote for underlying");
+
+        when(snapshots.risk("MSFT")).thenReturn(new RiskManagement("MSFT", 100, null, null, 0, 0, 0, 0, 100, 100));
+        assertThatThrownBy(() -> service.onChainQuotes("MSFT", List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.onChainQuotes("MSFT", List.of(new OptionQuote(null, 100, true, 3))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(service.surface("MSFT")).isNull();
+    }
+
+    private static double price(LocalDate expiration, double strike, boolean call, double vol) {
+        OptionChain chain = new OptionChain("AAPL", new int[] {(int) expiration.toEpochDay()}, new double[] {strike},
+                new boolean[] {call}, 0);
+        long now = System.currentTimeMillis();
+        OptionGreeks greeks = new OptionGreeks("AAPL", 100, now, 1);
+        BlackScholes.greeks(chain, 100, OptionPricingEngine.RISK_FREE_RATE, new double[] {vol},
+                Math.floorDiv(now, 1000L), greeks, 0, 1);
+        return greeks.getPrice()[0];
+    }
+}
@@ -0,0 +1,56 @@
+package com.moneyteam.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MultiRowInsertTest {
+
+    private final MultiRowInsert<long[]> insert = new MultiRowInsert<>(MultiRowInsert.prefix("t", "a", "b"), 2,
+            " ON DUPLICATE KEY UPDATE b = VALUES(b)", 3, (ps, i, row) -> {
+                ps.setLong(i++, row[0]);
+                ps.setLong(i, row[1]);
+            });
+
+    @Test
+    void buildsOneTuplePerRow() {
+        assertThat(insert.sql(2))
+                .isEqualTo("INSERT INTO t (a, b) VALUES (?, ?), (?, ?) ON DUPLICATE KEY UPDATE b = VALUES(b)");
+    }
+
+    @Test
+    void reusesTheFullStatementAndWritesTheTailSeparately() throws Exception {
+        Connection connection = mock(Connection.class);
+        PreparedStatement full = mock(PreparedStatement.class);
+        PreparedStatement tail = mock(PreparedStatement.class);
+        when(connection.prepareStatement(anyString())).thenAnswer(call ->
+                call.getArgument(0).equals(insert.sql(3)) ? full : tail);
+        List<long[]> rows = new ArrayList<>();
+        for (long r = 0; r < 7; r++) {
+            rows.add(new long[]{r, r * 10});
+        }
+
+        assertThat(insert.execute(connection, rows, 5)).isEqualTo(3);
+
+        verify(connection, times(1)).prepareStatement(insert.sql(3));
+        verify(connection, times(1)).prepareStatement(insert.sql(1));
+        verify(full, times(2)).executeUpdate();
+        verify(full).setQueryTimeout(5);
+        // Second full statement: rows 3..5, row 5 is the last tuple
+        verify(full).setLong(5, 5);
+        verify(full).setLong(6, 50);
+        verify(tail).setLong(1, 6);
+        verify(tail).setLong(2, 60);
+        verify(tail, times(1)).executeUpdate();
+    }
+}
@@ -0,0 +1,44 @@
+package com.moneyteam.marketdata.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CryptoTest {
+
+    @Test
+    void scalesComeFromVenueTickAndLotSizes() {
+        Crypto shib = Crypto.of("SHIB-USD", "0.00000001", "1");
+        assertThat(shib.getPriceScale()).isEqualTo(8);
+        assertThat(shib.getQuantityScale()).isZero();
+        assertThat(shib.toPrice(shib.toPriceTicks("0.00002345"))).isEqualTo(0.00002345);
+
+        Crypto btc = Crypto.of("BTC-USD", "0.010", "0.00000001");
+        assertThat(btc.getPriceScale()).isEqualTo(2);
+        assertThat(btc.getQuantityScale()).isEqualTo(8);
+    }
+
+    @Test
+    void defaultScaleKeepsSubCentPrices() {
+        Crypto pepe = Crypto.of("PEPE-USD");
+        assertThat(pepe.toPrice(pepe.toPriceTicks("0.00000123"))).isEqualTo(0.00000123);
+    }
+
+    @Test
+    void notionalMatchesExactArithmeticAtHighScales() {
+        Crypto btc = Crypto.of("BTC-USD");
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 100_000; i++) {
+            // Up to $200k a coin and 50 coins a fill, both at 8 decimals: the raw product overflows a long
+            long price = 1 + random.nextLong(200_000L * 100_000_000L);
+            long quantity = 1 + random.nextLong(50L * 100_000_000L);
+            long expected = BigDecimal.valueOf(price).multiply(BigDecimal.valueOf(quantity))
+                    .divide(BigDecimal.valueOf(100_000_000L), RoundingMode.HALF_UP).longValueExact();
+            assertThat(btc.notionalTicks(price, quantity)).isEqualTo(expected);
+        }
+    }
+}
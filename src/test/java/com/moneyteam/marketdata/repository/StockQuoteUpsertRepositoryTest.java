@@ -0,0 +1,100 @@
+package com.moneyteam.marketdata.repository;
+
+import com.moneyteam.marketdata.model.Stock;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.jdbc.Work;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StockQuoteUpsertRepositoryTest {
+
+    private static final String[] UPDATED = {
+            "stock_name", "sector", "market_cap_amount", "volume", "sizzle_index", "ask", "bid",
+            "number_of_shares", "open_price", "close_price", "last_price", "mark_change"
+    };
+
+    private final Connection connection = mock(Connection.class);
+    private final PreparedStatement statement = mock(PreparedStatement.class);
+    private final StockQuoteUpsertRepository repository;
+
+    StockQuoteUpsertRepositoryTest() throws Exception {
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        SessionFactory sessionFactory = mock(SessionFactory.class);
+        StatelessSession session = mock(StatelessSession.class);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.openStatelessSession()).thenReturn(session);
+        when(session.getTransaction()).thenReturn(mock(Transaction.class));
+        doAnswer(call -> {
+            call.<Work>getArgument(0).execute(connection);
+            return null;
+        }).when(session).doWork(any());
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        repository = new StockQuoteUpsertRepository(entityManagerFactory);
+    }
+
+    @Test
+    void nullFieldsKeepTheStoredValue() throws Exception {
+        repository.upsertAll(List.of(new Stock("AAPL", null, null, null, null, null,
+                189.5, 189.4, null, null, null, 189.45, null)));
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(connection).prepareStatement(sql.capture());
+        String update = sql.getValue().substring(sql.getValue().indexOf(" ON DUPLICATE KEY UPDATE "));
+        for (String column : UPDATED) {
+            assertThat(update).contains(column + " = COALESCE(VALUES(" + column + "), " + column + ")");
+        }
+        // The key is never rewritten
+        assertThat(update).doesNotContain("stock_ticker");
+
+        // Missing fields go out as NULL, which COALESCE turns back into the stored value
+        verify(statement).setString(1, "AAPL");
+        verify(statement).setNull(2, Types.VARCHAR);
+        verify(statement).setNull(5, Types.BIGINT);
+        verify(statement).setNull(9, Types.BIGINT);
+        verify(statement).setDouble(7, 189.5);
+        verify(statement).setDouble(8, 189.4);
+        verify(statement).setDouble(12, 189.45);
+        verify(statement).setNull(13, Types.DOUBLE);
+    }
+
+    @Test
+    void writesFullStatementsThenTheTail() throws Exception {
+        List<Stock> quotes = new ArrayList<>();
+        for (int i = 0; i <= StockQuoteUpsertRepository.ROWS_PER_STATEMENT; i++) {
+            quotes.add(new Stock("T" + i, null, null, null, 100, null, 1.0, 1.0, null, null, null, 1.0, null));
+        }
+
+        assertThat(repository.upsertAll(quotes)).isEqualTo(2);
+
+        verify(connection, times(2)).prepareStatement(anyString());
+        verify(statement, times(2)).executeUpdate();
+        // The tail statement carries only the last quote, bound from index 1
+        verify(statement).setString(1, "T" + StockQuoteUpsertRepository.ROWS_PER_STATEMENT);
+    }
+
+    @Test
+    void emptyBatchDoesNotTouchTheDatabase() throws Exception {
+        assertThat(repository.upsertAll(List.of())).isZero();
+
+        verify(connection, never()).prepareStatement(anyString());
+    }
+}
@@ -0,0 +1,86 @@
+package com.moneyteam.marketdata.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private final CircuitBreaker breaker = new CircuitBreaker(3, Duration.ofMillis(50));
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onFailure();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        breaker.onFailure();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.allowRequest()).isFalse();
+    }
+
+    @Test
+    void neutralResultsNeitherCountNorReset() {
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onNeutral();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        breaker.onFailure();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void letsOneProbeThroughAfterTheCoolDown() throws InterruptedException {
+        open();
+        Thread.sleep(60);
+
+        assertThat(breaker.allowRequest()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.allowRequest()).isFalse();
+
+        breaker.onSuccess();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.allowRequest()).isTrue();
+    }
+
+    @Test
+    void failedProbeReopensForAnotherCoolDown() throws InterruptedException {
+        open();
+        Thread.sleep(60);
+        assertThat(breaker.allowRequest()).isTrue();
+
+        breaker.onFailure();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.allowRequest()).isFalse();
+
+        Thread.sleep(60);
+        assertThat(breaker.allowRequest()).isTrue();
+    }
+
+    @Test
+    void answeredProbeClosesAndAbandonedProbeHandsOver() throws InterruptedException {
+        open();
+        Thread.sleep(60);
+        assertThat(breaker.allowRequest()).isTrue();
+        breaker.onAbandoned();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        // Cool-down already served, so the next caller probes straight away
+        assertThat(breaker.allowRequest()).isTrue();
+        breaker.onNeutral();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    private void open() {
+        for (int i = 0; i < 3; i++) {
+            breaker.onFailure();
+        }
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+}
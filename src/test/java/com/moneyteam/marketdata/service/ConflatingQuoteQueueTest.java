@@ -0,0 +1,133 @@
+package com.moneyteam.marketdata.service;
+
+import com.moneyteam.marketdata.model.Stock;
+import com.moneyteam.marketdata.model.enums.DeliveryMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConflatingQuoteQueueTest {
+
+    private final ConflatingQuoteQueue queue = new ConflatingQuoteQueue();
+    private final QuoteBus quoteBus = new QuoteBus();
+
+    @AfterEach
+    void tearDown() {
+        quoteBus.destroy();
+    }
+
+    @Test
+    void latestQuoteWinsPerTicker() {
+        assertThat(queue.offer(quote("AAPL", 1))).isTrue();
+        assertThat(queue.offer(quote("MSFT", 10))).isTrue();
+        assertThat(queue.offer(quote("AAPL", 2))).isFalse();
+        assertThat(queue.offer(quote("AAPL", 3))).isFalse();
+
+        List<Stock> delivered = new ArrayList<>();
+        assertThat(queue.drain(delivered::add, 100)).isEqualTo(2);
+
+        // One delivery per ticker, in the order they first went dirty
+        assertThat(delivered).extracting(Stock::getStockTicker).containsExactly("AAPL", "MSFT");
+        assertThat(delivered).extracting(Stock::getLast).containsExactly(3.0, 10.0);
+        assertThat(queue.conflatedCount()).isEqualTo(2);
+        assertThat(queue.isEmpty()).isTrue();
+        assertThat(queue.latest("AAPL").getLast()).isEqualTo(3.0);
+        assertThat(queue.latest("TSLA")).isNull();
+    }
+
+    @Test
+    void drainStopsAtMaxAndADrainedTickerComesBackOnItsNextTick() {
+        queue.offer(quote("A", 1));
+        queue.offer(quote("B", 1));
+        queue.offer(quote("C", 1));
+        List<Stock> delivered = new ArrayList<>();
+
+        assertThat(queue.drain(delivered::add, 2)).isEqualTo(2);
+        assertThat(queue.isEmpty()).isFalse();
+        assertThat(queue.offer(quote("A", 2))).isTrue();
+        assertThat(queue.drain(delivered::add, 10)).isEqualTo(2);
+
+        assertThat(delivered).extracting(Stock::getStockTicker).containsExactly("A", "B", "C", "A");
+        assertThat(delivered.get(3).getLast()).isEqualTo(2.0);
+        assertThat(queue.drain(delivered::add, 10)).isZero();
+    }
+
+    @Test
+    void pendingWorkStaysBoundedByTickerCountUnderASlowConsumer() {
+        int tickers = 50;
+        int burst = 5_000;
+        int rounds = 40;
+        int maxBacklog = 0;
+        long delivered = 0;
+        Map<String, Double> seen = new HashMap<>();
+
+        // The consumer only gets a turn after every burst of ticks
+        int tick = 0;
+        for (int round = 0; round < rounds; round++) {
+            for (int i = 0; i < burst; i++, tick++) {
+                queue.offer(quote("T" + tick % tickers, tick));
+            }
+            int backlog = queue.drain(q -> seen.put(q.getStockTicker(), q.getLast()), Integer.MAX_VALUE);
+            maxBacklog = Math.max(maxBacklog, backlog);
+            delivered += backlog;
+        }
+
+        assertThat(maxBacklog).isEqualTo(tickers);
+        assertThat(queue.tickerCount()).isEqualTo(tickers);
+        // Every tick was either delivered or overwritten, and the final tick of each ticker got through
+        assertThat(delivered).isEqualTo((long) rounds * tickers);
+        assertThat(delivered + queue.conflatedCount()).isEqualTo(tick);
+        for (int t = 0; t < tickers; t++) {
+            assertThat(seen.get("T" + t)).isEqualTo((double) (tick - tickers + t));
+        }
+    }
+
+    @Test
+    void conflatedSubscriberEndsOnTheLatestQuotes() throws Exception {
+        Map<String, Double> seen = new ConcurrentHashMap<>();
+        QuoteBus.Subscription subscription = quoteBus.subscribe("slow", quote -> {
+            seen.put(quote.getStockTicker(), quote.getLast());
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, DeliveryMode.CONFLATED);
+
+        for (int i = 0; i < 20_000; i++) {
+            quoteBus.publish(quote("T" + i % 10, i));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!caughtUp(seen) && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+
+        assertThat(caughtUp(seen)).isTrue();
+        assertThat(subscription.getConflatedCount()).isPositive();
+        subscription.close();
+    }
+
+    private static boolean caughtUp(Map<String, Double> seen) {
+        for (int t = 0; t < 10; t++) {
+            if (!Double.valueOf(19_990 + t).equals(seen.get("T" + t))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Stock quote(String ticker, double last) {
+        Stock stock = new Stock();
+        stock.setStockTicker(ticker);
+        stock.setLast(last);
+        return stock;
+    }
+}
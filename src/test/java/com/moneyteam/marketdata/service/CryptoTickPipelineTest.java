@@ -0,0 +1,59 @@
+package com.moneyteam.marketdata.service;
+
+import com.moneyteam.marketdata.model.Crypto;
+import com.moneyteam.marketdata.model.CryptoBar;
+import com.moneyteam.marketdata.model.CryptoTick;
+import com.moneyteam.marketdata.model.enums.BarInterval;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CryptoTickPipelineTest {
+
+    private final CryptoTickPipeline pipeline = new CryptoTickPipeline(2, CryptoRetentionPolicy.defaults());
+
+    @AfterEach
+    void tearDown() {
+        pipeline.destroy();
+    }
+
+    @Test
+    void shardsStartWithTheFirstRegistration() throws Exception {
+        assertThat(pipeline.isStarted()).isFalse();
+
+        int id = pipeline.register(Crypto.of("BTC-USD"));
+        assertThat(pipeline.isStarted()).isTrue();
+        pipeline.publish(new CryptoTick(id, 0, 1, 1));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (Double.isNaN(pipeline.lastPrice("BTC-USD")) && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(pipeline.lastPrice("BTC-USD")).isEqualTo(1e-8);
+    }
+
+    @Test
+    void simulatedHourRollsSixtyMinuteBars() throws Exception {
+        pipeline.start();
+        List<Crypto> assets = List.of(Crypto.of("BTC-USD"), Crypto.of("ETH-USD"));
+        long start = 1_700_000_000_000L - 1_700_000_000_000L % BarInterval.HOUR.getMillis();
+        try (SimulatedCryptoExchangeFeed feed = new SimulatedCryptoExchangeFeed(pipeline, assets,
+                new double[]{27_000, 1_800}, start, 1_000, 3_600, 7)) {
+            feed.start().awaitCompletion();
+        }
+
+        // The last minute closes once event time passes it plus the grace period
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        List<CryptoBar> minutes = pipeline.bars("BTC-USD", BarInterval.MINUTE, start);
+        while (minutes.size() < 60 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            minutes = pipeline.bars("BTC-USD", BarInterval.MINUTE, start);
+        }
+        assertThat(minutes).hasSize(60);
+        assertThat(minutes).allSatisfy(bar -> assertThat(bar.getTradeCount()).isEqualTo(60));
+        assertThat(pipeline.bars("ETH-USD", BarInterval.MINUTE, start)).hasSize(60);
+    }
+}
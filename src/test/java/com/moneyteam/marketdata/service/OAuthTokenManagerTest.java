@@ -0,0 +1,33 @@
+package com.moneyteam.marketdata.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OAuthTokenManagerTest {
+
+    @Test
+    void expiredTokenReadsDoNotStormAFailingEndpoint() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        try (OAuthTokenManager manager = new OAuthTokenManager("http://localhost/token", "client", "cb") {
+            @Override
+            AccessToken requestToken(String formBody, String previousRefreshToken) throws IOException {
+                attempts.incrementAndGet();
+                throw new IOException("token endpoint down");
+            }
+        }) {
+            manager.seed(new OAuthTokenManager.AccessToken("a", "r", Instant.now().minusSeconds(1)));
+            long until = System.nanoTime() + 500_000_000L;
+            while (System.nanoTime() < until) {
+                assertThatThrownBy(manager::getAccessToken).isInstanceOf(IllegalStateException.class);
+            }
+            // The first retry backs off two seconds; nothing else may reach the endpoint before it
+            assertThat(attempts.get()).isBetween(1, 2);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.moneyteam.marketdata.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moneyteam.marketdata.model.Stock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation per quote: the old String body + new ObjectMapper + JsonNode tree path against
+ * QuoteDecoder, on a Schwab-style single-ticker response. Run with the GC profiler and compare
+ * gc.alloc.rate.norm:
+ *
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat cp.txt) org.openjdk.jmh.Main QuoteDecoderBenchmark -prof gc
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuoteDecoderBenchmark {
+
+    static final byte[] PAYLOAD = ("{\"AAPL\": {\"assetMainType\": \"EQUITY\", \"assetSubType\": \"COE\","
+            + " \"quoteType\": \"NBBO\", \"realtime\": true, \"ssid\": 1973757747, \"symbol\": \"AAPL\","
+            + " \"fundamental\": {\"avg10DaysVolume\": 54893451, \"avg1YearVolume\": 58939821,"
+            + " \"declarationDate\": \"2024-05-02T04:00:00Z\", \"divAmount\": 1.0, \"divExDate\": \"2024-05-10T04:00:00Z\","
+            + " \"divFreq\": 4, \"divPayAmount\": 0.25, \"divPayDate\": \"2024-05-16T04:00:00Z\", \"divYield\": 0.5,"
+            + " \"eps\": 6.43, \"fundLeverageFactor\": 0.0, \"lastEarningsDate\": \"2024-05-02T04:00:00Z\","
+            + " \"nextDivExDate\": \"2024-08-12T04:00:00Z\", \"nextDivPayDate\": \"2024-08-16T04:00:00Z\","
+            + " \"peRatio\": 29.41, \"sharesOutstanding\": 1533450000},"
+            + " \"quote\": {\"52WeekHigh\": 199.62, \"52WeekLow\": 164.08, \"askMICId\": \"ARCX\", \"askPrice\": 187.53,"
+            + " \"askSize\": 2, \"askTime\": 1715981435000, \"bidMICId\": \"ARCX\", \"bidPrice\": 187.5, \"bidSize\": 3,"
+            + " \"bidTime\": 1715981435000, \"closePrice\": 189.84, \"highPrice\": 190.81, \"lastMICId\": \"XADF\","
+            + " \"lastPrice\": 187.52, \"lastSize\": 10, \"lowPrice\": 186.6, \"mark\": 187.5, \"markChange\": -2.34,"
+            + " \"markPercentChange\": -1.23, \"netChange\": -2.32, \"netPercentChange\": -1.22, \"openPrice\": 189.51,"
+            + " \"postMarketChange\": 0.02, \"postMarketPercentChange\": 0.01, \"quoteTime\": 1715981435000,"
+            + " \"securityStatus\": \"Normal\", \"totalVolume\": 41282925, \"tradeTime\": 1715981435000},"
+            + " \"reference\": {\"cusip\": \"037833100\", \"description\": \"Apple Inc\", \"exchange\": \"Q\","
+            + " \"exchangeName\": \"NASDAQ\", \"isHardToBorrow\": false, \"isShortable\": true, \"htbRate\": 0.0},"
+            + " \"regular\": {\"regularMarketLastPrice\": 187.5, \"regularMarketLastSize\": 2,"
+            + " \"regularMarketNetChange\": -2.34, \"regularMarketPercentChange\": -1.23,"
+            + " \"regularMarketTradeTime\": 1715976000000}}}").getBytes(StandardCharsets.UTF_8);
+
+    private final Stock reuse = new Stock();
+
+    // What ThinkOrSwimClient.fetchStockDetails did: body to String, new mapper, tree, then pick fields
+    @Benchmark
+    public Stock treeWithNewMapper() throws IOException {
+        String body = new String(PAYLOAD, StandardCharsets.UTF_8);
+        JsonNode root = new ObjectMapper().readTree(body);
+        JsonNode quote = root.get("AAPL").get("quote");
+        Stock stock = new Stock();
+        stock.setStockTicker("AAPL");
+        stock.setLast(quote.get("lastPrice").asDouble());
+        stock.setBid(quote.get("bidPrice").asDouble());
+        stock.setAsk(quote.get("askPrice").asDouble());
+        stock.setOpen(quote.get("openPrice").asDouble());
+        stock.setClose(quote.get("closePrice").asDouble());
+        stock.setVolume(quote.get("totalVolume").asInt());
+        return stock;
+    }
+
+    // The tree path with the shared mapper, to separate mapper construction from tree building
+    @Benchmark
+    public JsonNode treeWithSharedMapper() throws IOException {
+        return QuoteDecoder.mapper().readTree(new ByteArrayInputStream(PAYLOAD));
+    }
+
+    @Benchmark
+    public List<Stock> decode() throws IOException {
+        return QuoteDecoder.decode(new ByteArrayInputStream(PAYLOAD));
+    }
+
+    @Benchmark
+    public void decodeInto(Blackhole blackhole) throws IOException {
+        QuoteDecoder.decodeInto(new ByteArrayInputStream(PAYLOAD), reuse, blackhole::consume);
+    }
+}
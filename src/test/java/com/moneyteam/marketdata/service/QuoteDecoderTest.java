@@ -0,0 +1,77 @@
+package com.moneyteam.marketdata.service;
+
+import com.moneyteam.marketdata.model.Stock;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QuoteDecoderTest {
+
+    @Test
+    void singleQuoteWithLeadingUnknownSectionIsOneQuote() throws Exception {
+        List<Stock> stocks = QuoteDecoder.decode(
+                "{\"extended\": {\"lastPrice\": 1.0}, \"symbol\": \"AAPL\", \"lastPrice\": 187.5}");
+
+        assertThat(stocks).hasSize(1);
+        assertThat(stocks.get(0).getStockTicker()).isEqualTo("AAPL");
+        assertThat(stocks.get(0).getLast()).isEqualTo(187.5);
+    }
+
+    @Test
+    void singleQuoteOpeningWithSectionIsFlattened() throws Exception {
+        List<Stock> stocks = QuoteDecoder.decode(
+                "{\"quote\": {\"lastPrice\": 410.0, \"totalVolume\": 12}, \"symbol\": \"MSFT\"}");
+
+        assertThat(stocks).hasSize(1);
+        assertThat(stocks.get(0).getStockTicker()).isEqualTo("MSFT");
+        assertThat(stocks.get(0).getLast()).isEqualTo(410.0);
+        assertThat(stocks.get(0).getVolume()).isEqualTo(12);
+    }
+
+    @Test
+    void tickerKeyedMapGivesOneQuotePerTicker() throws Exception {
+        List<Stock> stocks = QuoteDecoder.decode("{\"AAPL\": {\"lastPrice\": 187.5},"
+                + " \"BRK.B\": {\"quote\": {\"lastPrice\": 402.1}, \"reference\": {\"description\": \"Berkshire\"}},"
+                + " \"errors\": {\"invalidSymbols\": [\"XXXX\"]}}");
+
+        assertThat(stocks).extracting(Stock::getStockTicker).containsExactly("AAPL", "BRK.B");
+        assertThat(stocks.get(1).getLast()).isEqualTo(402.1);
+        assertThat(stocks.get(1).getStockName()).isEqualTo("Berkshire");
+    }
+
+    @Test
+    void yahooEnvelopeAndArrays() throws Exception {
+        assertThat(QuoteDecoder.decode("{\"quoteResponse\": {\"result\": [{\"symbol\": \"NVDA\","
+                + " \"regularMarketPrice\": 900.0}], \"error\": null}}"))
+                .extracting(Stock::getStockTicker).containsExactly("NVDA");
+        assertThat(QuoteDecoder.decode("[{\"stockTicker\": \"A\"}, {\"stockTicker\": \"B\"}]"))
+                .extracting(Stock::getStockTicker).containsExactly("A", "B");
+    }
+
+    @Test
+    void megaCapShareCountDoesNotDropTheQuote() throws Exception {
+        List<Stock> stocks = QuoteDecoder.decode("{\"quoteResponse\": {\"result\": [{\"symbol\": \"AAPL\","
+                + " \"regularMarketPrice\": 227.5, \"regularMarketVolume\": 48213000,"
+                + " \"sharesOutstanding\": 15204100096, \"marketCap\": 3458932768768}]}}");
+
+        assertThat(stocks).hasSize(1);
+        Stock aapl = stocks.get(0);
+        assertThat(aapl.getLast()).isEqualTo(227.5);
+        assertThat(aapl.getVolume()).isEqualTo(48_213_000);
+        assertThat(aapl.getNumberOfShares()).isNull();
+        assertThat(aapl.getMarketCapAmount()).isEqualTo(3458932768768.0);
+    }
+
+    @Test
+    void tickerKeyShape() {
+        assertThat(QuoteDecoder.isTickerKey("AAPL")).isTrue();
+        assertThat(QuoteDecoder.isTickerKey("BRK.B")).isTrue();
+        assertThat(QuoteDecoder.isTickerKey("$SPX")).isTrue();
+        assertThat(QuoteDecoder.isTickerKey("/ES")).isTrue();
+        assertThat(QuoteDecoder.isTickerKey("quote")).isFalse();
+        assertThat(QuoteDecoder.isTickerKey("extended")).isFalse();
+        assertThat(QuoteDecoder.isTickerKey("123")).isFalse();
+    }
+}
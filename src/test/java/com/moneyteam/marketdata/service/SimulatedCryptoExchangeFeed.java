@@ -0,0 +1,95 @@
+package com.moneyteam.marketdata.service;
+
+import com.moneyteam.marketdata.model.Crypto;
+import com.moneyteam.marketdata.model.CryptoTick;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Local stand-in for an exchange trade stream, for exercising {@link CryptoTickPipeline} without a
+ * venue connection. Each symbol follows a random walk with fractional trade sizes. Exchange time
+ * starts at {@code startMillis} and advances {@code stepMillis} per round of prints, so a day of
+ * 24/7 trading can be replayed in seconds.
+ */
+class SimulatedCryptoExchangeFeed implements AutoCloseable {
+
+    private final CryptoTickPipeline pipeline;
+    private final Crypto[] assets;
+    private final int[] ids;
+    private final long[] prices;
+    private final SplittableRandom random;
+    private final Thread thread;
+    private final long stepMillis;
+    private final long rounds;
+    private volatile boolean running = true;
+    private long exchangeTime;
+    private long published;
+    private long rejected;
+
+    // startPrices are in whole quote units (e.g. 27000 for BTC-USD)
+    public SimulatedCryptoExchangeFeed(CryptoTickPipeline pipeline, List<Crypto> assets, double[] startPrices,
+                                       long startMillis, long stepMillis, long rounds, long seed) {
+        this.pipeline = pipeline;
+        this.assets = assets.toArray(new Crypto[0]);
+        this.ids = new int[this.assets.length];
+        this.prices = new long[this.assets.length];
+        for (int i = 0; i < this.assets.length; i++) {
+            ids[i] = pipeline.register(this.assets[i]);
+            prices[i] = this.assets[i].toPriceTicks(BigDecimal.valueOf(startPrices[i]).toPlainString());
+        }
+        this.random = new SplittableRandom(seed);
+        this.exchangeTime = startMillis;
+        this.stepMillis = stepMillis;
+        this.rounds = rounds;
+        this.thread = new Thread(this::run, "crypto-sim-feed");
+        this.thread.setDaemon(true);
+    }
+
+    public SimulatedCryptoExchangeFeed start() {
+        thread.start();
+        return this;
+    }
+
+    public void awaitCompletion() throws InterruptedException {
+        thread.join();
+    }
+
+    private void run() {
+        for (long round = 0; round < rounds && running; round++) {
+            for (int i = 0; i < assets.length; i++) {
+                // ~5 bp moves, never below one tick
+                long move = Math.round(prices[i] * 0.0005 * random.nextGaussian());
+                prices[i] = Math.max(1, prices[i] + move);
+                // 0.00001 .. 0.5 of the base asset, in quantity units
+                long quantity = Math.max(1, (long) (Math.pow(10, assets[i].getQuantityScale())
+                        * 0.5 * random.nextDouble() * random.nextDouble()));
+                CryptoTick tick = new CryptoTick(ids[i], exchangeTime, prices[i], quantity);
+                while (!pipeline.publish(tick)) {
+                    // A real venue would not wait for us; here we would rather slow down than lose prints
+                    rejected++;
+                    Thread.onSpinWait();
+                    if (!running) {
+                        return;
+                    }
+                }
+                published++;
+            }
+            exchangeTime += stepMillis;
+        }
+    }
+
+    public long getPublished() {
+        return published;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+    }
+}
@@ -0,0 +1,157 @@
+package com.moneyteam.marketdata.service;
+
+import com.moneyteam.analysis.model.CorrelationMatrix;
+import com.moneyteam.analysis.service.CorrelationService;
+import com.moneyteam.marketdata.model.ScreenResult;
+import com.moneyteam.marketdata.model.Stock;
+import com.moneyteam.marketdata.model.enums.ScreenField;
+import com.moneyteam.marketdata.repository.StockTradeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StockScreenerTest {
+
+    private final SymbolMaster symbolMaster = new SymbolMaster(mock(StockTradeRepository.class));
+    private final QuoteBus quoteBus = new QuoteBus();
+    private final CorrelationService correlationService = mock(CorrelationService.class);
+    private final StockScreener screener = new StockScreener(symbolMaster, quoteBus, correlationService);
+
+    @AfterEach
+    void tearDown() {
+        screener.destroy();
+        symbolMaster.destroy();
+    }
+
+    @Test
+    void betweenIsInclusiveAndNeverMatchesAMissingValue() {
+        screener.update(quote("AAPL", 100.0, "Tech", 1.0));
+        screener.update(quote("MSFT", 200.0, "Tech", 2.0));
+        screener.update(quote("XOM", 50.0, "Energy", -1.0));
+        screener.update(quote("NOLAST", null, "Energy", null));
+
+        assertThat(tickers(ScreenPredicate.priceBetween(100, 200))).containsExactlyInAnyOrder("AAPL", "MSFT");
+        assertThat(tickers(ScreenPredicate.atMost(ScreenField.LAST, Double.POSITIVE_INFINITY)))
+                .containsExactlyInAnyOrder("AAPL", "MSFT", "XOM");
+        assertThat(screener.count(ScreenPredicate.between(ScreenField.MARK_CHANGE, -1, 1))).isEqualTo(2);
+        assertThat(screener.count(ScreenPredicate.priceBetween(201, 300))).isZero();
+
+        // A later quote with no last keeps the previous one
+        screener.update(quote("AAPL", null, null, 5.0));
+        assertThat(tickers(ScreenPredicate.priceBetween(100, 100))).containsExactly("AAPL");
+        assertThat(screener.size()).isEqualTo(4);
+    }
+
+    @Test
+    void sectorInAndNegateStayWithinQuotedSymbols() {
+        screener.update(quote("AAPL", 100.0, "Tech", null));
+        screener.update(quote("XOM", 50.0, "Energy", null));
+        screener.update(quote("NOSECTOR", 10.0, null, null));
+        // Has an id but no quote, so no column row to match
+        symbolMaster.register("GHOST");
+
+        assertThat(tickers(ScreenPredicate.sectorIn("Tech", "Utilities"))).containsExactly("AAPL");
+        assertThat(tickers(ScreenPredicate.sectorIn("Utilities"))).isEmpty();
+        assertThat(tickers(ScreenPredicate.sectorIn("Tech").negate()))
+                .containsExactlyInAnyOrder("XOM", "NOSECTOR");
+        assertThat(tickers(ScreenPredicate.sectorIn("Tech").or(ScreenPredicate.priceBetween(0, 20))))
+                .containsExactlyInAnyOrder("AAPL", "NOSECTOR");
+        assertThat(tickers(ScreenPredicate.sectorIn("Energy").and(ScreenPredicate.priceBetween(0, 20)))).isEmpty();
+        assertThat(screener.count(ScreenPredicate.all().negate())).isZero();
+    }
+
+    @Test
+    void screenKeepsTheTopNInSortOrder() {
+        Random random = new Random(17);
+        List<Stock> quotes = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Stock quote = quote("T" + i, 1 + random.nextInt(10_000) / 100.0, "Tech", null);
+            quotes.add(quote);
+            screener.update(quote);
+        }
+        Comparator<Stock> byLast = Comparator.comparingDouble(Stock::getLast);
+
+        List<String> top = names(screener.screen(ScreenPredicate.all(), ScreenField.LAST, true, 10));
+        List<String> bottom = names(screener.screen(ScreenPredicate.all(), ScreenField.LAST, false, 10));
+
+        assertThat(lasts(top, quotes)).isEqualTo(quotes.stream().sorted(byLast.reversed()).limit(10)
+                .map(Stock::getLast).collect(Collectors.toList()));
+        assertThat(lasts(bottom, quotes)).isEqualTo(quotes.stream().sorted(byLast).limit(10)
+                .map(Stock::getLast).collect(Collectors.toList()));
+        assertThat(screener.screen(ScreenPredicate.all(), ScreenField.LAST, true, 1000)).hasSize(300);
+        assertThat(screener.screen(ScreenPredicate.all(), ScreenField.LAST, true, 0)).isEmpty();
+    }
+
+    @Test
+    void missingSortValuesSortLastInBothDirections() {
+        screener.update(quote("A", 1.0, null, 3.0));
+        screener.update(quote("B", 1.0, null, null));
+        screener.update(quote("C", 1.0, null, -2.0));
+        screener.update(quote("D", 1.0, null, 0.5));
+
+        assertThat(names(screener.screen(ScreenPredicate.all(), ScreenField.MARK_CHANGE, true, 10)))
+                .containsExactly("A", "D", "C", "B");
+        assertThat(names(screener.screen(ScreenPredicate.all(), ScreenField.MARK_CHANGE, false, 10)))
+                .containsExactly("C", "D", "A", "B");
+        // A missing value only makes the cut when there is room
+        assertThat(names(screener.screen(ScreenPredicate.all(), ScreenField.MARK_CHANGE, false, 3)))
+                .containsExactly("C", "D", "A");
+    }
+
+    @Test
+    void correlationScreenMatchesTrackedTickersOtherThanItself() {
+        // Unit variances, so the packed covariances are the correlations
+        when(correlationService.snapshot()).thenReturn(new CorrelationMatrix(List.of("AAPL", "MSFT", "XOM", "UNQUOTED"),
+                new double[] {1, 0.8, 1, -0.2, 0.1, 1, 0.9, 0.9, 0.9, 1}, 100, 0));
+        screener.update(quote("AAPL", 100.0, null, null));
+        screener.update(quote("MSFT", 200.0, null, null));
+        screener.update(quote("XOM", 50.0, null, null));
+
+        assertThat(tickers(screener.correlationBetween("AAPL", 0.5, 1))).containsExactly("MSFT");
+        assertThat(tickers(screener.correlationBetween("AAPL", -1, 0))).containsExactly("XOM");
+        assertThat(tickers(screener.correlationBetween("AAPL", 0.5, 1).negate()))
+                .containsExactlyInAnyOrder("AAPL", "XOM");
+        assertThatThrownBy(() -> screener.correlationBetween("TSLA", -1, 1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("TSLA");
+    }
+
+    private List<String> tickers(ScreenPredicate predicate) {
+        return names(screener.screen(predicate, ScreenField.LAST, true, 1000));
+    }
+
+    private static List<String> names(List<ScreenResult> rows) {
+        return rows.stream().map(ScreenResult::getStockTicker).collect(Collectors.toList());
+    }
+
+    private static List<Double> lasts(List<String> tickers, List<Stock> quotes) {
+        List<Double> lasts = new ArrayList<>();
+        for (String ticker : tickers) {
+            for (Stock quote : quotes) {
+                if (quote.getStockTicker().equals(ticker)) {
+                    lasts.add(quote.getLast());
+                }
+            }
+        }
+        return lasts;
+    }
+
+    private static Stock quote(String ticker, Double last, String sector, Double markChange) {
+        Stock quote = new Stock();
+        quote.setStockTicker(ticker);
+        quote.setLast(last);
+        quote.setSector(sector);
+        quote.setMarkChange(markChange);
+        return quote;
+    }
+}
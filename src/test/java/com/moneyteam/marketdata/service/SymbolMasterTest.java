@@ -0,0 +1,92 @@
+package com.moneyteam.marketdata.service;
+
+import com.moneyteam.marketdata.repository.StockTradeRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SymbolMasterTest {
+
+    private final StockTradeRepository repository = mock(StockTradeRepository.class);
+    private final SymbolMaster symbolMaster = new SymbolMaster(repository);
+
+    @Test
+    void loadedTickerIsListedWithoutALookup() {
+        when(repository.findAllStockTickers()).thenReturn(List.of("AAPL", "MSFT"));
+        symbolMaster.load();
+
+        assertThat(symbolMaster.isListed("AAPL")).isTrue();
+        verify(repository, never()).existsByStockTicker("AAPL");
+    }
+
+    @Test
+    void missIsAnsweredFromMemory() {
+        when(repository.findAllStockTickers()).thenReturn(List.of("AAPL"));
+        symbolMaster.load();
+
+        assertThat(symbolMaster.isListed("ZZZZ")).isFalse();
+        assertThat(symbolMaster.isListed("ZZZZ")).isFalse();
+        assertThat(symbolMaster.isKnown("ZZZZ")).isFalse();
+        verify(repository, never()).existsByStockTicker(anyString());
+    }
+
+    @Test
+    void reloadPicksUpListingsFromOtherInstancesAndKeepsIds() {
+        when(repository.findAllStockTickers()).thenReturn(List.of("AAPL", "MSFT"), List.of("AAPL", "MSFT", "NVDA"));
+        symbolMaster.load();
+        int msft = symbolMaster.idOf("MSFT");
+        assertThat(symbolMaster.isListed("NVDA")).isFalse();
+
+        symbolMaster.load();
+
+        assertThat(symbolMaster.isListed("NVDA")).isTrue();
+        assertThat(symbolMaster.idOf("MSFT")).isEqualTo(msft);
+        verify(repository, never()).existsByStockTicker(anyString());
+    }
+
+    @Test
+    void ownInsertsAreListedImmediately() {
+        when(repository.findAllStockTickers()).thenReturn(List.of("AAPL"));
+        symbolMaster.load();
+
+        symbolMaster.onListed(List.of("NVDA", "AMD"));
+
+        assertThat(symbolMaster.isListed("NVDA")).isTrue();
+        assertThat(symbolMaster.isListed("AMD")).isTrue();
+        verify(repository, times(1)).findAllStockTickers();
+    }
+
+    @Test
+    void quotedTickerGetsAnIdWithoutBeingListed() {
+        when(repository.findAllStockTickers()).thenReturn(List.of("AAPL"));
+        symbolMaster.load();
+
+        int id = symbolMaster.register("BTC-USD");
+
+        assertThat(symbolMaster.symbolOf(id)).isEqualTo("BTC-USD");
+        assertThat(symbolMaster.isListed("BTC-USD")).isFalse();
+    }
+
+    @Test
+    void fallsBackToTheDatabaseOnlyUntilTheFirstLoad() {
+        when(repository.findAllStockTickers()).thenThrow(new IllegalStateException("db down"))
+                .thenReturn(List.of("AAPL"));
+        when(repository.existsByStockTicker("AAPL")).thenReturn(true);
+
+        symbolMaster.load();
+        assertThat(symbolMaster.isLoaded()).isFalse();
+        assertThat(symbolMaster.isListed("AAPL")).isTrue();
+
+        symbolMaster.load();
+        assertThat(symbolMaster.isListed("AAPL")).isTrue();
+        verify(repository, times(1)).existsByStockTicker("AAPL");
+    }
+}
@@ -0,0 +1,71 @@
+package com.moneyteam.marketdata.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SymbolTableTest {
+
+    @Test
+    void idsAreDenseAndSurviveGrowth() {
+        SymbolTable table = SymbolTable.empty();
+        for (int i = 0; i < 10_000; i++) {
+            table = table.withAdded(List.of("T" + i));
+        }
+
+        assertThat(table.size()).isEqualTo(10_000);
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(table.idOf("T" + i)).isEqualTo(i);
+            assertThat(table.symbolOf(i)).isEqualTo("T" + i);
+        }
+        assertThat(table.idOf("T10000")).isEqualTo(-1);
+    }
+
+    @Test
+    void duplicatesAndKnownTickersAreNotReAdded() {
+        SymbolTable table = SymbolTable.empty().withAdded(List.of("AAPL", "MSFT", "AAPL"));
+
+        assertThat(table.size()).isEqualTo(2);
+        assertThat(table.withAdded(List.of("MSFT"))).isSameAs(table);
+    }
+
+    @Test
+    void earlierSnapshotDoesNotSeeLaterAdditions() {
+        SymbolTable before = SymbolTable.empty().withAdded(List.of("AAPL"));
+        SymbolTable after = before.withAdded(List.of("MSFT", "NVDA"));
+
+        assertThat(before.size()).isEqualTo(1);
+        assertThat(before.idOf("MSFT")).isEqualTo(-1);
+        assertThat(before.contains("AAPL")).isTrue();
+        assertThat(after.idOf("MSFT")).isEqualTo(1);
+        assertThatThrownBy(() -> before.symbolOf(1)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void addingToAnOlderSnapshotBranchesInsteadOfOverwriting() {
+        SymbolTable base = SymbolTable.empty().withAdded(List.of("AAPL"));
+        SymbolTable left = base.withAdded(List.of("MSFT"));
+        SymbolTable right = base.withAdded(List.of("NVDA"));
+
+        assertThat(left.symbolOf(1)).isEqualTo("MSFT");
+        assertThat(left.contains("NVDA")).isFalse();
+        assertThat(right.symbolOf(1)).isEqualTo("NVDA");
+        assertThat(right.contains("MSFT")).isFalse();
+    }
+
+    @Test
+    void bulkAddKeepsRegistrationOrder() {
+        List<String> tickers = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            tickers.add("S" + i);
+        }
+        SymbolTable table = SymbolTable.empty().withAdded(List.of("FIRST")).withAdded(tickers);
+
+        assertThat(table.idOf("FIRST")).isZero();
+        assertThat(table.idOf("S999")).isEqualTo(1000);
+    }
+}
@@ -0,0 +1,75 @@
+package com.moneyteam.marketdata.service;
+
+import com.moneyteam.marketdata.model.enums.MarketDataProvider;
+import com.moneyteam.marketdata.model.enums.RequestPriority;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UpstreamRequestSchedulerTest {
+
+    private final UpstreamRequestScheduler scheduler = new UpstreamRequestScheduler();
+
+    @AfterEach
+    void tearDown() {
+        scheduler.destroy();
+    }
+
+    @Test
+    void staleBackgroundRequestsDoNotSpendTokens() throws Exception {
+        // One token a second, burst of one; background requests go stale after 50ms
+        scheduler.register(MarketDataProvider.YAHOO, 1, 1, 100, Duration.ofMillis(50));
+        scheduler.submit(MarketDataProvider.YAHOO, RequestPriority.INTERACTIVE, () -> "first").get(1, TimeUnit.SECONDS);
+
+        List<CompletableFuture<String>> background = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            background.add(scheduler.submit(MarketDataProvider.YAHOO, RequestPriority.BACKGROUND, () -> "bg"));
+        }
+        for (CompletableFuture<String> future : background) {
+            assertThatThrownBy(() -> future.get(3, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(RejectedExecutionException.class);
+        }
+
+        // The token that came due while they waited was refunded, so this goes straight out
+        long started = System.nanoTime();
+        assertThat(scheduler.submit(MarketDataProvider.YAHOO, RequestPriority.INTERACTIVE, () -> "next")
+                .get(2, TimeUnit.SECONDS)).isEqualTo("next");
+        assertThat(System.nanoTime() - started).isLessThan(TimeUnit.MILLISECONDS.toNanos(500));
+    }
+
+    @Test
+    void orderPricingOvertakesQueuedBackgroundWork() throws Exception {
+        // Five tokens a second, burst of one, so everything after the first call queues
+        scheduler.register(MarketDataProvider.YAHOO, 5, 1, 100, Duration.ofSeconds(30));
+        scheduler.submit(MarketDataProvider.YAHOO, RequestPriority.INTERACTIVE, () -> "first").get(1, TimeUnit.SECONDS);
+
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<Boolean>> background = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            String name = "bg" + i;
+            background.add(scheduler.submit(MarketDataProvider.YAHOO, RequestPriority.BACKGROUND,
+                    () -> order.add(name)));
+        }
+        scheduler.submit(MarketDataProvider.YAHOO, RequestPriority.ORDER_PRICING, () -> order.add("order"))
+                .get(2, TimeUnit.SECONDS);
+        for (CompletableFuture<Boolean> future : background) {
+            future.get(3, TimeUnit.SECONDS);
+        }
+
+        // At most the background request already holding the next token goes first
+        assertThat(order.indexOf("order")).isLessThanOrEqualTo(1);
+        assertThat(order).hasSize(5);
+    }
+}
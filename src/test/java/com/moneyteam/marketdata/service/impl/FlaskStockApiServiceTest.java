@@ -0,0 +1,61 @@
+package com.moneyteam.marketdata.service.impl;
+
+import com.moneyteam.marketdata.model.Stock;
+import com.moneyteam.marketdata.model.enums.MarketDataProvider;
+import com.moneyteam.marketdata.model.enums.RequestPriority;
+import com.moneyteam.marketdata.service.UpstreamRequestScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlaskStockApiServiceTest {
+
+    private final UpstreamRequestScheduler scheduler = new UpstreamRequestScheduler();
+    private final FlaskStockApiService service = new FlaskStockApiService(scheduler);
+
+    @AfterEach
+    void tearDown() throws Exception {
+        service.destroy();
+        scheduler.destroy();
+    }
+
+    @Test
+    void interruptedCallDropsItsQueuedRequest() throws Exception {
+        // One token every two seconds; spend it so the next request has to queue
+        scheduler.register(MarketDataProvider.FLASK, 0.5, 1, 100, Duration.ofSeconds(30));
+        scheduler.submit(MarketDataProvider.FLASK, RequestPriority.INTERACTIVE, () -> "drain").get(1, TimeUnit.SECONDS);
+
+        AtomicReference<Optional<Stock>> result = new AtomicReference<>();
+        Thread caller = new Thread(() -> result.set(service.fetchStockDetails("AAPL")));
+        caller.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (scheduler.queueDepth(MarketDataProvider.FLASK) == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(scheduler.queueDepth(MarketDataProvider.FLASK)).isEqualTo(1);
+
+        caller.interrupt();
+        caller.join(500);
+        assertThat(caller.isAlive()).isFalse();
+        assertThat(result.get()).isEmpty();
+
+        // Past the next token: the cancelled request was dropped rather than sent
+        Thread.sleep(2500);
+        assertThat(scheduler.queueDepth(MarketDataProvider.FLASK)).isZero();
+        assertThat(interactiveDispatched()).isEqualTo(1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private long interactiveDispatched() {
+        Map<String, Object> flask = (Map<String, Object>) scheduler.metrics().get(MarketDataProvider.FLASK.name());
+        Map<String, Object> lanes = (Map<String, Object>) flask.get("lanes");
+        return (Long) ((Map<String, Object>) lanes.get(RequestPriority.INTERACTIVE.name())).get("dispatched");
+    }
+}
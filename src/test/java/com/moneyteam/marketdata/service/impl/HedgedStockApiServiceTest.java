@@ -0,0 +1,258 @@
+package com.moneyteam.marketdata.service.impl;
+
+import com.moneyteam.marketdata.model.Stock;
+import com.moneyteam.marketdata.model.enums.DeliveryMode;
+import com.moneyteam.marketdata.model.enums.RequestPriority;
+import com.moneyteam.marketdata.service.QuoteBus;
+import com.moneyteam.marketdata.service.QuotePersistenceService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HedgedStockApiServiceTest {
+
+    private final QuoteBus quoteBus = new QuoteBus();
+    private final RecordingPersistence persistence = new RecordingPersistence();
+
+    @AfterEach
+    void tearDown() {
+        quoteBus.destroy();
+    }
+
+    @Test
+    void fetchedQuoteReachesSubscribersAndPersistence() {
+        List<Stock> received = new CopyOnWriteArrayList<>();
+        quoteBus.subscribe("test", received::add, DeliveryMode.DIRECT);
+        HedgedStockApiService service = new HedgedStockApiService(yahoo(quote("AAPL", 190.5)), schwab(null),
+                flask(null), persistence, quoteBus);
+        try {
+            Optional<Stock> fetched = service.fetchStockDetails("AAPL");
+
+            assertThat(fetched).isPresent();
+            assertThat(received).containsExactly(fetched.get());
+            assertThat(persistence.submitted).containsExactly(fetched.get());
+        } finally {
+            service.destroy();
+        }
+    }
+
+    @Test
+    void failedLookupPublishesNothing() {
+        List<Stock> received = new CopyOnWriteArrayList<>();
+        quoteBus.subscribe("test", received::add, DeliveryMode.DIRECT);
+        HedgedStockApiService service = new HedgedStockApiService(yahoo(null), schwab(null), flask(null),
+                persistence, quoteBus);
+        try {
+            assertThat(service.fetchStockDetails("AAPL")).isEmpty();
+            assertThat(received).isEmpty();
+            assertThat(persistence.submitted).isEmpty();
+        } finally {
+            service.destroy();
+        }
+    }
+
+    @Test
+    void slowPrimaryIsHedgedAndTheLoserCancelled() throws Exception {
+        CountDownLatch loserInterrupted = new CountDownLatch(1);
+        StockApiServiceImpl slowYahoo = new StockApiServiceImpl(null) {
+            @Override
+            public Optional<Stock> fetchStockDetails(String stockTicker, RequestPriority priority) {
+                try {
+                    Thread.sleep(3_000);
+                } catch (InterruptedException e) {
+                    loserInterrupted.countDown();
+                }
+                return Optional.empty();
+            }
+        };
+        HedgedStockApiService service = new HedgedStockApiService(slowYahoo, schwab(quote("AAPL", 190.5)),
+                flask(null), persistence, quoteBus);
+        try {
+            long started = System.nanoTime();
+            Optional<Stock> fetched = service.fetchStockDetails("AAPL");
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+            // No latency samples yet, so the hedge goes out after the 200ms default
+            assertThat(fetched).map(Stock::getLast).contains(190.5);
+            assertThat(elapsedMs).isBetween(150L, 2_000L);
+            assertThat(loserInterrupted.await(1, TimeUnit.SECONDS)).isTrue();
+            assertThat(stat(service, "hedges")).isEqualTo(1L);
+            assertThat(state(service, "YAHOO")).isEqualTo("CLOSED");
+        } finally {
+            service.destroy();
+        }
+    }
+
+    @Test
+    void fastPrimaryIsNotHedged() {
+        AtomicInteger schwabCalls = new AtomicInteger();
+        HedgedStockApiService service = new HedgedStockApiService(yahoo(quote("AAPL", 190.5)),
+                counting(schwabCalls), flask(null), persistence, quoteBus);
+        try {
+            assertThat(service.fetchStockDetails("AAPL")).isPresent();
+            assertThat(schwabCalls).hasValue(0);
+            assertThat(stat(service, "hedges")).isEqualTo(0L);
+        } finally {
+            service.destroy();
+        }
+    }
+
+    @Test
+    void unknownSymbolsDoNotOpenTheBreaker() {
+        HedgedStockApiService service = new HedgedStockApiService(yahoo(null), schwab(null), flask(null),
+                persistence, quoteBus);
+        try {
+            for (int i = 0; i < 20; i++) {
+                assertThat(service.fetchStockDetails("DELISTED" + i)).isEmpty();
+            }
+            assertThat(state(service, "YAHOO")).isEqualTo("CLOSED");
+            assertThat(state(service, "SCHWAB")).isEqualTo("CLOSED");
+            assertThat(state(service, "FLASK")).isEqualTo("CLOSED");
+        } finally {
+            service.destroy();
+        }
+    }
+
+    @Test
+    void shedRequestsDoNotOpenTheBreaker() {
+        HedgedStockApiService service = new HedgedStockApiService(
+                yahooThrowing(() -> new RejectedExecutionException("YAHOO queue full")),
+                schwab(null), flask(null), persistence, quoteBus);
+        try {
+            for (int i = 0; i < 20; i++) {
+                service.fetchStockDetails("AAPL", RequestPriority.BACKGROUND);
+            }
+            assertThat(state(service, "YAHOO")).isEqualTo("CLOSED");
+        } finally {
+            service.destroy();
+        }
+    }
+
+    @Test
+    void transportErrorsOpenTheBreakerAndSkipTheProvider() {
+        AtomicInteger yahooCalls = new AtomicInteger();
+        StockApiServiceImpl failingYahoo = new StockApiServiceImpl(null) {
+            @Override
+            public Optional<Stock> fetchStockDetails(String stockTicker, RequestPriority priority) {
+                yahooCalls.incrementAndGet();
+                throw new UncheckedIOException(new IOException("connection reset"));
+            }
+        };
+        HedgedStockApiService service = new HedgedStockApiService(failingYahoo, schwab(quote("AAPL", 190.5)),
+                flask(null), persistence, quoteBus);
+        try {
+            for (int i = 0; i < 5; i++) {
+                // Each failure falls over to Schwab straight away
+                assertThat(service.fetchStockDetails("AAPL")).isPresent();
+            }
+            assertThat(state(service, "YAHOO")).isEqualTo("OPEN");
+
+            assertThat(service.fetchStockDetails("AAPL")).isPresent();
+            assertThat(yahooCalls).hasValue(5);
+            assertThat(stat(service, "failovers")).isEqualTo(5L);
+        } finally {
+            service.destroy();
+        }
+    }
+
+    private static Stock quote(String ticker, double last) {
+        Stock stock = new Stock();
+        stock.setStockTicker(ticker);
+        stock.setLast(last);
+        return stock;
+    }
+
+    private static StockApiServiceImpl yahoo(Stock quote) {
+        return new StockApiServiceImpl(null) {
+            @Override
+            public Optional<Stock> fetchStockDetails(String stockTicker, RequestPriority priority) {
+                return Optional.ofNullable(quote);
+            }
+        };
+    }
+
+    private static StockApiServiceImpl yahooThrowing(Supplier<RuntimeException> failure) {
+        return new StockApiServiceImpl(null) {
+            @Override
+            public Optional<Stock> fetchStockDetails(String stockTicker, RequestPriority priority) {
+                throw failure.get();
+            }
+        };
+    }
+
+    private static ThinkOrSwimStockApiService counting(AtomicInteger calls) {
+        return new ThinkOrSwimStockApiService(null, null) {
+            @Override
+            public Optional<Stock> fetchStockDetails(String stockTicker, RequestPriority priority) {
+                calls.incrementAndGet();
+                return Optional.empty();
+            }
+        };
+    }
+
+    private static ThinkOrSwimStockApiService schwab(Stock quote) {
+        return new ThinkOrSwimStockApiService(null, null) {
+            @Override
+            public Optional<Stock> fetchStockDetails(String stockTicker, RequestPriority priority) {
+                return Optional.ofNullable(quote);
+            }
+        };
+    }
+
+    private static FlaskStockApiService flask(Stock quote) {
+        return new FlaskStockApiService(null) {
+            @Override
+            public Optional<Stock> fetchStockDetails(String stockTicker, RequestPriority priority) {
+                return Optional.ofNullable(quote);
+            }
+        };
+    }
+
+    private static Object stat(HedgedStockApiService service, String key) {
+        return service.providerStats().get(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String state(HedgedStockApiService service, String provider) {
+        return (String) ((Map<String, Object>) service.providerStats().get(provider)).get("state");
+    }
+
+    private static final class RecordingPersistence implements QuotePersistenceService {
+        final List<Stock> submitted = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void submit(Stock quote) {
+            submitted.add(quote);
+        }
+
+        @Override
+        public void submitAll(Collection<Stock> quotes) {
+            submitted.addAll(new ArrayList<>(quotes));
+        }
+
+        @Override
+        public int flush() {
+            return 0;
+        }
+
+        @Override
+        public int pendingCount() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.moneyteam.marketdata.service.impl;
+
+import com.moneyteam.common.exception.OperationInProgressException;
+import com.moneyteam.marketdata.model.BackfillReport;
+import com.moneyteam.marketdata.model.PriceBar;
+import com.moneyteam.marketdata.model.enums.BarInterval;
+import com.moneyteam.marketdata.model.enums.MarketDataProvider;
+import com.moneyteam.marketdata.repository.PriceHistoryRepository;
+import com.moneyteam.marketdata.service.HistoricalBarSource;
+import com.moneyteam.marketdata.service.UpstreamRequestScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HistoricalBackfillServiceImplTest {
+
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 2, 1);
+
+    private final HistoricalBarSource barSource = mock(HistoricalBarSource.class);
+    private final PriceHistoryRepository repository = mock(PriceHistoryRepository.class);
+    private final UpstreamRequestScheduler scheduler = new UpstreamRequestScheduler();
+    private final HistoricalBackfillServiceImpl service =
+            new HistoricalBackfillServiceImpl(barSource, repository, scheduler, 1);
+
+    HistoricalBackfillServiceImplTest() {
+        when(barSource.getProvider()).thenReturn(MarketDataProvider.FLASK);
+        when(repository.findCompletedChunks(anyString())).thenReturn(Set.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.destroy();
+        scheduler.destroy();
+    }
+
+    @Test
+    void emptyResponseIsRetriedBeforeItIsCheckpointed() throws Exception {
+        List<PriceBar> bars = List.of(bar(FROM));
+        when(barSource.fetchBars("AAPL", BarInterval.DAILY, FROM, TO)).thenReturn(List.of(), bars);
+
+        BackfillReport report = service.backfill("job", List.of("AAPL"), BarInterval.DAILY, FROM, TO);
+
+        assertThat(report.getCompletedChunks()).isEqualTo(1);
+        assertThat(report.getBarsWritten()).isEqualTo(1);
+        verify(barSource, times(2)).fetchBars("AAPL", BarInterval.DAILY, FROM, TO);
+        verify(repository, times(1)).saveChunk("job", "AAPL", BarInterval.DAILY, FROM, TO, bars);
+    }
+
+    @Test
+    void chunkThatStaysEmptyFailsAndIsNotCheckpointed() throws Exception {
+        when(barSource.fetchBars("AAPL", BarInterval.DAILY, FROM, TO)).thenReturn(List.of());
+
+        BackfillReport report = service.backfill("job", List.of("AAPL"), BarInterval.DAILY, FROM, TO);
+
+        assertThat(report.getCompletedChunks()).isZero();
+        assertThat(report.getFailedChunks())
+                .containsExactly(PriceHistoryRepository.chunkKey("AAPL", BarInterval.DAILY, FROM));
+        verify(repository, never()).saveChunk(anyString(), anyString(), any(), any(), any(), anyList());
+    }
+
+    @Test
+    void checkpointedChunksAreSkippedOnResume() throws Exception {
+        when(repository.findCompletedChunks("job"))
+                .thenReturn(Set.of(PriceHistoryRepository.chunkKey("AAPL", BarInterval.DAILY, FROM)));
+        when(barSource.fetchBars(eq("MSFT"), any(), any(), any())).thenReturn(List.of(bar(FROM)));
+
+        BackfillReport report = service.backfill("job", List.of("AAPL", "MSFT"), BarInterval.DAILY, FROM, TO);
+
+        assertThat(report.getTotalChunks()).isEqualTo(2);
+        assertThat(report.getSkippedChunks()).isEqualTo(1);
+        assertThat(report.getCompletedChunks()).isEqualTo(1);
+        verify(barSource, never()).fetchBars(eq("AAPL"), any(), any(), any());
+    }
+
+    @Test
+    void startedJobRunsInTheBackgroundAndRejectsADuplicate() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(barSource.fetchBars("AAPL", BarInterval.DAILY, FROM, TO)).thenAnswer(invocation -> {
+            release.await(2, TimeUnit.SECONDS);
+            return List.of(bar(FROM));
+        });
+
+        service.start("job", List.of("AAPL"), BarInterval.DAILY, FROM, TO);
+
+        assertThat(service.isRunning("job")).isTrue();
+        assertThat(service.report("job")).isEmpty();
+        assertThatThrownBy(() -> service.start("job", List.of("AAPL"), BarInterval.DAILY, FROM, TO))
+                .isInstanceOf(OperationInProgressException.class);
+
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (service.isRunning("job") && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(service.report("job")).hasValueSatisfying(r -> assertThat(r.getCompletedChunks()).isEqualTo(1));
+
+        // Finished, so the same id may run again to resume
+        service.start("job", List.of("AAPL"), BarInterval.DAILY, FROM, TO);
+    }
+
+    private static PriceBar bar(LocalDate day) {
+        return new PriceBar("AAPL", BarInterval.DAILY, day.toEpochDay() * 86_400, 1, 1, 1, 1, 100);
+    }
+}
@@ -0,0 +1,91 @@
+package com.moneyteam.marketdata.service.impl;
+
+import com.moneyteam.marketdata.model.Stock;
+import com.moneyteam.marketdata.repository.StockQuoteUpsertRepository;
+import com.moneyteam.marketdata.service.SymbolMaster;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QuotePersistenceServiceImplTest {
+
+    private final StockQuoteUpsertRepository repository = mock(StockQuoteUpsertRepository.class);
+    private final SymbolMaster symbolMaster = mock(SymbolMaster.class);
+    private final QuotePersistenceServiceImpl service = new QuotePersistenceServiceImpl(repository, symbolMaster);
+
+    @AfterEach
+    void tearDown() {
+        service.destroy();
+    }
+
+    @Test
+    void lastQuotePerTickerWinsAndKeepsEarlierFieldsItLacks() {
+        service.submit(new Stock("AAPL", "Apple", "Tech", null, 100, null, 10.0, 9.0, null, null, null, 9.5, null));
+        service.submit(new Stock("MSFT", "Microsoft", "Tech", null, 50, null, 20.0, 19.0, null, null, null, 19.5, null));
+        service.submit(new Stock("AAPL", null, null, null, 200, null, 11.0, null, null, null, null, 10.5, null));
+
+        assertThat(service.flush()).isEqualTo(2);
+
+        List<Stock> batch = flushedBatch();
+        assertThat(batch).hasSize(2);
+        Stock apple = batch.stream().filter(s -> s.getStockTicker().equals("AAPL")).findFirst().orElseThrow();
+        assertThat(apple.getVolume()).isEqualTo(200);
+        assertThat(apple.getAsk()).isEqualTo(11.0);
+        assertThat(apple.getLast()).isEqualTo(10.5);
+        // Not in the newer quote, so the older value carries over
+        assertThat(apple.getStockName()).isEqualTo("Apple");
+        assertThat(apple.getBid()).isEqualTo(9.0);
+        assertThat(service.pendingCount()).isZero();
+    }
+
+    @Test
+    void failedFlushPutsTheBatchBackBehindNewerQuotes() {
+        when(repository.upsertAll(anyCollection())).thenThrow(new IllegalStateException("db down"));
+        service.submit(new Stock("AAPL", "Apple", null, null, 100, null, 10.0, null, null, null, null, 10.0, null));
+
+        assertThatThrownBy(service::flush).isInstanceOf(IllegalStateException.class);
+        assertThat(service.pendingCount()).isEqualTo(1);
+
+        service.submit(new Stock("AAPL", null, null, null, 300, null, 12.0, null, null, null, null, 12.0, null));
+        doReturn(1).when(repository).upsertAll(anyCollection());
+        service.flush();
+
+        Stock apple = lastFlushedBatch().get(0);
+        assertThat(apple.getVolume()).isEqualTo(300);
+        assertThat(apple.getAsk()).isEqualTo(12.0);
+        assertThat(apple.getStockName()).isEqualTo("Apple");
+    }
+
+    @Test
+    void quoteWithoutTickerIsRejected() {
+        assertThatThrownBy(() -> service.submit(new Stock()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Stock> flushedBatch() {
+        ArgumentCaptor<Collection<Stock>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(repository).upsertAll(captor.capture());
+        return new ArrayList<>(captor.getValue());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Stock> lastFlushedBatch() {
+        ArgumentCaptor<Collection<Stock>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(repository, atLeastOnce()).upsertAll(captor.capture());
+        return new ArrayList<>(captor.getValue());
+    }
+}
@@ -0,0 +1,109 @@
+package com.moneyteam.trading.model;
+
+import com.moneyteam.analysis.model.OptionChain;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OptionChainIndexTest {
+
+    private static final int JAN = 20_000;
+    private static final int FEB = 20_030;
+    private static final int MAR = 20_060;
+
+    // Ids: AAPL JAN 90C 0, 90P 1, 100C 2, 100P 3, 110C 4 | FEB 100C 5, 100P 6 | MAR 100P 7 | MSFT JAN 300C 8
+    private final OptionChainIndex index = new OptionChainIndex.Builder()
+            .add("MSFT", JAN, 300, true)
+            .add("AAPL", MAR, 100, false)
+            .add("AAPL", JAN, 110, true)
+            .add("AAPL", JAN, 100, false)
+            .add("AAPL", FEB, 100, true)
+            .add("AAPL", JAN, 90, false)
+            .add("AAPL", JAN, 100, true)
+            .add("AAPL", FEB, 100, false)
+            .add("AAPL", JAN, 90, true)
+            .build(0);
+
+    @Test
+    void contractsAreOrderedByUnderlyingExpiryStrikeCallsFirst() {
+        assertThat(index.size()).isEqualTo(9);
+        assertThat(index.underlyings()).containsExactly("AAPL", "MSFT");
+        assertThat(index.expirations("AAPL")).containsExactly(JAN, FEB, MAR);
+        assertThat(index.expirations("TSLA")).isEmpty();
+        assertThat(index.firstContract("MSFT")).isEqualTo(8);
+        assertThat(index.strike(4)).isEqualTo(110);
+        assertThat(index.isCall(4)).isTrue();
+        assertThat(index.expiryEpochDay(7)).isEqualTo(MAR);
+    }
+
+    @Test
+    void findLooksUpOneListing() {
+        assertThat(index.find("AAPL", JAN, 100, true)).isEqualTo(2);
+        assertThat(index.find("AAPL", JAN, 100, false)).isEqualTo(3);
+        assertThat(index.find("AAPL", MAR, 100, false)).isEqualTo(7);
+        // listed strike but not that side, unlisted strike, expiry and underlying
+        assertThat(index.find("AAPL", JAN, 110, false)).isEqualTo(-1);
+        assertThat(index.find("AAPL", MAR, 100, true)).isEqualTo(-1);
+        assertThat(index.find("AAPL", JAN, 95, true)).isEqualTo(-1);
+        assertThat(index.find("AAPL", JAN + 1, 100, true)).isEqualTo(-1);
+        assertThat(index.find("TSLA", JAN, 100, true)).isEqualTo(-1);
+    }
+
+    @Test
+    void rangeIsInclusiveAndLimitedToTheNextExpirations() {
+        assertThat(index.range("AAPL", 90, 100, JAN, 1)).containsExactly(0, 1, 2, 3);
+        assertThat(index.range("AAPL", 95, 200, JAN, 2)).containsExactly(2, 3, 4, 5, 6);
+        // starts from the first expiry on or after the day
+        assertThat(index.range("AAPL", 0, 1000, JAN + 1, 5)).containsExactly(5, 6, 7);
+        assertThat(index.range("AAPL", 0, 1000, MAR + 1, 5)).isEmpty();
+        assertThat(index.range("AAPL", 110, 90, JAN, 3)).isEmpty();
+        assertThat(index.range("AAPL", 0, 1000, JAN, 0)).isEmpty();
+        assertThat(index.range("TSLA", 0, 1000, JAN, 3)).isEmpty();
+    }
+
+    @Test
+    void nearSpotIsABandAroundTheSpot() {
+        assertThat(index.nearSpot("AAPL", 100, 0.05, JAN, 3)).containsExactly(2, 3, 5, 6, 7);
+        assertThat(index.nearSpot("AAPL", 100, 0.10, JAN, 1)).containsExactly(0, 1, 2, 3, 4);
+        assertThat(index.nearSpot("MSFT", 100, 0.10, JAN, 1)).isEmpty();
+    }
+
+    @Test
+    void underlyingOfMapsIdsBackAcrossTheBoundary() {
+        assertThat(index.underlyingOf(0)).isEqualTo("AAPL");
+        assertThat(index.underlyingOf(7)).isEqualTo("AAPL");
+        assertThat(index.underlyingOf(8)).isEqualTo("MSFT");
+    }
+
+    @Test
+    void duplicateListingsCollapseToOneContract() {
+        OptionChainIndex.Builder builder = new OptionChainIndex.Builder()
+                .add("AAPL", JAN, 100, true)
+                .add("AAPL", JAN, 100, true)
+                .add("AAPL", JAN, 100, false)
+                .add("AAPL", JAN, 100, true)
+                .add("AAPL", JAN, 100, false)
+                // dropped at add: no underlying or no strike
+                .add(null, JAN, 100, true)
+                .add("AAPL", JAN, 0, true);
+        assertThat(builder.size()).isEqualTo(5);
+
+        OptionChainIndex collapsed = builder.build(0);
+
+        assertThat(collapsed.size()).isEqualTo(2);
+        assertThat(collapsed.range("AAPL", 0, 1000, JAN, 5)).containsExactly(0, 1);
+        assertThat(collapsed.find("AAPL", JAN, 100, false)).isEqualTo(1);
+    }
+
+    @Test
+    void chainCoversTheUnderlyingsContractRangeInIdOrder() {
+        OptionChain chain = index.chain("AAPL", 0.01);
+
+        assertThat(chain.size()).isEqualTo(8);
+        assertThat(chain.getStrikes()).containsExactly(90, 90, 100, 100, 110, 100, 100, 100);
+        assertThat(chain.getCalls()).containsExactly(true, false, true, false, true, true, false, false);
+        assertThat(chain.getExpiryEpochDays()).containsExactly(JAN, JAN, JAN, JAN, JAN, FEB, FEB, MAR);
+        assertThat(index.chain("TSLA", 0)).isNull();
+        assertThat(OptionChainIndex.empty().size()).isZero();
+    }
+}
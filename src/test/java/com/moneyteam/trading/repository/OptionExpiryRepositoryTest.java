@@ -0,0 +1,61 @@
+package com.moneyteam.trading.repository;
+
+import com.moneyteam.trading.model.OptionSettlement;
+import com.moneyteam.trading.model.enums.OptionStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OptionExpiryRepositoryTest {
+
+    @Test
+    void deliveriesAreNettedOverLockedRowsOnly() {
+        // Two long calls on AAPL; contract 11 was settled by someone else before the lock
+        OptionSettlement settlement = new OptionSettlement(7, new long[]{10, 11, 12},
+                new OptionStatus[]{OptionStatus.EXERCISED, OptionStatus.EXERCISED, OptionStatus.EXPIRED},
+                new double[]{150, 150, 150}, new String[]{"AAPL", "AAPL", "MSFT"},
+                new double[]{100, 200, 0}, new double[]{14_000, 28_000, 0});
+        List<Object[]> outcomes = new ArrayList<>();
+        List<Object[]> deliveries = new ArrayList<>();
+        OptionExpiryRepository.Applied applied = new OptionExpiryRepository.Applied();
+
+        OptionExpiryRepository.collect(List.of(settlement), Set.of(10L, 12L), outcomes, deliveries, applied);
+
+        assertThat(outcomes).extracting(row -> row[0]).containsExactly(10L, 12L);
+        assertThat(deliveries).hasSize(1);
+        assertThat(deliveries.get(0)).containsExactly(7L, "AAPL", 100.0, 14_000.0);
+        assertThat(applied.getExercised()).isEqualTo(1);
+        assertThat(applied.getExpired()).isEqualTo(1);
+        assertThat(applied.getDeliveries()).isEqualTo(1);
+        assertThat(applied.getSkipped()).isEqualTo(1);
+    }
+
+    @Test
+    void deliveryNettingToZeroIsDropped() {
+        OptionSettlement settlement = new OptionSettlement(7, new long[]{10, 11},
+                new OptionStatus[]{OptionStatus.EXERCISED, OptionStatus.ASSIGNED},
+                new double[]{150, 150}, new String[]{"AAPL", "AAPL"},
+                new double[]{100, -100}, new double[]{14_000, -14_500});
+        List<Object[]> deliveries = new ArrayList<>();
+        OptionExpiryRepository.Applied applied = new OptionExpiryRepository.Applied();
+
+        OptionExpiryRepository.collect(List.of(settlement), Set.of(10L, 11L), new ArrayList<>(), deliveries, applied);
+
+        assertThat(deliveries).isEmpty();
+        assertThat(applied.getAssigned()).isEqualTo(1);
+    }
+
+    @Test
+    void expirationTextIsReadByItsDatePart() {
+        assertThat(OptionExpiryRepository.parseExpiration("2024-06-21")).isEqualTo(LocalDate.of(2024, 6, 21));
+        assertThat(OptionExpiryRepository.parseExpiration("2024-06-21T16:00:00")).isEqualTo(LocalDate.of(2024, 6, 21));
+        assertThat(OptionExpiryRepository.parseExpiration("06/21/2024")).isNull();
+        assertThat(OptionExpiryRepository.parseExpiration("")).isNull();
+        assertThat(OptionExpiryRepository.parseExpiration(null)).isNull();
+    }
+}
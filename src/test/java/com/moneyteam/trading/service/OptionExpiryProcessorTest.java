@@ -0,0 +1,169 @@
+package com.moneyteam.trading.service;
+
+import com.moneyteam.analysis.service.AnalysisSnapshotRegistry;
+import com.moneyteam.common.exception.OperationInProgressException;
+import com.moneyteam.trading.model.ExpiringOption;
+import com.moneyteam.trading.model.OptionExpiryReport;
+import com.moneyteam.trading.model.OptionSettlement;
+import com.moneyteam.trading.model.enums.OptionStatus;
+import com.moneyteam.trading.repository.OptionExpiryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OptionExpiryProcessorTest {
+
+    private static final LocalDate EXPIRATION = LocalDate.of(2024, 6, 21);
+
+    private final OptionExpiryRepository repository = mock(OptionExpiryRepository.class);
+    private final OptionExpiryProcessor processor =
+            new OptionExpiryProcessor(repository, mock(AnalysisSnapshotRegistry.class));
+
+    @AfterEach
+    void tearDown() {
+        processor.destroy();
+    }
+
+    @Test
+    void failingUserIsIsolatedAndTheRestSettle() {
+        when(repository.findOpenThrough(EXPIRATION)).thenReturn(List.of(
+                option(1, 1, "AAPL", true, 140, 1),
+                option(2, 2, "AAPL", true, 140, 1),
+                option(3, 3, "AAPL", false, 140, 1)));
+        when(repository.findDailyCloses(EXPIRATION)).thenReturn(new HashMap<>(Map.of("AAPL", 150.0)));
+        when(repository.settle(anyList(), any(), anyInt())).thenAnswer(invocation -> {
+            List<OptionSettlement> batch = invocation.getArgument(0);
+            if (batch.stream().anyMatch(s -> s.getUserId() == 2)) {
+                throw new IllegalStateException("Lock wait timeout exceeded");
+            }
+            return new OptionExpiryRepository.Applied();
+        });
+
+        OptionExpiryReport report = processor.process(EXPIRATION);
+
+        assertThat(report.getUsers()).isEqualTo(3);
+        assertThat(report.getUsersSettled()).isEqualTo(2);
+        assertThat(report.getFailedUsers()).containsExactly(2L);
+        assertThat(report.isComplete()).isFalse();
+    }
+
+    @Test
+    void concurrentRunIsRejectedAsInProgress() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.findOpenThrough(EXPIRATION)).thenAnswer(invocation -> {
+            entered.countDown();
+            release.await(2, TimeUnit.SECONDS);
+            return List.of();
+        });
+        when(repository.findDailyCloses(EXPIRATION)).thenReturn(new HashMap<>());
+        Thread first = new Thread(() -> processor.process(EXPIRATION));
+        first.start();
+        try {
+            assertThat(entered.await(2, TimeUnit.SECONDS)).isTrue();
+            assertThatThrownBy(() -> processor.process(EXPIRATION)).isInstanceOf(OperationInProgressException.class);
+        } finally {
+            release.countDown();
+            first.join(2000);
+        }
+    }
+
+    @Test
+    void submitRunsOnTheJobThreadAndPublishesTheReport() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.findOpenThrough(EXPIRATION)).thenAnswer(invocation -> {
+            release.await(2, TimeUnit.SECONDS);
+            return List.of();
+        });
+
+        processor.submit(EXPIRATION);
+
+        // Returned before the run finished, and a second request is refused while it goes
+        assertThat(processor.isRunning()).isTrue();
+        assertThat(processor.lastReport()).isNull();
+        assertThatThrownBy(() -> processor.submit(EXPIRATION)).isInstanceOf(OperationInProgressException.class);
+
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (processor.isRunning() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(processor.lastReport()).isNotNull();
+        assertThat(processor.lastReport().getExpirationDate()).isEqualTo(EXPIRATION);
+    }
+
+    @Test
+    void missedDaysAreSettledAgainstTheirOwnCloses() {
+        LocalDate earlier = EXPIRATION.minusDays(7);
+        when(repository.findOpenThrough(EXPIRATION)).thenReturn(List.of(
+                new ExpiringOption(1, 1, "AAPL", true, 140, 1, earlier),
+                new ExpiringOption(2, 1, "AAPL", true, 140, 1, EXPIRATION),
+                new ExpiringOption(3, 2, "MSFT", true, 300, 1, earlier)));
+        when(repository.findDailyCloses(earlier)).thenReturn(new HashMap<>(Map.of("AAPL", 130.0)));
+        when(repository.findDailyCloses(EXPIRATION)).thenReturn(new HashMap<>(Map.of("AAPL", 150.0)));
+        List<OptionSettlement> written = new ArrayList<>();
+        when(repository.settle(anyList(), any(), anyInt())).thenAnswer(invocation -> {
+            written.addAll(invocation.getArgument(0));
+            return new OptionExpiryRepository.Applied();
+        });
+
+        OptionExpiryReport report = processor.process(EXPIRATION);
+
+        assertThat(written).hasSize(1);
+        OptionSettlement user = written.get(0);
+        assertThat(user.getOptionIds()).containsExactly(1, 2);
+        // Out of the money a week ago, in the money today
+        assertThat(user.getStatuses()).containsExactly(OptionStatus.EXPIRED, OptionStatus.EXERCISED);
+        assertThat(user.getSettlementPrices()).containsExactly(130.0, 150.0);
+        assertThat(report.getMissingCloses()).containsExactly("MSFT " + earlier);
+    }
+
+    @Test
+    void sharesAreSignedByDirectionAndType() {
+        Map<LocalDate, Map<String, Double>> closes = Map.of(EXPIRATION, Map.of("AAPL", 150.0, "MSFT", 250.0));
+        OptionSettlement settlement = OptionExpiryProcessor.settle(7, List.of(
+                option(1, 7, "AAPL", true, 140, 2),     // long call ITM: receives
+                option(2, 7, "AAPL", true, 140, -1),    // short call ITM: delivers
+                option(3, 7, "MSFT", false, 300, 3),    // long put ITM: delivers
+                option(4, 7, "MSFT", false, 300, -2),   // short put ITM: receives
+                option(5, 7, "AAPL", true, 160, 1),     // long call OTM: expires
+                option(6, 7, "MSFT", false, 200, -1)),  // short put OTM: expires
+                closes);
+
+        assertThat(settlement.getStatuses()).containsExactly(OptionStatus.EXERCISED, OptionStatus.ASSIGNED,
+                OptionStatus.EXERCISED, OptionStatus.ASSIGNED, OptionStatus.EXPIRED, OptionStatus.EXPIRED);
+        assertThat(settlement.getShares()).containsExactly(200, -100, -300, 200, 0, 0);
+        assertThat(settlement.getNotionals()).containsExactly(28_000, -14_000, -90_000, 60_000, 0, 0);
+        assertThat(settlement.getTickers()).containsExactly("AAPL", "AAPL", "MSFT", "MSFT", "AAPL", "MSFT");
+    }
+
+    @Test
+    void lessThanACentInTheMoneyExpires() {
+        Map<LocalDate, Map<String, Double>> closes = Map.of(EXPIRATION, Map.of("AAPL", 140.005));
+        OptionSettlement settlement = OptionExpiryProcessor.settle(1,
+                List.of(option(1, 1, "AAPL", true, 140, 1)), closes);
+
+        assertThat(settlement.getStatuses()).containsExactly(OptionStatus.EXPIRED);
+        assertThat(settlement.getShares()).containsExactly(0);
+    }
+
+    private static ExpiringOption option(long id, long userId, String ticker, boolean call, double strike,
+                                         double quantity) {
+        return new ExpiringOption(id, userId, ticker, call, strike, quantity, EXPIRATION);
+    }
+}
@@ -0,0 +1,69 @@
+package com.moneyteam.trading.service;
+
+import com.moneyteam.analysis.model.RiskManagement;
+import com.moneyteam.analysis.service.AnalysisSnapshotRegistry;
+import com.moneyteam.analysis.service.CorrelationService;
+import com.moneyteam.analysis.service.VolatilitySurfaceService;
+import com.moneyteam.marketdata.service.QuoteBus;
+import com.moneyteam.trading.model.OptionHolding;
+import com.moneyteam.trading.model.PortfolioGreeks;
+import com.moneyteam.trading.repository.OptionContractRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PortfolioGreeksServiceTest {
+
+    private final QuoteBus quoteBus = new QuoteBus();
+    private final CorrelationService correlationService = new CorrelationService(quoteBus);
+    private final OptionContractRepository repository = mock(OptionContractRepository.class);
+    private final VolatilitySurfaceService surfaces = mock(VolatilitySurfaceService.class);
+    private final AnalysisSnapshotRegistry snapshots = mock(AnalysisSnapshotRegistry.class);
+    private PortfolioGreeksService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.destroy();
+        }
+        correlationService.destroy();
+        quoteBus.destroy();
+    }
+
+    @Test
+    void bookWithoutSurfaceIsPricedAtTheDefaultVolAndReported() {
+        int expiry = (int) LocalDate.now().plusDays(30).toEpochDay();
+        when(repository.loadOpenHoldings()).thenReturn(List.of(
+                new OptionHolding(1, "AAPL", expiry, 150, true, 1),
+                new OptionHolding(1, "MSFT", expiry, 400, true, 1),
+                new OptionHolding(2, "AAPL", expiry, 150, true, 2)));
+        when(snapshots.risk("AAPL")).thenReturn(new RiskManagement("AAPL", 150, null, null, 0, 0, 0, 0, 150, 150));
+        service = new PortfolioGreeksService(repository, surfaces, snapshots, correlationService, quoteBus, 0.30);
+
+        service.reload();
+
+        // At the money, 30 days, 30% vol: call delta a little over one half
+        PortfolioGreeks firm = service.firm();
+        assertThat(firm.getDelta()).isBetween(150.0, 170.0);
+        assertThat(firm.getVega()).isPositive();
+        assertThat(firm.getEstimatedUnderlyings()).containsExactly("AAPL");
+        assertThat(firm.getUnpricedUnderlyings()).containsExactly("MSFT");
+
+        PortfolioGreeks second = service.user(2);
+        assertThat(second.getDelta()).isBetween(100.0, 115.0);
+        assertThat(second.getUnpricedUnderlyings()).isEmpty();
+        assertThat(second.getEstimatedUnderlyings()).containsExactly("AAPL");
+    }
+
+    @Test
+    void fallbackIsTheDefaultUntilRealizedVolIsAvailable() {
+        service = new PortfolioGreeksService(repository, surfaces, snapshots, correlationService, quoteBus, 0.25);
+        assertThat(service.fallbackVol("AAPL")).isEqualTo(0.25);
+    }
+}
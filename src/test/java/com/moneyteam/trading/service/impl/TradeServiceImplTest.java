@@ -0,0 +1,96 @@
+package com.moneyteam.trading.service.impl;
+
+import com.moneyteam.marketdata.model.Stock;
+import com.moneyteam.marketdata.model.enums.RequestPriority;
+import com.moneyteam.marketdata.repository.StockTradeRepository;
+import com.moneyteam.marketdata.service.StockApiService;
+import com.moneyteam.marketdata.service.SymbolMaster;
+import com.moneyteam.trading.dto.TradeRequestDto;
+import com.moneyteam.trading.dto.TradeResponseDto;
+import com.moneyteam.trading.model.Position;
+import com.moneyteam.trading.model.enums.OrderSide;
+import com.moneyteam.trading.repository.OptionsTradeRepository;
+import com.moneyteam.trading.repository.PositionRepository;
+import com.moneyteam.trading.repository.TradeRepository;
+import com.moneyteam.user.model.User;
+import com.moneyteam.user.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TradeServiceImplTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final PositionRepository positionRepository = mock(PositionRepository.class);
+    private final SymbolMaster symbolMaster = mock(SymbolMaster.class);
+    private final StockApiService stockApiService = mock(StockApiService.class);
+    private final TradeServiceImpl service = new TradeServiceImpl(userRepository, positionRepository,
+            mock(TradeRepository.class), mock(StockTradeRepository.class), mock(OptionsTradeRepository.class),
+            symbolMaster, stockApiService);
+
+    TradeServiceImplTest() {
+        when(symbolMaster.isListed("AAPL")).thenReturn(true);
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(new User()));
+        when(positionRepository.findByUsersIdAndStockTicker(anyLong(), anyString())).thenReturn(Optional.empty());
+        when(positionRepository.save(any(Position.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void buyIsPricedAtTheAskFromAnOrderPricingQuote() {
+        when(stockApiService.fetchStockDetails("AAPL", RequestPriority.ORDER_PRICING))
+                .thenReturn(Optional.of(quote(189.95, 190.05, 190.00)));
+
+        TradeResponseDto trade = service.placeTrade(request(OrderSide.BUY, "185.00"));
+
+        assertThat(trade.getPrice()).isEqualByComparingTo("190.05");
+        verify(stockApiService).fetchStockDetails("AAPL", RequestPriority.ORDER_PRICING);
+    }
+
+    @Test
+    void sellIsPricedAtTheBidAndFallsBackToLast() {
+        when(stockApiService.fetchStockDetails("AAPL", RequestPriority.ORDER_PRICING))
+                .thenReturn(Optional.of(quote(189.95, 190.05, 190.00)), Optional.of(quote(null, null, 190.00)));
+
+        assertThat(service.placeTrade(request(OrderSide.SELL, "185.00")).getPrice()).isEqualByComparingTo("189.95");
+        assertThat(service.placeTrade(request(OrderSide.SELL, "185.00")).getPrice()).isEqualByComparingTo("190.00");
+    }
+
+    @Test
+    void requestedPriceIsKeptWhenNoQuoteComesBack() {
+        when(stockApiService.fetchStockDetails("AAPL", RequestPriority.ORDER_PRICING))
+                .thenReturn(Optional.empty())
+                .thenThrow(new IllegalStateException("all providers down"));
+
+        assertThat(service.placeTrade(request(OrderSide.BUY, "185.00")).getPrice()).isEqualByComparingTo("185.00");
+        assertThat(service.placeTrade(request(OrderSide.BUY, "185.00")).getPrice()).isEqualByComparingTo("185.00");
+    }
+
+    private static Stock quote(Double bid, Double ask, Double last) {
+        Stock stock = new Stock();
+        stock.setBid(bid);
+        stock.setAsk(ask);
+        stock.setLast(last);
+        return stock;
+    }
+
+    private static TradeRequestDto request(OrderSide side, String price) {
+        TradeRequestDto dto = new TradeRequestDto();
+        dto.setSide(side);
+        dto.setStockTicker("AAPL");
+        dto.setQuantity(10.0);
+        dto.setPrice(new BigDecimal(price));
+        dto.setExecutionDate(LocalDateTime.now());
+        dto.setUserId(1L);
+        return dto;
+    }
+}